@@ -0,0 +1,70 @@
+package bank.benchmarks;
+
+import bank.Bank;
+import bank.Transaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lesende Abfragen auf einem Konto mit {@code size} gemischten Transaktionen
+ * für die Varianten {@code PrivateBank}, {@code PrivateBankAlt} und {@code ColumnarPrivateBank}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountQueryBenchmark {
+
+    private static final String ACCOUNT = "Konto";
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"PrivateBank", "PrivateBankAlt", "ColumnarPrivateBank"})
+    public String strategy;
+
+    private Path directory;
+    private Bank bank;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = BankFixtures.createTempDirectory();
+        bank = BankFixtures.newBank(strategy, directory, BankFixtures.options());
+        bank.createAccount(ACCOUNT, BankFixtures.mixedTransactions(ACCOUNT, size, 42));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BankFixtures.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public double getAccountBalance() {
+        return bank.getAccountBalance(ACCOUNT);
+    }
+
+    @Benchmark
+    public List<Transaction> getTransactionsSortedAscending() {
+        return bank.getTransactionsSorted(ACCOUNT, true);
+    }
+
+    @Benchmark
+    public List<Transaction> getTransactionsSortedDescending() {
+        return bank.getTransactionsSorted(ACCOUNT, false);
+    }
+
+    @Benchmark
+    public List<Transaction> getPositiveTransactions() {
+        return bank.getTransactionsByType(ACCOUNT, true);
+    }
+
+    @Benchmark
+    public List<Transaction> getNegativeTransactions() {
+        return bank.getTransactionsByType(ACCOUNT, false);
+    }
+}
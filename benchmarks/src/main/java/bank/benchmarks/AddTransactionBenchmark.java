@@ -0,0 +1,59 @@
+package bank.benchmarks;
+
+import bank.Bank;
+import bank.Transaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kosten von {@code addTransaction} auf einem Konto, das bereits {@code size} Transaktionen enthält.
+ * <p>
+ * Jede Iteration beginnt mit einem frisch angelegten Konto. Gemessen wird inklusive Journal und
+ * gelegentlicher Kompaktierung, also die amortisierten Kosten einer Änderung.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AddTransactionBenchmark {
+
+    private static final String ACCOUNT = "Konto";
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"PrivateBank", "PrivateBankAlt", "ColumnarPrivateBank"})
+    public String strategy;
+
+    private Path directory;
+    private Bank bank;
+    private Random random;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws Exception {
+        directory = BankFixtures.createTempDirectory();
+        bank = BankFixtures.newBank(strategy, directory, BankFixtures.options());
+        bank.createAccount(ACCOUNT, BankFixtures.mixedTransactions(ACCOUNT, size, 42));
+        random = new Random(7);
+        next = size;
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws Exception {
+        BankFixtures.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public Transaction addTransaction() throws Exception {
+        Transaction transaction = BankFixtures.transaction(ACCOUNT, next++, random);
+        bank.addTransaction(ACCOUNT, transaction);
+        return transaction;
+    }
+}
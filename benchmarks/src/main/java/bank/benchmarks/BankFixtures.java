@@ -0,0 +1,128 @@
+package bank.benchmarks;
+
+import bank.Bank;
+import bank.BankOptions;
+import bank.ColumnarPrivateBank;
+import bank.IncomingTransfer;
+import bank.OutgoingTransfer;
+import bank.Payment;
+import bank.PrivateBank;
+import bank.PrivateBankAlt;
+import bank.Transaction;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Gemeinsame Testdaten und Hilfsmethoden für die Benchmarks.
+ * <p>
+ * Alle Daten werden deterministisch (fester Seed) erzeugt und nur in temporäre Verzeichnisse
+ * geschrieben; die Benchmarks laufen daher ohne Netzwerk und ohne {@code bank-data/}.
+ * </p>
+ */
+final class BankFixtures {
+
+    /** Name des Gegenkontos für Überweisungen. */
+    static final String OTHER_ACCOUNT = "Gegenkonto";
+
+    private BankFixtures() {
+    }
+
+    /**
+     * Erzeugt eine gemischte Liste aus Ein-/Auszahlungen und ein-/ausgehenden Überweisungen.
+     *
+     * @param account Konto, zu dem die Transaktionen gehören
+     * @param count   Anzahl der Transaktionen
+     * @param seed    Startwert des Zufallsgenerators
+     * @return Liste mit {@code count} paarweise verschiedenen Transaktionen
+     */
+    static List<Transaction> mixedTransactions(String account, int count, long seed) {
+        Random random = new Random(seed);
+        List<Transaction> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            transactions.add(transaction(account, i, random));
+        }
+        return transactions;
+    }
+
+    /**
+     * Erzeugt die {@code i}-te Transaktion der gemischten Folge (Beschreibung ist eindeutig).
+     *
+     * @param account Konto, zu dem die Transaktion gehört
+     * @param i       laufende Nummer
+     * @param random  Zufallsgenerator für Betrag und Typ
+     * @return neue Transaktion
+     */
+    static Transaction transaction(String account, int i, Random random) {
+        String date = String.format("%02d.%02d.%04d", 1 + i % 28, 1 + (i / 28) % 12, 2000 + (i / 336) % 25);
+        String description = "tx-" + i;
+        double amount = 1 + random.nextInt(100_000) / 100.0;
+
+        return switch (random.nextInt(4)) {
+            case 0 -> new Payment(date, amount, description, 0.05, 0.1);
+            case 1 -> new Payment(date, -amount, description, 0.05, 0.1);
+            case 2 -> new IncomingTransfer(date, amount, description, OTHER_ACCOUNT, account);
+            default -> new OutgoingTransfer(date, amount, description, account, OTHER_ACCOUNT);
+        };
+    }
+
+    /**
+     * Legt eine Bank der gewünschten Variante an.
+     *
+     * @param strategy  {@code "PrivateBank"}, {@code "PrivateBankAlt"} oder {@code "ColumnarPrivateBank"}
+     * @param directory Verzeichnis der Bank
+     * @param options   Einstellungen
+     * @return neue Bank
+     * @throws IOException wenn das Verzeichnis nicht gelesen werden kann
+     */
+    static Bank newBank(String strategy, Path directory, BankOptions options) throws IOException {
+        return switch (strategy) {
+            case "PrivateBank" -> new PrivateBank("Benchmark", 0.05, 0.1, directory.toString(), options);
+            case "PrivateBankAlt" -> new PrivateBankAlt("Benchmark", 0.05, 0.1, directory.toString(), options);
+            case "ColumnarPrivateBank" -> new ColumnarPrivateBank("Benchmark", 0.05, 0.1, directory.toString(), options);
+            default -> throw new IllegalArgumentException("Unbekannte Variante: " + strategy);
+        };
+    }
+
+    /**
+     * Einstellungen für die Benchmarks: kompaktes JSON, damit das Anlegen großer Konten schnell geht.
+     *
+     * @return neue Einstellungen
+     */
+    static BankOptions options() {
+        BankOptions options = new BankOptions();
+        options.setCompactJson(true);
+        return options;
+    }
+
+    /**
+     * @return neues, leeres temporäres Verzeichnis
+     * @throws IOException wenn das Verzeichnis nicht angelegt werden kann
+     */
+    static Path createTempDirectory() throws IOException {
+        return Files.createTempDirectory("bank-benchmark");
+    }
+
+    /**
+     * Löscht ein Verzeichnis samt Inhalt.
+     *
+     * @param directory zu löschendes Verzeichnis ({@code null} wird ignoriert)
+     * @throws IOException wenn eine Datei nicht gelöscht werden kann
+     */
+    static void deleteRecursively(Path directory) throws IOException {
+        if (directory == null || !Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
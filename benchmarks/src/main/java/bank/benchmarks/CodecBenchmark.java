@@ -0,0 +1,58 @@
+package bank.benchmarks;
+
+import bank.De_Serialisieren;
+import bank.Transaction;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialisieren und Deserialisieren einer Transaktionsliste mit {@link De_Serialisieren}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+    private static final Type LIST_TYPE = new TypeToken<List<Transaction>>() {
+    }.getType();
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"true", "false"})
+    public boolean prettyPrinting;
+
+    private Gson gson;
+    private List<Transaction> transactions;
+    private String json;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        gson = De_Serialisieren.getGson(prettyPrinting);
+        transactions = BankFixtures.mixedTransactions("Konto", size, 42);
+        json = gson.toJson(transactions, LIST_TYPE);
+    }
+
+    @Benchmark
+    public String serialize() {
+        return gson.toJson(transactions, LIST_TYPE);
+    }
+
+    @Benchmark
+    public List<Transaction> deserialize() {
+        return gson.fromJson(json, LIST_TYPE);
+    }
+
+    @Benchmark
+    public List<Transaction> roundTrip() {
+        return gson.fromJson(gson.toJson(transactions, LIST_TYPE), LIST_TYPE);
+    }
+}
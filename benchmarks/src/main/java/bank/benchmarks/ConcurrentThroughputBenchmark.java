@@ -0,0 +1,88 @@
+package bank.benchmarks;
+
+import bank.ConcurrentPrivateBank;
+import bank.Transaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Durchsatz von {@link ConcurrentPrivateBank} bei mehreren Threads.
+ * <p>
+ * Bei {@code DISJOINT} arbeitet jeder Thread auf einem eigenen Konto, bei {@code CONTENDED}
+ * alle Threads auf demselben. Die Anzahl der Threads wird beim Start mit {@code -t} gewählt,
+ * z.B. {@code -t 1}, {@code -t 4}, {@code -t max}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ConcurrentThroughputBenchmark {
+
+    /** Anzahl der Konten (mindestens so viele wie Threads). */
+    private static final int ACCOUNTS = 64;
+
+    @Param({"DISJOINT", "CONTENDED"})
+    public String access;
+
+    @Param({"1000"})
+    public int size;
+
+    private Path directory;
+    private ConcurrentPrivateBank bank;
+    private final AtomicInteger threadIds = new AtomicInteger();
+
+    @Setup(Level.Iteration)
+    public void setUp() throws Exception {
+        directory = BankFixtures.createTempDirectory();
+        bank = new ConcurrentPrivateBank("Benchmark", 0.05, 0.1, directory.toString(), BankFixtures.options());
+        for (int i = 0; i < ACCOUNTS; i++) {
+            String account = "Konto" + i;
+            bank.createAccount(account, BankFixtures.mixedTransactions(account, size, i));
+        }
+        threadIds.set(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws Exception {
+        BankFixtures.deleteRecursively(directory);
+    }
+
+    /**
+     * Zustand je Thread: gewähltes Konto und eigener Nummernkreis für eindeutige Transaktionen.
+     */
+    @State(Scope.Thread)
+    public static class Worker {
+        String account;
+        Random random;
+        int next;
+
+        @Setup(Level.Iteration)
+        public void setUp(ConcurrentThroughputBenchmark benchmark) {
+            int id = benchmark.threadIds.getAndIncrement();
+            account = "CONTENDED".equals(benchmark.access) ? "Konto0" : "Konto" + (id % ACCOUNTS);
+            random = new Random(id);
+            // eigener Bereich je Thread, damit sich Beschreibungen auf demselben Konto nicht überschneiden
+            next = benchmark.size + id * 10_000_000;
+        }
+    }
+
+    @Benchmark
+    public Transaction addTransaction(Worker worker) throws Exception {
+        Transaction transaction = BankFixtures.transaction(worker.account, worker.next++, worker.random);
+        bank.addTransaction(worker.account, transaction);
+        return transaction;
+    }
+
+    @Benchmark
+    public double getAccountBalance(Worker worker) {
+        return bank.getAccountBalance(worker.account);
+    }
+}
@@ -0,0 +1,66 @@
+package bank.benchmarks;
+
+import bank.BankOptions;
+import bank.PrivateBank;
+import bank.StorageFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Laden eines Bankverzeichnisses beim Anlegen einer Bank ({@code readAccounts}).
+ * <p>
+ * Die Transaktionen werden gleichmäßig auf {@code accounts} Konten verteilt und einmal je
+ * Speicherformat geschrieben; gemessen wird nur das Laden.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ReadAccountsBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"10"})
+    public int accounts;
+
+    @Param({"JSON", "BINARY"})
+    public StorageFormat format;
+
+    @Param({"1", "4"})
+    public int loaderThreads;
+
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = BankFixtures.createTempDirectory();
+        PrivateBank bank = new PrivateBank("Benchmark", 0.05, 0.1, directory.toString(), options());
+        for (int i = 0; i < accounts; i++) {
+            String account = "Konto" + i;
+            bank.createAccount(account, BankFixtures.mixedTransactions(account, size / accounts, i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BankFixtures.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public PrivateBank readAccounts() throws Exception {
+        return new PrivateBank("Benchmark", 0.05, 0.1, directory.toString(), options());
+    }
+
+    private BankOptions options() {
+        BankOptions options = BankFixtures.options();
+        options.setStorageFormat(format);
+        options.setLoaderThreads(loaderThreads);
+        return options;
+    }
+}
@@ -0,0 +1,82 @@
+package bank.benchmarks;
+
+import bank.BankReport;
+import bank.Payment;
+import bank.PrivateBank;
+import bank.Transaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bankweiter Bericht ({@code PrivateBank#createReport}, parallel ohne Kopien) im Vergleich zur
+ * Schleife über {@code getAllAccounts()} mit einer Kopie jeder Transaktionsliste.
+ * Die Verteilung auf die Kerne lässt sich über {@code -Djava.util.concurrent.ForkJoinPool.common.parallelism} steuern.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReportBenchmark {
+
+    @Param({"10", "100"})
+    public int accounts;
+
+    @Param({"100000", "1000000"})
+    public int totalTransactions;
+
+    private Path directory;
+    private PrivateBank bank;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = BankFixtures.createTempDirectory();
+        bank = (PrivateBank) BankFixtures.newBank("PrivateBank", directory, BankFixtures.options());
+        for (int i = 0; i < accounts; i++) {
+            String account = "Konto" + i;
+            bank.createAccount(account, BankFixtures.mixedTransactions(account, totalTransactions / accounts, i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BankFixtures.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public BankReport parallel() {
+        return bank.createReport();
+    }
+
+    @Benchmark
+    public long[] copyEachAccount() {
+        long[] totals = new long[4];
+        Map<LocalDate, long[]> days = new TreeMap<>();
+        for (String account : bank.getAllAccounts()) {
+            List<Transaction> transactions = bank.getTransactions(account); // liefert eine Kopie
+            for (Transaction transaction : transactions) {
+                long value = transaction.calculateCents();
+                long[] day = days.computeIfAbsent(transaction.getLocalDate(), date -> new long[3]);
+                day[0]++;
+                if (value >= 0) {
+                    totals[0] += value;
+                    day[1] += value;
+                } else {
+                    totals[1] += value;
+                    day[2] += value;
+                }
+                if (transaction instanceof Payment payment) {
+                    totals[payment.getAmountCents() >= 0 ? 2 : 3] += payment.getAmountCents() - value;
+                }
+            }
+        }
+        return totals;
+    }
+}
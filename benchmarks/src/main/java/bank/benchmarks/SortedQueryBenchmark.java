@@ -0,0 +1,60 @@
+package bank.benchmarks;
+
+import bank.Bank;
+import bank.Transaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sortierte Abfrage über den gepflegten Wert-Index ({@code getTransactionsSorted}) im Vergleich
+ * zum früheren Vorgehen: Liste zweimal kopieren und bei jedem Aufruf vollständig sortieren.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortedQueryBenchmark {
+
+    private static final String ACCOUNT = "Konto";
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"true", "false"})
+    public boolean asc;
+
+    private Path directory;
+    private Bank bank;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = BankFixtures.createTempDirectory();
+        bank = BankFixtures.newBank("PrivateBank", directory, BankFixtures.options());
+        bank.createAccount(ACCOUNT, BankFixtures.mixedTransactions(ACCOUNT, size, 42));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BankFixtures.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public List<Transaction> indexed() {
+        return bank.getTransactionsSorted(ACCOUNT, asc);
+    }
+
+    @Benchmark
+    public List<Transaction> copyAndSort() {
+        List<Transaction> sorted = new ArrayList<>(bank.getTransactions(ACCOUNT));
+        Comparator<Transaction> byValue = Comparator.comparingLong(Transaction::calculateCents);
+        sorted.sort(asc ? byValue : byValue.reversed());
+        return sorted;
+    }
+}
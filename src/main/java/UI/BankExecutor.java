@@ -0,0 +1,132 @@
+package UI;
+
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.BooleanBinding;
+import javafx.beans.binding.StringBinding;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import javafx.concurrent.Task;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Führt alle Zugriffe der Oberfläche auf die Bank im Hintergrund aus.
+ * <p>
+ * Jeder Aufruf wird als {@link Task} auf einem einzigen Worker-Thread ausgeführt. Dadurch blockiert
+ * der JavaFX-Thread nicht mehr beim Lesen oder Schreiben von Konten, und Vorgänge laufen strikt in der
+ * Reihenfolge ihrer Auslösung ab: ein Löschen kann z.B. nicht mit dem Neuladen der Liste überlappen.
+ * {@code PrivateBank} muss deshalb nicht threadsicher sein.
+ * </p>
+ * <p>
+ * Ergebnisse und Fehler werden auf dem JavaFX-Thread zurückgeliefert. {@link #busyProperty()} und
+ * {@link #statusProperty()} lassen sich direkt an Fortschrittsanzeige und Statuszeile binden.
+ * Alle Methoden einschließlich {@link #shutdown()} dürfen nur auf dem JavaFX-Thread aufgerufen werden.
+ * </p>
+ */
+public final class BankExecutor {
+
+    /** Höchstens so lange wartet {@link #shutdown()} auf eingereihte Vorgänge. */
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "bank-worker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Anzahl eingereihter oder laufender Vorgänge. */
+    private final IntegerProperty pending = new SimpleIntegerProperty(0);
+
+    /** Beschreibung des gerade laufenden Vorgangs. */
+    private final StringProperty message = new SimpleStringProperty("");
+
+    private final BooleanBinding busy = pending.greaterThan(0);
+
+    private final StringBinding status = Bindings.createStringBinding(() -> {
+        int count = pending.get();
+        if (count == 0) {
+            return "";
+        }
+        return count == 1 ? message.get() : message.get() + " (" + (count - 1) + " weitere ausstehend)";
+    }, pending, message);
+
+    /**
+     * Reiht einen Bank-Zugriff ein.
+     *
+     * @param description Text für die Statuszeile, solange der Vorgang läuft
+     * @param work        Zugriff auf die Bank (läuft auf dem Worker-Thread)
+     * @param onSuccess   verarbeitet das Ergebnis auf dem JavaFX-Thread
+     * @param onFailure   verarbeitet einen Fehler auf dem JavaFX-Thread
+     * @param <T>         Ergebnistyp
+     * @return der eingereihte Task
+     */
+    public <T> Task<T> submit(String description, Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return work.call();
+            }
+        };
+        task.setOnRunning(e -> message.set(description));
+        task.setOnSucceeded(e -> {
+            finished();
+            onSuccess.accept(task.getValue());
+        });
+        task.setOnFailed(e -> {
+            finished();
+            onFailure.accept(task.getException());
+        });
+
+        // Vor dem Start zählen, damit die Anzeige sofort reagiert
+        if (pending.get() == 0) {
+            message.set(description);
+        }
+        pending.set(pending.get() + 1);
+        worker.execute(task);
+        return task;
+    }
+
+    private void finished() {
+        pending.set(pending.get() - 1);
+    }
+
+    /**
+     * @return {@code true}, solange mindestens ein Vorgang eingereiht ist oder läuft
+     */
+    public BooleanBinding busyProperty() {
+        return busy;
+    }
+
+    /**
+     * @return Statuszeile: laufender Vorgang und Anzahl der wartenden Vorgänge, leer wenn nichts läuft
+     */
+    public StringBinding statusProperty() {
+        return status;
+    }
+
+    /**
+     * Nimmt keine neuen Vorgänge mehr an und wartet höchstens {@value #SHUTDOWN_TIMEOUT_SECONDS} s, bis die
+     * eingereihten abgearbeitet sind. Danach kann die Bank gefahrlos geschlossen werden.
+     * <p>
+     * Laufen danach noch Vorgänge oder wird das Warten unterbrochen, meldet das die Statuszeile
+     * ({@link #statusProperty()}); eine Unterbrechung bleibt für den Aufrufer am Thread vermerkt.
+     * </p>
+     */
+    public void shutdown() {
+        worker.shutdown();
+        try {
+            if (!worker.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                message.set("Bank-Vorgänge nach " + SHUTDOWN_TIMEOUT_SECONDS + " s noch nicht abgeschlossen");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            message.set("Warten auf Bank-Vorgänge unterbrochen");
+        }
+    }
+}
@@ -6,12 +6,18 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import bank.BankOptions;
+import bank.Durability;
+import bank.LoadReport;
 import bank.PrivateBank;
 
 //FxApplication ist der Einstiegspunkt der JavaFX-Anwendung.
 //Sie verbindet GUI (FXML + Controller) mit der Geschäftslogik (PrivateBank) und startet die Anwendung in einem einzigen Fenster.
 public class FxApplication extends Application {
 
+    private PrivateBank bank;
+    private BankExecutor executor;
+
     @Override
     public void start(Stage stage) throws Exception {
 
@@ -22,17 +28,41 @@ public class FxApplication extends Application {
         // Controller holen
         MainView_Controller controller = loader.getController();
 
-        // Bank erstellen
-        PrivateBank bank = new PrivateBank("MeineBank",0.5,0.1, "bank-data");
+        // Bank erstellen (Konten parallel laden, damit der Start nicht blockiert)
+        BankOptions options = new BankOptions();
+        options.useParallelLoading();
+        // Änderungen im Hintergrund schreiben, damit der JavaFX-Thread nicht auf die Festplatte wartet
+        options.setDurability(Durability.WRITE_BEHIND);
+        bank = new PrivateBank("MeineBank",0.5,0.1, "bank-data", options);
+        LoadReport report = bank.getLastLoadReport();
+        System.out.println(report);
+        // Übersprungene Datensätze und beiseitegelegte Dateien melden, ohne den Start abzubrechen
+        for (String problem : report.problems()) {
+            System.err.println("FEHLER beim Laden: " + problem);
+        }
+
+        // Alle Bank-Zugriffe laufen im Hintergrund auf einem gemeinsamen Worker-Thread
+        executor = new BankExecutor();
 
-        // Controller initialisieren (Bank + Stage übergeben)
-        controller.init(bank, stage);
+        // Controller initialisieren (Bank + Executor + Stage übergeben)
+        controller.init(bank, executor, stage);
 
         // Scene setzen (gleiches Fenster)
         stage.setScene(new Scene(root));
         stage.setTitle("Bank");
         stage.show();
     }
+
+    // Beim Beenden laufende Vorgänge abwarten und noch ausstehende Änderungen schreiben
+    @Override
+    public void stop() throws Exception {
+        if (executor != null) {
+            executor.shutdown();
+        }
+        if (bank != null) {
+            bank.close();
+        }
+    }
     // launch() kümmert sich um Threads & Lifecycle
     public static void main(String[] args) {
         launch(args);
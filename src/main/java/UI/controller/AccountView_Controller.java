@@ -1,6 +1,11 @@
 package UI.controller;
 
+import UI.BankExecutor;
 import bank.Transaction;
+import bank.TransactionPage;
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.WeakChangeListener;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -16,7 +21,8 @@ import javafx.geometry.Insets;
 import javafx.scene.control.*;
 import javafx.scene.layout.GridPane;
 import java.time.LocalDate;
-import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Optional;
 import bank.PrivateBank;
 import java.util.List;
@@ -32,11 +38,19 @@ public class AccountView_Controller {
     @FXML private Label accountNameLabel;
     @FXML private Label balanceLabel;
     @FXML private ListView<Transaction> transactionsListView;
+    @FXML private Label pageLabel;
+    @FXML private MenuItem deleteTransactionItem;
+    @FXML private ProgressIndicator busyIndicator;
+    @FXML private Label statusLabel;
 
-    // ---- Daten ----
-    private final ObservableList<Transaction> transactions = FXCollections.observableArrayList();
+    /** Anzahl Transaktionen je Abschnitt; große Konten werden beim Scrollen abschnittsweise nachgeladen. */
+    private static final int PAGE_SIZE = 500;
+
+    /** Nachladen, sobald eine der letzten so vielen geladenen Zeilen sichtbar wird. */
+    private static final int PREFETCH = 50;
 
     private PrivateBank bank;
+    private BankExecutor executor;
     private Stage stage;
     private String accountName;
 
@@ -48,50 +62,118 @@ public class AccountView_Controller {
         ONLY_NEGATIVE
     }
 
+    /**
+     * Bereits geladener Ausschnitt einer Ansicht (Sortierung bzw. Filter).
+     * <p>
+     * Jede Ansicht hat eine eigene Liste; beim Moduswechsel wird nur die Liste der {@code ListView}
+     * ausgetauscht. Hinzufügen und Löschen werden in allen Ausschnitten als einzelne Änderung
+     * nachgeführt, statt sie neu zu laden.
+     * </p>
+     */
+    private static final class ModeCache {
+        final ObservableList<Transaction> items = FXCollections.observableArrayList();
+        /** Gesamtzahl der Treffer laut Bank, {@code -1} solange der erste Abschnitt noch nicht geladen ist. */
+        int total = -1;
+        boolean loading;
+
+        boolean initialized() {
+            return total >= 0;
+        }
+
+        boolean complete() {
+            return items.size() >= total;
+        }
+    }
+
+    /**
+     * Kontostand und Summen, im Hintergrund aus dem Index gelesen.
+     *
+     * @param balance Kontostand
+     * @param credits Summe der Gutschriften
+     * @param debits  Summe der Belastungen
+     */
+    private record AccountTotals(double balance, double credits, double debits) {
+    }
+
+    /**
+     * Ergebnis einer Änderung am Konto.
+     *
+     * @param value  Wert der geänderten Transaktion in Cent (bestimmt Sortierposition und Filter)
+     * @param totals Kontostand und Summen danach
+     */
+    private record AccountChange(long value, AccountTotals totals) {
+    }
+
+    private final Map<ViewMode, ModeCache> caches = new EnumMap<>(ViewMode.class);
     private ViewMode currentMode = ViewMode.NORMAL;
+    private AccountTotals totals;
+
+    /** Nachladen wurde verschoben, weil noch eine Änderung in der Warteschlange war. */
+    private boolean loadDeferred;
+
+    // Verschobenes Nachladen nachholen, sobald die Warteschlange leer ist (schwach registriert,
+    // damit der Controller nach dem Szenenwechsel nicht am gemeinsamen Executor hängen bleibt)
+    private final ChangeListener<Boolean> idleListener = (obs, wasBusy, busy) -> {
+        if (!busy && loadDeferred) {
+            loadDeferred = false;
+            loadMore();
+        }
+    };
 
     @FXML
     private void handleSortAsc() {
-        currentMode = ViewMode.SORT_ASC;
-        applyMode();
+        showMode(ViewMode.SORT_ASC);
     }
 
     @FXML
     private void handleSortDesc() {
-        currentMode = ViewMode.SORT_DESC;
-        applyMode();
+        showMode(ViewMode.SORT_DESC);
     }
 
     @FXML
     private void handleShowAll() {
-        currentMode = ViewMode.NORMAL;
-        applyMode();
+        showMode(ViewMode.NORMAL);
     }
 
     @FXML
     private void handleShowPositive() {
-        currentMode = ViewMode.ONLY_POSITIVE;
-        applyMode();
+        showMode(ViewMode.ONLY_POSITIVE);
     }
 
     @FXML
     private void handleShowNegative() {
-        currentMode = ViewMode.ONLY_NEGATIVE;
-        applyMode();
+        showMode(ViewMode.ONLY_NEGATIVE);
     }
 
-
     @FXML
     private void initialize() {
-        transactionsListView.setItems(transactions);
+        // Die ListView erzeugt nur Zellen für die sichtbaren Zeilen; kurz vor dem Ende
+        // des geladenen Ausschnitts wird der nächste Abschnitt angefordert
+        transactionsListView.setCellFactory(list -> new ListCell<>() {
+            @Override
+            protected void updateItem(Transaction item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? null : item.toString());
+                if (!empty && getIndex() >= list.getItems().size() - PREFETCH) {
+                    Platform.runLater(AccountView_Controller.this::loadMore);
+                }
+            }
+        });
     }
 
     // Wird von MainviewController beim Scene-Wechsel aufgerufen
-    public void init(PrivateBank bank, Stage stage, String accountName) {
+    public void init(PrivateBank bank, BankExecutor executor, Stage stage, String accountName) {
         this.bank = bank;
+        this.executor = executor;
         this.stage = stage;
         this.accountName = accountName;
 
+        // Fortschritt anzeigen; Löschen erst wieder erlauben, wenn die Liste aktuell ist
+        busyIndicator.visibleProperty().bind(executor.busyProperty());
+        statusLabel.textProperty().bind(executor.statusProperty());
+        deleteTransactionItem.disableProperty().bind(executor.busyProperty());
+        executor.busyProperty().addListener(new WeakChangeListener<>(idleListener));
+
         refreshView();
     }
 
@@ -99,11 +181,14 @@ public class AccountView_Controller {
         // Accountname anzeigen
         accountNameLabel.setText("Account: " + accountName);
 
-        // Alles Laden + Balance anzeigen macht applyMode()
-        applyMode();
+        // Kontostand + ersten Abschnitt laden
+        executor.submit("Lade Kontostand …", this::loadTotals, loaded -> {
+            totals = loaded;
+            updateLabels();
+        }, ex -> showError("Fehler beim Anzeigen", ex.getMessage()));
+        showMode(currentMode);
     }
 
-
     // ---- Back Button: zurück zur Mainview (gleiches Fenster/Stage) ----
     @FXML
     private void handleBack() {
@@ -112,7 +197,7 @@ public class AccountView_Controller {
             Parent root = loader.load();
 
             MainView_Controller controller = loader.getController();
-            controller.init(bank, stage); // gleiche Bank weitergeben
+            controller.init(bank, executor, stage); // gleiche Bank weitergeben
 
             stage.setScene(new Scene(root));
         } catch (Exception ex) {
@@ -127,13 +212,15 @@ public class AccountView_Controller {
             return; // Abgebrochen
         }
 
-        try {
-            // Methode bei dir evtl. anders benannt (addTransaction / addTransactionToAccount / etc.)
-            bank.addTransaction(accountName, created.get());
-            applyMode(); // Liste + Kontostand aktualisieren
-        } catch (Exception ex) {
-            showError("Transaktion konnte nicht hinzugefügt werden", ex.getMessage());
-        }
+        // Hinzufügen (inkl. Persistieren) im Hintergrund, danach nur die neue Zeile einfügen
+        Transaction transaction = created.get();
+        executor.submit("Speichere Transaktion …", () -> {
+            bank.addTransaction(accountName, transaction);
+            return new AccountChange(transaction.calculateCents(), loadTotals());
+        }, change -> {
+            totals = change.totals();
+            applyAdded(transaction, change.value());
+        }, ex -> showError("Transaktion konnte nicht hinzugefügt werden", ex.getMessage()));
     }
 
     private Optional<Transaction> showCreateTransactionDialog() {
@@ -274,33 +361,149 @@ public class AccountView_Controller {
         a.showAndWait();
     }
 
-    private void applyMode() {
-        try {
-            // 1) Liste je nach Modus holen
-            List<Transaction> txs = switch (currentMode) {
-                case SORT_ASC -> bank.getTransactionsSorted(accountName, true);
-                case SORT_DESC -> bank.getTransactionsSorted(accountName, false);
-                case ONLY_POSITIVE -> bank.getTransactionsByType(accountName, true);
-                case ONLY_NEGATIVE -> bank.getTransactionsByType(accountName, false);
-                default -> bank.getTransactions(accountName);
+    // Zeigt eine Ansicht; bereits geladene Ausschnitte werden wiederverwendet
+    private void showMode(ViewMode mode) {
+        currentMode = mode;
+        ModeCache cache = caches.get(mode);
+        if (cache == null) {
+            cache = new ModeCache();
+            caches.put(mode, cache);
+            requestPage(mode, cache);
+        }
+        // Liste austauschen statt Einträge zu kopieren
+        transactionsListView.setItems(cache.items);
+        updateLabels();
+    }
+
+    // Lädt den nächsten Abschnitt der aktuellen Ansicht, falls es noch einen gibt
+    private void loadMore() {
+        ModeCache cache = caches.get(currentMode);
+        if (cache == null || cache.loading || !cache.initialized() || cache.complete()) {
+            return;
+        }
+        // Eine eingereihte Änderung würde die Positionen verschieben -> erst danach nachladen
+        if (executor.busyProperty().get()) {
+            loadDeferred = true;
+            return;
+        }
+        requestPage(currentMode, cache);
+    }
+
+    private void requestPage(ViewMode mode, ModeCache cache) {
+        cache.loading = true;
+        int offset = cache.items.size();
+        executor.submit("Lade Transaktionen …", () -> loadPage(mode, offset), page -> {
+            cache.loading = false;
+            // Nur anhängen, wenn der Abschnitt noch genau an das Ende des Ausschnitts passt
+            if (page.offset() == cache.items.size()) {
+                cache.items.addAll(page.transactions());
+                cache.total = page.total();
+            }
+            updateLabels();
+        }, ex -> {
+            cache.loading = false;
+            showError("Fehler beim Anzeigen", ex.getMessage());
+        });
+    }
+
+    // Läuft auf dem Worker-Thread: nur Bank-Zugriffe, keine UI-Elemente anfassen
+    private AccountTotals loadTotals() {
+        return new AccountTotals(bank.getAccountBalance(accountName),
+                bank.getTransactionSum(accountName, true), bank.getTransactionSum(accountName, false));
+    }
+
+    // Läuft auf dem Worker-Thread
+    private TransactionPage loadPage(ViewMode mode, int offset) {
+        return switch (mode) {
+            case SORT_ASC -> bank.getTransactionsSortedPage(accountName, true, offset, PAGE_SIZE);
+            case SORT_DESC -> bank.getTransactionsSortedPage(accountName, false, offset, PAGE_SIZE);
+            case ONLY_POSITIVE -> bank.getTransactionsByTypePage(accountName, true, offset, PAGE_SIZE);
+            case ONLY_NEGATIVE -> bank.getTransactionsByTypePage(accountName, false, offset, PAGE_SIZE);
+            default -> bank.getTransactionsPage(accountName, offset, PAGE_SIZE);
+        };
+    }
+
+    // Fügt eine neue Transaktion in alle geladenen Ausschnitte ein, in die sie gehört
+    private void applyAdded(Transaction transaction, long value) {
+        caches.forEach((mode, cache) -> {
+            if (!cache.initialized() || !matches(mode, value)) {
+                return;
+            }
+            int position = switch (mode) {
+                case SORT_ASC -> insertionPoint(cache.items, value, true);
+                case SORT_DESC -> insertionPoint(cache.items, value, false);
+                default -> cache.items.size(); // Einfügereihenfolge: neue Transaktionen stehen am Ende
             };
+            // Liegt die Stelle hinter dem geladenen Ausschnitt, kommt sie beim Nachladen mit
+            boolean complete = cache.complete();
+            cache.total++;
+            if (position < cache.items.size() || complete) {
+                cache.items.add(position, transaction);
+            }
+        });
+        updateLabels();
+    }
 
-            // WICHTIG: Prüfen ob Liste null ist
-            if (txs == null) {
-                txs = new ArrayList<>();
+    // Entfernt eine Transaktion aus allen geladenen Ausschnitten
+    private void applyRemoved(Transaction transaction, long value) {
+        caches.forEach((mode, cache) -> {
+            if (!cache.initialized() || !matches(mode, value)) {
+                return;
             }
+            cache.items.remove(transaction);
+            cache.total--;
+        });
+        updateLabels();
+    }
 
-            // 2) ListView setzen
-            transactions.setAll(txs);
+    private static boolean matches(ViewMode mode, long value) {
+        return switch (mode) {
+            case ONLY_POSITIVE -> value >= 0;
+            case ONLY_NEGATIVE -> value < 0;
+            default -> true;
+        };
+    }
 
-            // 3) Kontostand neu setzen
-            double balance = bank.getAccountBalance(accountName);
-            balanceLabel.setText(String.format("Kontostand: %.2f €", balance));
+    /**
+     * Sucht die Einfügestelle in einem nach Wert sortierten Ausschnitt. Wie im Wert-Index der Bank
+     * stehen gleiche Werte in Einfügereihenfolge, die neue Transaktion also hinter allen gleichen.
+     */
+    private static int insertionPoint(List<Transaction> items, long value, boolean asc) {
+        int low = 0;
+        int high = items.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            long other = items.get(mid).calculateCents();
+            if (asc ? other <= value : other >= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
 
-        } catch (Exception ex) {
-            transactions.clear();
-            showError("Fehler beim Anzeigen", ex.getMessage());
+    private void updateLabels() {
+        ModeCache cache = caches.get(currentMode);
+        if (cache == null || !cache.initialized()) {
+            pageLabel.setText("Lade …");
+        } else if (cache.complete()) {
+            pageLabel.setText(String.format("%d Transaktionen", cache.total));
+        } else {
+            pageLabel.setText(String.format("%d von %d geladen", cache.items.size(), cache.total));
+        }
+
+        if (totals == null) {
+            return;
         }
+        String text = String.format("Kontostand: %.2f €", totals.balance());
+        // Bei Filterung zusätzlich die Summe der angezeigten Transaktionen (aus dem Index, ohne Durchlauf)
+        if (currentMode == ViewMode.ONLY_POSITIVE) {
+            text += String.format(" | Summe Gutschriften: %.2f €", totals.credits());
+        } else if (currentMode == ViewMode.ONLY_NEGATIVE) {
+            text += String.format(" | Summe Belastungen: %.2f €", totals.debits());
+        }
+        balanceLabel.setText(text);
     }
 
     @FXML
@@ -319,17 +522,16 @@ public class AccountView_Controller {
             return;
         }
 
-        try {
-            // Entfernen aus der Bank (inkl. Speichern/Festplatte laut Aufgabenblatt): contentReference[oaicite:10]{index=10}
+        // Entfernen aus der Bank (inkl. Speichern/Festplatte laut Aufgabenblatt) im Hintergrund,
+        // danach nur die Zeile entfernen + Kontostand aktualisieren
+        executor.submit("Lösche Transaktion …", () -> {
+            long value = selected.calculateCents();
             bank.removeTransaction(accountName, selected);
-            // (falls deine Methode anders heißt: z.B. deleteTransaction(...), removeTransaction(...), etc.)
-
-            // Danach View neu laden + Kontostand aktualisieren :contentReference[oaicite:11]{index=11}
-            applyMode();
-
-        } catch (Exception ex) {
-            showError("Löschen fehlgeschlagen", ex.getMessage());
-        }
+            return new AccountChange(value, loadTotals());
+        }, change -> {
+            totals = change.totals();
+            applyRemoved(selected, change.value());
+        }, ex -> showError("Löschen fehlgeschlagen", ex.getMessage()));
     }
 
     private boolean askYesNo(String content) {
@@ -1,5 +1,6 @@
 package UI.controller;
 
+import UI.BankExecutor;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -19,12 +20,19 @@ public class MainView_Controller {
     // ---- UI Elemente aus Mainview.fxml ----
     @FXML
     private ListView<String> accountsListView;
+    @FXML
+    private MenuItem deleteAccountItem;
+    @FXML
+    private ProgressIndicator busyIndicator;
+    @FXML
+    private Label statusLabel;
 
     // ---- Daten ----
     private final ObservableList<String> accounts = FXCollections.observableArrayList();
 
     // ---- Referenzen, die wir übergeben bekommen ----
     private PrivateBank bank;
+    private BankExecutor executor;
     private Stage stage;
 
     // Wird automatisch aufgerufen, sobald FXML geladen ist
@@ -35,15 +43,24 @@ public class MainView_Controller {
     }
 
     // Wird von FxApplication nach dem Laden aufgerufen
-    public void init(PrivateBank bank, Stage stage) {
+    public void init(PrivateBank bank, BankExecutor executor, Stage stage) {
         this.bank = bank;
+        this.executor = executor;
         this.stage = stage;
+
+        // Fortschritt anzeigen; Löschen erst wieder erlauben, wenn die Liste aktuell ist
+        busyIndicator.visibleProperty().bind(executor.busyProperty());
+        statusLabel.textProperty().bind(executor.statusProperty());
+        deleteAccountItem.disableProperty().bind(executor.busyProperty());
+
         refreshAccounts();
     }
 
     private void refreshAccounts() {
-        // Accounts aus der Bank holen und in die ListView schreiben
-        accounts.setAll(bank.getAllAccounts());
+        // Accounts im Hintergrund aus der Bank holen und danach in die ListView schreiben
+        executor.submit("Lade Accounts …", bank::getAllAccounts,
+                accounts::setAll,
+                ex -> showError("Accounts konnten nicht geladen werden", ex.getMessage()));
     }
 
     // ---------- Event: Button "Neuer Account" ----------
@@ -65,14 +82,13 @@ public class MainView_Controller {
             return;
         }
 
-        try {
-            // diese Methode hast du aus früheren Praktika
+        // Anlegen (inkl. Schreiben der Datei) im Hintergrund, danach Liste neu laden
+        executor.submit("Lege Account \"" + name + "\" an …", () -> {
             bank.createAccount(name);
-            refreshAccounts();
-        } catch (Exception ex) {
-            // User-Fehler/Probleme als Alert
-            showError("Account konnte nicht angelegt werden", ex.getMessage());
-        }
+            return null;
+        }, ignored -> refreshAccounts(),
+                // User-Fehler/Probleme als Alert
+                ex -> showError("Account konnte nicht angelegt werden", ex.getMessage()));
     }
 
     // ---------- Event: Kontextmenü "Löschen" ----------
@@ -92,12 +108,12 @@ public class MainView_Controller {
             return;
         }
 
-        try {
-            bank.deleteAccount(selected); // soll auch „von Festplatte“ löschen :contentReference[oaicite:9]{index=9}
-            refreshAccounts();
-        } catch (Exception ex) {
-            showError("Löschen fehlgeschlagen", ex.getMessage());
-        }
+        // löscht auch „von Festplatte“ – daher im Hintergrund
+        executor.submit("Lösche Account \"" + selected + "\" …", () -> {
+            bank.deleteAccount(selected);
+            return null;
+        }, ignored -> refreshAccounts(),
+                ex -> showError("Löschen fehlgeschlagen", ex.getMessage()));
     }
 
     // ---------- Event: Kontextmenü "Auswählen" ----------
@@ -117,7 +133,7 @@ public class MainView_Controller {
             AccountView_Controller controller = loader.getController();
 
             // Account „mitgeben“ (Datenaustausch zwischen Scenes)
-            controller.init(bank, stage, selected);
+            controller.init(bank, executor, stage, selected);
 
             stage.setScene(new Scene(root));
         } catch (Exception ex) {
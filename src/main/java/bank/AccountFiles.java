@@ -0,0 +1,494 @@
+package bank;
+
+import bank.jfr.AccountLoadEvent;
+import bank.jfr.AccountWriteEvent;
+import bank.metrics.BankMetrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Dateien der Konten einer Bank: Snapshot ({@code <konto>.json} bzw. {@code <konto>.bank}) und Journal
+ * ({@code <konto>.journal}).
+ * <p>
+ * Gemeinsame Persistenz von {@link PrivateBank} und {@link ColumnarPrivateBank}: Lesen samt Nachspielen
+ * des Journals und Überspringen ungültiger Datensätze, Schreiben einzelner Änderungen ins Journal,
+ * Kompaktierung zu einem atomar ersetzten Snapshot, Schreiben im Hintergrund ({@link Durability}),
+ * Sichern per {@code fsync} und Vervollständigen unterbrochener Überweisungen ({@link TransferLog}).
+ * Laufzeiten und Byte werden an die {@link BankMetrics} gemeldet, Lese- und Schreibvorgänge als
+ * JFR-Ereignisse aufgezeichnet. Wie ein Konto im Speicher gehalten wird, bestimmt die Bank.
+ * </p>
+ * <p>
+ * Nicht thread-sicher für dasselbe Konto; verschiedene Konten dürfen gleichzeitig geschrieben und
+ * gelesen werden.
+ * </p>
+ */
+final class AccountFiles implements WriteBehindWriter.Store {
+
+    /**
+     * Endung der Kopie einer Kontodatei, aus der beim Laden ungültige Datensätze übersprungen wurden.
+     */
+    static final String REJECTED_SUFFIX = ".rejected";
+
+    /**
+     * Baut ein Konto aus den gelesenen Datensätzen auf.
+     *
+     * @param <A> Darstellung des Kontos im Speicher
+     */
+    interface Replay<A> {
+
+        /**
+         * @param snapshot Transaktionen des Snapshots (ohne ungültige Datensätze)
+         * @param journal  Journal-Datensätze seit dem Snapshot, idempotent nachzuspielen
+         * @return aufgebautes Konto
+         */
+        A apply(List<Transaction> snapshot, List<TransactionJournal.Entry> journal);
+    }
+
+    /**
+     * Ergebnis des Ladens eines Kontos.
+     *
+     * @param account         Kontoname
+     * @param contents        aufgebautes Konto
+     * @param rejectedRecords Anzahl übersprungener, ungültiger Datensätze des Snapshots
+     * @param problems        Beschreibung jedes übersprungenen Datensatzes und jeder übersprungenen Journalzeile
+     * @param <A>             Darstellung des Kontos im Speicher
+     */
+    record Loaded<A>(String account, A contents, int rejectedRecords, List<String> problems) {
+    }
+
+    /**
+     * Verbucht eine Seite einer unterbrochenen Überweisung.
+     */
+    interface Booking {
+        void book(String account, Transaction transaction) throws IOException;
+    }
+
+    private final String directoryName;
+    private final BankOptions options;
+    private final BankMetrics metrics;
+    private final TransactionJournal journal;
+
+    /**
+     * Mindestanzahl an Journal-Datensätzen, ab der ein Konto zu einem neuen Snapshot kompaktiert wird.
+     */
+    private int journalCompactionThreshold = 256;
+
+    /**
+     * Hintergrund-Schreiber bei {@link Durability#WRITE_BEHIND} bzw. {@link Durability#GROUP_COMMIT};
+     * {@code null} bei {@link Durability#SYNC} und bis {@link #startWriter(String)}.
+     */
+    private WriteBehindWriter writer;
+
+    /**
+     * @param directoryName Verzeichnis der Bank
+     * @param options       Einstellungen (Speicherformat, Schreibmodus, Metriken)
+     */
+    AccountFiles(String directoryName, BankOptions options) {
+        this.directoryName = directoryName;
+        this.options = options;
+        this.metrics = options.getMetrics();
+        this.journal = new TransactionJournal(directoryName, metrics);
+    }
+
+    /**
+     * Kopierkonstruktor: gleiche Dateien und Einstellungen, aber eigene Journal-Zähler und kein Schreiber.
+     *
+     * @param other zu kopierende Instanz
+     */
+    AccountFiles(AccountFiles other) {
+        this(other.directoryName, other.options);
+        this.journalCompactionThreshold = other.journalCompactionThreshold;
+    }
+
+    int getJournalCompactionThreshold() {
+        return journalCompactionThreshold;
+    }
+
+    /**
+     * Setzt die Mindestanzahl an Journal-Datensätzen, ab der ein Konto kompaktiert wird.
+     * <p>
+     * Kompaktiert wird, sobald das Journal mindestens so viele Datensätze enthält wie dieser Wert
+     * und wie das Konto Transaktionen hat. Dadurch bleibt der Aufwand je Änderung amortisiert konstant.
+     * </p>
+     *
+     * @param journalCompactionThreshold Schwellwert (mindestens 1)
+     */
+    void setJournalCompactionThreshold(int journalCompactionThreshold) {
+        if (journalCompactionThreshold < 1) {
+            throw new IllegalArgumentException("Der Schwellwert muss mindestens 1 sein");
+        }
+        this.journalCompactionThreshold = journalCompactionThreshold;
+    }
+
+    /**
+     * Legt bei {@link Durability#WRITE_BEHIND} bzw. {@link Durability#GROUP_COMMIT} den Hintergrund-Schreiber
+     * an. Erst nach dem Laden aufrufen, damit Reparaturen beim Öffnen synchron geschrieben werden.
+     *
+     * @param bankName Name der Bank (für den Thread-Namen)
+     */
+    void startWriter(String bankName) {
+        if (options.getDurability() != Durability.SYNC) {
+            writer = new WriteBehindWriter(this, options.getDurability(), options, bankName);
+        }
+    }
+
+    // --- Lesen ---------------------------------------------------------------------------------
+
+    /**
+     * Liefert die Namen aller Konten, zu denen ein Snapshot im eingestellten Format existiert.
+     *
+     * @return Kontonamen (Dateinamen ohne Endung), unsortiert
+     */
+    List<String> listAccounts() {
+        String extension = options.getStorageFormat().getExtension();
+        File[] files = new File(directoryName).listFiles((d, fileName) -> fileName.endsWith(extension));
+        List<String> accounts = new ArrayList<>(files == null ? 0 : files.length);
+        if (files != null) {
+            for (File file : files) {
+                String fileName = file.getName();
+                accounts.add(fileName.substring(0, fileName.length() - extension.length()));
+            }
+        }
+        return accounts;
+    }
+
+    /**
+     * Liest Snapshot und Journal eines Kontos und baut es über {@code replay} auf.
+     * <p>
+     * Verändert keine gemeinsamen Datenstrukturen und kann daher für verschiedene Konten parallel
+     * aufgerufen werden (sofern {@code replay} das erlaubt).
+     * </p>
+     * <p>
+     * Ungültige Datensätze (z.B. ein unlesbares Datum) werden übersprungen und in {@link Loaded#problems()}
+     * beschrieben; die übrigen
+     * bleiben erhalten. Da die nächste Kompaktierung die Datei ohne sie neu schreibt, wird vorher eine
+     * Kopie der Originaldatei als {@code <datei>.rejected} abgelegt. Ist die Datei selbst unlesbar, schlägt das
+     * Laden fehl, statt das Konto leer zu übernehmen: ein leeres Konto würde die Datei beim nächsten
+     * Schreiben ersetzen. Beim Öffnen legt die Bank die Datei dann mit {@link #quarantine} beiseite.
+     * </p>
+     *
+     * @param account Name des Kontos
+     * @param replay  baut das Konto aus Snapshot und Journal auf
+     * @param size    Anzahl der Transaktionen eines aufgebauten Kontos (für das JFR-Ereignis)
+     * @param <A>     Darstellung des Kontos im Speicher
+     * @return geladenes Konto
+     * @throws IOException wenn die Datei oder ihr Journal nicht lesbar ist
+     */
+    <A> Loaded<A> load(String account, Replay<A> replay, ToIntFunction<A> size) throws IOException {
+        long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+        AccountLoadEvent event = new AccountLoadEvent();
+        event.begin();
+        Loaded<A> loaded = null;
+
+        Path file = snapshotPath(account);
+        List<String> rejected = new ArrayList<>();
+        try {
+            // Snapshot lesen; ungültige Datensätze überspringen
+            List<Transaction> transactions = options.getStorageFormat().read(file, rejected);
+            if (start != 0L) {
+                metrics.bytesRead(Files.size(file));
+            }
+            List<String> problems = new ArrayList<>(rejected.size());
+            if (!rejected.isEmpty()) {
+                for (String record : rejected) {
+                    problems.add(file.getFileName() + ": " + record + " (übersprungen)");
+                }
+                Files.copy(file, Path.of(file + REJECTED_SUFFIX), StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            // Journal seit dem letzten Snapshot nachspielen
+            List<TransactionJournal.Entry> entries = journal.read(account, problems);
+            loaded = new Loaded<>(account, replay.apply(transactions, entries), rejected.size(), problems);
+
+        } catch (IOException | RuntimeException ex) {
+            // Unlesbare Datei: nicht als leeres Konto übernehmen, das die Datei später überschreiben würde
+            throw new IOException("Konto " + account + " konnte nicht gelesen werden (" + file.getFileName() + "): "
+                    + ex.getMessage(), ex);
+        } finally {
+            if (start != 0L) {
+                metrics.recordLatency(BankMetrics.Operation.LOAD_ACCOUNT, System.nanoTime() - start);
+            }
+            event.finish(account, loaded == null ? 0 : size.applyAsInt(loaded.contents()),
+                    () -> file.toFile().length() + journal.path(account).toFile().length(), rejected.size(), loaded == null);
+        }
+        return loaded;
+    }
+
+    /**
+     * Legt die Dateien eines unlesbaren Kontos als {@code <datei>.rejected} beiseite, damit die übrigen
+     * Konten geladen werden können. Die Datei wird so weder durch ein leeres Konto überschrieben noch beim
+     * nächsten Öffnen erneut gelesen; ein Konto gleichen Namens kann danach neu angelegt werden.
+     *
+     * @param account Name des Kontos
+     * @throws IOException wenn die Dateien nicht umbenannt werden können
+     */
+    void quarantine(String account) throws IOException {
+        Path file = snapshotPath(account);
+        Files.move(file, Path.of(file + REJECTED_SUFFIX), StandardCopyOption.REPLACE_EXISTING);
+        Path journalPath = journal.path(account);
+        if (Files.exists(journalPath)) {
+            Files.move(journalPath, Path.of(journalPath + REJECTED_SUFFIX), StandardCopyOption.REPLACE_EXISTING);
+        }
+        journal.clear(account);
+    }
+
+    /**
+     * Verbucht alle Überweisungen aus dem {@link TransferLog}, die vor einem Absturz nicht mehr
+     * abgeschlossen wurden, sichert die betroffenen Konten und leert anschließend das Protokoll.
+     * <p>
+     * Ist eines der Konten inzwischen gelöscht, wird nur die andere Seite verbucht.
+     * </p>
+     *
+     * @param transferLog Protokoll der Bank
+     * @param exists      prüft, ob ein Konto existiert
+     * @param booking     verbucht eine Seite idempotent
+     * @param problems    nimmt je unlesbarer Zeile des Protokolls eine Beschreibung auf
+     * @return Anzahl der vervollständigten Überweisungen
+     * @throws IOException wenn beim Lesen oder Persistieren ein Fehler auftritt
+     */
+    int recoverTransfers(TransferLog transferLog, Predicate<String> exists, Booking booking,
+                         List<String> problems) throws IOException {
+        List<TransferLog.Entry> pending = transferLog.readPending(problems);
+        Set<String> touched = new LinkedHashSet<>();
+        for (TransferLog.Entry entry : pending) {
+            if (exists.test(entry.from())) {
+                booking.book(entry.from(), entry.outgoing());
+                touched.add(entry.from());
+            }
+            if (exists.test(entry.to())) {
+                booking.book(entry.to(), entry.incoming());
+                touched.add(entry.to());
+            }
+        }
+        // Nachgebuchte Seiten erst sichern, dann das Protokoll leeren
+        forceAccounts(touched);
+        transferLog.clear();
+        return pending.size();
+    }
+
+    // --- Schreiben -----------------------------------------------------------------------------
+
+    /**
+     * Persistiert Änderungen eines Kontos mit einem einzigen Schreibvorgang: als Block im Journal oder,
+     * wenn das Journal damit die Kompaktierungsgrenze erreicht, als neuer Snapshot.
+     * <p>
+     * {@code snapshot} wird nur bei einer Kompaktierung und im ändernden Thread aufgerufen; beim Schreiben
+     * im Hintergrund muss es eine Kopie liefern, da der Schreiber-Thread sie später liest.
+     * </p>
+     *
+     * @param account     Name des Kontos
+     * @param entries     Datensätze in Buchungsreihenfolge
+     * @param accountSize Anzahl der Transaktionen des Kontos nach den Änderungen
+     * @param snapshot    liefert alle Transaktionen des Kontos
+     * @throws IOException wenn ein Fehler beim Schreiben auftritt
+     */
+    void persist(String account, List<TransactionJournal.Entry> entries, int accountSize,
+                 Supplier<List<Transaction>> snapshot) throws IOException {
+        if (entries.isEmpty()) {
+            return;
+        }
+        int limit = Math.max(journalCompactionThreshold, accountSize);
+
+        if (writer != null) {
+            long sequence = writer.appendAll(account, entries);
+            // Journal einschließlich der noch nicht geschriebenen Datensätze
+            if (writer.journalSizeAfterWrite(account, journal.size(account)) >= limit) {
+                countCompaction();
+                sequence = writer.snapshot(account, snapshot.get());
+            }
+            writer.commit(sequence);
+            return;
+        }
+
+        if (journal.size(account) + entries.size() >= limit) {
+            countCompaction();
+            writeSnapshot(account, snapshot.get(), false);
+        } else {
+            journal.appendEntries(account, entries, false);
+        }
+    }
+
+    /**
+     * Persistiert ein Konto als vollständigen Snapshot: sofort oder über den Hintergrund-Schreiber.
+     *
+     * @param account      Name des Kontos
+     * @param transactions alle Transaktionen des Kontos (beim Schreiben im Hintergrund eine Kopie)
+     * @throws IOException wenn ein Fehler beim Schreiben auftritt
+     */
+    void persistSnapshot(String account, List<Transaction> transactions) throws IOException {
+        if (writer != null) {
+            writer.commit(writer.snapshot(account, transactions));
+        } else {
+            writeSnapshot(account, transactions, false);
+        }
+    }
+
+    /**
+     * Schreibt einen Snapshot und leert anschließend das Journal des Kontos.
+     * <p>
+     * Der Snapshot wird zunächst in eine temporäre Datei geschrieben und dann atomar umbenannt,
+     * damit nach einem Absturz immer ein vollständiger Snapshot vorliegt.
+     * </p>
+     *
+     * @param account      Name des Kontos
+     * @param transactions alle Transaktionen des Kontos
+     * @param force        {@code true}, um die Datei vor dem Umbenennen per {@code fsync} zu sichern
+     * @throws IOException wenn ein Fehler beim Schreiben auftritt
+     */
+    @Override
+    public void writeSnapshot(String account, List<Transaction> transactions, boolean force) throws IOException {
+        long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+        AccountWriteEvent event = new AccountWriteEvent();
+        event.begin();
+        Path filePath = snapshotPath(account);
+        try {
+            Path tempPath = Path.of(directoryName, filePath.getFileName() + ".tmp");
+
+            options.getStorageFormat().write(tempPath, transactions, options);
+            if (force) {
+                try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.WRITE)) {
+                    channel.force(true);
+                }
+            }
+            if (start != 0L) {
+                metrics.bytesWritten(Files.size(tempPath));
+            }
+            Files.move(tempPath, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            // Snapshot enthält jetzt alle Änderungen -> Journal leeren
+            journal.clear(account);
+        } finally {
+            if (start != 0L) {
+                metrics.recordLatency(BankMetrics.Operation.WRITE_ACCOUNT, System.nanoTime() - start);
+            }
+        }
+        event.finish(account, transactions.size(), () -> filePath.toFile().length(), force);
+    }
+
+    @Override
+    public void appendJournal(String account, List<TransactionJournal.Entry> entries, boolean force) throws IOException {
+        journal.appendEntries(account, entries, force);
+    }
+
+    /**
+     * Führt eine Aktion aus, sobald alle bisher hinterlegten Änderungen geschrieben sind
+     * (ohne Hintergrund-Schreiber sofort).
+     *
+     * @param action auszuführende Aktion
+     * @throws IOException wenn die sofort ausgeführte Aktion fehlschlägt
+     */
+    void afterWrite(WriteBehindWriter.Action action) throws IOException {
+        if (writer != null) {
+            writer.afterWrite(action);
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Sichert Journal und Snapshot der angegebenen Konten sowie das Verzeichnis (Umbenennen bei der
+     * Kompaktierung, Löschen des Journals) per {@code fsync}.
+     *
+     * @param accounts Namen der Konten
+     * @throws IOException wenn eine Datei nicht gesichert werden kann
+     */
+    void forceAccounts(Collection<String> accounts) throws IOException {
+        for (String account : accounts) {
+            forceFile(journal.path(account));
+            forceFile(snapshotPath(account));
+        }
+        try (FileChannel channel = FileChannel.open(Path.of(directoryName), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ex) {
+            // Verzeichnisse lassen sich nicht auf jeder Plattform sichern (z.B. Windows)
+        }
+    }
+
+    private static void forceFile(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.force(false);
+        } catch (NoSuchFileException ex) {
+            // Datei existiert (noch) nicht -> nichts zu sichern
+        }
+    }
+
+    /**
+     * Löscht Snapshot und Journal eines Kontos, nachdem ausstehende Schreibvorgänge abgeschlossen sind
+     * (sonst würden sie die Dateien neu anlegen). Erst den Snapshot, damit ein übrig gebliebenes
+     * Journal ohne Snapshot beim Laden ignoriert wird.
+     *
+     * @param account Name des Kontos
+     * @throws IOException wenn beim Löschen ein Fehler auftritt
+     */
+    void delete(String account) throws IOException {
+        flush();
+        Files.deleteIfExists(snapshotPath(account));
+        journal.clear(account);
+    }
+
+    /**
+     * Schreibt alle ausstehenden Änderungen und wartet darauf; ohne Hintergrund-Schreiber ohne Wirkung.
+     *
+     * @throws IOException wenn die Änderungen nicht geschrieben werden konnten
+     */
+    void flush() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Schreibt nur die ausstehenden Änderungen eines Kontos und wartet darauf (z.B. bevor es neu
+     * gelesen wird); ohne Hintergrund-Schreiber ohne Wirkung.
+     *
+     * @param account Name des Kontos
+     * @throws IOException wenn die Änderungen nicht geschrieben werden konnten
+     */
+    void flush(String account) throws IOException {
+        if (writer != null) {
+            writer.flush(account);
+        }
+    }
+
+    /**
+     * Schreibt alle ausstehenden Änderungen und beendet ggf. den Schreiber-Thread.
+     *
+     * @throws IOException wenn die Änderungen nicht geschrieben werden konnten
+     */
+    void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    private void countCompaction() {
+        if (metrics.isEnabled()) {
+            metrics.increment(BankMetrics.Counter.COMPACTIONS);
+        }
+    }
+
+    /**
+     * Liefert den Pfad der Snapshot-Datei eines Kontos im eingestellten Format.
+     *
+     * @param account Name des Kontos
+     * @return Pfad zu {@code <konto>.json} bzw. {@code <konto>.bank}
+     */
+    private Path snapshotPath(String account) {
+        return Path.of(directoryName, account + options.getStorageFormat().getExtension());
+    }
+}
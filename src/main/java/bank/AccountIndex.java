@@ -0,0 +1,308 @@
+package bank;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Laufend gepflegte Kennzahlen eines einzelnen Kontos.
+ * <p>
+ * Der Index wird bei jeder Änderung der Transaktionsliste inkrementell aktualisiert,
+ * sodass z.B. der Kontostand ohne erneutes Durchlaufen aller Transaktionen gelesen werden kann.
+ * Zusätzlich werden die Transaktionen nach Vorzeichen ihres berechneten Werts in zwei Hash-Mengen und
+ * zwei Listen (in Einfügereihenfolge) samt Teilsummen geführt: für die Duplikatprüfung in O(1), die
+ * Filterung nach Vorzeichen in O(k) (auch seitenweise, unabhängig vom Versatz) und die Summe aller
+ * Gutschriften bzw. Belastungen in O(1). Dazu kommt ein nach
+ * Datum sortierter Index für Zeitraumabfragen in O(log n + k).
+ * </p>
+ * <p>
+ * Außerdem werden die Transaktionen nach ihrem berechneten Wert ({@link Transaction#calculateCents()})
+ * geordnet vorgehalten, sodass sortierte Abfragen in beide Richtungen ohne Sortieren in O(n) beantwortet werden.
+ * </p>
+ * <p>
+ * Da der Wert einer {@link Payment} von der {@link InterestRateTable} der Bank abhängt, merkt sich der
+ * Index die Version der Zinstabelle, mit der er berechnet wurde, und das späteste Datum einer Zahlung.
+ * Die Bank baut ihn neu auf, sobald eine spätere Änderung der Zinsen eine seiner Zahlungen betrifft.
+ * </p>
+ */
+class AccountIndex {
+
+    /** Aktueller Kontostand in Cent (Summe aller Beiträge). */
+    private long balance;
+
+    /** Transaktionen mit {@code calculateCents() >= 0} (für die Duplikatprüfung). */
+    private final Set<Transaction> positives = new HashSet<>();
+
+    /** Transaktionen mit {@code calculateCents() < 0} (für die Duplikatprüfung). */
+    private final Set<Transaction> negatives = new HashSet<>();
+
+    /** {@link #positives} in Einfügereihenfolge, mit wahlfreiem Zugriff für seitenweise Abfragen. */
+    private final List<Transaction> positiveList = new ArrayList<>();
+
+    /** {@link #negatives} in Einfügereihenfolge, mit wahlfreiem Zugriff für seitenweise Abfragen. */
+    private final List<Transaction> negativeList = new ArrayList<>();
+
+    /** Summe von {@code calculateCents()} über {@link #positives}. */
+    private long positiveSum;
+
+    /** Summe von {@code calculateCents()} über {@link #negatives}. */
+    private long negativeSum;
+
+    /** Transaktionen je Datum (in Einfügereihenfolge); Transaktionen ohne Datum fehlen hier. */
+    private final NavigableMap<LocalDate, List<Transaction>> byDate = new TreeMap<>();
+
+    /** Transaktionen je berechnetem Wert in Cent (in Einfügereihenfolge). */
+    private final NavigableMap<Long, List<Transaction>> byValue = new TreeMap<>();
+
+    /** Version der Zinstabelle, mit der die Werte berechnet wurden. */
+    private long rateVersion;
+
+    /** Spätestes Datum einer {@link Payment} (obere Schranke, wird beim Entfernen nicht verringert). */
+    private LocalDate latestPaymentDate;
+
+    /**
+     * Liefert den aktuell gespeicherten Kontostand.
+     *
+     * @return Kontostand in Cent
+     */
+    long getBalance() {
+        return balance;
+    }
+
+    long getRateVersion() {
+        return rateVersion;
+    }
+
+    void setRateVersion(long rateVersion) {
+        this.rateVersion = rateVersion;
+    }
+
+    /**
+     * Prüft, ob eine ab dem angegebenen Tag gültige Zinsänderung Zahlungen dieses Kontos betreffen kann.
+     *
+     * @param effectiveFrom Gültigkeitsdatum der Änderung
+     * @return {@code true}, wenn es eine Zahlung an oder nach diesem Tag gibt bzw. gab
+     */
+    boolean hasPaymentsFrom(LocalDate effectiveFrom) {
+        return latestPaymentDate != null && !latestPaymentDate.isBefore(effectiveFrom);
+    }
+
+    /**
+     * Prüft, ob die Transaktion (im Sinne von {@link Transaction#equals(Object)}) bereits verbucht ist.
+     *
+     * @param transaction gesuchte Transaktion
+     * @return {@code true}, wenn eine gleiche Transaktion vorhanden ist
+     */
+    boolean contains(Transaction transaction) {
+        return partitionOf(transaction.calculateCents()).contains(transaction);
+    }
+
+    /**
+     * Verbucht eine neu hinzugefügte Transaktion.
+     *
+     * @param transaction  hinzugefügte Transaktion
+     * @param contribution Beitrag der Transaktion zum Kontostand in Cent
+     */
+    void add(Transaction transaction, long contribution) {
+        long value = transaction.calculateCents();
+        if (value >= 0) {
+            positives.add(transaction);
+            positiveList.add(transaction);
+            positiveSum += value;
+        } else {
+            negatives.add(transaction);
+            negativeList.add(transaction);
+            negativeSum += value;
+        }
+        balance += contribution;
+        if (transaction.getLocalDate() != null) {
+            byDate.computeIfAbsent(transaction.getLocalDate(), date -> new ArrayList<>(1)).add(transaction);
+        }
+        byValue.computeIfAbsent(value, key -> new ArrayList<>(1)).add(transaction);
+        if (transaction instanceof Payment && transaction.getLocalDate() != null
+                && (latestPaymentDate == null || transaction.getLocalDate().isAfter(latestPaymentDate))) {
+            latestPaymentDate = transaction.getLocalDate();
+        }
+    }
+
+    /**
+     * Nimmt eine entfernte Transaktion wieder zurück.
+     *
+     * @param transaction  entfernte Transaktion
+     * @param contribution Beitrag der Transaktion zum Kontostand in Cent
+     */
+    void remove(Transaction transaction, long contribution) {
+        long value = transaction.calculateCents();
+        if (partitionOf(value).remove(transaction)) {
+            orderOf(value >= 0).remove(transaction);
+            if (value >= 0) {
+                positiveSum -= value;
+            } else {
+                negativeSum -= value;
+            }
+        }
+        balance -= contribution;
+        List<Transaction> sameDay = transaction.getLocalDate() == null ? null : byDate.get(transaction.getLocalDate());
+        if (sameDay != null) {
+            sameDay.remove(transaction);
+            if (sameDay.isEmpty()) {
+                byDate.remove(transaction.getLocalDate());
+            }
+        }
+        List<Transaction> sameValue = byValue.get(value);
+        if (sameValue != null) {
+            sameValue.remove(transaction);
+            if (sameValue.isEmpty()) {
+                byValue.remove(value);
+            }
+        }
+    }
+
+    /**
+     * Liefert alle Transaktionen im Zeitraum {@code [from, to]} (beide Grenzen inklusive),
+     * sortiert nach Datum und innerhalb eines Tages in Einfügereihenfolge.
+     *
+     * @param from erster Tag
+     * @param to   letzter Tag
+     * @return neue Liste der Transaktionen im Zeitraum
+     */
+    List<Transaction> between(LocalDate from, LocalDate to) {
+        List<Transaction> result = new ArrayList<>();
+        if (from.isAfter(to)) {
+            return result;
+        }
+        for (List<Transaction> sameDay : byDate.subMap(from, true, to, true).values()) {
+            result.addAll(sameDay);
+        }
+        return result;
+    }
+
+    /**
+     * Liefert alle Transaktionen sortiert nach {@link Transaction#calculateCents()}.
+     * <p>
+     * Transaktionen mit gleichem Wert behalten in beiden Richtungen ihre Einfügereihenfolge
+     * (wie bei einer stabilen Sortierung).
+     * </p>
+     *
+     * @param asc {@code true} für aufsteigende, {@code false} für absteigende Reihenfolge
+     * @return neue, sortierte Liste
+     */
+    List<Transaction> sorted(boolean asc) {
+        return sorted(asc, 0, size());
+    }
+
+    /**
+     * Liefert einen Ausschnitt von {@link #sorted(boolean)}, ohne die übrigen Transaktionen zu kopieren.
+     * Werte-Gruppen vor dem Ausschnitt werden als Ganzes übersprungen.
+     *
+     * @param asc    {@code true} für aufsteigende, {@code false} für absteigende Reihenfolge
+     * @param offset Position des ersten Eintrags
+     * @param limit  maximale Anzahl Einträge
+     * @return neue Liste mit höchstens {@code limit} Transaktionen
+     */
+    List<Transaction> sorted(boolean asc, int offset, int limit) {
+        List<Transaction> result = new ArrayList<>(Math.max(0, Math.min(limit, size() - offset)));
+        Map<Long, List<Transaction>> ordered = asc ? byValue : byValue.descendingMap();
+        int skip = offset;
+        for (List<Transaction> sameValue : ordered.values()) {
+            if (result.size() == limit) {
+                break;
+            }
+            if (skip >= sameValue.size()) {
+                skip -= sameValue.size();
+                continue;
+            }
+            int end = (int) Math.min(sameValue.size(), (long) skip + limit - result.size());
+            result.addAll(sameValue.subList(skip, end));
+            skip = 0;
+        }
+        return result;
+    }
+
+    /**
+     * Liefert alle Transaktionen in der Reihenfolge von {@link #sorted(boolean)} als Stream direkt
+     * aus dem Index (ohne Kopie).
+     *
+     * @param asc {@code true} für aufsteigende, {@code false} für absteigende Reihenfolge
+     * @return Stream über den Index
+     */
+    Stream<Transaction> streamSorted(boolean asc) {
+        Map<Long, List<Transaction>> ordered = asc ? byValue : byValue.descendingMap();
+        return ordered.values().stream().flatMap(List::stream);
+    }
+
+    /**
+     * Liefert die Transaktionen eines Vorzeichens in Einfügereihenfolge.
+     *
+     * @param positive {@code true} für {@code calculateCents() >= 0}, {@code false} für {@code < 0}
+     * @return neue Liste
+     */
+    List<Transaction> byType(boolean positive) {
+        return new ArrayList<>(orderOf(positive));
+    }
+
+    /**
+     * Liefert einen Ausschnitt von {@link #byType(boolean)} in O(limit), unabhängig von {@code offset}.
+     *
+     * @param positive {@code true} für {@code calculateCents() >= 0}, {@code false} für {@code < 0}
+     * @param offset   Position des ersten Eintrags
+     * @param limit    maximale Anzahl Einträge
+     * @return neue Liste mit höchstens {@code limit} Transaktionen
+     */
+    List<Transaction> byType(boolean positive, int offset, int limit) {
+        List<Transaction> ordered = orderOf(positive);
+        if (offset >= ordered.size() || limit <= 0) {
+            return new ArrayList<>(0);
+        }
+        return new ArrayList<>(ordered.subList(offset, (int) Math.min(ordered.size(), (long) offset + limit)));
+    }
+
+    /**
+     * Liefert die Transaktionen eines Vorzeichens als Stream direkt aus dem Index (ohne Kopie).
+     *
+     * @param positive {@code true} für {@code calculateCents() >= 0}, {@code false} für {@code < 0}
+     * @return Stream über die Teilmenge
+     */
+    Stream<Transaction> streamByType(boolean positive) {
+        return orderOf(positive).stream();
+    }
+
+    /**
+     * @param positive {@code true} für {@code calculateCents() >= 0}, {@code false} für {@code < 0}
+     * @return Anzahl der Transaktionen eines Vorzeichens
+     */
+    int count(boolean positive) {
+        return (positive ? positives : negatives).size();
+    }
+
+    /**
+     * @return Anzahl aller Transaktionen des Kontos
+     */
+    int size() {
+        return positives.size() + negatives.size();
+    }
+
+    /**
+     * Liefert die Summe der berechneten Werte aller Transaktionen eines Vorzeichens.
+     *
+     * @param positive {@code true} für die Gutschriften, {@code false} für die Belastungen
+     * @return Summe in Cent ({@code >= 0} bzw. {@code <= 0})
+     */
+    long sum(boolean positive) {
+        return positive ? positiveSum : negativeSum;
+    }
+
+    private Set<Transaction> partitionOf(long value) {
+        return value >= 0 ? positives : negatives;
+    }
+
+    private List<Transaction> orderOf(boolean positive) {
+        return positive ? positiveList : negativeList;
+    }
+}
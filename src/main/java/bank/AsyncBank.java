@@ -0,0 +1,254 @@
+package bank;
+
+import bank.exceptions.AccountAlreadyExistsException;
+import bank.exceptions.AccountDoesNotExistException;
+import bank.exceptions.TransactionAlreadyExistsException;
+import bank.exceptions.TransactionAttributeException;
+import bank.exceptions.TransactionDoesNotExistException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchrone Ergänzung zu {@link Bank}: jede Operation liefert sofort ein {@link CompletableFuture}
+ * und wird im Hintergrund auf einem {@link Executor} ausgeführt.
+ * <p>
+ * Operationen auf <em>demselben</em> Konto laufen strikt in der Reihenfolge ihres Aufrufs (eine Abfrage
+ * sieht also alle vorher abgesetzten Änderungen); Operationen auf verschiedenen Konten laufen
+ * unabhängig voneinander. Aufrufer können so viele Operationen hintereinander absetzen, ohne einen
+ * Thread zu blockieren. Fehler der Bank (z.B. {@link AccountDoesNotExistException} oder
+ * {@link IOException}) beenden das jeweilige Future ausnahmsweise; nachfolgende Operationen
+ * desselben Kontos laufen trotzdem.
+ * </p>
+ * <p>
+ * Standardmäßig wird je Operation ein virtueller Thread verwendet (ab Java 21), auf älteren
+ * Laufzeitumgebungen ein mitwachsender Pool aus Daemon-Threads. Da Konten parallel bearbeitet werden,
+ * muss die Bank dann threadsicher sein (z.B. {@link ConcurrentPrivateBank}). Für eine nicht
+ * threadsichere {@link PrivateBank} einen Executor mit genau einem Thread übergeben, z.B.
+ * {@link Executors#newSingleThreadExecutor()}.
+ * </p>
+ */
+public class AsyncBank implements Closeable {
+
+    private final Bank bank;
+    private final Executor executor;
+
+    /** Vom Konstruktor selbst erzeugter Executor, der in {@link #close()} beendet wird; sonst {@code null}. */
+    private final ExecutorService ownedExecutor;
+
+    /** Letzte eingereihte Operation je Konto; endet nie ausnahmsweise. */
+    private final ConcurrentMap<String, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+
+    /**
+     * Erstellt eine asynchrone Bank mit dem Standard-Executor (virtuelle Threads, falls verfügbar).
+     *
+     * @param bank threadsichere Bank, an die die Operationen weitergereicht werden
+     */
+    public AsyncBank(Bank bank) {
+        this(bank, defaultExecutor(), true);
+    }
+
+    /**
+     * Erstellt eine asynchrone Bank mit eigenem Executor. Der Executor wird von {@link #close()}
+     * nicht beendet.
+     *
+     * @param bank     Bank, an die die Operationen weitergereicht werden
+     * @param executor Executor für die Operationen
+     */
+    public AsyncBank(Bank bank, Executor executor) {
+        this(bank, executor, false);
+    }
+
+    private AsyncBank(Bank bank, Executor executor, boolean owned) {
+        if (bank == null) {
+            throw new IllegalArgumentException("Die Bank darf nicht null sein");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("Der Executor darf nicht null sein");
+        }
+        this.bank = bank;
+        this.executor = executor;
+        this.ownedExecutor = owned ? (ExecutorService) executor : null;
+    }
+
+    /**
+     * Liefert einen Executor mit einem virtuellen Thread je Aufgabe, falls die Laufzeitumgebung ihn
+     * anbietet (Java 21+), sonst einen mitwachsenden Pool aus Daemon-Threads.
+     *
+     * @return neuer Executor
+     */
+    static ExecutorService defaultExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "async-bank-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * @return die Bank, an die die Operationen weitergereicht werden
+     */
+    public Bank getBank() {
+        return bank;
+    }
+
+    /**
+     * Legt ein neues, leeres Konto an.
+     *
+     * @param account Name des Kontos
+     * @return Future; endet mit {@link AccountAlreadyExistsException}, falls das Konto bereits existiert
+     */
+    public CompletableFuture<Void> createAccount(String account) {
+        return submit(account, () -> {
+            bank.createAccount(account);
+            return null;
+        });
+    }
+
+    /**
+     * Fügt einem Konto eine Transaktion hinzu.
+     *
+     * @param account     Name des Kontos
+     * @param transaction neue Transaktion
+     * @return Future; endet mit {@link AccountDoesNotExistException}, {@link TransactionAlreadyExistsException},
+     * {@link TransactionAttributeException} oder {@link IOException}
+     */
+    public CompletableFuture<Void> addTransaction(String account, Transaction transaction) {
+        return submit(account, () -> {
+            bank.addTransaction(account, transaction);
+            return null;
+        });
+    }
+
+    /**
+     * Entfernt eine Transaktion von einem Konto.
+     *
+     * @param account     Name des Kontos
+     * @param transaction zu entfernende Transaktion
+     * @return Future; endet mit {@link AccountDoesNotExistException}, {@link TransactionDoesNotExistException}
+     * oder {@link IOException}
+     */
+    public CompletableFuture<Void> removeTransaction(String account, Transaction transaction) {
+        return submit(account, () -> {
+            bank.removeTransaction(account, transaction);
+            return null;
+        });
+    }
+
+    /**
+     * Liefert den Kontostand, nachdem alle vorher abgesetzten Operationen des Kontos erledigt sind.
+     *
+     * @param account Name des Kontos
+     * @return Future mit dem Kontostand
+     */
+    public CompletableFuture<Double> getAccountBalance(String account) {
+        return submit(account, () -> bank.getAccountBalance(account));
+    }
+
+    /**
+     * Liefert die Transaktionen eines Kontos, nachdem alle vorher abgesetzten Operationen des Kontos
+     * erledigt sind.
+     *
+     * @param account Name des Kontos
+     * @return Future mit der Liste der Transaktionen
+     */
+    public CompletableFuture<List<Transaction>> getTransactions(String account) {
+        return submit(account, () -> bank.getTransactions(account));
+    }
+
+    /**
+     * Löscht ein Konto samt Datei, nachdem alle vorher abgesetzten Operationen des Kontos erledigt sind.
+     *
+     * @param account Name des Kontos
+     * @return Future; endet mit {@link AccountDoesNotExistException} oder {@link IOException}
+     */
+    public CompletableFuture<Void> deleteAccount(String account) {
+        return submit(account, () -> {
+            bank.deleteAccount(account);
+            return null;
+        });
+    }
+
+    /**
+     * Reiht eine Operation hinter die letzte Operation desselben Kontos ein.
+     *
+     * @param account   Name des Kontos (Schlüssel für die Reihenfolge)
+     * @param operation Aufruf der Bank
+     * @param <T>       Ergebnistyp
+     * @return Future mit dem Ergebnis der Operation
+     */
+    private <T> CompletableFuture<T> submit(String account, Callable<T> operation) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        CompletableFuture<Void> tail = result.handle((value, error) -> null);
+
+        // Atomar als neues Ende eintragen; die vorherige Operation bestimmt den Start
+        CompletableFuture<Void> previous = tails.put(account, tail);
+        if (previous == null) {
+            run(operation, result);
+        } else {
+            // Erst starten, wenn die vorherige Operation (erfolgreich oder nicht) fertig ist
+            previous.thenRun(() -> run(operation, result));
+        }
+
+        // Fertige Ketten nicht aufbewahren, sofern inzwischen nichts Neues eingereiht wurde
+        tail.thenRun(() -> tails.remove(account, tail));
+        return result;
+    }
+
+    private <T> void run(Callable<T> operation, CompletableFuture<T> result) {
+        try {
+            executor.execute(() -> {
+                try {
+                    result.complete(operation.call());
+                } catch (Throwable ex) {
+                    result.completeExceptionally(ex);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            result.completeExceptionally(ex);
+        }
+    }
+
+    /**
+     * Wartet, bis alle bisher abgesetzten Operationen erledigt sind.
+     */
+    public void awaitPending() {
+        CompletableFuture.allOf(tails.values().toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    /**
+     * Wartet auf alle abgesetzten Operationen und beendet einen selbst erzeugten Executor.
+     * Die Bank selbst bleibt geöffnet.
+     *
+     * @throws IOException wenn das Warten unterbrochen wird
+     */
+    @Override
+    public void close() throws IOException {
+        awaitPending();
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+            try {
+                ownedExecutor.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Warten auf ausstehende Operationen unterbrochen", ex);
+            }
+        }
+    }
+}
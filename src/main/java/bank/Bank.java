@@ -2,15 +2,21 @@ package bank;
 
 import bank.exceptions.*;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Stream;
 
 
 /**
  * Interface for a generic bank. Provides multiple methods to handle the interaction between
  * accounts and transactions.
  */
-public interface Bank {
+public interface Bank extends Closeable {
 
     /**
      * Adds an account to the bank.
@@ -45,6 +51,38 @@ public interface Bank {
     void addTransaction(String account, Transaction transaction)
             throws TransactionAlreadyExistsException, AccountDoesNotExistException, TransactionAttributeException, IOException;
 
+    /**
+     * Adds a batch of transactions to an already existing account.
+     * <p>
+     * Every transaction is validated like in {@link #addTransaction(String, Transaction)}. Invalid
+     * transactions and duplicates (also within the batch) do not abort the batch but are reported
+     * individually in the result. The default implementation calls {@code addTransaction} per
+     * transaction; implementations should override it to persist the whole batch at once.
+     * </p>
+     *
+     * @param account      the account to which the transactions are added
+     * @param transactions the transactions to be added, in booking order
+     * @return number of accepted transactions and the rejected ones (position = index in {@code transactions})
+     * @throws AccountDoesNotExistException if the specified account does not exist
+     * @throws IOException                  if persisting the batch fails
+     */
+    default ImportResult addTransactions(String account, Collection<? extends Transaction> transactions)
+            throws AccountDoesNotExistException, IOException {
+        List<ImportResult.Rejection> rejections = new ArrayList<>();
+        int accepted = 0;
+        int position = 0;
+        for (Transaction transaction : transactions) {
+            try {
+                addTransaction(account, transaction);
+                accepted++;
+            } catch (TransactionAlreadyExistsException | TransactionAttributeException ex) {
+                rejections.add(new ImportResult.Rejection(position, account, transaction, ex.getMessage()));
+            }
+            position++;
+        }
+        return new ImportResult(accepted, rejections);
+    }
+
     /**
      * Removes a transaction from an account. If the transaction does not exist, an exception is
      * thrown.
@@ -53,9 +91,10 @@ public interface Bank {
      * @param transaction the transaction which is removed from the specified account
      * @throws AccountDoesNotExistException     if the specified account does not exist
      * @throws TransactionDoesNotExistException if the transaction cannot be found
+     * @throws IOException                      if the change cannot be persisted
      */
     void removeTransaction(String account, Transaction transaction)
-            throws AccountDoesNotExistException, TransactionDoesNotExistException;
+            throws AccountDoesNotExistException, TransactionDoesNotExistException, IOException;
 
     /**
      * Checks whether the specified transaction for a given account exists.
@@ -73,6 +112,20 @@ public interface Bank {
      */
     double getAccountBalance(String account);
 
+    /**
+     * Returns the current account balance as exact fixed-point value in cents.
+     * <p>
+     * The default implementation rounds {@link #getAccountBalance(String)}; implementations that
+     * keep their balances in cents should override it.
+     * </p>
+     *
+     * @param account the selected account
+     * @return the current account balance in cents
+     */
+    default long getAccountBalanceCents(String account) {
+        return Money.toCents(getAccountBalance(account));
+    }
+
     /**
      * Returns a list of transactions for an account.
      *
@@ -100,7 +153,166 @@ public interface Bank {
      */
     List<Transaction> getTransactionsByType(String account, boolean positive);
 
+    /**
+     * Returns the sum of all positive (credits) or all negative (debits) calculated amounts
+     * of an account in cents.
+     * <p>
+     * The default implementation sums {@link #getTransactionsByType(String, boolean)}; implementations
+     * that keep partial sums should override it.
+     * </p>
+     *
+     * @param account  the selected account
+     * @param positive selects if the positive or the negative transactions are summed up
+     * @return the sum in cents ({@code >= 0} for positive, {@code <= 0} for negative)
+     */
+    default long getTransactionSumCents(String account, boolean positive) {
+        long sum = 0;
+        for (Transaction transaction : getTransactionsByType(account, positive)) {
+            sum += transaction.calculateCents();
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the sum of all positive or negative calculated amounts of an account.
+     *
+     * @param account  the selected account
+     * @param positive selects if the positive or the negative transactions are summed up
+     * @return the sum ({@code >= 0} for positive, {@code <= 0} for negative)
+     * @see #getTransactionSumCents(String, boolean)
+     */
+    default double getTransactionSum(String account, boolean positive) {
+        return Money.toDouble(getTransactionSumCents(account, positive));
+    }
+
+    /**
+     * Returns one page of the transactions of an account in insertion order.
+     * <p>
+     * The default implementation copies the full list and cuts the page out of it; implementations
+     * should override it to copy only the requested transactions.
+     * </p>
+     *
+     * @param account the selected account
+     * @param offset  position of the first transaction of the page
+     * @param limit   maximum number of transactions on the page
+     * @return the page together with the total number of transactions
+     * @throws IllegalArgumentException if {@code offset} or {@code limit} is negative
+     */
+    default TransactionPage getTransactionsPage(String account, int offset, int limit) {
+        return TransactionPage.of(getTransactions(account), offset, limit);
+    }
+
+    /**
+     * Returns one page of {@link #getTransactionsSorted(String, boolean)}.
+     *
+     * @param account the selected account
+     * @param asc     selects if the transactions are sorted in ascending or descending order
+     * @param offset  position of the first transaction of the page
+     * @param limit   maximum number of transactions on the page
+     * @return the page together with the total number of transactions
+     * @throws IllegalArgumentException if {@code offset} or {@code limit} is negative
+     */
+    default TransactionPage getTransactionsSortedPage(String account, boolean asc, int offset, int limit) {
+        return TransactionPage.of(getTransactionsSorted(account, asc), offset, limit);
+    }
+
+    /**
+     * Returns one page of {@link #getTransactionsByType(String, boolean)}.
+     *
+     * @param account  the selected account
+     * @param positive selects if positive or negative transactions are listed
+     * @param offset   position of the first transaction of the page
+     * @param limit    maximum number of transactions on the page
+     * @return the page together with the total number of matching transactions
+     * @throws IllegalArgumentException if {@code offset} or {@code limit} is negative
+     */
+    default TransactionPage getTransactionsByTypePage(String account, boolean positive, int offset, int limit) {
+        return TransactionPage.of(getTransactionsByType(account, positive), offset, limit);
+    }
+
+    /**
+     * Streams the transactions of an account in insertion order.
+     * <p>
+     * Implementations may stream directly from their internal storage; the account must then not be
+     * modified while the stream is consumed. Thread-safe implementations stream a snapshot instead.
+     * </p>
+     *
+     * @param account the selected account
+     * @return stream of the transactions (empty if the account does not exist)
+     */
+    default Stream<Transaction> streamTransactions(String account) {
+        return getTransactions(account).stream();
+    }
+
+    /**
+     * Streams the transactions of an account in the order of {@link #getTransactionsSorted(String, boolean)}.
+     *
+     * @param account the selected account
+     * @param asc     selects if the transactions are sorted in ascending or descending order
+     * @return stream of the transactions (empty if the account does not exist)
+     * @see #streamTransactions(String)
+     */
+    default Stream<Transaction> streamTransactionsSorted(String account, boolean asc) {
+        return getTransactionsSorted(account, asc).stream();
+    }
+
+    /**
+     * Streams the transactions of {@link #getTransactionsByType(String, boolean)}.
+     *
+     * @param account  the selected account
+     * @param positive selects if positive or negative transactions are streamed
+     * @return stream of the transactions (empty if the account does not exist)
+     * @see #streamTransactions(String)
+     */
+    default Stream<Transaction> streamTransactionsByType(String account, boolean positive) {
+        return getTransactionsByType(account, positive).stream();
+    }
+
+    /**
+     * Returns all transactions of an account dated within {@code [from, to]} (both inclusive),
+     * ordered by date. Transactions without a date are never included.
+     * <p>
+     * The default implementation scans all transactions; implementations with a date index
+     * should override it.
+     * </p>
+     *
+     * @param account the selected account
+     * @param from    first day of the range
+     * @param to      last day of the range
+     * @return the list of transactions in the range (empty if {@code from} is after {@code to})
+     */
+    default List<Transaction> getTransactionsBetween(String account, LocalDate from, LocalDate to) {
+        List<Transaction> result = new ArrayList<>();
+        for (Transaction transaction : getTransactions(account)) {
+            LocalDate date = transaction.getLocalDate();
+            if (date != null && !date.isBefore(from) && !date.isAfter(to)) {
+                result.add(transaction);
+            }
+        }
+        result.sort(Comparator.comparing(Transaction::getLocalDate));
+        return result;
+    }
+
     void deleteAccount(String account) throws AccountDoesNotExistException, IOException;
 
     List<String> getAllAccounts();
+
+    /**
+     * Writes all changes that are still pending (e.g. when persisting in the background) and waits for them.
+     * The default implementation does nothing, because every change is written immediately.
+     *
+     * @throws IOException if the pending changes could not be written
+     */
+    default void flush() throws IOException {
+    }
+
+    /**
+     * Writes all pending changes and releases the resources of the bank. The bank must not be changed afterwards.
+     *
+     * @throws IOException if the pending changes could not be written
+     */
+    @Override
+    default void close() throws IOException {
+        flush();
+    }
 }
@@ -0,0 +1,214 @@
+package bank;
+
+import bank.metrics.BankMetrics;
+
+/**
+ * Einstellungen, die beim Anlegen einer {@link PrivateBank} wirksam werden
+ * (z.B. wie die vorhandenen Konten beim Start geladen werden).
+ * <p>
+ * Alle Werte haben sinnvolle Voreinstellungen; {@code new BankOptions()} entspricht
+ * dem bisherigen Verhalten.
+ * </p>
+ */
+public class BankOptions {
+
+    /** Anzahl der Threads zum Laden der Konten beim Start (1 = sequentiell). */
+    private int loaderThreads = 1;
+
+    /** Snapshots ohne Einrückung schreiben (kleinere Dateien). */
+    private boolean compactJson = false;
+
+    /** Dateiformat der Konto-Snapshots. */
+    private StorageFormat storageFormat = StorageFormat.JSON;
+
+    /** Konten erst beim ersten Zugriff laden und selten benutzte Konten verdrängen. */
+    private boolean lazyLoading = false;
+
+    /** Höchstzahl gleichzeitig geladener Konten beim verzögerten Laden. */
+    private int maxResidentAccounts = 100;
+
+    /** Höchstzahl gleichzeitig geladener Transaktionen (über alle Konten) beim verzögerten Laden. */
+    private long maxResidentTransactions = 1_000_000;
+
+    /** Zeitpunkt, zu dem Änderungen geschrieben werden. */
+    private Durability durability = Durability.SYNC;
+
+    /** Höchstdauer in Millisekunden, die Änderungen bei {@link Durability#WRITE_BEHIND} gesammelt werden. */
+    private long flushIntervalMillis = 200;
+
+    /** Höchstzahl noch nicht geschriebener Änderungen, bevor ändernde Aufrufe warten müssen. */
+    private int maxPendingChanges = 10_000;
+
+    /** Empfänger der Laufzeiten, Zähler und Datenmengen (ohne Wirkung, wenn nicht gesetzt). */
+    private BankMetrics metrics = BankMetrics.NOOP;
+
+    // Getter
+    public int getLoaderThreads() {
+        return loaderThreads;
+    }
+
+    public boolean isCompactJson() {
+        return compactJson;
+    }
+
+    public StorageFormat getStorageFormat() {
+        return storageFormat;
+    }
+
+    public boolean isLazyLoading() {
+        return lazyLoading;
+    }
+
+    public int getMaxResidentAccounts() {
+        return maxResidentAccounts;
+    }
+
+    public long getMaxResidentTransactions() {
+        return maxResidentTransactions;
+    }
+
+    public Durability getDurability() {
+        return durability;
+    }
+
+    public long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+
+    public int getMaxPendingChanges() {
+        return maxPendingChanges;
+    }
+
+    public BankMetrics getMetrics() {
+        return metrics;
+    }
+
+    // Setter
+    /**
+     * Setzt die Anzahl der Threads, mit denen die Kontodateien beim Start parallel gelesen werden.
+     *
+     * @param loaderThreads Anzahl der Threads (mindestens 1; 1 = sequentielles Laden)
+     */
+    public void setLoaderThreads(int loaderThreads) {
+        if (loaderThreads < 1) {
+            throw new IllegalArgumentException("Es wird mindestens ein Lade-Thread benötigt");
+        }
+        this.loaderThreads = loaderThreads;
+    }
+
+    /**
+     * Legt fest, ob Snapshots kompakt (ohne Einrückung und Zeilenumbrüche) geschrieben werden.
+     * Gelesen werden beide Varianten.
+     *
+     * @param compactJson {@code true} für kompakte Ausgabe
+     */
+    public void setCompactJson(boolean compactJson) {
+        this.compactJson = compactJson;
+    }
+
+    /**
+     * Legt das Dateiformat der Konto-Snapshots fest. Vorhandene Dateien eines anderen Formats
+     * werden nicht geladen; sie können mit {@link StorageConverter} umgewandelt werden.
+     *
+     * @param storageFormat Dateiformat (nicht {@code null})
+     */
+    public void setStorageFormat(StorageFormat storageFormat) {
+        if (storageFormat == null) {
+            throw new IllegalArgumentException("Das Dateiformat darf nicht null sein");
+        }
+        this.storageFormat = storageFormat;
+    }
+
+    /**
+     * Schaltet das verzögerte Laden ein oder aus.
+     * <p>
+     * Beim Start werden dann nur die Kontonamen aus den Dateinamen gelesen; die Transaktionen eines
+     * Kontos werden beim ersten Zugriff geladen. Werden die Grenzen
+     * {@link #setMaxResidentAccounts(int)} bzw. {@link #setMaxResidentTransactions(long)} überschritten,
+     * werden die am längsten nicht benutzten Konten wieder aus dem Speicher entfernt.
+     * </p>
+     *
+     * @param lazyLoading {@code true} für verzögertes Laden
+     */
+    public void setLazyLoading(boolean lazyLoading) {
+        this.lazyLoading = lazyLoading;
+    }
+
+    /**
+     * @param maxResidentAccounts Höchstzahl gleichzeitig geladener Konten (mindestens 1)
+     */
+    public void setMaxResidentAccounts(int maxResidentAccounts) {
+        if (maxResidentAccounts < 1) {
+            throw new IllegalArgumentException("Es muss mindestens ein Konto geladen bleiben dürfen");
+        }
+        this.maxResidentAccounts = maxResidentAccounts;
+    }
+
+    /**
+     * @param maxResidentTransactions Höchstzahl gleichzeitig geladener Transaktionen (mindestens 1)
+     */
+    public void setMaxResidentTransactions(long maxResidentTransactions) {
+        if (maxResidentTransactions < 1) {
+            throw new IllegalArgumentException("Die Höchstzahl an Transaktionen muss mindestens 1 sein");
+        }
+        this.maxResidentTransactions = maxResidentTransactions;
+    }
+
+    /**
+     * Legt fest, wann Änderungen geschrieben werden (siehe {@link Durability} für die Garantien).
+     * Bei {@link Durability#WRITE_BEHIND} und {@link Durability#GROUP_COMMIT} schreibt ein
+     * Hintergrund-Thread; die Bank sollte dann mit {@code close()} beendet werden.
+     *
+     * @param durability Modus (nicht {@code null})
+     */
+    public void setDurability(Durability durability) {
+        if (durability == null) {
+            throw new IllegalArgumentException("Der Modus darf nicht null sein");
+        }
+        this.durability = durability;
+    }
+
+    /**
+     * @param flushIntervalMillis Höchstdauer in Millisekunden, die Änderungen bei
+     *                            {@link Durability#WRITE_BEHIND} gesammelt werden (mindestens 1)
+     */
+    public void setFlushIntervalMillis(long flushIntervalMillis) {
+        if (flushIntervalMillis < 1) {
+            throw new IllegalArgumentException("Das Intervall muss mindestens 1 ms betragen");
+        }
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    /**
+     * Begrenzt die Warteschlange des Hintergrund-Schreibers. Ist sie voll, wartet der ändernde Aufruf,
+     * bis der Schreiber aufgeholt hat (Gegendruck statt unbegrenztem Speicherverbrauch).
+     *
+     * @param maxPendingChanges Höchstzahl noch nicht geschriebener Änderungen (mindestens 1)
+     */
+    public void setMaxPendingChanges(int maxPendingChanges) {
+        if (maxPendingChanges < 1) {
+            throw new IllegalArgumentException("Die Warteschlange muss mindestens eine Änderung aufnehmen können");
+        }
+        this.maxPendingChanges = maxPendingChanges;
+    }
+
+    /**
+     * Legt fest, wohin die Bank Laufzeiten, Zähler und geschriebene/gelesene Byte meldet
+     * (z.B. eine {@link bank.metrics.MetricsRegistry}). Voreinstellung ist {@link BankMetrics#NOOP}.
+     *
+     * @param metrics Empfänger der Metriken (nicht {@code null})
+     */
+    public void setMetrics(BankMetrics metrics) {
+        if (metrics == null) {
+            throw new IllegalArgumentException("Die Metriken dürfen nicht null sein");
+        }
+        this.metrics = metrics;
+    }
+
+    /**
+     * Lädt die Konten mit so vielen Threads, wie Prozessorkerne verfügbar sind.
+     */
+    public void useParallelLoading() {
+        setLoaderThreads(Runtime.getRuntime().availableProcessors());
+    }
+}
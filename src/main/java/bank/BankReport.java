@@ -0,0 +1,148 @@
+package bank;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Bankweite Kennzahlen über alle Konten, erstellt von {@link PrivateBank#createReport()}.
+ * <p>
+ * Gutschriften und Belastungen sind die Beiträge zum Kontostand (nach Zinsen), Belastungen also
+ * negativ. Die Zinsen sind die Differenz zwischen Betrag und Beitrag aller {@link Payment}s, getrennt
+ * nach Ein- und Auszahlungen; beide sind positiv (Ertrag der Bank).
+ * </p>
+ *
+ * @param accounts              Anzahl der Konten
+ * @param transactions          Anzahl der Transaktionen
+ * @param depositsCents         Summe aller Gutschriften in Cent
+ * @param withdrawalsCents      Summe aller Belastungen in Cent (negativ)
+ * @param incomingInterestCents Zinsen auf Einzahlungen in Cent
+ * @param outgoingInterestCents Zinsen auf Auszahlungen in Cent
+ * @param dailyVolumes          Umsätze je Tag, aufsteigend nach Datum (nicht veränderbar)
+ */
+public record BankReport(int accounts, long transactions, long depositsCents, long withdrawalsCents,
+                         long incomingInterestCents, long outgoingInterestCents,
+                         SortedMap<LocalDate, DailyVolume> dailyVolumes) {
+
+    /**
+     * Umsätze eines Tages.
+     *
+     * @param transactions     Anzahl der Transaktionen
+     * @param depositsCents    Summe der Gutschriften in Cent
+     * @param withdrawalsCents Summe der Belastungen in Cent (negativ)
+     */
+    public record DailyVolume(long transactions, long depositsCents, long withdrawalsCents) {
+
+        /**
+         * @return Umsatz (Gutschriften plus Beträge der Belastungen) in Cent
+         */
+        public long volumeCents() {
+            return depositsCents - withdrawalsCents;
+        }
+    }
+
+    /**
+     * @return Summe aller Kontostände in Cent
+     */
+    public long balanceCents() {
+        return depositsCents + withdrawalsCents;
+    }
+
+    /**
+     * @return insgesamt eingenommene Zinsen in Cent
+     */
+    public long interestCents() {
+        return incomingInterestCents + outgoingInterestCents;
+    }
+
+    @Override
+    public String toString() {
+        return "Konten: " + accounts + ", Transaktionen: " + transactions
+                + " | Gutschriften " + Money.format(depositsCents) + ", Belastungen " + Money.format(withdrawalsCents)
+                + ", Saldo " + Money.format(balanceCents()) + " | Zinsen " + Money.format(interestCents())
+                + " (Einzahlungen " + Money.format(incomingInterestCents)
+                + ", Auszahlungen " + Money.format(outgoingInterestCents) + ") | Tage: " + dailyVolumes.size();
+    }
+
+    /**
+     * Teilergebnis eines Arbeitsschritts; Teilergebnisse mehrerer Threads werden mit
+     * {@link #merge(Accumulator)} zusammengeführt.
+     */
+    static final class Accumulator {
+
+        private long transactions;
+        private long depositsCents;
+        private long withdrawalsCents;
+        private long incomingInterestCents;
+        private long outgoingInterestCents;
+        /** Datum -> {Anzahl, Gutschriften, Belastungen} */
+        private final Map<LocalDate, long[]> days = new HashMap<>();
+
+        /**
+         * Nimmt eine Transaktion auf.
+         *
+         * @param transaction  Transaktion
+         * @param contribution Beitrag zum Kontostand in Cent
+         */
+        void add(Transaction transaction, long contribution) {
+            transactions++;
+            long[] day = days.computeIfAbsent(transaction.getLocalDate(), date -> new long[3]);
+            day[0]++;
+            if (contribution >= 0) {
+                depositsCents += contribution;
+                day[1] += contribution;
+            } else {
+                withdrawalsCents += contribution;
+                day[2] += contribution;
+            }
+            if (transaction instanceof Payment payment) {
+                long interest = payment.getAmountCents() - payment.calculateCents();
+                if (payment.getAmountCents() >= 0) {
+                    incomingInterestCents += interest;
+                } else {
+                    outgoingInterestCents += interest;
+                }
+            }
+        }
+
+        /**
+         * Übernimmt ein anderes Teilergebnis.
+         *
+         * @param other Teilergebnis
+         */
+        void merge(Accumulator other) {
+            transactions += other.transactions;
+            depositsCents += other.depositsCents;
+            withdrawalsCents += other.withdrawalsCents;
+            incomingInterestCents += other.incomingInterestCents;
+            outgoingInterestCents += other.outgoingInterestCents;
+            for (Map.Entry<LocalDate, long[]> entry : other.days.entrySet()) {
+                long[] day = days.get(entry.getKey());
+                if (day == null) {
+                    days.put(entry.getKey(), entry.getValue());
+                } else {
+                    for (int i = 0; i < day.length; i++) {
+                        day[i] += entry.getValue()[i];
+                    }
+                }
+            }
+        }
+
+        /**
+         * @param accounts Anzahl der Konten
+         * @return fertiger Bericht
+         */
+        BankReport toReport(int accounts) {
+            SortedMap<LocalDate, DailyVolume> dailyVolumes = new TreeMap<>();
+            for (Map.Entry<LocalDate, long[]> entry : days.entrySet()) {
+                long[] day = entry.getValue();
+                dailyVolumes.put(entry.getKey(), new DailyVolume(day[0], day[1], day[2]));
+            }
+            return new BankReport(accounts, transactions, depositsCents, withdrawalsCents,
+                    incomingInterestCents, outgoingInterestCents, Collections.unmodifiableSortedMap(dailyVolumes));
+        }
+    }
+}
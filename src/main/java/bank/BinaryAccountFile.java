@@ -0,0 +1,394 @@
+package bank;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binäres Dateiformat für die Transaktionen eines Kontos ({@code <konto>.bank}).
+ * <p>
+ * Aufbau der Datei:
+ * </p>
+ * <ul>
+ *     <li>Kopf (32 Byte): Kennung {@code "BNKA"}, Version, Anzahl Datensätze, Anzahl Wörterbucheinträge,
+ *         Position des Wörterbuchs</li>
+ *     <li>Datensätze mit fester Breite ({@value #RECORD_SIZE} Byte): Typ, Kennzeichen, Datum (Epochentag), Beschreibungs-Id,
+ *         Betrag sowie zwei typabhängige Felder (Zinsen bei {@link Payment}, Sender-/Empfänger-Id bei
+ *         {@link Transfer})</li>
+ *     <li>Wörterbuch: alle Zeichenketten genau einmal als Länge + UTF-8-Bytes</li>
+ * </ul>
+ * <p>
+ * Die Datei wird <b>nicht</b> per {@link FileChannel#map} in den Speicher abgebildet, sondern mit einem
+ * Lesevorgang vollständig in einen {@link ByteBuffer} auf dem Heap kopiert und sofort wieder geschlossen.
+ * Die Datensätze können danach direkt aus dem Puffer abgefragt werden, ohne vorher Objekte anzulegen;
+ * erst {@link #transactionAt(int)} bzw. {@link #toList()} erzeugen {@link Transaction}-Objekte.
+ * </p>
+ * <p>
+ * Gründe gegen die Speicherabbildung: ein {@link java.nio.MappedByteBuffer} lässt sich in Java 17 nicht
+ * gezielt freigeben, sondern erst, wenn der Garbage Collector ihn einsammelt. Bis dahin hält er die
+ * Datei (unter Windows) gesperrt, sodass das Ersetzen des Snapshots beim Kompaktieren oder das Löschen
+ * eines Kontos fehlschlägt. Außerdem werden beim Laden ohnehin alle Datensätze in Objekte oder Spalten
+ * übernommen, ein Lesen ohne Kopie würde also keinen Zugriff einsparen.
+ * </p>
+ * <p>
+ * Ab Version 2 werden Betrag (Cent) und Zinssätze (Millionstel) als {@code long} gespeichert
+ * (siehe {@link Money}); Dateien der Version 1 mit {@code double}-Werten werden weiterhin gelesen.
+ * Ab Version 3 steht das Datum als Epochentag ({@code int}) direkt im Datensatz statt im Wörterbuch.
+ * Das Kennzeichen-Byte {@link #FLAG_BANK_RATES} markiert Zahlungen, deren Zinsen aus der Zinstabelle der
+ * Bank stammen; ältere Dateien enthalten dort 0, ihre Zahlungen behalten also die gespeicherten Zinsen.
+ * </p>
+ */
+public final class BinaryAccountFile {
+
+    /** Dateikennung "BNKA". */
+    private static final int MAGIC = 0x424E4B41;
+    /** Aktuelle Formatversion (2: Festkomma-Beträge, 3: Datum als Epochentag). */
+    private static final short VERSION = 3;
+    /** Formatversion mit Festkomma-Beträgen, aber Datum im Wörterbuch; wird nur noch gelesen. */
+    private static final short VERSION_DATE_STRING = 2;
+    /** Ältere Formatversion mit {@code double}-Beträgen, wird nur noch gelesen. */
+    private static final short VERSION_DOUBLE = 1;
+    /** Größe des Dateikopfes in Byte. */
+    private static final int HEADER_SIZE = 32;
+    /** Größe eines Datensatzes in Byte. */
+    public static final int RECORD_SIZE = 40;
+
+    // Typkennungen
+    public static final byte TYPE_PAYMENT = 1;
+    public static final byte TYPE_INCOMING_TRANSFER = 2;
+    public static final byte TYPE_OUTGOING_TRANSFER = 3;
+    public static final byte TYPE_TRANSFER = 4;
+
+    /** Kennzeichen: die Zinsen der Zahlung stammen aus der Zinstabelle der Bank. */
+    private static final byte FLAG_BANK_RATES = 1;
+
+    /** Id für nicht gesetzte Zeichenketten ({@code null}). */
+    private static final int NO_STRING = -1;
+    /** Epochentag für ein nicht gesetztes Datum ({@code null}). */
+    private static final int NO_DATE = Integer.MIN_VALUE;
+
+    // Positionen innerhalb eines Datensatzes
+    private static final int OFFSET_TYPE = 0;
+    private static final int OFFSET_FLAGS = 1;
+    private static final int OFFSET_DATE = 4;
+    private static final int OFFSET_DESCRIPTION = 8;
+    private static final int OFFSET_AMOUNT = 16;
+    private static final int OFFSET_FIRST = 24;
+    private static final int OFFSET_SECOND = 32;
+
+    private final ByteBuffer records;
+    private final int size;
+    private final String[] dictionary;
+    private final short version;
+
+    private BinaryAccountFile(ByteBuffer records, int size, String[] dictionary, short version) {
+        this.records = records;
+        this.size = size;
+        this.dictionary = dictionary;
+        this.version = version;
+    }
+
+    /**
+     * Liest eine Kontodatei vollständig ein. Die Datei ist nach der Rückkehr wieder geschlossen
+     * und kann ersetzt oder gelöscht werden.
+     *
+     * @param path Pfad zur Datei
+     * @return Sicht auf die Datensätze der Datei
+     * @throws IOException wenn die Datei nicht gelesen werden kann oder kein gültiges Format hat
+     */
+    public static BinaryAccountFile open(Path path) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new IOException("Kontodatei zu groß: " + path.getFileName());
+            }
+            buffer = ByteBuffer.allocate((int) fileSize);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Kontodatei unvollständig gelesen: " + path.getFileName());
+                }
+            }
+        }
+
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Keine gültige Kontodatei: " + path.getFileName());
+        }
+        short version = buffer.getShort(4);
+        if (version != VERSION && version != VERSION_DATE_STRING && version != VERSION_DOUBLE) {
+            throw new IOException("Nicht unterstützte Version " + version + " in " + path.getFileName());
+        }
+
+        int size = buffer.getInt(8);
+        int dictionarySize = buffer.getInt(12);
+        long dictionaryOffset = buffer.getLong(16);
+        if (size < 0 || dictionaryOffset != HEADER_SIZE + (long) size * RECORD_SIZE
+                || dictionaryOffset > buffer.capacity()) {
+            throw new IOException("Beschädigte Kontodatei: " + path.getFileName());
+        }
+
+        // Wörterbuch lesen (jede Zeichenkette nur einmal)
+        String[] dictionary = new String[dictionarySize];
+        int position = (int) dictionaryOffset;
+        for (int i = 0; i < dictionarySize; i++) {
+            int length = buffer.getInt(position);
+            byte[] bytes = new byte[length];
+            buffer.get(position + 4, bytes);
+            dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+            position += 4 + length;
+        }
+
+        ByteBuffer records = buffer.slice(HEADER_SIZE, size * RECORD_SIZE);
+        return new BinaryAccountFile(records, size, dictionary, version);
+    }
+
+    /**
+     * Schreibt die Transaktionen eines Kontos im Binärformat.
+     *
+     * @param path         Zieldatei (wird überschrieben)
+     * @param transactions zu schreibende Transaktionen
+     * @throws IOException wenn beim Schreiben ein Fehler auftritt
+     */
+    public static void write(Path path, List<Transaction> transactions) throws IOException {
+        // Wörterbuch aufbauen: jede Zeichenkette bekommt eine fortlaufende Id
+        Map<String, Integer> ids = new LinkedHashMap<>();
+        ByteBuffer records = ByteBuffer.allocate(transactions.size() * RECORD_SIZE);
+
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction transaction = transactions.get(i);
+            int base = i * RECORD_SIZE;
+
+            records.put(base + OFFSET_TYPE, typeOf(transaction));
+            LocalDate date = transaction.getLocalDate();
+            records.putInt(base + OFFSET_DATE, date == null ? NO_DATE : (int) date.toEpochDay());
+            records.putInt(base + OFFSET_DESCRIPTION, idOf(ids, transaction.getDescription()));
+            records.putLong(base + OFFSET_AMOUNT, transaction.getAmountCents());
+
+            if (transaction instanceof Transfer transfer) {
+                records.putInt(base + OFFSET_FIRST, idOf(ids, transfer.getSender()));
+                records.putInt(base + OFFSET_SECOND, idOf(ids, transfer.getRecipient()));
+            } else if (transaction instanceof Payment payment) {
+                records.putLong(base + OFFSET_FIRST, payment.getIncomingInterestRate());
+                records.putLong(base + OFFSET_SECOND, payment.getOutgoingInterestRate());
+                if (payment.followsBankRates()) {
+                    records.put(base + OFFSET_FLAGS, FLAG_BANK_RATES);
+                }
+            }
+        }
+
+        List<byte[]> encoded = new ArrayList<>(ids.size());
+        int dictionaryBytes = 0;
+        for (String value : ids.keySet()) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            encoded.add(bytes);
+            dictionaryBytes += 4 + bytes.length;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC);
+        header.putShort(VERSION);
+        header.putShort((short) 0);
+        header.putInt(transactions.size());
+        header.putInt(ids.size());
+        header.putLong(HEADER_SIZE + (long) records.capacity());
+        header.rewind(); // restliche Bytes des Kopfes bleiben reserviert (0)
+
+        ByteBuffer dictionary = ByteBuffer.allocate(dictionaryBytes);
+        for (byte[] bytes : encoded) {
+            dictionary.putInt(bytes.length);
+            dictionary.put(bytes);
+        }
+        dictionary.flip();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer[] parts = {header, records, dictionary};
+            while (header.hasRemaining() || records.hasRemaining() || dictionary.hasRemaining()) {
+                channel.write(parts);
+            }
+        }
+    }
+
+    /**
+     * @return Anzahl der Datensätze
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Liefert die Typkennung des Datensatzes (z.B. {@link #TYPE_PAYMENT}).
+     *
+     * @param i Position des Datensatzes
+     * @return Typkennung
+     */
+    public byte typeAt(int i) {
+        return records.get(offset(i) + OFFSET_TYPE);
+    }
+
+    /**
+     * Liefert den gespeicherten (unverrechneten) Betrag des Datensatzes.
+     *
+     * @param i Position des Datensatzes
+     * @return Betrag
+     */
+    public double amountAt(int i) {
+        return Money.toDouble(amountCentsAt(i));
+    }
+
+    /**
+     * Liefert den gespeicherten (unverrechneten) Betrag des Datensatzes in Cent.
+     *
+     * @param i Position des Datensatzes
+     * @return Betrag in Cent
+     */
+    public long amountCentsAt(int i) {
+        int position = offset(i) + OFFSET_AMOUNT;
+        if (version == VERSION_DOUBLE) {
+            return Money.toCents(records.getDouble(position));
+        }
+        return records.getLong(position);
+    }
+
+    /**
+     * Liefert das Datum des Datensatzes.
+     *
+     * @param i Position des Datensatzes
+     * @return Datum oder {@code null}
+     */
+    public LocalDate dateAt(int i) {
+        int value = records.getInt(offset(i) + OFFSET_DATE);
+        if (version < VERSION) {
+            // ältere Versionen: Datum als Zeichenkette im Wörterbuch
+            return DateFormats.parse(string(value));
+        }
+        return value == NO_DATE ? null : LocalDate.ofEpochDay(value);
+    }
+
+    /**
+     * Erzeugt das {@link Transaction}-Objekt für einen Datensatz.
+     *
+     * @param i Position des Datensatzes
+     * @return neue Transaktion
+     * @throws IOException bei unbekannter Typkennung
+     */
+    public Transaction transactionAt(int i) throws IOException {
+        int base = offset(i);
+        LocalDate date;
+        try {
+            date = dateAt(i);
+        } catch (IllegalArgumentException ex) {
+            throw new IOException("Ungültiges Datum in Datensatz " + i + ": " + ex.getMessage(), ex);
+        }
+        String description = string(records.getInt(base + OFFSET_DESCRIPTION));
+        long amountCents = amountCentsAt(i);
+
+        Transaction transaction;
+        byte type = records.get(base + OFFSET_TYPE);
+        switch (type) {
+            case TYPE_PAYMENT:
+                Payment payment = new Payment(null, 0, description, rateAt(base + OFFSET_FIRST), rateAt(base + OFFSET_SECOND));
+                if ((records.get(base + OFFSET_FLAGS) & FLAG_BANK_RATES) != 0) {
+                    payment.markStoredWithBankRates();
+                }
+                transaction = payment;
+                break;
+            case TYPE_INCOMING_TRANSFER:
+                transaction = new IncomingTransfer(null, 0, description,
+                        string(records.getInt(base + OFFSET_FIRST)), string(records.getInt(base + OFFSET_SECOND)));
+                break;
+            case TYPE_OUTGOING_TRANSFER:
+                transaction = new OutgoingTransfer(null, 0, description,
+                        string(records.getInt(base + OFFSET_FIRST)), string(records.getInt(base + OFFSET_SECOND)));
+                break;
+            case TYPE_TRANSFER:
+                transaction = new Transfer(null, 0, description,
+                        string(records.getInt(base + OFFSET_FIRST)), string(records.getInt(base + OFFSET_SECOND)));
+                break;
+            default:
+                throw new IOException("Unbekannter Transaktionstyp " + type + " in Datensatz " + i);
+        }
+        transaction.setDate(date);
+        transaction.setAmountCents(amountCents);
+        return transaction;
+    }
+
+    private double rateAt(int position) {
+        if (version == VERSION_DOUBLE) {
+            return records.getDouble(position);
+        }
+        return Money.rateToDouble(records.getLong(position));
+    }
+
+    /**
+     * Erzeugt alle Transaktionen der Datei.
+     *
+     * @return neue Liste aller Transaktionen
+     * @throws IOException bei unbekannter Typkennung oder ungültigem Datum
+     */
+    public List<Transaction> toList() throws IOException {
+        List<Transaction> transactions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            transactions.add(transactionAt(i));
+        }
+        return transactions;
+    }
+
+    /**
+     * Erzeugt alle gültigen Transaktionen der Datei und überspringt ungültige Datensätze
+     * (unbekannte Typkennung, ungültiges Datum).
+     *
+     * @param rejected nimmt je übersprungenem Datensatz eine Beschreibung auf
+     * @return neue Liste der gültigen Transaktionen
+     */
+    List<Transaction> toList(List<String> rejected) {
+        List<Transaction> transactions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            try {
+                transactions.add(transactionAt(i));
+            } catch (IOException | IllegalArgumentException ex) {
+                rejected.add("Datensatz " + i + ": " + ex.getMessage());
+            }
+        }
+        return transactions;
+    }
+
+    private int offset(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Datensatz " + i + " existiert nicht (Anzahl: " + size + ")");
+        }
+        return i * RECORD_SIZE;
+    }
+
+    private String string(int id) {
+        return id == NO_STRING ? null : dictionary[id];
+    }
+
+    private static int idOf(Map<String, Integer> ids, String value) {
+        if (value == null) {
+            return NO_STRING;
+        }
+        return ids.computeIfAbsent(value, key -> ids.size());
+    }
+
+    private static byte typeOf(Transaction transaction) {
+        if (transaction instanceof IncomingTransfer) {
+            return TYPE_INCOMING_TRANSFER;
+        } else if (transaction instanceof OutgoingTransfer) {
+            return TYPE_OUTGOING_TRANSFER;
+        } else if (transaction instanceof Transfer) {
+            return TYPE_TRANSFER;
+        } else if (transaction instanceof Payment) {
+            return TYPE_PAYMENT;
+        }
+        throw new IllegalArgumentException("Unbekannter Transaktionstyp: " + transaction.getClass().getName());
+    }
+}
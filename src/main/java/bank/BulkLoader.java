@@ -0,0 +1,299 @@
+package bank;
+
+import bank.exceptions.AccountAlreadyExistsException;
+import bank.exceptions.AccountDoesNotExistException;
+import com.google.gson.stream.JsonReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Liest Transaktionen für beliebige Konten zeilenweise aus NDJSON- oder CSV-Dateien und bucht sie
+ * stapelweise über {@link Bank#addTransactions}.
+ * <p>
+ * Die Eingabe wird gestreamt: im Speicher liegen höchstens {@code batchSize} Transaktionen. Je Stapel
+ * wird jedes betroffene Konto genau einmal persistiert. Nicht existierende Konten werden angelegt.
+ * Unlesbare Zeilen, Duplikate und ungültige Transaktionen brechen den Import nicht ab, sondern werden
+ * mit Zeilennummer im {@link ImportResult} gemeldet.
+ * </p>
+ * <p>
+ * NDJSON: eine Zeile je Transaktion im Format des Journals, z.B.
+ * {@code {"ACCOUNT":"Konto","TRANSACTION":{"CLASSNAME":"Payment","INSTANCE":{...}}}}.
+ * </p>
+ * <p>
+ * CSV (Trennzeichen {@code ;}, Felder optional in {@code "..."}), optional mit Kopfzeile:
+ * {@code konto;typ;datum;betrag;beschreibung;sender;empfaenger}. {@code typ} ist {@code Payment},
+ * {@code Transfer}, {@code IncomingTransfer} oder {@code OutgoingTransfer}; der Betrag darf Dezimalpunkt
+ * oder -komma verwenden. Bei {@code Payment} bleiben Sender und Empfänger leer (die Zinsen gibt die Bank vor).
+ * </p>
+ */
+public class BulkLoader {
+
+    /** Standardgröße eines Stapels (Transaktionen über alle Konten). */
+    public static final int DEFAULT_BATCH_SIZE = 10_000;
+
+    private static final char CSV_SEPARATOR = ';';
+
+    private final Bank bank;
+    private final int batchSize;
+    private final De_Serialisieren codec = new De_Serialisieren();
+
+    /**
+     * @param bank Zielbank
+     */
+    public BulkLoader(Bank bank) {
+        this(bank, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param bank      Zielbank
+     * @param batchSize maximale Anzahl gepufferter Transaktionen, bevor gebucht und persistiert wird
+     * @throws IllegalArgumentException wenn {@code batchSize} nicht positiv ist
+     */
+    public BulkLoader(Bank bank, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize muss positiv sein: " + batchSize);
+        }
+        this.bank = bank;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Importiert eine Datei; das Format wird an der Endung erkannt ({@code .csv}, sonst NDJSON).
+     *
+     * @param path Eingabedatei
+     * @return Ergebnis des Imports
+     * @throws IOException wenn die Datei nicht gelesen oder ein Konto nicht geschrieben werden kann
+     */
+    public ImportResult load(Path path) throws IOException {
+        boolean csv = path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv");
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return csv ? loadCsv(reader) : loadNdjson(reader);
+        }
+    }
+
+    /**
+     * Importiert NDJSON (eine Transaktion je Zeile).
+     *
+     * @param reader Eingabe (wird nicht geschlossen)
+     * @return Ergebnis des Imports
+     * @throws IOException wenn die Eingabe nicht gelesen oder ein Konto nicht geschrieben werden kann
+     */
+    public ImportResult loadNdjson(Reader reader) throws IOException {
+        return load(reader, false);
+    }
+
+    /**
+     * Importiert CSV (eine Transaktion je Zeile, optional mit Kopfzeile).
+     *
+     * @param reader Eingabe (wird nicht geschlossen)
+     * @return Ergebnis des Imports
+     * @throws IOException wenn die Eingabe nicht gelesen oder ein Konto nicht geschrieben werden kann
+     */
+    public ImportResult loadCsv(Reader reader) throws IOException {
+        return load(reader, true);
+    }
+
+    private ImportResult load(Reader reader, boolean csv) throws IOException {
+        Batch batch = new Batch();
+        BufferedReader lines = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+
+        String line;
+        long lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || (csv && lineNumber == 1 && isCsvHeader(line))) {
+                continue;
+            }
+            try {
+                if (csv) {
+                    parseCsv(line, lineNumber, batch);
+                } else {
+                    parseNdjson(line, lineNumber, batch);
+                }
+            } catch (IOException | RuntimeException ex) {
+                batch.reject(lineNumber, null, null, "Zeile nicht lesbar: " + ex.getMessage());
+            }
+            if (batch.size >= batchSize) {
+                batch.flush();
+            }
+        }
+        batch.flush();
+        return new ImportResult(batch.accepted, batch.rejections);
+    }
+
+    // --- Formate -------------------------------------------------------------------------------
+
+    private void parseNdjson(String line, long lineNumber, Batch batch) throws IOException {
+        String account = null;
+        Transaction transaction = null;
+
+        JsonReader json = new JsonReader(new StringReader(line));
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "ACCOUNT" -> account = json.nextString();
+                case "TRANSACTION" -> transaction = codec.read(json);
+                default -> json.skipValue();
+            }
+        }
+        json.endObject();
+
+        if (account == null || account.isBlank() || transaction == null) {
+            batch.reject(lineNumber, account, transaction, "ACCOUNT und TRANSACTION sind Pflichtfelder");
+            return;
+        }
+        batch.add(lineNumber, account, transaction);
+    }
+
+    private void parseCsv(String line, long lineNumber, Batch batch) {
+        List<String> fields = splitCsv(line);
+        if (fields.size() < 5) {
+            batch.reject(lineNumber, null, null, "Zu wenige Felder (erwartet konto;typ;datum;betrag;beschreibung;sender;empfaenger)");
+            return;
+        }
+        String account = fields.get(0).trim();
+        String type = fields.get(1).trim();
+        String date = fields.get(2).trim();
+        long cents = parseCents(fields.get(3));
+        String description = fields.get(4);
+        String sender = fields.size() > 5 ? fields.get(5) : null;
+        String recipient = fields.size() > 6 ? fields.get(6) : null;
+
+        if (account.isEmpty()) {
+            batch.reject(lineNumber, null, null, "Konto fehlt");
+            return;
+        }
+
+        Transaction transaction = switch (type) {
+            case "Payment" -> new Payment(date, 0, description);
+            case "Transfer" -> new Transfer(date, 0, description, sender, recipient);
+            case "IncomingTransfer" -> new IncomingTransfer(date, 0, description, sender, recipient);
+            case "OutgoingTransfer" -> new OutgoingTransfer(date, 0, description, sender, recipient);
+            default -> throw new IllegalArgumentException("Unbekannter Transaktionstyp: " + type);
+        };
+        transaction.setAmountCents(cents);
+        batch.add(lineNumber, account, transaction);
+    }
+
+    private static boolean isCsvHeader(String line) {
+        String first = line.substring(0, Math.max(0, line.indexOf(CSV_SEPARATOR))).trim().toLowerCase(Locale.ROOT);
+        return first.equals("konto") || first.equals("account");
+    }
+
+    /**
+     * Liest einen Betrag exakt (ohne Umweg über {@code double}) und rundet auf ganze Cent.
+     * Enthält der Text ein Komma, gilt es als Dezimalkomma und Punkte als Tausendertrennzeichen.
+     */
+    private static long parseCents(String text) {
+        String normalized = text.trim();
+        if (normalized.indexOf(',') >= 0) {
+            normalized = normalized.replace(".", "").replace(',', '.');
+        }
+        return new BigDecimal(normalized).movePointRight(2).setScale(0, Money.ROUNDING).longValueExact();
+    }
+
+    /**
+     * Zerlegt eine CSV-Zeile; Felder in {@code "..."} dürfen das Trennzeichen und {@code ""} enthalten.
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == CSV_SEPARATOR) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // --- Stapel --------------------------------------------------------------------------------
+
+    /**
+     * Gepufferte Transaktionen je Konto (mit Zeilennummern) und das bisherige Ergebnis.
+     */
+    private class Batch {
+
+        private final Map<String, List<Transaction>> transactions = new LinkedHashMap<>();
+        private final Map<String, List<Long>> lineNumbers = new LinkedHashMap<>();
+        private final List<ImportResult.Rejection> rejections = new ArrayList<>();
+        private final Set<String> knownAccounts = new HashSet<>(bank.getAllAccounts());
+        private int size;
+        private int accepted;
+
+        void add(long lineNumber, String account, Transaction transaction) {
+            transactions.computeIfAbsent(account, name -> new ArrayList<>()).add(transaction);
+            lineNumbers.computeIfAbsent(account, name -> new ArrayList<>()).add(lineNumber);
+            size++;
+        }
+
+        void reject(long lineNumber, String account, Transaction transaction, String reason) {
+            rejections.add(new ImportResult.Rejection(lineNumber, account, transaction, reason));
+        }
+
+        /**
+         * Bucht alle gepufferten Transaktionen (ein {@code addTransactions} je Konto) und leert den Puffer.
+         */
+        void flush() throws IOException {
+            for (Map.Entry<String, List<Transaction>> entry : transactions.entrySet()) {
+                String account = entry.getKey();
+                List<Long> lines = lineNumbers.get(account);
+                try {
+                    if (knownAccounts.add(account)) {
+                        createAccount(account);
+                    }
+                    ImportResult result = bank.addTransactions(account, entry.getValue());
+                    accepted += result.accepted();
+                    for (ImportResult.Rejection rejection : result.rejections()) {
+                        reject(lines.get((int) rejection.position()), account, rejection.transaction(), rejection.reason());
+                    }
+                } catch (AccountDoesNotExistException ex) {
+                    for (int i = 0; i < lines.size(); i++) {
+                        reject(lines.get(i), account, entry.getValue().get(i), ex.getMessage());
+                    }
+                }
+            }
+            transactions.clear();
+            lineNumbers.clear();
+            size = 0;
+        }
+
+        private void createAccount(String account) throws IOException {
+            try {
+                bank.createAccount(account);
+            } catch (AccountAlreadyExistsException ignored) {
+                // zwischenzeitlich angelegt -> einfach weiter verwenden
+            }
+        }
+    }
+}
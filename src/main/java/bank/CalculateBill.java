@@ -6,9 +6,17 @@ package bank;
  * Die Implementierung darf den gespeicherten amount-Wert NICHT verändern.
  */
 public interface CalculateBill {
+    /**
+     * Berechnet den Wert der Transaktion exakt in Cent (z. B. abzüglich/zzgl. Zinsen/Gebühren).
+     * @return berechneter Betrag in Cent
+     */
+    long calculateCents();
+
     /**
      * Berechnet den Wert der Transaktion (z. B. abzüglich/zzgl. Zinsen/Gebühren).
-     * @return berechneter Betrag als double
+     * @return berechneter Betrag als double (aus {@link #calculateCents()})
      */
-    double calculate();
+    default double calculate() {
+        return Money.toDouble(calculateCents());
+    }
 }
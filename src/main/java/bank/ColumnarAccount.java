@@ -0,0 +1,369 @@
+package bank;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Transaktionen eines Kontos als parallele primitive Arrays ("Spalten").
+ * <p>
+ * Je Transaktion werden nur gespeichert: Betrag in Cent ({@code long}), Datum als Epochentag
+ * ({@code int}), Typkennung ({@code byte}) sowie Ids aus dem {@link StringPool} für Beschreibung,
+ * Sender und Empfänger. Bei {@link Payment} enthalten die Sender-/Empfänger-Spalten stattdessen die
+ * Zinssätze in Millionstel, die die Bank beim Verbuchen festlegt; stammen sie aus ihrer
+ * {@link InterestRateTable}, ist das in der Typkennung vermerkt und bleibt beim Speichern erhalten.
+ * {@link Transaction}-Objekte werden erst bei Bedarf erzeugt.
+ * </p>
+ * <p>
+ * Für die Duplikatprüfung in O(1) gibt es eine offene Hash-Tabelle über die Zeilennummern.
+ * </p>
+ */
+class ColumnarAccount {
+
+    // Typkennung wie im Binärformat
+    private static final int TYPE_MASK = 0x0F;
+    /** Zinsen einer {@link Payment} stammen aus der Zinstabelle der Bank (zählt nicht zur Gleichheit). */
+    private static final int FLAG_BANK_RATES = 0x10;
+    /** Epochentag für ein nicht gesetztes Datum ({@code null}). */
+    private static final int NO_DATE = Integer.MIN_VALUE;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final StringPool pool;
+
+    private int size;
+    private long[] amounts = new long[INITIAL_CAPACITY];
+    private int[] dates = new int[INITIAL_CAPACITY];
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private int[] descriptions = new int[INITIAL_CAPACITY];
+    private int[] firsts = new int[INITIAL_CAPACITY];
+    private int[] seconds = new int[INITIAL_CAPACITY];
+
+    /** Hash-Tabelle: Zeilennummer + 1, 0 = frei. */
+    private int[] slots = new int[2 * INITIAL_CAPACITY];
+
+    /** Aktueller Kontostand in Cent. */
+    private long balance;
+
+    /** Summe aller nicht-negativen Beiträge in Cent (Belastungen = {@code balance - positiveSum}). */
+    private long positiveSum;
+
+    /**
+     * @param pool bankweiter Zeichenketten-Pool
+     */
+    ColumnarAccount(StringPool pool) {
+        this.pool = pool;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long getBalance() {
+        return balance;
+    }
+
+    /**
+     * @param positive {@code true} für die Gutschriften, {@code false} für die Belastungen
+     * @return Summe der Beiträge eines Vorzeichens in Cent
+     */
+    long getSum(boolean positive) {
+        return positive ? positiveSum : balance - positiveSum;
+    }
+
+    /**
+     * Prüft, ob eine gleiche Transaktion (im Sinne von {@link Transaction#equals(Object)}) vorhanden ist.
+     *
+     * @param transaction gesuchte Transaktion
+     * @return {@code true}, wenn vorhanden
+     */
+    boolean contains(Transaction transaction) {
+        return find(transaction) >= 0;
+    }
+
+    /**
+     * Hängt eine Transaktion als neue Zeile an (ohne Duplikatprüfung).
+     *
+     * @param transaction neue Transaktion
+     */
+    void add(Transaction transaction) {
+        if (size == amounts.length) {
+            grow();
+        }
+        int row = size++;
+        encode(transaction, row);
+        long contribution = contributionAt(row);
+        balance += contribution;
+        if (contribution >= 0) {
+            positiveSum += contribution;
+        }
+        insertSlot(row);
+    }
+
+    /**
+     * Entfernt eine gleiche Transaktion, falls vorhanden. Die Reihenfolge der übrigen bleibt erhalten.
+     *
+     * @param transaction zu entfernende Transaktion
+     * @return {@code true}, wenn eine Zeile entfernt wurde
+     */
+    boolean remove(Transaction transaction) {
+        int row = find(transaction);
+        if (row < 0) {
+            return false;
+        }
+        long contribution = contributionAt(row);
+        balance -= contribution;
+        if (contribution >= 0) {
+            positiveSum -= contribution;
+        }
+
+        int tail = size - row - 1;
+        System.arraycopy(amounts, row + 1, amounts, row, tail);
+        System.arraycopy(dates, row + 1, dates, row, tail);
+        System.arraycopy(types, row + 1, types, row, tail);
+        System.arraycopy(descriptions, row + 1, descriptions, row, tail);
+        System.arraycopy(firsts, row + 1, firsts, row, tail);
+        System.arraycopy(seconds, row + 1, seconds, row, tail);
+        size--;
+
+        // Zeilennummern haben sich verschoben -> Hash-Tabelle neu aufbauen (wie ArrayList.remove in O(n))
+        rehash(slots.length);
+        return true;
+    }
+
+    /**
+     * Beitrag einer Zeile zum Kontostand in Cent, ohne ein Objekt zu erzeugen
+     * (gleiche Rechnung wie {@link Transaction#calculateCents()}).
+     *
+     * @param row Zeile
+     * @return Beitrag in Cent
+     */
+    long contributionAt(int row) {
+        long amount = amounts[row];
+        switch (types[row] & TYPE_MASK) {
+            case BinaryAccountFile.TYPE_PAYMENT:
+                return amount >= 0
+                        ? Money.multiply(amount, Money.RATE_SCALE - firsts[row])
+                        : Money.multiply(amount, Money.RATE_SCALE + seconds[row]);
+            case BinaryAccountFile.TYPE_OUTGOING_TRANSFER:
+                return -amount;
+            default:
+                return amount;
+        }
+    }
+
+    /**
+     * Erzeugt das {@link Transaction}-Objekt einer Zeile.
+     *
+     * @param row Zeile
+     * @return neue Transaktion
+     */
+    Transaction transactionAt(int row) {
+        String description = pool.get(descriptions[row]);
+
+        Transaction transaction = switch (types[row] & TYPE_MASK) {
+            case BinaryAccountFile.TYPE_PAYMENT -> paymentAt(row, description);
+            case BinaryAccountFile.TYPE_INCOMING_TRANSFER -> new IncomingTransfer(null, 0, description,
+                    pool.get(firsts[row]), pool.get(seconds[row]));
+            case BinaryAccountFile.TYPE_OUTGOING_TRANSFER -> new OutgoingTransfer(null, 0, description,
+                    pool.get(firsts[row]), pool.get(seconds[row]));
+            default -> new Transfer(null, 0, description, pool.get(firsts[row]), pool.get(seconds[row]));
+        };
+        transaction.setDate(dateAt(row));
+        transaction.setAmountCents(amounts[row]);
+        return transaction;
+    }
+
+    private Payment paymentAt(int row, String description) {
+        Payment payment = new Payment(null, 0, description,
+                Money.rateToDouble(firsts[row]), Money.rateToDouble(seconds[row]));
+        if ((types[row] & FLAG_BANK_RATES) != 0) {
+            payment.markStoredWithBankRates();
+        }
+        return payment;
+    }
+
+    /**
+     * Erzeugt alle Transaktionen in Einfügereihenfolge.
+     *
+     * @return neue Liste
+     */
+    List<Transaction> toList() {
+        List<Transaction> transactions = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            transactions.add(transactionAt(row));
+        }
+        return transactions;
+    }
+
+    /**
+     * Geschätzter Speicherbedarf der Spalten und der Hash-Tabelle in Byte (ohne Zeichenketten-Pool).
+     *
+     * @return Speicherbedarf in Byte
+     */
+    long estimateBytes() {
+        int capacity = amounts.length;
+        long columns = MemoryLayout.align(MemoryLayout.ARRAY_HEADER_BYTES + 8L * capacity)
+                + 4 * MemoryLayout.align(MemoryLayout.ARRAY_HEADER_BYTES + 4L * capacity)
+                + MemoryLayout.align(MemoryLayout.ARRAY_HEADER_BYTES + capacity);
+        return columns + MemoryLayout.align(MemoryLayout.ARRAY_HEADER_BYTES + 4L * slots.length);
+    }
+
+    // --- Kodierung -----------------------------------------------------------------------------
+
+    private void encode(Transaction transaction, int row) {
+        amounts[row] = transaction.getAmountCents();
+        dates[row] = epochDayOf(transaction);
+        descriptions[row] = pool.intern(transaction.getDescription());
+        types[row] = (byte) typeOf(transaction);
+        if (transaction instanceof Payment payment) {
+            if (payment.followsBankRates()) {
+                types[row] |= FLAG_BANK_RATES;
+            }
+            firsts[row] = (int) payment.getIncomingInterestRate();
+            seconds[row] = (int) payment.getOutgoingInterestRate();
+        } else {
+            Transfer transfer = (Transfer) transaction;
+            firsts[row] = pool.intern(transfer.getSender());
+            seconds[row] = pool.intern(transfer.getRecipient());
+        }
+    }
+
+    /**
+     * Liefert das Datum einer Zeile.
+     *
+     * @param row Zeile
+     * @return Datum oder {@code null}
+     */
+    LocalDate dateAt(int row) {
+        return dates[row] == NO_DATE ? null : LocalDate.ofEpochDay(dates[row]);
+    }
+
+    /**
+     * Liefert den Epochentag einer Zeile ohne ein Objekt zu erzeugen.
+     *
+     * @param row Zeile
+     * @return Epochentag oder {@link Integer#MIN_VALUE} ohne Datum
+     */
+    int epochDayAt(int row) {
+        return dates[row];
+    }
+
+    private static int epochDayOf(Transaction transaction) {
+        LocalDate date = transaction.getLocalDate();
+        return date == null ? NO_DATE : (int) date.toEpochDay();
+    }
+
+    private static int typeOf(Transaction transaction) {
+        if (transaction instanceof IncomingTransfer) {
+            return BinaryAccountFile.TYPE_INCOMING_TRANSFER;
+        } else if (transaction instanceof OutgoingTransfer) {
+            return BinaryAccountFile.TYPE_OUTGOING_TRANSFER;
+        } else if (transaction instanceof Transfer) {
+            return BinaryAccountFile.TYPE_TRANSFER;
+        } else if (transaction instanceof Payment) {
+            return BinaryAccountFile.TYPE_PAYMENT;
+        }
+        throw new IllegalArgumentException("Unbekannter Transaktionstyp: " + transaction.getClass().getName());
+    }
+
+    // --- Hash-Index ----------------------------------------------------------------------------
+
+    /**
+     * Sucht die Zeile einer gleichen Transaktion, ohne neue Zeichenketten in den Pool aufzunehmen.
+     *
+     * @param transaction gesuchte Transaktion
+     * @return Zeile oder {@code -1}
+     */
+    private int find(Transaction transaction) {
+        int type;
+        try {
+            type = typeOf(transaction);
+        } catch (IllegalArgumentException ex) {
+            return -1;
+        }
+
+        int date = epochDayOf(transaction);
+        int description = pool.find(transaction.getDescription());
+        int first;
+        int second;
+        if (transaction instanceof Payment payment) {
+            first = (int) payment.getIncomingInterestRate();
+            second = (int) payment.getOutgoingInterestRate();
+        } else {
+            Transfer transfer = (Transfer) transaction;
+            first = pool.find(transfer.getSender());
+            second = pool.find(transfer.getRecipient());
+            if (first == StringPool.MISSING || second == StringPool.MISSING) {
+                return -1;
+            }
+        }
+        if (description == StringPool.MISSING) {
+            return -1;
+        }
+
+        byte typeByte = (byte) type;
+        long amount = transaction.getAmountCents();
+        int mask = slots.length - 1;
+        for (int i = hash(typeByte, amount, date, description, first, second) & mask; ; i = (i + 1) & mask) {
+            int slot = slots[i];
+            if (slot == 0) {
+                return -1;
+            }
+            int row = slot - 1;
+            if ((types[row] & TYPE_MASK) == typeByte && amounts[row] == amount && dates[row] == date
+                    && descriptions[row] == description && firsts[row] == first && seconds[row] == second) {
+                return row;
+            }
+        }
+    }
+
+    private void insertSlot(int row) {
+        if (2 * size > slots.length) {
+            rehash(2 * slots.length);
+            return;
+        }
+        place(row);
+    }
+
+    private void place(int row) {
+        int mask = slots.length - 1;
+        int i = hash((byte) (types[row] & TYPE_MASK), amounts[row], dates[row], descriptions[row], firsts[row], seconds[row]) & mask;
+        while (slots[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        slots[i] = row + 1;
+    }
+
+    private void rehash(int capacity) {
+        slots = new int[capacity];
+        for (int row = 0; row < size; row++) {
+            place(row);
+        }
+    }
+
+    private void grow() {
+        int capacity = amounts.length * 2;
+        amounts = Arrays.copyOf(amounts, capacity);
+        dates = Arrays.copyOf(dates, capacity);
+        types = Arrays.copyOf(types, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+        firsts = Arrays.copyOf(firsts, capacity);
+        seconds = Arrays.copyOf(seconds, capacity);
+    }
+
+    private static int hash(byte type, long amount, int date, int description, int first, int second) {
+        long h = type;
+        h = h * 31 + amount;
+        h = h * 31 + date;
+        h = h * 31 + description;
+        h = h * 31 + first;
+        h = h * 31 + second;
+        // Bits mischen, damit auch die unteren Bits (Maske) gut verteilt sind
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
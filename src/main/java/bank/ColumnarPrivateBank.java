@@ -0,0 +1,638 @@
+package bank;
+
+import bank.exceptions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Speichersparende Bank mit spaltenorientierter Ablage der Transaktionen.
+ * <p>
+ * Jedes Konto wird als {@link ColumnarAccount} (parallele primitive Arrays) gehalten; Beschreibungen,
+ * Sender und Empfänger liegen nur einmal im bankweiten {@link StringPool}. {@link Transaction}-Objekte
+ * werden erst erzeugt, wenn sie über die {@link Bank}-Schnittstelle abgefragt werden. Kontostand,
+ * Sortierung und Filterung nach Vorzeichen arbeiten direkt auf den Spalten.
+ * </p>
+ * <p>
+ * Die Persistenz teilt sich die Klasse mit {@link PrivateBank} ({@link AccountFiles}): Snapshot im
+ * eingestellten {@link StorageFormat} plus {@code <konto>.journal}, Kompaktierung, Schreibmodus
+ * ({@link Durability}), Metriken und JFR-Ereignisse beim Lesen und Schreiben sowie das Vervollständigen
+ * unterbrochener Überweisungen beim Öffnen. Beide Klassen können dasselbe Verzeichnis lesen.
+ * </p>
+ * <p>
+ * Die Verbuchung entspricht {@link PrivateBank} ({@link Transaction#calculateCents()}), nicht
+ * {@link PrivateBankAlt}. Zahlungen erhalten die Zinsen der gespeicherten {@link InterestRateTable}
+ * an ihrem Datum; da die Spalten diese Zinsen festhalten, lassen sich die Zinssätze hier nicht ändern
+ * (dafür {@link PrivateBank#setInterestRates}). Wie {@link PrivateBank} ist die Klasse nicht thread-sicher.
+ * </p>
+ */
+public class ColumnarPrivateBank implements Bank {
+
+    private final String name;
+    /** Zinssätze mit Gültigkeitsdatum (wie bei {@link PrivateBank} in {@value InterestRateTable#FILE_NAME}). */
+    private final InterestRateTable rateTable;
+
+    /** Konten sortiert nach Name. */
+    private final Map<String, ColumnarAccount> accounts = new TreeMap<>();
+    private final StringPool pool = new StringPool();
+    private final AccountFiles files;
+    /** Ergebnis des Ladens beim Öffnen (Anzahl, Dauer und Meldungen). */
+    private LoadReport lastLoadReport;
+
+    /**
+     * Konstruktor zum Anlegen einer neuen Bank mit Namen, Zinssätzen und Einstellungen.
+     * <p>
+     * Wie bei {@link PrivateBank} sind die Zinssätze die Basiszinsen einer neuen Bank; eine bestehende
+     * Bank behält ihre gespeicherten Zinsen.
+     * </p>
+     *
+     * @param name             Name der Bank
+     * @param incomingInterest Zinssatz für eingehende Zahlungen im Bereich {@code [0,1]}
+     * @param outgoingInterest Zinssatz für ausgehende Zahlungen im Bereich {@code [0,1]}
+     * @param directoryName    Verzeichnis, in dem die Konten gespeichert werden
+     * @param options          Einstellungen (Speicherformat, Schreibmodus, Metriken)
+     */
+    public ColumnarPrivateBank(String name, double incomingInterest, double outgoingInterest,
+                               String directoryName, BankOptions options) throws IOException {
+        this.name = name;
+        this.rateTable = new InterestRateTable(incomingInterest, outgoingInterest);
+        this.files = new AccountFiles(directoryName, options);
+
+        Files.createDirectories(Path.of(directoryName));
+        if (!rateTable.read(Path.of(directoryName))) {
+            rateTable.write(Path.of(directoryName));
+        }
+
+        readAccounts(new TransferLog(directoryName));
+
+        // Erst danach ggf. im Hintergrund schreiben
+        files.startWriter(name);
+    }
+
+    /**
+     * Konstruktor mit Standardeinstellungen.
+     *
+     * @param name             Name der Bank
+     * @param incomingInterest Zinssatz für eingehende Zahlungen im Bereich {@code [0,1]}
+     * @param outgoingInterest Zinssatz für ausgehende Zahlungen im Bereich {@code [0,1]}
+     * @param directoryName    Verzeichnis, in dem die Konten gespeichert werden
+     */
+    public ColumnarPrivateBank(String name, double incomingInterest, double outgoingInterest,
+                               String directoryName) throws IOException {
+        this(name, incomingInterest, outgoingInterest, directoryName, new BankOptions());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public InterestRateTable getRateTable() {
+        return rateTable;
+    }
+
+    public int getJournalCompactionThreshold() {
+        return files.getJournalCompactionThreshold();
+    }
+
+    /**
+     * Liefert Anzahl und Dauer des Ladens beim Öffnen sowie die Meldungen zu übersprungenen Datensätzen
+     * und Zeilen (siehe {@link PrivateBank#getLastLoadReport()}).
+     *
+     * @return Ladebericht
+     */
+    public LoadReport getLastLoadReport() {
+        return lastLoadReport;
+    }
+
+    /**
+     * Setzt die Mindestanzahl an Journal-Datensätzen, ab der ein Konto kompaktiert wird
+     * (siehe {@link PrivateBank#setJournalCompactionThreshold(int)}).
+     *
+     * @param journalCompactionThreshold Schwellwert (mindestens 1)
+     */
+    public void setJournalCompactionThreshold(int journalCompactionThreshold) {
+        files.setJournalCompactionThreshold(journalCompactionThreshold);
+    }
+
+    /**
+     * Schätzt den Speicherbedarf aller Transaktionen in diesem Layout und im objektorientierten
+     * Layout von {@link PrivateBank}.
+     * <p>
+     * Für den Vergleichswert werden die Transaktionen einmal vollständig erzeugt.
+     * </p>
+     *
+     * @return Speicherbedarf beider Layouts
+     */
+    public StorageFootprint getFootprint() {
+        long transactions = 0;
+        long columnarBytes = pool.estimateBytes();
+        long objectBytes = 0;
+        for (ColumnarAccount account : accounts.values()) {
+            transactions += account.size();
+            columnarBytes += account.estimateBytes();
+            List<Transaction> rows = new ArrayList<>(account.size());
+            for (int row = 0; row < account.size(); row++) {
+                rows.add(account.transactionAt(row));
+            }
+            objectBytes += MemoryLayout.accountBytes(rows);
+        }
+        return new StorageFootprint(transactions, columnarBytes, objectBytes);
+    }
+
+    // Bank-Methoden
+
+    @Override
+    public void createAccount(String account) throws AccountAlreadyExistsException, IOException {
+        if (accounts.containsKey(account)) {
+            throw new AccountAlreadyExistsException("Account already exists: " + account);
+        }
+        accounts.put(account, new ColumnarAccount(pool));
+        files.persistSnapshot(account, new ArrayList<>());
+    }
+
+    @Override
+    public void createAccount(String account, List<Transaction> transactions)
+            throws AccountAlreadyExistsException, TransactionAlreadyExistsException, TransactionAttributeException, IOException {
+        if (accounts.containsKey(account)) {
+            throw new AccountAlreadyExistsException("Account already exists: " + account);
+        }
+
+        ColumnarAccount columns = new ColumnarAccount(pool);
+        if (transactions != null) {
+            for (Transaction transaction : transactions) {
+                validate(transaction);
+                if (columns.contains(transaction)) {
+                    throw new TransactionAlreadyExistsException("Transaction already exists for this account: " + transaction);
+                }
+                columns.add(transaction);
+            }
+        }
+
+        accounts.put(account, columns);
+        files.persistSnapshot(account, columns.toList());
+    }
+
+    @Override
+    public void addTransaction(String account, Transaction transaction)
+            throws TransactionAlreadyExistsException, AccountDoesNotExistException, TransactionAttributeException, IOException {
+        ColumnarAccount columns = accounts.get(account);
+        if (columns == null) {
+            throw new AccountDoesNotExistException("Account does not exist: " + account);
+        }
+        validate(transaction);
+        if (columns.contains(transaction)) {
+            throw new TransactionAlreadyExistsException("Transaction already exists for this account: " + transaction);
+        }
+
+        columns.add(transaction);
+        persistChange(account, TransactionJournal.OP_ADD, transaction);
+    }
+
+    /**
+     * Prüft und verbucht alle Transaktionen und schreibt sie danach gemeinsam (ein Journal-Block oder ein Snapshot).
+     */
+    @Override
+    public ImportResult addTransactions(String account, Collection<? extends Transaction> transactions)
+            throws AccountDoesNotExistException, IOException {
+        ColumnarAccount columns = accounts.get(account);
+        if (columns == null) {
+            throw new AccountDoesNotExistException("Account does not exist: " + account);
+        }
+
+        List<Transaction> added = new ArrayList<>(transactions.size());
+        List<ImportResult.Rejection> rejections = new ArrayList<>();
+        int position = 0;
+        for (Transaction transaction : transactions) {
+            try {
+                if (transaction == null) {
+                    throw new TransactionAttributeException("Transaction must not be null");
+                }
+                validate(transaction);
+                if (columns.contains(transaction)) {
+                    throw new TransactionAlreadyExistsException("Transaction already exists for this account: " + transaction);
+                }
+                columns.add(transaction);
+                added.add(transaction);
+            } catch (TransactionAlreadyExistsException | TransactionAttributeException ex) {
+                rejections.add(new ImportResult.Rejection(position, account, transaction, ex.getMessage()));
+            }
+            position++;
+        }
+
+        List<TransactionJournal.Entry> entries = new ArrayList<>(added.size());
+        for (Transaction transaction : added) {
+            entries.add(new TransactionJournal.Entry(TransactionJournal.OP_ADD, transaction));
+        }
+        files.persist(account, entries, columns.size(), columns::toList);
+        return new ImportResult(added.size(), rejections);
+    }
+
+    @Override
+    public void removeTransaction(String account, Transaction transaction)
+            throws AccountDoesNotExistException, TransactionDoesNotExistException, IOException {
+        ColumnarAccount columns = accounts.get(account);
+        if (columns == null) {
+            throw new AccountDoesNotExistException("Account does not exist: " + account);
+        }
+        if (!columns.remove(transaction)) {
+            throw new TransactionDoesNotExistException("Transaction does not exist for this account: " + transaction);
+        }
+        persistChange(account, TransactionJournal.OP_REMOVE, transaction);
+    }
+
+    @Override
+    public boolean containsTransaction(String account, Transaction transaction) {
+        ColumnarAccount columns = accounts.get(account);
+        return columns != null && columns.contains(transaction);
+    }
+
+    @Override
+    public double getAccountBalance(String account) {
+        return Money.toDouble(getAccountBalanceCents(account));
+    }
+
+    @Override
+    public long getAccountBalanceCents(String account) {
+        ColumnarAccount columns = accounts.get(account);
+        return columns == null ? 0L : columns.getBalance();
+    }
+
+    @Override
+    public List<Transaction> getTransactions(String account) {
+        ColumnarAccount columns = accounts.get(account);
+        return columns == null ? new ArrayList<>() : columns.toList();
+    }
+
+    /**
+     * Sortiert nur Zeilennummern nach dem berechneten Betrag (stabil) und erzeugt danach die Objekte.
+     */
+    @Override
+    public List<Transaction> getTransactionsSorted(String account, boolean asc) {
+        ColumnarAccount columns = accounts.get(account);
+        if (columns == null) {
+            return new ArrayList<>();
+        }
+        return materialize(columns, sortedRows(columns, asc), 0, columns.size());
+    }
+
+    /**
+     * Erzeugt nur die Objekte der angeforderten Seite.
+     */
+    @Override
+    public TransactionPage getTransactionsPage(String account, int offset, int limit) {
+        TransactionPage.checkRange(offset, limit);
+        ColumnarAccount columns = accounts.get(account);
+        if (columns == null) {
+            return new TransactionPage(new ArrayList<>(), offset, 0);
+        }
+        int from = Math.min(offset, columns.size());
+        int to = (int) Math.min((long) from + limit, columns.size());
+        List<Transaction> result = new ArrayList<>(to - from);
+        for (int row = from; row < to; row++) {
+            result.add(columns.transactionAt(row));
+        }
+        return new TransactionPage(result, offset, columns.size());
+    }
+
+    /**
+     * Sortiert nur Zeilennummern und erzeugt nur die Objekte der angeforderten Seite.
+     */
+    @Override
+    public TransactionPage getTransactionsSortedPage(String account, boolean asc, int offset, int limit) {
+        TransactionPage.checkRange(offset, limit);
+        ColumnarAccount columns = accounts.get(account);
+        if (columns == null) {
+            return new TransactionPage(new ArrayList<>(), offset, 0);
+        }
+        return new TransactionPage(materialize(columns, sortedRows(columns, asc), offset, limit), offset, columns.size());
+    }
+
+    /**
+     * Zählt die Treffer über die Spalten und erzeugt nur die Objekte der angeforderten Seite.
+     */
+    @Override
+    public TransactionPage getTransactionsByTypePage(String account, boolean positive, int offset, int limit) {
+        TransactionPage.checkRange(offset, limit);
+        ColumnarAccount columns = accounts.get(account);
+        if (columns == null) {
+            return new TransactionPage(new ArrayList<>(), offset, 0);
+        }
+        List<Transaction> result = new ArrayList<>();
+        int matches = 0;
+        for (int row = 0; row < columns.size(); row++) {
+            if ((columns.contributionAt(row) >= 0) == positive) {
+                if (matches >= offset && result.size() < limit) {
+                    result.add(columns.transactionAt(row));
+                }
+                matches++;
+            }
+        }
+        return new TransactionPage(result, offset, matches);
+    }
+
+    /**
+     * Erzeugt die Objekte erst beim Durchlaufen des Streams. Das Konto darf währenddessen nicht verändert werden.
+     */
+    @Override
+    public Stream<Transaction> streamTransactions(String account) {
+        ColumnarAccount columns = accounts.get(account);
+        return columns == null ? Stream.empty() : IntStream.range(0, columns.size()).mapToObj(columns::transactionAt);
+    }
+
+    /**
+     * Sortiert nur Zeilennummern; die Objekte entstehen erst beim Durchlaufen des Streams.
+     */
+    @Override
+    public Stream<Transaction> streamTransactionsSorted(String account, boolean asc) {
+        ColumnarAccount columns = accounts.get(account);
+        return columns == null ? Stream.empty() : Arrays.stream(sortedRows(columns, asc)).mapToObj(columns::transactionAt);
+    }
+
+    @Override
+    public Stream<Transaction> streamTransactionsByType(String account, boolean positive) {
+        ColumnarAccount columns = accounts.get(account);
+        if (columns == null) {
+            return Stream.empty();
+        }
+        return IntStream.range(0, columns.size())
+                .filter(row -> (columns.contributionAt(row) >= 0) == positive)
+                .mapToObj(columns::transactionAt);
+    }
+
+    @Override
+    public List<Transaction> getTransactionsByType(String account, boolean positive) {
+        List<Transaction> result = new ArrayList<>();
+        ColumnarAccount columns = accounts.get(account);
+        if (columns == null) {
+            return result;
+        }
+        for (int row = 0; row < columns.size(); row++) {
+            if ((columns.contributionAt(row) >= 0) == positive) {
+                result.add(columns.transactionAt(row));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Liest die laufend gepflegte Teilsumme, ohne Zeilen zu durchlaufen.
+     */
+    @Override
+    public long getTransactionSumCents(String account, boolean positive) {
+        ColumnarAccount columns = accounts.get(account);
+        return columns == null ? 0L : columns.getSum(positive);
+    }
+
+    /**
+     * Durchsucht nur die Datumsspalte (Epochentage) und erzeugt Objekte nur für die Treffer.
+     */
+    @Override
+    public List<Transaction> getTransactionsBetween(String account, LocalDate from, LocalDate to) {
+        ColumnarAccount columns = accounts.get(account);
+        if (columns == null || from.isAfter(to)) {
+            return new ArrayList<>();
+        }
+
+        long first = from.toEpochDay();
+        long last = to.toEpochDay();
+        int size = columns.size();
+        int[] rows = new int[size];
+        long[] keys = new long[size];
+        int matches = 0;
+        for (int row = 0; row < size; row++) {
+            int day = columns.epochDayAt(row);
+            if (day != Integer.MIN_VALUE && day >= first && day <= last) {
+                rows[matches] = row;
+                keys[row] = day;
+                matches++;
+            }
+        }
+        rows = Arrays.copyOf(rows, matches);
+        sortRows(rows, keys);
+
+        List<Transaction> result = new ArrayList<>(matches);
+        for (int row : rows) {
+            result.add(columns.transactionAt(row));
+        }
+        return result;
+    }
+
+    @Override
+    public void deleteAccount(String account) throws AccountDoesNotExistException, IOException {
+        if (accounts.remove(account) == null) {
+            throw new AccountDoesNotExistException("Account does not exist: " + account);
+        }
+        files.delete(account);
+    }
+
+    @Override
+    public List<String> getAllAccounts() {
+        return new ArrayList<>(accounts.keySet());
+    }
+
+    /**
+     * Schreibt bei {@link Durability#WRITE_BEHIND} bzw. {@link Durability#GROUP_COMMIT} alle noch
+     * ausstehenden Änderungen und wartet darauf; bei {@link Durability#SYNC} ohne Wirkung.
+     *
+     * @throws IOException wenn die Änderungen nicht geschrieben werden konnten
+     */
+    @Override
+    public void flush() throws IOException {
+        files.flush();
+    }
+
+    /**
+     * Schreibt alle ausstehenden Änderungen und beendet ggf. den Schreiber-Thread.
+     *
+     * @throws IOException wenn die Änderungen nicht geschrieben werden konnten
+     */
+    @Override
+    public void close() throws IOException {
+        files.close();
+    }
+
+    // Hilfsmethoden
+
+    /**
+     * Prüft die Attribute einer neuen Transaktion und verbindet eine {@link Payment} mit der Zinstabelle
+     * der Bank (wie {@link PrivateBank#addTransaction}).
+     */
+    private void validate(Transaction transaction) throws TransactionAttributeException {
+        if (transaction instanceof Transfer && transaction.getAmountCents() < 0) {
+            throw new TransactionAttributeException("Transfer amount must be >= 0");
+        }
+        if (transaction instanceof Payment payment) {
+            payment.attach(rateTable);
+        }
+    }
+
+    /**
+     * Verbindet eine geladene {@link Payment} wieder mit der Zinstabelle, wenn ihre Zinsen beim Speichern
+     * aus der Tabelle stammten (wie {@link PrivateBank}); gespeicherte eigene Zinsen bleiben erhalten.
+     */
+    private void adoptLoaded(Transaction transaction) {
+        if (transaction instanceof Payment payment && payment.followsBankRates()) {
+            payment.attach(rateTable);
+        }
+    }
+
+    /**
+     * Sortiert die Zeilennummern eines Kontos stabil nach dem berechneten Betrag.
+     *
+     * @param columns Konto
+     * @param asc     {@code true} für aufsteigende, {@code false} für absteigende Reihenfolge
+     * @return sortierte Zeilennummern
+     */
+    private static int[] sortedRows(ColumnarAccount columns, boolean asc) {
+        int size = columns.size();
+        long[] keys = new long[size];
+        int[] rows = new int[size];
+        for (int row = 0; row < size; row++) {
+            keys[row] = asc ? columns.contributionAt(row) : -columns.contributionAt(row);
+            rows[row] = row;
+        }
+        sortRows(rows, keys);
+        return rows;
+    }
+
+    /**
+     * Erzeugt die Objekte eines Ausschnitts von Zeilennummern.
+     *
+     * @param columns Konto
+     * @param rows    Zeilennummern in Ausgabereihenfolge
+     * @param offset  Position des ersten Eintrags
+     * @param limit   maximale Anzahl Einträge
+     * @return neue Liste
+     */
+    private static List<Transaction> materialize(ColumnarAccount columns, int[] rows, int offset, int limit) {
+        int from = Math.min(offset, rows.length);
+        int to = (int) Math.min((long) from + limit, rows.length);
+        List<Transaction> result = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            result.add(columns.transactionAt(rows[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Stabile Sortierung (Mergesort) der Zeilennummern nach den zugehörigen Schlüsseln,
+     * ohne Boxing der Werte.
+     *
+     * @param rows Zeilennummern (werden sortiert)
+     * @param keys Schlüssel je Zeilennummer
+     */
+    private static void sortRows(int[] rows, long[] keys) {
+        int[] buffer = new int[rows.length];
+        for (int width = 1; width < rows.length; width *= 2) {
+            for (int low = 0; low < rows.length - width; low += 2 * width) {
+                int middle = low + width;
+                int high = Math.min(low + 2 * width, rows.length);
+                int left = low;
+                int right = middle;
+                int out = low;
+                while (left < middle && right < high) {
+                    buffer[out++] = keys[rows[right]] < keys[rows[left]] ? rows[right++] : rows[left++];
+                }
+                while (left < middle) {
+                    buffer[out++] = rows[left++];
+                }
+                while (right < high) {
+                    buffer[out++] = rows[right++];
+                }
+                System.arraycopy(buffer, low, rows, low, high - low);
+            }
+        }
+    }
+
+    /**
+     * Liest alle Konten (Snapshot + Journal, siehe {@link AccountFiles#load}) aus dem Verzeichnis und
+     * vervollständigt anschließend unterbrochene Überweisungen.
+     * Nacheinander, da der {@link StringPool} nicht thread-sicher ist. Unlesbare Dateien werden wie bei
+     * {@link PrivateBank} beiseitegelegt ({@link AccountFiles#quarantine}), die übrigen Konten trotzdem geladen.
+     *
+     * @param transferLog Protokoll der Überweisungen
+     * @throws IOException wenn eine unlesbare Kontodatei nicht beiseitegelegt oder das Protokoll nicht
+     *                     verarbeitet werden kann
+     */
+    private void readAccounts(TransferLog transferLog) throws IOException {
+        long startTime = System.nanoTime();
+        List<String> names = files.listAccounts();
+        long listedTime = System.nanoTime();
+
+        List<String> problems = new ArrayList<>();
+        int failedFiles = 0;
+        int rejectedRecords = 0;
+        for (String account : names) {
+            AccountFiles.Loaded<ColumnarAccount> loaded;
+            try {
+                loaded = files.load(account, this::replay, ColumnarAccount::size);
+            } catch (IOException ex) {
+                // Nicht als leeres Konto übernehmen, das die Datei beim nächsten Schreiben ersetzen würde
+                files.quarantine(account);
+                failedFiles++;
+                problems.add(ex.getMessage() + " (beiseitegelegt)");
+                continue;
+            }
+            accounts.put(account, loaded.contents());
+            rejectedRecords += loaded.rejectedRecords();
+            problems.addAll(loaded.problems());
+        }
+        long parsedTime = System.nanoTime();
+
+        files.recoverTransfers(transferLog, accounts::containsKey, this::bookTransferLeg, problems);
+        lastLoadReport = new LoadReport(accounts.size(), failedFiles, rejectedRecords, problems, 1,
+                TimeUnit.NANOSECONDS.toMillis(listedTime - startTime),
+                TimeUnit.NANOSECONDS.toMillis(parsedTime - listedTime), 0);
+    }
+
+    /**
+     * Baut ein Konto aus Snapshot und Journal auf (Journal idempotent nachgespielt).
+     */
+    private ColumnarAccount replay(List<Transaction> transactions, List<TransactionJournal.Entry> journal) {
+        ColumnarAccount columns = new ColumnarAccount(pool);
+        for (Transaction transaction : transactions) {
+            adoptLoaded(transaction);
+            if (!columns.contains(transaction)) {
+                columns.add(transaction);
+            }
+        }
+        for (TransactionJournal.Entry entry : journal) {
+            adoptLoaded(entry.transaction());
+            if (TransactionJournal.OP_ADD.equals(entry.op())) {
+                if (!columns.contains(entry.transaction())) {
+                    columns.add(entry.transaction());
+                }
+            } else {
+                columns.remove(entry.transaction());
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Verbucht beim Öffnen eine Seite einer unterbrochenen Überweisung, falls sie fehlt.
+     */
+    private void bookTransferLeg(String account, Transaction transaction) throws IOException {
+        ColumnarAccount columns = accounts.get(account);
+        if (!columns.contains(transaction)) {
+            columns.add(transaction);
+            persistChange(account, TransactionJournal.OP_ADD, transaction);
+        }
+    }
+
+    private void persistChange(String account, String op, Transaction transaction) throws IOException {
+        ColumnarAccount columns = accounts.get(account);
+        files.persist(account, List.of(new TransactionJournal.Entry(op, transaction)), columns.size(), columns::toList);
+    }
+}
@@ -0,0 +1,368 @@
+package bank;
+
+import bank.exceptions.*;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Thread-sichere Variante von {@link PrivateBank}.
+ * <p>
+ * Änderungen werden je Konto über eine von {@value #STRIPES} Sperren ("Lock-Striping") serialisiert;
+ * Änderungen an verschiedenen Konten laufen daher in der Regel parallel. Abfragen, die nur gespeicherte
+ * Kennzahlen lesen ({@link #getAccountBalance}, {@link #getTransactionSum}), versuchen es zuerst
+ * optimistisch ohne Sperre und lesen nur dann mit Lesesperre erneut, wenn zwischenzeitlich geschrieben
+ * wurde. Alle Abfragen, die Listen oder Indizes durchlaufen ({@link #getTransactions}, Seiten,
+ * Sortierung, ...), lesen unter der Lesesperre des Kontos: die zugrunde liegenden Sammlungen sind nicht
+ * threadsicher und dürfen während einer Änderung nicht durchlaufen werden.
+ * {@link #getAllAccounts()} kommt ganz ohne Sperre aus.
+ * </p>
+ * <p>
+ * {@link #setInterestRates} kommt ebenfalls ohne Kontosperre aus und baut keinen Index neu auf. Findet
+ * eine Abfrage danach einen betroffenen, veralteten Index vor, wechselt sie auf die Schreibsperre ihres
+ * Kontos und baut ihn dort einmal neu auf; andere Konten bleiben davon unberührt.
+ * </p>
+ * <p>
+ * Das verzögerte Laden ({@link BankOptions#setLazyLoading(boolean)}) wird nicht unterstützt, da
+ * dort auch lesende Zugriffe die Kontotabelle verändern.
+ * </p>
+ */
+public class ConcurrentPrivateBank extends PrivateBank {
+
+    /** Anzahl der Sperren, auf die die Konten verteilt werden. */
+    private static final int STRIPES = 64;
+
+    private final StampedLock[] locks = new StampedLock[STRIPES];
+
+    /**
+     * Konstruktor zum Anlegen einer neuen Bank mit Namen und Zinssätzen.
+     *
+     * @param name             Name der Bank
+     * @param incomingInterest Zinssatz für eingehende Zahlungen im Bereich {@code [0,1]}
+     * @param outgoingInterest Zinssatz für ausgehende Zahlungen im Bereich {@code [0,1]}
+     * @param directoryName    Verzeichnis, in dem die Konten gespeichert werden
+     */
+    public ConcurrentPrivateBank(String name, double incomingInterest, double outgoingInterest,
+                                 String directoryName) throws IOException {
+        this(name, incomingInterest, outgoingInterest, directoryName, new BankOptions());
+    }
+
+    /**
+     * Konstruktor zum Anlegen einer neuen Bank mit zusätzlichen Einstellungen.
+     *
+     * @param name             Name der Bank
+     * @param incomingInterest Zinssatz für eingehende Zahlungen im Bereich {@code [0,1]}
+     * @param outgoingInterest Zinssatz für ausgehende Zahlungen im Bereich {@code [0,1]}
+     * @param directoryName    Verzeichnis, in dem die Konten gespeichert werden
+     * @param options          Einstellungen (verzögertes Laden ist nicht erlaubt)
+     */
+    public ConcurrentPrivateBank(String name, double incomingInterest, double outgoingInterest,
+                                 String directoryName, BankOptions options) throws IOException {
+        super(name, incomingInterest, outgoingInterest, directoryName, requireEagerLoading(options));
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new StampedLock();
+        }
+    }
+
+    private static BankOptions requireEagerLoading(BankOptions options) {
+        if (options.isLazyLoading()) {
+            throw new IllegalArgumentException("ConcurrentPrivateBank unterstützt kein verzögertes Laden");
+        }
+        return options;
+    }
+
+    /**
+     * Liefert die Sperre, die für das angegebene Konto zuständig ist.
+     *
+     * @param account Name des Kontos
+     * @return zuständige Sperre
+     */
+    protected StampedLock lockFor(String account) {
+        return locks[stripeOf(account)];
+    }
+
+    /**
+     * Liefert die Nummer der Sperre für ein Konto (für eine feste Sperrreihenfolge bei mehreren Konten).
+     *
+     * @param account Name des Kontos
+     * @return Index der Sperre
+     */
+    protected int stripeOf(String account) {
+        int hash = account.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    @Override
+    public void createAccount(String account) throws AccountAlreadyExistsException, IOException {
+        StampedLock lock = lockFor(account);
+        long stamp = lock.writeLock();
+        try {
+            super.createAccount(account);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void createAccount(String account, List<Transaction> transactions)
+            throws AccountAlreadyExistsException, TransactionAlreadyExistsException, TransactionAttributeException, IOException {
+        StampedLock lock = lockFor(account);
+        long stamp = lock.writeLock();
+        try {
+            super.createAccount(account, transactions);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void addTransaction(String account, Transaction transaction)
+            throws TransactionAlreadyExistsException, AccountDoesNotExistException, TransactionAttributeException, IOException {
+        StampedLock lock = lockFor(account);
+        long stamp = lock.writeLock();
+        try {
+            super.addTransaction(account, transaction);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public ImportResult addTransactions(String account, Collection<? extends Transaction> transactions)
+            throws AccountDoesNotExistException, IOException {
+        StampedLock lock = lockFor(account);
+        long stamp = lock.writeLock();
+        try {
+            return super.addTransactions(account, transactions);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void removeTransaction(String account, Transaction transaction)
+            throws AccountDoesNotExistException, TransactionDoesNotExistException, IOException {
+        StampedLock lock = lockFor(account);
+        long stamp = lock.writeLock();
+        try {
+            super.removeTransaction(account, transaction);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Bucht eine Überweisung unter den Schreibsperren beider Konten.
+     * <p>
+     * Die beiden Sperren werden immer in aufsteigender Reihenfolge ihres Index angefordert, damit
+     * sich gleichzeitige Überweisungen in entgegengesetzter Richtung nicht gegenseitig blockieren.
+     * Liegen beide Konten auf derselben Sperre, wird sie nur einmal angefordert.
+     * </p>
+     */
+    @Override
+    public void transfer(String from, String to, double amount, String date, String description)
+            throws AccountDoesNotExistException, TransactionAlreadyExistsException, TransactionAttributeException, IOException {
+        int first = Math.min(stripeOf(from), stripeOf(to));
+        int second = Math.max(stripeOf(from), stripeOf(to));
+
+        long firstStamp = locks[first].writeLock();
+        try {
+            if (first == second) {
+                super.transfer(from, to, amount, date, description);
+                return;
+            }
+            long secondStamp = locks[second].writeLock();
+            try {
+                super.transfer(from, to, amount, date, description);
+            } finally {
+                locks[second].unlockWrite(secondStamp);
+            }
+        } finally {
+            locks[first].unlockWrite(firstStamp);
+        }
+    }
+
+    @Override
+    public void deleteAccount(String account) throws AccountDoesNotExistException, IOException {
+        StampedLock lock = lockFor(account);
+        long stamp = lock.writeLock();
+        try {
+            super.deleteAccount(account);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean containsTransaction(String account, Transaction transaction) {
+        return readLocked(account, () -> super.containsTransaction(account, transaction));
+    }
+
+    // getAccountBalance() delegiert an getAccountBalanceCents() und wird daher nicht überschrieben
+    @Override
+    public long getAccountBalanceCents(String account) {
+        return readOptimistic(account, () -> super.getAccountBalanceCents(account));
+    }
+
+    @Override
+    public List<Transaction> getTransactions(String account) {
+        return readLocked(account, () -> super.getTransactions(account));
+    }
+
+    @Override
+    public List<Transaction> getTransactionsSorted(String account, boolean asc) {
+        return readLocked(account, () -> super.getTransactionsSorted(account, asc));
+    }
+
+    @Override
+    public List<Transaction> getTransactionsByType(String account, boolean positive) {
+        return readLocked(account, () -> super.getTransactionsByType(account, positive));
+    }
+
+    @Override
+    public long getTransactionSumCents(String account, boolean positive) {
+        return readOptimistic(account, () -> super.getTransactionSumCents(account, positive));
+    }
+
+    @Override
+    public TransactionPage getTransactionsPage(String account, int offset, int limit) {
+        return readLocked(account, () -> super.getTransactionsPage(account, offset, limit));
+    }
+
+    @Override
+    public TransactionPage getTransactionsSortedPage(String account, boolean asc, int offset, int limit) {
+        return readLocked(account, () -> super.getTransactionsSortedPage(account, asc, offset, limit));
+    }
+
+    @Override
+    public TransactionPage getTransactionsByTypePage(String account, boolean positive, int offset, int limit) {
+        return readLocked(account, () -> super.getTransactionsByTypePage(account, positive, offset, limit));
+    }
+
+    // Streams können die Sperre nicht über ihre Lebensdauer halten -> Momentaufnahme streamen
+    @Override
+    public Stream<Transaction> streamTransactions(String account) {
+        return getTransactions(account).stream();
+    }
+
+    @Override
+    public Stream<Transaction> streamTransactionsSorted(String account, boolean asc) {
+        return getTransactionsSorted(account, asc).stream();
+    }
+
+    @Override
+    public Stream<Transaction> streamTransactionsByType(String account, boolean positive) {
+        return getTransactionsByType(account, positive).stream();
+    }
+
+    @Override
+    public List<Transaction> getTransactionsBetween(String account, LocalDate from, LocalDate to) {
+        return readLocked(account, () -> super.getTransactionsBetween(account, from, to));
+    }
+
+    /**
+     * Abfragen halten höchstens eine Lesesperre und dürfen den Index daher nicht ersetzen; veraltete
+     * Indizes baut {@link #readLocked} vorher unter der Schreibsperre neu auf.
+     */
+    @Override
+    boolean revaluesOnRead() {
+        return false;
+    }
+
+    /**
+     * Erstellt den Bericht unter den Lesesperren aller Konten, damit er einen konsistenten Stand zeigt.
+     * Die Sperren werden in aufsteigender Reihenfolge angefordert (wie bei {@link #transfer}).
+     */
+    @Override
+    public BankReport createReport() {
+        long[] stamps = new long[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stamps[i] = locks[i].readLock();
+        }
+        try {
+            return super.createReport();
+        } finally {
+            for (int i = STRIPES - 1; i >= 0; i--) {
+                locks[i].unlockRead(stamps[i]);
+            }
+        }
+    }
+
+    /**
+     * Führt eine Abfrage aus, die nur einzelne gespeicherte Werte des Kontos liest (Kontostand, Summen).
+     * <p>
+     * Zuerst wird ohne Sperre (optimistisch) gelesen. Hat in der Zwischenzeit ein Schreibzugriff
+     * auf dieselbe Sperre stattgefunden, wird das Ergebnis verworfen und mit Lesesperre erneut gelesen.
+     * Nur für Abfragen mit konstantem Aufwand verwenden, die keine Sammlung durchlaufen und nichts
+     * verändern: ohne Sperre können sie einen halb geschriebenen Zustand sehen, der erst durch
+     * {@link StampedLock#validate} verworfen wird.
+     * </p>
+     *
+     * @param account Name des Kontos
+     * @param reader  lesender Zugriff
+     * @param <T>     Ergebnistyp
+     * @return Ergebnis des Zugriffs
+     */
+    private <T> T readOptimistic(String account, Supplier<T> reader) {
+        StampedLock lock = lockFor(account);
+
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            try {
+                // Veralteter Index -> unter Sperre neu aufbauen statt bei jeder Abfrage erneut
+                if (isIndexCurrent(account)) {
+                    T result = reader.get();
+                    if (lock.validate(stamp)) {
+                        return result;
+                    }
+                }
+            } catch (RuntimeException ex) {
+                // Inkonsistenter Zustand durch gleichzeitiges Schreiben -> mit Sperre wiederholen
+                if (lock.validate(stamp)) {
+                    throw ex;
+                }
+            }
+        }
+        return readLocked(account, reader);
+    }
+
+    /**
+     * Führt einen lesenden Zugriff auf ein Konto unter dessen Lesesperre aus.
+     * <p>
+     * Ist der Index des Kontos nach einer Zinsänderung veraltet, wird die Sperre zur Schreibsperre
+     * umgewandelt (oder freigegeben und neu angefordert), der Index einmal neu aufgebaut und der Zugriff
+     * unter der Schreibsperre ausgeführt.
+     * </p>
+     *
+     * @param account Name des Kontos
+     * @param reader  lesender Zugriff
+     * @param <T>     Ergebnistyp
+     * @return Ergebnis des Zugriffs
+     */
+    private <T> T readLocked(String account, Supplier<T> reader) {
+        StampedLock lock = lockFor(account);
+        long stamp = lock.readLock();
+        try {
+            if (!isIndexCurrent(account)) {
+                long writeStamp = lock.tryConvertToWriteLock(stamp);
+                if (writeStamp == 0L) {
+                    lock.unlockRead(stamp);
+                    stamp = 0L;
+                    writeStamp = lock.writeLock();
+                }
+                stamp = writeStamp;
+                refreshIndex(account);
+            }
+            return reader.get();
+        } finally {
+            if (stamp != 0L) {
+                lock.unlock(stamp);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package bank;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+
+/**
+ * Einlesen und Ausgeben von Transaktionsdaten.
+ * <p>
+ * Akzeptiert werden beide bisher verwendeten Schreibweisen: {@code "DD.MM.YYYY"} (z.B. aus älteren
+ * Dateien und Beispielen) und ISO {@code "YYYY-MM-DD"} (z.B. aus dem {@code DatePicker} der Oberfläche).
+ * Intern wird das Datum immer als {@link LocalDate} geführt; gespeichert wird im ISO-Format.
+ * </p>
+ */
+public final class DateFormats {
+
+    /** Deutsches Datumsformat {@code "DD.MM.YYYY"}. */
+    public static final DateTimeFormatter GERMAN = DateTimeFormatter.ofPattern("dd.MM.uuuu")
+            .withResolverStyle(ResolverStyle.STRICT);
+
+    private DateFormats() {
+    }
+
+    /**
+     * Liest ein Datum in einer der beiden unterstützten Schreibweisen.
+     *
+     * @param text Datum als Text (darf {@code null} sein)
+     * @return Datum oder {@code null}, wenn {@code text} {@code null} ist
+     * @throws IllegalArgumentException wenn der Text kein gültiges Datum ist
+     */
+    public static LocalDate parse(String text) {
+        if (text == null) {
+            return null;
+        }
+        String trimmed = text.trim();
+        try {
+            if (trimmed.indexOf('.') >= 0) {
+                return LocalDate.parse(trimmed, GERMAN);
+            }
+            return LocalDate.parse(trimmed);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Ungültiges Datum (erwartet DD.MM.YYYY oder YYYY-MM-DD): " + text, ex);
+        }
+    }
+
+    /**
+     * Formatiert ein Datum im deutschen Format {@code "DD.MM.YYYY"} (für Anzeige und {@code getDate()}).
+     *
+     * @param date Datum (darf {@code null} sein)
+     * @return formatiertes Datum oder {@code null}
+     */
+    public static String format(LocalDate date) {
+        return date == null ? null : GERMAN.format(date);
+    }
+}
@@ -1,114 +1,292 @@
 package bank;
 
+import bank.metrics.BankMetrics;
 import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
+import java.io.StringReader;
 
-public class De_Serialisieren implements JsonSerializer<Transaction>, JsonDeserializer<Transaction> {
+/**
+ * Streaming-Codec für {@link Transaction}-Objekte.
+ * <p>
+ * Liest und schreibt das Format {@code {"CLASSNAME": "...", "INSTANCE": {...}}} direkt über
+ * {@link JsonReader}/{@link JsonWriter}, ohne pro Datensatz einen {@link JsonObject}-Baum oder
+ * eine neue {@link Gson}-Instanz anzulegen.
+ * </p>
+ * <p>
+ * Beträge werden exakt als ganze Cent ({@code "amountCents"}) geschrieben. Ältere Dateien mit
+ * {@code "amount"} als Kommazahl werden weiterhin gelesen und dabei auf ganze Cent gerundet
+ * (siehe {@link Money#toCents(double)}). Daten werden im ISO-Format ({@code "YYYY-MM-DD"}) geschrieben und
+ * in beiden Schreibweisen gelesen (siehe {@link DateFormats}).
+ * </p>
+ * <p>
+ * Eine {@link Payment}, deren Zinsen aus der Zinstabelle der Bank stammen, wird mit
+ * {@code "bankRates": true} gekennzeichnet. Nur solche Zahlungen werden beim Laden wieder mit der
+ * Zinstabelle verbunden; Zahlungen ohne Kennzeichen (auch aus älteren Dateien) behalten ihre
+ * gespeicherten Zinsen.
+ * </p>
+ */
+public class De_Serialisieren extends TypeAdapter<Transaction> {
 
     /**
-     * Serialisiert ein Transaction-Objekt in ein JSON-Objekt.
-     *
-     * @param transaction  das zu serialisierende Objekt
-     * @param type         der Typ der Klasse (hier: Transaction)
-     * @param jsonSerializationContext Kontext für verschachtelte Serialisierung
-     * @return ein JSON-Objekt, das die Klasse und ihre Felder enthält
+     * Ein einzelner Datensatz ist ungültig (z.B. unlesbares Datum oder unbekannter CLASSNAME).
+     * Der Datensatz ist beim Werfen bereits vollständig gelesen, sodass der Aufrufer ihn überspringen
+     * und mit dem nächsten fortfahren kann.
      */
-    @Override
-    public JsonElement serialize(Transaction transaction, Type type, JsonSerializationContext jsonSerializationContext) {
+    static final class InvalidRecordException extends JsonParseException {
+        private static final long serialVersionUID = 1L;
 
-        // Grundstruktur für das Ausgabe-JSON
-        JsonObject jsonObject = new JsonObject();   // Speichert CLASSNAME + INSTANCE
-        JsonObject jsonInstance = new JsonObject(); // Speichert die tatsächlichen Felder
+        InvalidRecordException(String message) {
+            super(message);
+        }
 
-        // --- IncomingTransfer serialisieren ---
+        InvalidRecordException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
 
-        if (transaction instanceof IncomingTransfer inT) { //wenn richtig wird Auto: IncomingTransfer inT = (IncomingTransfer) transaction;
+    /** Geteilte Gson-Instanz mit Einrückung (gut lesbare Dateien). */
+    private static final Gson PRETTY_GSON = new GsonBuilder()
+            .registerTypeHierarchyAdapter(Transaction.class, new De_Serialisieren())
+            .setPrettyPrinting()
+            .create();
 
-            jsonObject.addProperty("CLASSNAME", "IncomingTransfer");
-            jsonInstance.addProperty("sender", inT.getSender());
-            jsonInstance.addProperty("recipient", inT.getRecipient());
-            jsonInstance.addProperty("date", inT.getDate());
-            jsonInstance.addProperty("amount", inT.getAmount());
-            jsonInstance.addProperty("description", inT.getDescription());
-            jsonObject.add("INSTANCE", jsonInstance);
+    /** Geteilte Gson-Instanz ohne Einrückung (kleinere Dateien). */
+    private static final Gson COMPACT_GSON = new GsonBuilder()
+            .registerTypeHierarchyAdapter(Transaction.class, new De_Serialisieren())
+            .create();
 
-        }
-        // --- OutgoingTransfer serialisieren ---
-        else if (transaction instanceof OutgoingTransfer outT) {
+    /**
+     * Empfänger der Laufzeiten je (De-)Serialisierung. Prozessweit, da die Gson-Instanzen geteilt werden;
+     * gesetzt von einer {@link PrivateBank} mit aktivierten Metriken.
+     */
+    private static volatile BankMetrics metrics = BankMetrics.NOOP;
+
+    /**
+     * @param metrics Empfänger der Laufzeiten ({@link BankMetrics#NOOP} zum Abschalten)
+     */
+    static void setMetrics(BankMetrics metrics) {
+        De_Serialisieren.metrics = metrics;
+    }
 
-            jsonObject.addProperty("CLASSNAME", "OutgoingTransfer");
-            jsonInstance.addProperty("sender", outT.getSender());
-            jsonInstance.addProperty("recipient", outT.getRecipient());
-            jsonInstance.addProperty("date", outT.getDate());
-            jsonInstance.addProperty("amount", outT.getAmount());
-            jsonInstance.addProperty("description", outT.getDescription());
-            jsonObject.add("INSTANCE", jsonInstance);
+    /**
+     * Liefert eine geteilte, thread-sichere Gson-Instanz mit diesem Codec.
+     *
+     * @param prettyPrinting {@code true} für eingerückte, {@code false} für kompakte Ausgabe
+     * @return konfigurierte Gson-Instanz
+     */
+    public static Gson getGson(boolean prettyPrinting) {
+        return prettyPrinting ? PRETTY_GSON : COMPACT_GSON;
+    }
 
+    /**
+     * Serialisiert ein Transaction-Objekt direkt in den Ausgabestrom.
+     *
+     * @param out         Ziel, in das geschrieben wird
+     * @param transaction das zu serialisierende Objekt
+     * @throws IOException wenn beim Schreiben ein Fehler auftritt
+     */
+    @Override
+    public void write(JsonWriter out, Transaction transaction) throws IOException {
+        BankMetrics metrics = De_Serialisieren.metrics;
+        if (!metrics.isEnabled()) {
+            writeTransaction(out, transaction);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            writeTransaction(out, transaction);
+        } finally {
+            metrics.recordLatency(BankMetrics.Operation.SERIALIZE, System.nanoTime() - start);
         }
-        // --- Payment serialisieren ---
-        else if (transaction instanceof Payment tmpPayment) {
+    }
 
-            jsonObject.addProperty("CLASSNAME", "Payment");
-            jsonInstance.addProperty("incomingInterest", tmpPayment.getIncomingInterest());
-            jsonInstance.addProperty("outgoingInterest", tmpPayment.getOutgoingInterest());
-            jsonInstance.addProperty("date", tmpPayment.getDate());
-            jsonInstance.addProperty("amount", tmpPayment.getAmount());
-            jsonInstance.addProperty("description", tmpPayment.getDescription());
-            jsonObject.add("INSTANCE", jsonInstance);
+    private void writeTransaction(JsonWriter out, Transaction transaction) throws IOException {
+        if (transaction == null) {
+            out.nullValue();
+            return;
         }
 
-        return jsonObject;
+        // Grundstruktur: CLASSNAME + INSTANCE
+        out.beginObject();
+        out.name("CLASSNAME").value(classNameOf(transaction));
+        out.name("INSTANCE").beginObject();
+
+        if (transaction instanceof Transfer transfer) {
+            out.name("sender").value(transfer.getSender());
+            out.name("recipient").value(transfer.getRecipient());
+        } else if (transaction instanceof Payment payment) {
+            out.name("incomingInterest").value(payment.getIncomingInterest());
+            out.name("outgoingInterest").value(payment.getOutgoingInterest());
+            if (payment.followsBankRates()) {
+                out.name("bankRates").value(true);
+            }
+        }
+        // Datum immer im ISO-Format schreiben (gelesen werden ISO und DD.MM.YYYY)
+        out.name("date").value(transaction.getLocalDate() == null ? null : transaction.getLocalDate().toString());
+        out.name("amountCents").value(transaction.getAmountCents());
+        out.name("description").value(transaction.getDescription());
+
+        out.endObject();
+        out.endObject();
     }
 
     /**
-     * Deserialisiert ein JSON-Objekt zurück in ein Transaction-Objekt.
+     * Deserialisiert ein Transaction-Objekt direkt aus dem Eingabestrom.
      *
-     * @param jsonElement  das JSON, das eingelesen wird
-     * @param type         erwarteter Rückgabetyp (Transaction)
-     * @param jsonDeserializationContext Kontext für verschachtelte Deserialisierung
-     * @return ein konkretes Transaction-Objekt (Payment, Transfer, etc.)
+     * @param in Quelle, aus der gelesen wird
+     * @return ein konkretes Transaction-Objekt (Payment, Transfer, etc.) oder {@code null}
+     * @throws IOException wenn beim Lesen ein Fehler auftritt
      */
     @Override
-    public Transaction deserialize(JsonElement jsonElement, Type type, JsonDeserializationContext jsonDeserializationContext) throws JsonParseException {
-
-        // JSON-Element in ein Objekt umwandeln
-        JsonObject jsonObject2 = jsonElement.getAsJsonObject();
+    public Transaction read(JsonReader in) throws IOException {
+        BankMetrics metrics = De_Serialisieren.metrics;
+        if (!metrics.isEnabled()) {
+            return readTransaction(in);
+        }
+        long start = System.nanoTime();
+        try {
+            return readTransaction(in);
+        } finally {
+            metrics.recordLatency(BankMetrics.Operation.DESERIALIZE, System.nanoTime() - start);
+        }
+    }
 
-        // "INSTANCE" enthält die eigentlichen Felder des Objekts
-        JsonElement instanceElement = jsonObject2.get("INSTANCE");
-        if (instanceElement == null || instanceElement.isJsonNull()) {
-            System.err.println("FEHLER: der Schlüssel INSTANCE existiert nicht oder der Wert von INSTANCE ist null");
-            throw new JsonParseException("Ungültige JSON-Struktur: INSTANCE fehlt oder ist null");
+    private Transaction readTransaction(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
         }
 
-        JsonObject instance = instanceElement.getAsJsonObject();
+        String classname = null;
+        Transaction transaction = null;
+        JsonElement bufferedInstance = null;
+        InvalidRecordException invalid = null;
 
-        // Aus CLASSNAME bestimmen wir die Zielklasse
-        String classname = jsonObject2.get("CLASSNAME").getAsString();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "CLASSNAME" -> classname = in.nextString();
+                case "INSTANCE" -> {
+                    if (in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                    } else if (classname != null) {
+                        // Normalfall: CLASSNAME steht vor INSTANCE -> direkt streamen; bei ungültigen
+                        // Attributen den Rest des Datensatzes trotzdem lesen
+                        try {
+                            transaction = readInstance(classname, in);
+                        } catch (InvalidRecordException ex) {
+                            invalid = ex;
+                        }
+                    } else {
+                        // Seltener Fall: INSTANCE vor CLASSNAME -> nur diesen Teil puffern
+                        bufferedInstance = JsonParser.parseReader(in);
+                    }
+                }
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
 
-        // Je nach CLASSNAME die passende Unterklasse erzeugen
-        return switch (classname) {
+        if (invalid != null) {
+            throw invalid;
+        }
+        if (transaction == null && bufferedInstance == null) {
+            System.err.println("FEHLER: der Schlüssel INSTANCE existiert nicht oder der Wert von INSTANCE ist null");
+            throw new InvalidRecordException("Ungültige JSON-Struktur: INSTANCE fehlt oder ist null");
+        }
+        if (classname == null) {
+            throw new InvalidRecordException("Ungültige JSON-Struktur: CLASSNAME fehlt");
+        }
+        if (transaction == null) {
+            transaction = readInstance(classname, new JsonReader(new StringReader(bufferedInstance.toString())));
+        }
+        return transaction;
+    }
 
-            // Bei Payment: Standard-Deserialisierung reicht aus
-            case "Payment" ->
-                    new Gson().fromJson(instance, Payment.class);
+    /**
+     * Liest die Felder eines INSTANCE-Objekts und erzeugt die passende Unterklasse.
+     *
+     * @param classname Wert von CLASSNAME
+     * @param in        Quelle, die auf dem INSTANCE-Objekt steht
+     * @return erzeugte Transaktion
+     * @throws IOException wenn beim Lesen ein Fehler auftritt
+     */
+    private Transaction readInstance(String classname, JsonReader in) throws IOException {
+        String date = null;
+        String description = null;
+        String sender = null;
+        String recipient = null;
+        long amountCents = 0;
+        double incomingInterest = 0;
+        double outgoingInterest = 0;
+        boolean bankRates = false;
 
-            // Achtung: Es wird eine neue Gson()-Instanz ohne Custom-Deserializer benutzt.
-            // Deshalb verwendet Gson hier die Standard-Deserialisierung.
-            // Das funktioniert, da die JSON-Felder exakt den Attributen der Klasse entsprechen.
-            case "OutgoingTransfer" ->
-                    new Gson().fromJson(instance, OutgoingTransfer.class);
+        in.beginObject();
+        while (in.hasNext()) {
+            String field = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (field) {
+                case "date" -> date = in.nextString();
+                case "description" -> description = in.nextString();
+                case "sender" -> sender = in.nextString();
+                case "recipient" -> recipient = in.nextString();
+                case "amountCents" -> amountCents = in.nextLong();
+                // Altes Format: Betrag als Kommazahl
+                case "amount" -> amountCents = Money.toCents(in.nextDouble());
+                case "incomingInterest" -> incomingInterest = in.nextDouble();
+                case "outgoingInterest" -> outgoingInterest = in.nextDouble();
+                case "bankRates" -> bankRates = in.nextBoolean();
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
 
-            case "IncomingTransfer" ->
-                    new Gson().fromJson(instance, IncomingTransfer.class);
+        try {
+            // Je nach CLASSNAME die passende Unterklasse erzeugen
+            Transaction transaction = switch (classname) {
+                case "Payment" -> new Payment(date, 0, description, incomingInterest, outgoingInterest);
+                case "OutgoingTransfer" -> new OutgoingTransfer(date, 0, description, sender, recipient);
+                case "IncomingTransfer" -> new IncomingTransfer(date, 0, description, sender, recipient);
+                case "Transfer" -> new Transfer(date, 0, description, sender, recipient);
 
-            case "Transfer" ->
-                    new Gson().fromJson(instance, Transfer.class);
+                // Falls ein falscher oder unbekannter CLASSNAME vorkommt → Fehler werfen
+                default -> throw new InvalidRecordException("Falsche Type");
+            };
+            // Betrag exakt in Cent setzen (Transfer prüft dabei auf >= 0)
+            transaction.setAmountCents(amountCents);
+            if (bankRates && transaction instanceof Payment payment) {
+                payment.markStoredWithBankRates();
+            }
+            return transaction;
+        } catch (IllegalArgumentException ex) {
+            // Ungültige Attributwerte (z.B. negativer Transferbetrag)
+            throw new InvalidRecordException("Ungültige Attribute für " + classname + ": " + ex.getMessage(), ex);
+        }
+    }
 
-            // Falls ein falscher oder unbekannter CLASSNAME vorkommt → Fehler werfen
-            default ->
-                    throw new JsonParseException("Falsche Type");
-        };
+    /**
+     * Bestimmt den CLASSNAME-Wert einer Transaktion.
+     *
+     * @param transaction Transaktion
+     * @return Name der konkreten Klasse im Dateiformat
+     */
+    private static String classNameOf(Transaction transaction) {
+        if (transaction instanceof IncomingTransfer) {
+            return "IncomingTransfer";
+        } else if (transaction instanceof OutgoingTransfer) {
+            return "OutgoingTransfer";
+        } else if (transaction instanceof Transfer) {
+            return "Transfer";
+        } else if (transaction instanceof Payment) {
+            return "Payment";
+        }
+        throw new JsonParseException("Unbekannter Transaktionstyp: " + transaction.getClass().getName());
     }
 }
@@ -0,0 +1,37 @@
+package bank;
+
+/**
+ * Legt fest, wann Änderungen einer {@link PrivateBank} auf den Datenträger geschrieben werden
+ * (siehe {@link BankOptions#setDurability(Durability)}).
+ * <p>
+ * Garantien nach der Rückkehr einer ändernden Methode ({@code addTransaction}, {@code transfer}, ...):
+ * </p>
+ * <ul>
+ *     <li>{@link #SYNC}: Die Änderung steht in der Datei (Betriebssystem-Cache). Sie übersteht einen
+ *     Absturz des Programms, aber nicht zwingend einen Stromausfall.</li>
+ *     <li>{@link #WRITE_BEHIND}: Die Änderung steht nur im Speicher und wird spätestens nach
+ *     {@link BankOptions#getFlushIntervalMillis()} im Hintergrund geschrieben. Bei einem Absturz gehen
+ *     höchstens die Änderungen dieses Intervalls verloren; nach {@code flush()} bzw. {@code close()}
+ *     gilt dieselbe Garantie wie bei {@link #SYNC}.</li>
+ *     <li>{@link #GROUP_COMMIT}: Die Änderung ist geschrieben <b>und</b> per {@code fsync} gesichert und
+ *     übersteht damit auch einen Stromausfall. Gleichzeitige Änderungen werden im Hintergrund zu einem
+ *     Durchgang zusammengefasst, der jede berührte Datei einmal schreibt und einmal per {@code fsync}
+ *     sichert: ein Durchgang über drei Konten kostet also drei {@code fsync}s, nicht einen. Gespart wird
+ *     gegenüber einem {@code fsync} je Änderung, wenn mehrere Änderungen dasselbe Konto betreffen.</li>
+ * </ul>
+ * <p>
+ * Überweisungen zwischen zwei Konten werden in allen Modi vorab per {@code fsync} im Überweisungsprotokoll
+ * gesichert und bleiben damit atomar.
+ * </p>
+ */
+public enum Durability {
+
+    /** Jede Änderung wird sofort im aufrufenden Thread geschrieben (bisheriges Verhalten). */
+    SYNC,
+
+    /** Änderungen werden gesammelt und im Hintergrund je Konto zu einem Schreibvorgang pro Intervall zusammengefasst. */
+    WRITE_BEHIND,
+
+    /** Der Aufrufer wartet, bis seine Änderung zusammen mit allen gleichzeitigen Änderungen geschrieben und gesichert ist. */
+    GROUP_COMMIT
+}
@@ -0,0 +1,38 @@
+package bank;
+
+import java.util.List;
+
+/**
+ * Ergebnis einer Massenbuchung ({@link Bank#addTransactions} bzw. {@link BulkLoader}).
+ * <p>
+ * Abgelehnte Datensätze brechen die Verarbeitung nicht ab, sondern werden einzeln mit Grund gemeldet.
+ * </p>
+ *
+ * @param accepted   Anzahl der übernommenen Transaktionen
+ * @param rejections abgelehnte Datensätze in Eingabereihenfolge
+ */
+public record ImportResult(int accepted, List<Rejection> rejections) {
+
+    /**
+     * Ein abgelehnter Datensatz.
+     *
+     * @param position    Position in der übergebenen Sammlung (ab 0) bzw. Zeilennummer der Eingabedatei (ab 1)
+     * @param account     Zielkonto (kann {@code null} sein, wenn die Zeile nicht lesbar war)
+     * @param transaction abgelehnte Transaktion ({@code null}, wenn die Zeile nicht lesbar war)
+     * @param reason      Grund der Ablehnung
+     */
+    public record Rejection(long position, String account, Transaction transaction, String reason) {
+    }
+
+    /**
+     * @return Anzahl der abgelehnten Datensätze
+     */
+    public int rejected() {
+        return rejections.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Übernommen: %d | abgelehnt: %d", accepted, rejected());
+    }
+}
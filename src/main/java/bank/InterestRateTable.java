@@ -0,0 +1,260 @@
+package bank;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Zinssätze einer Bank mit Gültigkeitsdatum.
+ * <p>
+ * Die Tabelle besteht aus den Basiszinsen (gültig ohne Anfangsdatum) und beliebig vielen Änderungen,
+ * die jeweils ab einem Datum gelten. Alle {@link Payment}s einer {@link PrivateBank} verweisen auf
+ * dieselbe Tabelle und ermitteln ihre Zinsen beim Berechnen anhand ihres Datums, statt sie beim
+ * Hinzufügen zu übernehmen. Eine Änderung wirkt dadurch auch auf bereits gebuchte Zahlungen ab dem
+ * Gültigkeitsdatum, ohne dass eine Zahlung angepasst werden muss.
+ * </p>
+ * <p>
+ * Jede Änderung erhöht die {@link #getVersion() Version}. Zwischengespeicherte Werte (Kontostand,
+ * Indizes) merken sich die Version, mit der sie berechnet wurden; über {@link #earliestChangeSince(long)}
+ * lässt sich prüfen, ob eine spätere Änderung sie betrifft.
+ * </p>
+ * <p>
+ * Lesen ist ohne Sperre aus beliebigen Threads möglich: Änderungen ersetzen die Tabelle als Ganzes.
+ * Geändert wird ausschließlich über die Bank ({@link PrivateBank#setInterestRates}).
+ * </p>
+ * <p>
+ * Basiszinsen und Änderungen werden zusammen in {@value #FILE_NAME} gespeichert. Beim Öffnen einer
+ * bestehenden Bank gelten die gespeicherten Basiszinsen, nicht die des Konstruktors; gebuchte Zahlungen
+ * und Kontostände ändern sich also nicht dadurch, dass die Bank mit anderen Zinssätzen geöffnet wird.
+ * </p>
+ */
+public final class InterestRateTable {
+
+    /** Dateiname der gespeicherten Änderungen im Verzeichnis der Bank. */
+    static final String FILE_NAME = "_interest.rates";
+
+    /**
+     * Zinssätze in Millionstel (siehe {@link Money#toRate(double)}).
+     *
+     * @param incoming Zins für Einzahlungen
+     * @param outgoing Zins für Auszahlungen
+     */
+    public record Rates(long incoming, long outgoing) {
+    }
+
+    /**
+     * Eine Änderung mit der Version, die sie erzeugt hat.
+     */
+    private record Change(long version, LocalDate effectiveFrom) {
+    }
+
+    private volatile Rates base;
+    /** Gültigkeitsdatum -> Zinssätze; wird bei jeder Änderung als Ganzes ersetzt. */
+    private volatile NavigableMap<LocalDate, Rates> changes = Collections.emptyNavigableMap();
+    private final List<Change> history = new ArrayList<>();
+    private volatile long version;
+
+    /**
+     * @param incomingInterest Basiszins für Einzahlungen (0..1)
+     * @param outgoingInterest Basiszins für Auszahlungen (0..1)
+     * @throws IllegalArgumentException wenn ein Zinssatz außerhalb von 0..1 liegt
+     */
+    public InterestRateTable(double incomingInterest, double outgoingInterest) {
+        this.base = toRates(incomingInterest, outgoingInterest);
+    }
+
+    /**
+     * Liefert die am angegebenen Tag gültigen Zinssätze.
+     *
+     * @param date Datum ({@code null} = Basiszinsen)
+     * @return gültige Zinssätze
+     */
+    public Rates ratesAt(LocalDate date) {
+        if (date == null) {
+            return base;
+        }
+        Map.Entry<LocalDate, Rates> entry = changes.floorEntry(date);
+        return entry == null ? base : entry.getValue();
+    }
+
+    /**
+     * @return Basiszinsen (gültig vor der ersten Änderung)
+     */
+    public Rates getBaseRates() {
+        return base;
+    }
+
+    /**
+     * @return alle Änderungen, aufsteigend nach Gültigkeitsdatum (nicht veränderbar)
+     */
+    public NavigableMap<LocalDate, Rates> getChanges() {
+        return Collections.unmodifiableNavigableMap(changes);
+    }
+
+    /**
+     * @return Anzahl der bisherigen Änderungen
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Liefert das früheste Gültigkeitsdatum aller Änderungen nach der angegebenen Version.
+     *
+     * @param sinceVersion Version, mit der ein zwischengespeicherter Wert berechnet wurde
+     * @return frühestes betroffenes Datum oder {@code null}, wenn es keine neuere Änderung gibt
+     */
+    public synchronized LocalDate earliestChangeSince(long sinceVersion) {
+        LocalDate earliest = null;
+        for (int i = history.size() - 1; i >= 0 && history.get(i).version() > sinceVersion; i--) {
+            LocalDate from = history.get(i).effectiveFrom();
+            if (earliest == null || from.isBefore(earliest)) {
+                earliest = from;
+            }
+        }
+        return earliest;
+    }
+
+    /**
+     * Setzt die Zinssätze ab einem Datum (bis zur nächsten späteren Änderung).
+     *
+     * @param effectiveFrom    erster Tag, ab dem die Zinssätze gelten
+     * @param incomingInterest Zins für Einzahlungen (0..1)
+     * @param outgoingInterest Zins für Auszahlungen (0..1)
+     * @throws IllegalArgumentException wenn ein Zinssatz außerhalb von 0..1 liegt
+     */
+    synchronized void setRates(LocalDate effectiveFrom, double incomingInterest, double outgoingInterest) {
+        if (effectiveFrom == null) {
+            throw new IllegalArgumentException("Das Gültigkeitsdatum darf nicht leer sein");
+        }
+        NavigableMap<LocalDate, Rates> updated = new TreeMap<>(changes);
+        updated.put(effectiveFrom, toRates(incomingInterest, outgoingInterest));
+        changes = updated;
+        history.add(new Change(version + 1, effectiveFrom));
+        version++;
+    }
+
+    private static Rates toRates(double incomingInterest, double outgoingInterest) {
+        if (incomingInterest < 0 || incomingInterest > 1 || outgoingInterest < 0 || outgoingInterest > 1) {
+            throw new IllegalArgumentException("Der Zinssatz muss zwischen 0 und 1 liegen");
+        }
+        return new Rates(Money.toRate(incomingInterest), Money.toRate(outgoingInterest));
+    }
+
+    // --- Persistenz ----------------------------------------------------------------------------
+
+    /**
+     * Liest gespeicherte Basiszinsen und Änderungen ein (ohne die Version zu erhöhen).
+     * <p>
+     * Ältere Dateien enthalten nur die Änderungen (als Array); dann bleiben die Basiszinsen des
+     * Konstruktors bestehen.
+     * </p>
+     *
+     * @param directory Verzeichnis der Bank
+     * @return {@code true}, wenn die Datei Basiszinsen enthielt
+     * @throws IOException wenn die Datei nicht gelesen werden kann
+     */
+    synchronized boolean read(Path directory) throws IOException {
+        Path path = directory.resolve(FILE_NAME);
+        if (!Files.exists(path)) {
+            return false;
+        }
+        Rates storedBase = null;
+        NavigableMap<LocalDate, Rates> loaded = new TreeMap<>();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+             JsonReader json = new JsonReader(reader)) {
+            if (json.peek() == JsonToken.BEGIN_ARRAY) {
+                // Altes Format: nur Änderungen
+                readChanges(json, loaded);
+            } else {
+                double incoming = -1;
+                double outgoing = -1;
+                json.beginObject();
+                while (json.hasNext()) {
+                    switch (json.nextName()) {
+                        case "incomingInterest" -> incoming = json.nextDouble();
+                        case "outgoingInterest" -> outgoing = json.nextDouble();
+                        case "changes" -> readChanges(json, loaded);
+                        default -> json.skipValue();
+                    }
+                }
+                json.endObject();
+                storedBase = toRates(incoming, outgoing);
+            }
+        } catch (IllegalArgumentException | IllegalStateException ex) {
+            throw new IOException("Ungültige Zinstabelle " + path.getFileName() + ": " + ex.getMessage(), ex);
+        }
+        if (storedBase != null) {
+            base = storedBase;
+        }
+        changes = loaded;
+        return storedBase != null;
+    }
+
+    private static void readChanges(JsonReader json, NavigableMap<LocalDate, Rates> loaded) throws IOException {
+        json.beginArray();
+        while (json.hasNext()) {
+            LocalDate from = null;
+            double incoming = 0;
+            double outgoing = 0;
+            json.beginObject();
+            while (json.hasNext()) {
+                switch (json.nextName()) {
+                    case "from" -> from = LocalDate.parse(json.nextString());
+                    case "incomingInterest" -> incoming = json.nextDouble();
+                    case "outgoingInterest" -> outgoing = json.nextDouble();
+                    default -> json.skipValue();
+                }
+            }
+            json.endObject();
+            if (from != null) {
+                loaded.put(from, toRates(incoming, outgoing));
+            }
+        }
+        json.endArray();
+    }
+
+    /**
+     * Schreibt Basiszinsen und alle Änderungen (temporäre Datei + atomares Umbenennen).
+     *
+     * @param directory Verzeichnis der Bank
+     * @throws IOException wenn die Datei nicht geschrieben werden kann
+     */
+    synchronized void write(Path directory) throws IOException {
+        Path path = directory.resolve(FILE_NAME);
+        Path tempPath = directory.resolve(FILE_NAME + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8);
+             JsonWriter json = new JsonWriter(writer)) {
+            json.setIndent("  ");
+            json.beginObject();
+            json.name("incomingInterest").value(Money.rateToDouble(base.incoming()));
+            json.name("outgoingInterest").value(Money.rateToDouble(base.outgoing()));
+            json.name("changes").beginArray();
+            for (Map.Entry<LocalDate, Rates> entry : changes.entrySet()) {
+                json.beginObject();
+                json.name("from").value(entry.getKey().toString());
+                json.name("incomingInterest").value(Money.rateToDouble(entry.getValue().incoming()));
+                json.name("outgoingInterest").value(Money.rateToDouble(entry.getValue().outgoing()));
+                json.endObject();
+            }
+            json.endArray();
+            json.endObject();
+        }
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,60 @@
+package bank;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ergebnis des Ladens aller Konten beim Start einer {@link PrivateBank}.
+ *
+ * @param accounts        Anzahl der geladenen Konten
+ * @param failedFiles     Anzahl unlesbarer Kontodateien; sie wurden samt Journal als {@code <datei>.rejected}
+ *                        beiseitegelegt, die übrigen Konten wurden trotzdem geladen
+ * @param rejectedRecords Anzahl ungültiger Datensätze (z.B. unlesbares Datum), die übersprungen wurden;
+ *                        die Originaldateien liegen als {@code <datei>.rejected} daneben
+ * @param problems        Beschreibung jeder unlesbaren Datei, jedes verworfenen Datensatzes und jeder übersprungenen
+ *                        Zeile in Journal oder Überweisungsprotokoll; die Bank gibt sie nicht selbst aus
+ * @param threads       Anzahl der verwendeten Lade-Threads
+ * @param listMillis    Dauer der Phase "Dateien auflisten" in Millisekunden
+ * @param parseMillis   Dauer der Phase "Dateien lesen + Indizes aufbauen" in Millisekunden
+ * @param mergeMillis   Dauer der Phase "in die Kontotabelle übernehmen" in Millisekunden
+ */
+public record LoadReport(int accounts, int failedFiles, int rejectedRecords, List<String> problems, int threads,
+                         long listMillis, long parseMillis, long mergeMillis) {
+
+    public LoadReport {
+        problems = List.copyOf(problems);
+    }
+
+    /**
+     * Ergänzt den Bericht um ein später (verzögert) geladenes Konto.
+     *
+     * @param rejected     Anzahl verworfener Datensätze des Kontos
+     * @param moreProblems Beschreibungen der übersprungenen Datensätze und Zeilen
+     * @return neuer Bericht mit den zusätzlichen Meldungen
+     */
+    LoadReport withLazyLoaded(int rejected, List<String> moreProblems) {
+        if (rejected == 0 && moreProblems.isEmpty()) {
+            return this;
+        }
+        List<String> all = new ArrayList<>(problems);
+        all.addAll(moreProblems);
+        return new LoadReport(accounts, failedFiles, rejectedRecords + rejected, all, threads,
+                listMillis, parseMillis, mergeMillis);
+    }
+
+    /**
+     * @return Gesamtdauer des Ladens in Millisekunden
+     */
+    public long totalMillis() {
+        return listMillis + parseMillis + mergeMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "Konten geladen: " + accounts + " (unlesbare Dateien: " + failedFiles
+                + ", verworfene Datensätze: " + rejectedRecords + ", Meldungen: " + problems.size()
+                + ", Threads: " + threads + ")"
+                + " | Auflisten " + listMillis + " ms, Lesen " + parseMillis + " ms, Zusammenführen "
+                + mergeMillis + " ms, gesamt " + totalMillis() + " ms";
+    }
+}
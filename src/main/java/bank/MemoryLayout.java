@@ -0,0 +1,134 @@
+package bank;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Grobe Abschätzung des Speicherbedarfs von Objekten auf einer 64-Bit-JVM mit komprimierten
+ * Referenzen (Standard bis ca. 32 GB Heap).
+ * <p>
+ * Die Werte dienen nur dem Vergleich verschiedener Speicherlayouts ({@link StorageFootprint}),
+ * nicht einer exakten Messung.
+ * </p>
+ */
+final class MemoryLayout {
+
+    /** Objektkopf in Byte. */
+    static final int OBJECT_HEADER_BYTES = 12;
+    /** Kopf eines Arrays in Byte (inkl. Länge). */
+    static final int ARRAY_HEADER_BYTES = 16;
+    /** Größe einer Referenz in Byte. */
+    static final int REFERENCE_BYTES = 4;
+    /** Eintrag einer {@code HashMap}/{@code HashSet}: Knoten (32 Byte) + anteiliger Tabellenplatz. */
+    static final int HASH_ENTRY_BYTES = 32 + 2 * REFERENCE_BYTES;
+    /** {@link java.time.LocalDate}: Kopf + Jahr ({@code int}) + Monat/Tag ({@code short}), ausgerichtet. */
+    static final int LOCAL_DATE_BYTES = 24;
+    /** Eintrag einer {@code TreeMap}: Kopf + Schlüssel, Wert, links, rechts, Eltern + Farbe, ausgerichtet. */
+    static final int TREE_ENTRY_BYTES = 40;
+    /** {@code ArrayList} ohne Array: Kopf + Größe + modCount + Referenz auf das Array. */
+    static final int ARRAY_LIST_BYTES = 24;
+    /** Geboxter {@link Long} (Werte von -128 bis 127 stammen aus dem Cache und belegen nichts). */
+    static final int LONG_BYTES = 16;
+    /** {@code HashSet} samt innerer {@code HashMap} und leerer Tabelle. */
+    static final int HASH_SET_BYTES = 16 + 48 + ARRAY_HEADER_BYTES;
+    /** {@code TreeMap} ohne Einträge. */
+    static final int TREE_MAP_BYTES = 48;
+
+    private MemoryLayout() {
+    }
+
+    /**
+     * Rundet auf die Objektausrichtung von 8 Byte auf.
+     *
+     * @param bytes Größe in Byte
+     * @return ausgerichtete Größe
+     */
+    static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    /**
+     * Speicherbedarf eines eigenständigen {@link String}-Objekts samt Zeichen-Array.
+     *
+     * @param value Zeichenkette ({@code null} belegt nichts)
+     * @return Speicherbedarf in Byte
+     */
+    static long stringBytes(String value) {
+        if (value == null) {
+            return 0;
+        }
+        boolean latin1 = value.chars().allMatch(c -> c < 256);
+        long chars = latin1 ? value.length() : 2L * value.length();
+        return align(OBJECT_HEADER_BYTES + 4 + 4 + 1 + 1 + 2) + align(ARRAY_HEADER_BYTES + chars);
+    }
+
+    /**
+     * Speicherbedarf eines Kontos im objektorientierten Layout von {@link PrivateBank}: Transaktionsliste,
+     * alle Transaktionen ({@link #transactionBytes}) und der {@link AccountIndex} samt einer
+     * {@code TreeMap}-Gruppe je Datum und je berechnetem Wert.
+     *
+     * @param transactions Transaktionen des Kontos
+     * @return Speicherbedarf in Byte
+     */
+    static long accountBytes(List<Transaction> transactions) {
+        // Transaktionsliste + AccountIndex mit seinen leeren Sammlungen
+        long bytes = ARRAY_LIST_BYTES + ARRAY_HEADER_BYTES + accountIndexBytes();
+        Set<LocalDate> dates = new HashSet<>();
+        Set<Long> values = new HashSet<>();
+        for (Transaction transaction : transactions) {
+            bytes += transactionBytes(transaction);
+            if (transaction.getLocalDate() != null && dates.add(transaction.getLocalDate())) {
+                // byDate: Eintrag + Liste der Transaktionen des Tages (Datum gehört der Transaktion)
+                bytes += TREE_ENTRY_BYTES + ARRAY_LIST_BYTES + ARRAY_HEADER_BYTES;
+            }
+            long value = transaction.calculateCents();
+            if (values.add(value)) {
+                // byValue: Eintrag + geboxter Schlüssel + Liste der Transaktionen mit diesem Wert
+                bytes += TREE_ENTRY_BYTES + (value < -128 || value > 127 ? LONG_BYTES : 0)
+                        + ARRAY_LIST_BYTES + ARRAY_HEADER_BYTES;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Speicherbedarf eines leeren {@link AccountIndex}: Objekt, zwei {@code HashSet}s, zwei {@code ArrayList}s
+     * (Vorzeichen) und zwei {@code TreeMap}s (Datum, Wert).
+     *
+     * @return Speicherbedarf in Byte
+     */
+    static long accountIndexBytes() {
+        // Kopf + balance, Teilsummen, rateVersion + 4 Sammlungen, 2 TreeMaps, latestPaymentDate (Referenzen)
+        long object = align(OBJECT_HEADER_BYTES + 4 * 8 + 7L * REFERENCE_BYTES);
+        return object + 2 * HASH_SET_BYTES + 2 * (ARRAY_LIST_BYTES + ARRAY_HEADER_BYTES) + 2 * TREE_MAP_BYTES;
+    }
+
+    /**
+     * Speicherbedarf einer Transaktion im objektorientierten Layout von {@link PrivateBank}:
+     * Objekt, Datum, eigene Zeichenketten, Platz in der Transaktionsliste und ihre Einträge im
+     * {@link AccountIndex} (Hash-Menge und Liste ihres Vorzeichens, Platz in den Listen je Datum und je
+     * Wert). Was sich Transaktionen gleichen Datums oder Werts teilen, zählt {@link #accountBytes}.
+     *
+     * @param transaction Transaktion
+     * @return Speicherbedarf in Byte
+     */
+    static long transactionBytes(Transaction transaction) {
+        // Kopf + date + description (Referenzen) + amountCents
+        long object = OBJECT_HEADER_BYTES + 2L * REFERENCE_BYTES + 8;
+        long strings = (transaction.getLocalDate() == null ? 0 : LOCAL_DATE_BYTES)
+                + stringBytes(transaction.getDescription());
+        if (transaction instanceof Payment) {
+            // Zinsen + rateTable (Referenz) + storedWithBankRates
+            object += 2 * 8 + REFERENCE_BYTES + 1;
+        } else if (transaction instanceof Transfer transfer) {
+            object += 2L * REFERENCE_BYTES;
+            strings += stringBytes(transfer.getSender()) + stringBytes(transfer.getRecipient());
+        }
+        // Transaktionsliste, Hash-Menge + Liste des Vorzeichens, byDate- und byValue-Liste
+        long index = REFERENCE_BYTES + HASH_ENTRY_BYTES + REFERENCE_BYTES
+                + (transaction.getLocalDate() == null ? 0 : REFERENCE_BYTES) + REFERENCE_BYTES;
+        return align(object) + strings + index;
+    }
+}
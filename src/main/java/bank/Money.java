@@ -0,0 +1,112 @@
+package bank;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Hilfsmethoden für Geldbeträge in Festkomma-Darstellung.
+ * <p>
+ * Beträge werden als {@code long} in Cent gespeichert, Zinssätze als {@code long} in
+ * Millionstel (ppm, {@code 0.5 = 500_000}). Alle Berechnungen laufen damit exakt auf
+ * ganzen Zahlen; gerundet wird nur an einer Stelle, nämlich beim Anwenden eines Zinssatzes,
+ * und zwar kaufmännisch auf gerade Cent ({@link RoundingMode#HALF_EVEN}, "Banker's Rounding").
+ * </p>
+ */
+public final class Money {
+
+    /** Cent je Währungseinheit. */
+    public static final long CENTS_PER_UNIT = 100;
+    /** Nenner für Zinssätze (Millionstel). */
+    public static final long RATE_SCALE = 1_000_000;
+    /** Rundungsmodus für alle Umrechnungen. */
+    public static final RoundingMode ROUNDING = RoundingMode.HALF_EVEN;
+
+    private Money() {
+    }
+
+    /**
+     * Rechnet einen Betrag (z.B. aus einer älteren JSON-Datei oder der Oberfläche) in Cent um.
+     *
+     * @param amount Betrag in Währungseinheiten
+     * @return auf ganze Cent gerundeter Betrag
+     */
+    public static long toCents(double amount) {
+        if (Double.isNaN(amount) || Double.isInfinite(amount)) {
+            throw new IllegalArgumentException("Ungültiger Betrag: " + amount);
+        }
+        // valueOf() nutzt die kürzeste Dezimaldarstellung, z.B. 0.1 statt 0.1000000000000000055...
+        return BigDecimal.valueOf(amount).movePointRight(2).setScale(0, ROUNDING).longValueExact();
+    }
+
+    /**
+     * Rechnet einen Cent-Betrag in Währungseinheiten um (für Anzeige und ältere Schnittstellen).
+     *
+     * @param cents Betrag in Cent
+     * @return Betrag in Währungseinheiten
+     */
+    public static double toDouble(long cents) {
+        return cents / (double) CENTS_PER_UNIT;
+    }
+
+    /**
+     * Rechnet einen Zinssatz in Millionstel um.
+     *
+     * @param rate Zinssatz (z.B. {@code 0.05})
+     * @return Zinssatz in Millionstel (z.B. {@code 50_000})
+     */
+    public static long toRate(double rate) {
+        if (Double.isNaN(rate) || Double.isInfinite(rate)) {
+            throw new IllegalArgumentException("Ungültiger Zinssatz: " + rate);
+        }
+        return BigDecimal.valueOf(rate).movePointRight(6).setScale(0, ROUNDING).longValueExact();
+    }
+
+    /**
+     * Rechnet einen Zinssatz in Millionstel zurück in einen Dezimalwert um.
+     *
+     * @param rate Zinssatz in Millionstel
+     * @return Zinssatz als Dezimalwert
+     */
+    public static double rateToDouble(long rate) {
+        return rate / (double) RATE_SCALE;
+    }
+
+    /**
+     * Multipliziert einen Cent-Betrag mit einem Faktor in Millionstel und rundet auf ganze Cent
+     * ({@link #ROUNDING}).
+     *
+     * @param cents  Betrag in Cent
+     * @param factor Faktor in Millionstel (z.B. {@code 950_000} für 95 %)
+     * @return gerundetes Ergebnis in Cent
+     */
+    public static long multiply(long cents, long factor) {
+        long product;
+        try {
+            product = Math.multiplyExact(cents, factor);
+        } catch (ArithmeticException ex) {
+            // Sehr große Beträge: exakt über BigInteger rechnen
+            return new BigDecimal(BigInteger.valueOf(cents).multiply(BigInteger.valueOf(factor)))
+                    .divide(BigDecimal.valueOf(RATE_SCALE), 0, ROUNDING)
+                    .longValueExact();
+        }
+
+        long quotient = product / RATE_SCALE;
+        long remainder = product % RATE_SCALE;
+        long twice = Math.abs(remainder) * 2;
+        if (twice > RATE_SCALE || (twice == RATE_SCALE && (quotient & 1) != 0)) {
+            quotient += Long.signum(product);
+        }
+        return quotient;
+    }
+
+    /**
+     * Formatiert einen Cent-Betrag mit zwei Nachkommastellen (z.B. {@code "-12.05"}).
+     *
+     * @param cents Betrag in Cent
+     * @return formatierter Betrag
+     */
+    public static String format(long cents) {
+        return BigDecimal.valueOf(cents, 2).toPlainString();
+    }
+}
@@ -36,11 +36,11 @@ public class OutgoingTransfer extends Transfer {
 
     /**
      * Berechnet den Wert des Transfers für das Konto.
-     * @return negativer Betrag des Transfers
+     * @return negativer Betrag des Transfers in Cent
      */
     @Override
-    public double calculate() {
+    public long calculateCents() {
         // Ausgehend: negativer Beitrag zum Kontostand
-        return -getAmount();
+        return -amountCents;
     }
 }
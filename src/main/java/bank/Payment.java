@@ -3,13 +3,26 @@ package bank;
 
 /**
  * Zahlung: positiver Betrag = Einzahlung, negativer Betrag = Auszahlung.
+ * <p>
+ * Die Zinsen stehen entweder direkt in der Zahlung oder ergeben sich, sobald die Zahlung einer Bank
+ * gehört, aus deren {@link InterestRateTable} am Datum der Zahlung. Die Getter liefern immer die
+ * wirksamen Zinsen.
+ * </p>
  */
 public class Payment extends Transaction {
 
-    /** Zins für Einzahlungen (0..1). */
-    private double incomingInterest;
-    /** Zins für Auszahlungen (0..1). */
-    private double outgoingInterest;
+    /** Zins für Einzahlungen in Millionstel (0..1_000_000, siehe {@link Money#toRate(double)}). */
+    private long incomingInterest;
+    /** Zins für Auszahlungen in Millionstel (0..1_000_000). */
+    private long outgoingInterest;
+    /** Zinstabelle der Bank; {@code null}, solange die Zahlung eigene Zinsen hat. */
+    private InterestRateTable rateTable;
+    /**
+     * Beim Lesen gesetzt, wenn die gespeicherten Zinsen aus der Zinstabelle einer Bank stammten; die Bank
+     * verbindet die Zahlung beim Laden dann wieder mit ihrer Tabelle. Gespeicherte eigene Zinsen bleiben
+     * dagegen erhalten.
+     */
+    private boolean storedWithBankRates;
 
     /**
      * Erzeugt ein Payment mit Basis-Attributen.
@@ -38,44 +51,98 @@ public class Payment extends Transaction {
     }
     //Kopierkonstruktor.
     public Payment(Payment other) {
-        this(other.getDate(), other.getAmount(), other.getDescription(),
-                other.incomingInterest, other.outgoingInterest);
+        super(other);
+        this.incomingInterest = other.incomingInterest;
+        this.outgoingInterest = other.outgoingInterest;
+        this.rateTable = other.rateTable;
+        this.storedWithBankRates = other.storedWithBankRates;
     }
 
     // Getter/Setter der eigenen Attribute
-    public double getIncomingInterest() { return incomingInterest; }
-    public double getOutgoingInterest() { return outgoingInterest; }
+    public double getIncomingInterest() { return Money.rateToDouble(getIncomingInterestRate()); }
+    public double getOutgoingInterest() { return Money.rateToDouble(getOutgoingInterestRate()); }
+    public long getIncomingInterestRate() { return rateTable == null ? incomingInterest : rateTable.ratesAt(date).incoming(); }
+    public long getOutgoingInterestRate() { return rateTable == null ? outgoingInterest : rateTable.ratesAt(date).outgoing(); }
 
+    // Explizit gesetzte Zinsen lösen die Zahlung von der Zinstabelle (der andere Satz bleibt wirksam)
     public void setIncomingInterest(double incomingInterest) {
         if (incomingInterest < 0 || incomingInterest > 1) {
             throw new IllegalArgumentException("Der Zinssatz muss zwischen 0 und 1 liegen");
         }
-        this.incomingInterest = incomingInterest;
+        detach();
+        this.incomingInterest = Money.toRate(incomingInterest);
     }
 
     public void setOutgoingInterest(double outgoingInterest) {
         if (outgoingInterest < 0 || outgoingInterest > 1) {
             throw new IllegalArgumentException("Der Zinssatz muss zwischen 0 und 1 liegen");
         }
-        this.outgoingInterest = outgoingInterest;
+        detach();
+        this.outgoingInterest = Money.toRate(outgoingInterest);
+    }
+
+    /**
+     * Lässt die Zinsen künftig aus der Zinstabelle einer Bank ermitteln.
+     *
+     * @param rateTable Zinstabelle der Bank
+     */
+    void attach(InterestRateTable rateTable) {
+        this.rateTable = rateTable;
+    }
+
+    /**
+     * @return {@code true}, wenn die Zinsen aus einer Zinstabelle stammen
+     */
+    public boolean usesRateTable() {
+        return rateTable != null;
+    }
+
+    /**
+     * @return {@code true}, wenn beim Speichern vermerkt werden muss, dass die Zinsen aus der Zinstabelle
+     * der Bank stammen (verbunden oder so gelesen und noch nicht verbunden)
+     */
+    boolean followsBankRates() {
+        return rateTable != null || storedWithBankRates;
+    }
+
+    /**
+     * Vermerkt beim Lesen, dass die gespeicherten Zinsen aus der Zinstabelle einer Bank stammten.
+     */
+    void markStoredWithBankRates() {
+        storedWithBankRates = true;
+    }
+
+    private void detach() {
+        storedWithBankRates = false;
+        if (rateTable != null) {
+            InterestRateTable.Rates rates = rateTable.ratesAt(date);
+            incomingInterest = rates.incoming();
+            outgoingInterest = rates.outgoing();
+            rateTable = null;
+        }
     }
 
     /**
      * Berechnet den Betrag unter Berücksichtigung der Zinsen.
+     * <p>
+     * Das Ergebnis wird auf ganze Cent gerundet ({@link Money#ROUNDING}, kaufmännisch auf gerade Cent).
+     * </p>
      *
-     * @return berechneter Betrag
+     * @return berechneter Betrag in Cent
      */
 
     @Override
-    public double calculate() {
-        double result;
+    public long calculateCents() {
+        long result;
+        long incomingInterest = getIncomingInterestRate();
+        long outgoingInterest = getOutgoingInterestRate();
 
-        if (amount >= 0) {
+        if (amountCents >= 0) {
             // Einzahlung → incomingInterest abziehen
-            result = amount * (1 - incomingInterest);
+            result = Money.multiply(amountCents, Money.RATE_SCALE - incomingInterest);
         } else {
             // Auszahlung → outgoingInterest addieren
-            result = amount * (1 + outgoingInterest);
+            result = Money.multiply(amountCents, Money.RATE_SCALE + outgoingInterest);
         }
 
         return result;
@@ -83,7 +150,7 @@ public class Payment extends Transaction {
 
     @Override
     public String toString() {
-        return super.toString() + "\n incomingInterest: " + incomingInterest + "\n outgoingInterest: " + outgoingInterest;
+        return super.toString() + "\n incomingInterest: " + getIncomingInterest() + "\n outgoingInterest: " + getOutgoingInterest();
     }
 
     /**
@@ -92,12 +159,26 @@ public class Payment extends Transaction {
      * @param obj anderes Objekt
      * @return {@code true}, wenn alle Attribute gleich sind
      */
-    //Payment.equals vergleicht Zinsen mit Double.compare -> stabil
+    //Payment.equals vergleicht die wirksamen Zinsen als ganze Zahlen (Millionstel) -> exakt
     @Override
     public boolean equals(Object obj) {
         if (!super.equals(obj)) return false; // vergleicht date, amount, description
         Payment other = (Payment) obj;
-        return Double.compare(this.incomingInterest, other.incomingInterest) == 0
-                && Double.compare(this.outgoingInterest, other.outgoingInterest) == 0;
+        return this.getIncomingInterestRate() == other.getIncomingInterestRate()
+                && this.getOutgoingInterestRate() == other.getOutgoingInterestRate();
+    }
+
+    /**
+     * Hashwert passend zu {@link #equals(Object)}.
+     * <p>
+     * Die Zinsen gehen bewusst nicht ein: sie können sich durch eine Änderung der Zinstabelle ändern,
+     * während die Zahlung in Hash-Strukturen (z.B. dem Index der Bank) liegt.
+     * </p>
+     *
+     * @return Hashwert
+     */
+    @Override
+    public int hashCode() {
+        return super.hashCode();
     }
 }
@@ -1,34 +1,49 @@
 package bank;
 
 import bank.exceptions.*;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
+import bank.jfr.BalanceEvent;
+import bank.jfr.TransactionAddEvent;
+import bank.jfr.TransactionBatchEvent;
+import bank.jfr.TransactionRemoveEvent;
+import bank.metrics.BankMetrics;
 
-import java.io.File;
 import java.io.IOException;
-import java.io.Reader;
-import java.io.Writer;
-import java.lang.reflect.Type;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Repräsentiert eine private Bank mit mehreren Konten und deren Transaktionen.
  * <p>
  * Für jedes Konto wird eine Liste von {@link Transaction}-Objekten gespeichert.
- * Die Bank verwaltet außerdem bankweite Zinssätze, die bei {@link Payment}-Transaktionen
- * verwendet werden.
+ * Die Bank verwaltet außerdem bankweite Zinssätze mit Gültigkeitsdatum ({@link InterestRateTable}),
+ * nach denen alle {@link Payment}-Transaktionen am Tag ihres Datums berechnet werden.
  * </p>
  */
 public class PrivateBank implements Bank {
+    /**
+     * Größe der Abschnitte, in die {@link #createReport()} die Transaktionslisten zur parallelen Auswertung zerlegt.
+     */
+    private static final int REPORT_CHUNK_SIZE = 1 << 14;
     /**
      * Name der Bank.
      */
     private String name;
-    private double incomingInterest; //Einzahlungen
-    private double outgoingInterest; //Auszahlungen
+    /**
+     * Zinssätze mit Gültigkeitsdatum; alle {@link Payment}s der Bank verweisen darauf.
+     */
+    private InterestRateTable rateTable;
     private String directoryName; // Der Speicherort der Konten
     /**
      * Zuordnung von Kontonamen zu deren Transaktionslisten.
@@ -36,19 +51,91 @@ public class PrivateBank implements Bank {
      * Der Schlüssel ist der Kontoname (String), der Wert eine {@link List}
      * </p>
      */
-    private Map<String, List<Transaction>> accountsToTransactions = new HashMap<>(); //Map: Kontoname -> Liste von Transaktionen
+    private Map<String, List<Transaction>> accountsToTransactions = new ConcurrentHashMap<>(); //Map: Kontoname -> Liste von Transaktionen
+    /**
+     * Laufend gepflegte Kennzahlen (z.B. Kontostand) je Konto.
+     * <p>
+     * Wird parallel zu {@link #accountsToTransactions} bei jeder Änderung aktualisiert.
+     * </p>
+     * <p>
+     * Die Kontotabellen sind nebenläufige Strukturen, damit {@link ConcurrentPrivateBank} Konten
+     * unabhängig voneinander (nur mit Sperren je Konto) ändern und lesen kann.
+     * </p>
+     */
+    private Map<String, AccountIndex> accountIndexes = new ConcurrentHashMap<>();
+    /**
+     * Namen aller Konten der Bank, unabhängig davon, ob ihre Transaktionen gerade geladen sind.
+     * <p>
+     * Beim verzögerten Laden ({@link BankOptions#isLazyLoading()}) enthalten
+     * {@link #accountsToTransactions} und {@link #accountIndexes} nur die aktuell geladenen Konten.
+     * </p>
+     */
+    private SortedSet<String> accountNames = new ConcurrentSkipListSet<>();
+    /**
+     * Snapshots ({@code <konto>.json} bzw. {@code <konto>.bank}) und Journale der Konten samt Kompaktierung
+     * und Schreibmodus ({@link Durability}).
+     */
+    private AccountFiles files;
+    /**
+     * Bankweites Protokoll für Überweisungen zwischen zwei Konten (siehe {@link #transfer}).
+     */
+    private TransferLog transferLog;
+    /**
+     * Einstellungen, mit denen die Bank angelegt wurde.
+     */
+    private BankOptions options;
+    /**
+     * Ergebnis des letzten Ladevorgangs (Dauer je Phase); verzögert geladene Konten ergänzen ihre Meldungen.
+     */
+    private volatile LoadReport lastLoadReport;
+    /** Anzahl der beim Öffnen vervollständigten, unterbrochenen Überweisungen. */
+    private int recoveredTransfers;
+    /**
+     * Empfänger der Laufzeiten und Zähler (aus den {@link BankOptions}).
+     */
+    private BankMetrics metrics;
 
     // Getter
     public String getName() {
         return name;
     }
 
+    // Zinssätze, die heute gelten
     public double getIncomingInterest() {
-        return incomingInterest;
+        return Money.rateToDouble(rateTable.ratesAt(LocalDate.now()).incoming());
     }
 
     public double getOutgoingInterest() {
-        return outgoingInterest;
+        return Money.rateToDouble(rateTable.ratesAt(LocalDate.now()).outgoing());
+    }
+
+    public InterestRateTable getRateTable() {
+        return rateTable;
+    }
+
+    public int getJournalCompactionThreshold() {
+        return files.getJournalCompactionThreshold();
+    }
+
+    /**
+     * Liefert Anzahl und Dauer (je Phase) des letzten Ladens der Konten sowie die Meldungen zu
+     * übersprungenen Datensätzen und Zeilen. Beim verzögerten Laden kommen die Meldungen der später
+     * geladenen Konten hinzu.
+     *
+     * @return Ladebericht
+     */
+    public LoadReport getLastLoadReport() {
+        return lastLoadReport;
+    }
+
+    /**
+     * Liefert die Anzahl der Überweisungen, die beim Öffnen der Bank aus dem {@link TransferLog}
+     * vervollständigt wurden (z.B. nach einem Absturz).
+     *
+     * @return Anzahl der nachgebuchten Überweisungen
+     */
+    public int getRecoveredTransfers() {
+        return recoveredTransfers;
     }
 
     // Setter
@@ -56,18 +143,54 @@ public class PrivateBank implements Bank {
         this.name = name;
     }
 
+    // Ändert den Zinssatz ab heute (siehe setInterestRates)
     public void setIncomingInterest(double incomingInterest) {
-        if (incomingInterest < 0 || incomingInterest > 1) {
-            throw new IllegalArgumentException("Der Zinssatz muss zwischen 0 und 1 liegen");
+        try {
+            setInterestRates(LocalDate.now(), incomingInterest, getOutgoingInterest());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
         }
-        this.incomingInterest = incomingInterest;
     }
 
     public void setOutgoingInterest(double outgoingInterest) {
-        if (outgoingInterest < 0 || outgoingInterest > 1) {
-            throw new IllegalArgumentException("Der Zinssatz muss zwischen 0 und 1 liegen");
+        try {
+            setInterestRates(LocalDate.now(), getIncomingInterest(), outgoingInterest);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
         }
-        this.outgoingInterest = outgoingInterest;
+    }
+
+    /**
+     * Ändert die Zinssätze ab einem Datum und speichert die Änderung in {@value InterestRateTable#FILE_NAME}.
+     * <p>
+     * Die Änderung gilt für alle Zahlungen ab {@code effectiveFrom}, auch für bereits gebuchte.
+     * Zahlungen und Indizes werden dabei nicht angefasst, der Aufwand ist unabhängig von der Anzahl der
+     * Konten und Transaktionen. Ein Index wird erst beim nächsten Zugriff auf sein Konto und nur dann neu
+     * berechnet, wenn die Änderung eine seiner Zahlungen betrifft (siehe {@link AccountIndex}).
+     * </p>
+     *
+     * @param effectiveFrom    erster Tag, ab dem die Zinssätze gelten
+     * @param incomingInterest Zinssatz für Einzahlungen im Bereich {@code [0,1]}
+     * @param outgoingInterest Zinssatz für Auszahlungen im Bereich {@code [0,1]}
+     * @throws IOException wenn die Zinstabelle nicht gespeichert werden kann
+     */
+    public void setInterestRates(LocalDate effectiveFrom, double incomingInterest, double outgoingInterest)
+            throws IOException {
+        rateTable.setRates(effectiveFrom, incomingInterest, outgoingInterest);
+        rateTable.write(Path.of(directoryName));
+    }
+
+    /**
+     * Setzt die Mindestanzahl an Journal-Datensätzen, ab der ein Konto kompaktiert wird.
+     * <p>
+     * Kompaktiert wird, sobald das Journal mindestens so viele Datensätze enthält wie dieser Wert
+     * und wie das Konto Transaktionen hat. Dadurch bleibt der Aufwand je Änderung amortisiert konstant.
+     * </p>
+     *
+     * @param journalCompactionThreshold Schwellwert (mindestens 1)
+     */
+    public void setJournalCompactionThreshold(int journalCompactionThreshold) {
+        files.setJournalCompactionThreshold(journalCompactionThreshold);
     }
 
     /**
@@ -79,15 +202,54 @@ public class PrivateBank implements Bank {
      */
     public PrivateBank(String name, double incomingInterest,
                        double outgoingInterest, String directoryName) throws IOException {
+        this(name, incomingInterest, outgoingInterest, directoryName, new BankOptions());
+    }
+
+    /**
+     * Konstruktor zum Anlegen einer neuen Bank mit Namen, Zinssätzen und zusätzlichen Einstellungen.
+     * <p>
+     * Die Zinssätze sind die Basiszinsen einer neuen Bank. Eine bestehende Bank behält ihre in
+     * {@value InterestRateTable#FILE_NAME} gespeicherten Basiszinsen; geändert werden sie nur über
+     * {@link #setInterestRates}.
+     * </p>
+     *
+     * @param name             Name der Bank
+     * @param incomingInterest Zinssatz für eingehende Zahlungen im Bereich {@code [0,1]}
+     * @param outgoingInterest Zinssatz für ausgehende Zahlungen im Bereich {@code [0,1]}
+     * @param directoryName    Verzeichnis, in dem die Konten gespeichert werden
+     * @param options          Einstellungen (z.B. paralleles Laden)
+     */
+    public PrivateBank(String name, double incomingInterest, double outgoingInterest,
+                       String directoryName, BankOptions options) throws IOException {
         this.name = name;
-        setIncomingInterest(incomingInterest);
-        setOutgoingInterest(outgoingInterest);
+        this.rateTable = new InterestRateTable(incomingInterest, outgoingInterest);
         this.directoryName = directoryName;
+        this.options = options;
+        this.metrics = options.getMetrics();
+        this.files = new AccountFiles(directoryName, options);
+        if (metrics.isEnabled()) {
+            // Der JSON-Codec wird über geteilte Gson-Instanzen benutzt -> Metriken prozessweit
+            De_Serialisieren.setMetrics(metrics);
+        }
+        this.transferLog = new TransferLog(directoryName);
+        if (options.isLazyLoading()) {
+            // Zugriffsreihenfolge: das am längsten nicht benutzte Konto steht vorne
+            this.accountsToTransactions = new LinkedHashMap<>(16, 0.75f, true);
+        }
 
         Files.createDirectories(Path.of(directoryName));
 
-        // Bestehende Konten vom Dateisystem laden
+        // Gespeicherte Zinsen vor den Konten lesen, da die Zahlungen sie zur Berechnung brauchen; fehlen die
+        // Basiszinsen (neue Bank oder ältere Datei), die des Konstruktors sofort festschreiben
+        if (!rateTable.read(Path.of(directoryName))) {
+            rateTable.write(Path.of(directoryName));
+        }
+
+        // Bestehende Konten vom Dateisystem laden (und Überweisungen synchron reparieren)
         readAccounts();
+
+        // Erst danach ggf. im Hintergrund schreiben
+        files.startWriter(name);
     }
 
     /**
@@ -97,10 +259,26 @@ public class PrivateBank implements Bank {
      */
     public PrivateBank(PrivateBank other) {
         this.name = other.name;
-        this.incomingInterest = other.incomingInterest;
-        this.outgoingInterest = other.outgoingInterest;
-        this.accountsToTransactions = new HashMap<>(other.accountsToTransactions);
+        // Die Transaktionsobjekte werden geteilt, daher auch ihre Zinstabelle
+        this.rateTable = other.rateTable;
         this.directoryName = other.directoryName;
+        this.files = new AccountFiles(other.files);
+        // Gleiche Datei -> gleiches Protokoll, damit es nur geleert wird, wenn beide nichts Offenes mehr haben
+        this.transferLog = other.transferLog;
+        this.options = other.options;
+        this.metrics = other.metrics;
+        this.lastLoadReport = other.lastLoadReport;
+        this.accountNames = new ConcurrentSkipListSet<>(other.accountNames);
+        if (options.isLazyLoading()) {
+            this.accountsToTransactions = new LinkedHashMap<>(16, 0.75f, true);
+        }
+        // Listen kopieren, damit Kopie und Original ihre Indizes unabhängig pflegen
+        for (Map.Entry<String, List<Transaction>> entry : other.accountsToTransactions.entrySet()) {
+            List<Transaction> transactions = new ArrayList<>(entry.getValue());
+            this.accountsToTransactions.put(entry.getKey(), transactions);
+            this.accountIndexes.put(entry.getKey(), buildIndex(entry.getKey(), transactions));
+        }
+        files.startWriter(name);
     }
 
     /**
@@ -110,8 +288,8 @@ public class PrivateBank implements Bank {
      */
     @Override
     public String toString() {
-        return "name: " + name + "\nincomingInterest: " + incomingInterest
-                + "\noutgoingInterest: " + outgoingInterest
+        return "name: " + name + "\nincomingInterest: " + getIncomingInterest()
+                + "\noutgoingInterest: " + getOutgoingInterest()
                 + "\ndirectoryName: " + directoryName;
     }
 
@@ -128,13 +306,13 @@ public class PrivateBank implements Bank {
 
         PrivateBank other = (PrivateBank) obj;
 
-        boolean sameIncoming = Double.compare(other.incomingInterest, incomingInterest) == 0;
-        boolean sameOutgoing = Double.compare(other.outgoingInterest, outgoingInterest) == 0;
+        boolean sameRates = rateTable.getBaseRates().equals(other.rateTable.getBaseRates())
+                && rateTable.getChanges().equals(other.rateTable.getChanges());
         boolean sameName = Objects.equals(name, other.name);
         boolean sameDirectory = Objects.equals(directoryName, other.directoryName);
         boolean sameAccounts = Objects.equals(accountsToTransactions, other.accountsToTransactions);
 
-        return sameIncoming && sameOutgoing && sameDirectory && sameName && sameAccounts;
+        return sameRates && sameDirectory && sameName && sameAccounts;
     }
 
 
@@ -148,14 +326,15 @@ public class PrivateBank implements Bank {
      */
     @Override
     public void createAccount(String account) throws AccountAlreadyExistsException, IOException {
-        if (accountsToTransactions.containsKey(account)) {
+        if (accountNames.contains(account)) {
             throw new AccountAlreadyExistsException("Account already exists: " + account);
         }
 
-        accountsToTransactions.put(account, new ArrayList<Transaction>());
+        List<Transaction> accountTransactions = new ArrayList<Transaction>();
+        putAccount(account, accountTransactions, buildIndex(account, accountTransactions));
 
         // Konto persistieren
-        writeAccount(account);
+        persistSnapshot(account);
     }
 
     /**
@@ -165,56 +344,35 @@ public class PrivateBank implements Bank {
      * @param transactions Liste von Transaktionen, die dem Konto zugeordnet werden sollen; darf {@code null} sein
      * @throws AccountAlreadyExistsException     falls bereits ein Konto mit diesem Namen existiert
      * @throws TransactionAlreadyExistsException falls in der übergebenen Liste für dieses Konto doppelte Transaktionen enthalten sind
-     * @throws TransactionAttributeException     falls ungültige Attributwerte in den Transaktionen erkannt werden (z.B. negativer Transferbetrag
-     *                                           oder ungültige Zinssätze)
+     * @throws TransactionAttributeException     falls ungültige Attributwerte in den Transaktionen erkannt werden (z.B. negativer Transferbetrag)
      */
     @Override
     public void createAccount(String account, List<Transaction> transactions)
             throws AccountAlreadyExistsException, TransactionAlreadyExistsException, TransactionAttributeException, IOException {
 
-        if (accountsToTransactions.containsKey(account)) {
+        if (accountNames.contains(account)) {
             throw new AccountAlreadyExistsException("Account already exists: " + account);
         }
 
         List<Transaction> accountTransactions = new ArrayList<Transaction>();
+        // Nur für die Duplikat-Prüfung; der Index des Kontos entsteht danach über buildIndex
+        AccountIndex seen = new AccountIndex();
 
         if (transactions != null) {
             for (Transaction t : transactions) {
 
-                // doppelte Transaktion verhindern
-                if (accountTransactions.contains(t)) {
-                    throw new TransactionAlreadyExistsException("Transaction already exists for this account: " + t);
-                }
-
-                // Attribut-Prüfung: Transfer amount >= 0
-                if (t instanceof Transfer) {
-                    Transfer transfer = (Transfer) t;
-                    if (transfer.getAmount() < 0) {
-                        throw new TransactionAttributeException("Transfer amount must be >= 0");
-                    }
-                }
-
-                // Attribut-Prüfung + Zinsübernahme bei Payment
-                if (t instanceof Payment) {
-                    if (incomingInterest < 0 || incomingInterest > 1
-                            || outgoingInterest < 0 || outgoingInterest > 1) {
-                        throw new TransactionAttributeException("Interest rates must be between 0 and 1");
-                    }
-
-                    Payment payment = (Payment) t;
-                    // Bank-Zinsen überschreiben Payment-Zinsen
-                    payment.setIncomingInterest(incomingInterest);
-                    payment.setOutgoingInterest(outgoingInterest);
-                }
+                // Attribute prüfen, Bank-Zinsen übernehmen, doppelte Transaktion verhindern
+                prepare(seen, t);
 
                 accountTransactions.add(t);
+                seen.add(t, 0L);
             }
         }
 
-        accountsToTransactions.put(account, accountTransactions);
+        putAccount(account, accountTransactions, buildIndex(account, accountTransactions));
 
         // Konto persistieren
-        writeAccount(account);
+        persistSnapshot(account);
     }
 
     /**
@@ -229,45 +387,105 @@ public class PrivateBank implements Bank {
     @Override
     public void addTransaction(String account, Transaction transaction)
             throws TransactionAlreadyExistsException, AccountDoesNotExistException, TransactionAttributeException, IOException {
+        long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+        TransactionAddEvent event = new TransactionAddEvent();
+        event.begin();
+        boolean succeeded = false;
+        try {
+            // 1. Konto muss existieren
+            if (!accountNames.contains(account)) {
+                throw new AccountDoesNotExistException("Account does not exist: " + account);
+            }
 
-        // 1. Konto muss existieren
-        if (!accountsToTransactions.containsKey(account)) {
-            throw new AccountDoesNotExistException("Account does not exist: " + account);
-        }
+            // 2. Liste der Transaktionen und Index für dieses Konto holen (ggf. nachladen)
+            List<Transaction> accountTransactions = transactionsOf(account);
+            AccountIndex index = indexOf(account);
 
-        // 2. Liste der Transaktionen für dieses Konto holen
-        List<Transaction> accountTransactions = accountsToTransactions.get(account);
+            // 3. Attribut-Prüfung, Payment übernimmt die Bank-Zinsen, Duplikat-Prüfung
+            prepare(index, transaction);
 
-        // 3. Transaktion darf nicht schon vorhanden sein
-        if (accountTransactions.contains(transaction)) {
-            throw new TransactionAlreadyExistsException("Transaction already exists for this account: " + transaction);
-        }
+            // 4. Transaktion hinzufügen + Kontostand nachführen
+            accountTransactions.add(transaction);
+            index.add(transaction, balanceContribution(account, transaction));
 
-        // 4. Attribut-Prüfung: Transfer amount >= 0
-        if (transaction instanceof Transfer) {
-            Transfer transfer = (Transfer) transaction;
-            if (transfer.getAmount() < 0) {
-                throw new TransactionAttributeException("Transfer amount must be >= 0");
+            // Änderung ans Journal anhängen (statt das ganze Konto neu zu schreiben)
+            persistChange(account, TransactionJournal.OP_ADD, transaction);
+            succeeded = true;
+        } finally {
+            if (start != 0L) {
+                metrics.recordLatency(BankMetrics.Operation.ADD_TRANSACTION, System.nanoTime() - start);
             }
+            event.finish(account, transactionCount(account), typeName(transaction), succeeded);
         }
+    }
 
-        // 5. Payment: Bank-Zinsen übernehmen + prüfen
-        if (transaction instanceof Payment) {
-            if (incomingInterest < 0 || incomingInterest > 1
-                    || outgoingInterest < 0 || outgoingInterest > 1) {
-                throw new TransactionAttributeException("Interest rates must be between 0 and 1");
+    /**
+     * Fügt einem bestehenden Konto mehrere Transaktionen hinzu und persistiert sie gemeinsam.
+     * <p>
+     * Jede Transaktion wird wie bei {@link #addTransaction(String, Transaction)} geprüft; Duplikate
+     * (auch innerhalb des Stapels) und ungültige Transaktionen werden übersprungen und im Ergebnis
+     * gemeldet. Alle übernommenen Transaktionen werden anschließend mit einem einzigen Schreibvorgang
+     * persistiert: als ein Block im Journal oder, wenn das Journal dadurch zu groß würde, direkt
+     * als neuer Snapshot.
+     * </p>
+     * <p>
+     * Gemessen wird je Stapel ({@link BankMetrics.Operation#ADD_TRANSACTIONS}, übernommene Transaktionen in
+     * {@link BankMetrics.Counter#BATCHED_TRANSACTIONS}) und als JFR-Ereignis {@link TransactionBatchEvent}.
+     * </p>
+     *
+     * @param account      Name des Kontos
+     * @param transactions hinzuzufügende Transaktionen in Buchungsreihenfolge
+     * @return Anzahl der übernommenen und Liste der abgelehnten Transaktionen
+     * @throws AccountDoesNotExistException falls das Konto nicht existiert
+     * @throws IOException                  wenn beim Persistieren ein Fehler auftritt
+     */
+    @Override
+    public ImportResult addTransactions(String account, Collection<? extends Transaction> transactions)
+            throws AccountDoesNotExistException, IOException {
+        long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+        TransactionBatchEvent event = new TransactionBatchEvent();
+        event.begin();
+        List<Transaction> added = new ArrayList<>(transactions.size());
+        List<ImportResult.Rejection> rejections = new ArrayList<>();
+        boolean succeeded = false;
+        try {
+            if (!accountNames.contains(account)) {
+                throw new AccountDoesNotExistException("Account does not exist: " + account);
             }
 
-            Payment payment = (Payment) transaction;
-            payment.setIncomingInterest(incomingInterest);
-            payment.setOutgoingInterest(outgoingInterest);
-        }
+            List<Transaction> accountTransactions = transactionsOf(account);
+            AccountIndex index = indexOf(account);
 
-        // 6. Transaktion hinzufügen
-        accountTransactions.add(transaction);
+            int position = 0;
+            for (Transaction transaction : transactions) {
+                try {
+                    if (transaction == null) {
+                        countRejection();
+                        throw new TransactionAttributeException("Transaction must not be null");
+                    }
+                    prepare(index, transaction);
+                    accountTransactions.add(transaction);
+                    index.add(transaction, balanceContribution(account, transaction));
+                    added.add(transaction);
+                } catch (TransactionAlreadyExistsException | TransactionAttributeException ex) {
+                    rejections.add(new ImportResult.Rejection(position, account, transaction, ex.getMessage()));
+                }
+                position++;
+            }
 
-        // Konto persistieren
-        writeAccount(account);
+            persistBatch(account, added);
+            succeeded = true;
+            return new ImportResult(added.size(), rejections);
+        } finally {
+            if (start != 0L) {
+                metrics.recordLatency(BankMetrics.Operation.ADD_TRANSACTIONS, System.nanoTime() - start);
+                if (succeeded) {
+                    metrics.add(BankMetrics.Counter.BATCHED_TRANSACTIONS, added.size());
+                }
+            }
+            event.finish(account, transactions.size(), added.size(), rejections.size(), transactionCount(account),
+                    succeeded);
+        }
     }
 
     /**
@@ -277,21 +495,157 @@ public class PrivateBank implements Bank {
      * @param transaction zu entfernende Transaktion
      * @throws AccountDoesNotExistException     falls das Konto nicht existiert
      * @throws TransactionDoesNotExistException falls die Transaktion nicht in der Liste des Kontos enthalten ist
+     * @throws IOException                      wenn beim Persistieren ein Fehler auftritt
      */
     @Override
     public void removeTransaction(String account, Transaction transaction)
-            throws AccountDoesNotExistException, TransactionDoesNotExistException {
+            throws AccountDoesNotExistException, TransactionDoesNotExistException, IOException {
+        long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+        TransactionRemoveEvent event = new TransactionRemoveEvent();
+        event.begin();
+        boolean succeeded = false;
+        try {
+            if (!accountNames.contains(account)) {
+                throw new AccountDoesNotExistException("Account does not exist: " + account);
+            }
 
-        if (!accountsToTransactions.containsKey(account)) {
-            throw new AccountDoesNotExistException("Account does not exist: " + account);
+            AccountIndex index = indexOf(account);
+            if (!index.contains(transaction)) {
+                throw new TransactionDoesNotExistException("Transaction does not exist for this account: " + transaction);
+            }
+
+            accountsToTransactions.get(account).remove(transaction);
+            index.remove(transaction, balanceContribution(account, transaction));
+
+            // Tombstone ans Journal anhängen
+            persistChange(account, TransactionJournal.OP_REMOVE, transaction);
+            succeeded = true;
+        } finally {
+            if (start != 0L) {
+                metrics.recordLatency(BankMetrics.Operation.REMOVE_TRANSACTION, System.nanoTime() - start);
+            }
+            event.finish(account, transactionCount(account), typeName(transaction), succeeded);
+        }
+    }
+
+    /**
+     * Bucht eine Überweisung zwischen zwei Konten dieser Bank.
+     * <p>
+     * Beim Sender wird ein {@link OutgoingTransfer}, beim Empfänger ein {@link IncomingTransfer}
+     * verbucht. Vor jeder Änderung werden beide Buchungen vollständig geprüft; anschließend wird
+     * ein gemeinsamer Datensatz für beide Konten dauerhaft ins {@link TransferLog} geschrieben.
+     * Ab diesem Zeitpunkt gilt die Überweisung als gebucht: wird das Schreiben der Kontojournale
+     * (z.B. durch einen Absturz) unterbrochen, werden fehlende Buchungen beim nächsten Laden ergänzt.
+     * </p>
+     *
+     * @param from        Name des sendenden Kontos
+     * @param to          Name des empfangenden Kontos
+     * @param amount      Betrag (nicht negativ)
+     * @param date        Datum der Überweisung ("DD.MM.YYYY" oder "YYYY-MM-DD")
+     * @param description Beschreibung
+     * @throws AccountDoesNotExistException      falls eines der Konten nicht existiert
+     * @throws TransactionAlreadyExistsException falls eine der Buchungen bereits beim jeweiligen Konto existiert
+     * @throws TransactionAttributeException     falls der Betrag negativ oder das Datum ungültig ist oder Sender und Empfänger gleich sind
+     * @throws IOException                       wenn beim Persistieren ein Fehler auftritt
+     */
+    public void transfer(String from, String to, double amount, String date, String description)
+            throws AccountDoesNotExistException, TransactionAlreadyExistsException, TransactionAttributeException, IOException {
+
+        // 1. Beide Buchungen prüfen, bevor irgendetwas verändert wird
+        if (!accountNames.contains(from)) {
+            throw new AccountDoesNotExistException("Account does not exist: " + from);
+        }
+        if (!accountNames.contains(to)) {
+            throw new AccountDoesNotExistException("Account does not exist: " + to);
+        }
+        if (from.equals(to)) {
+            throw new TransactionAttributeException("Sender and recipient must be different accounts");
+        }
+        if (amount < 0) {
+            throw new TransactionAttributeException("Transfer amount must be >= 0");
+        }
+
+        Transaction outgoing;
+        Transaction incoming;
+        try {
+            outgoing = new OutgoingTransfer(date, amount, description, from, to);
+            incoming = new IncomingTransfer(date, amount, description, from, to);
+        } catch (IllegalArgumentException ex) {
+            // z.B. ungültiges Datum
+            throw new TransactionAttributeException(ex.getMessage());
+        }
+        if (indexOf(from).contains(outgoing)) {
+            throw new TransactionAlreadyExistsException("Transaction already exists for this account: " + outgoing);
+        }
+        if (indexOf(to).contains(incoming)) {
+            throw new TransactionAlreadyExistsException("Transaction already exists for this account: " + incoming);
+        }
+
+        // 2. Gemeinsamer Datensatz für beide Konten (inkl. fsync) -> ab hier gilt die Überweisung als gebucht
+        String id = transferLog.commit(from, to, outgoing, incoming);
+
+        // 3. Beide Buchungen verbuchen; auch wenn das Journal des Senders nicht geschrieben werden
+        //    kann, wird der Empfänger im Speicher gebucht (die Dateien repariert das TransferLog)
+        IOException failure = null;
+        try {
+            bookTransferLeg(from, outgoing);
+        } catch (IOException ex) {
+            failure = ex;
+        }
+        try {
+            bookTransferLeg(to, incoming);
+        } catch (IOException ex) {
+            if (failure == null) {
+                failure = ex;
+            } else {
+                failure.addSuppressed(ex);
+            }
+        }
+        if (failure != null) {
+            throw failure;
         }
 
-        List<Transaction> accountTransactions = accountsToTransactions.get(account);
+        // 4. Beide Journale geschrieben -> Überweisung abschließen; beim Schreiben im Hintergrund erst,
+        //    wenn beide Buchungen tatsächlich in den Journalen stehen
+        files.afterWrite(() -> completeTransfer(id, from, to));
+    }
+
+    /**
+     * Schließt eine Überweisung im {@link TransferLog} ab, nachdem beide Buchungen per {@code fsync}
+     * gesichert sind. Ohne diese Reihenfolge könnte nach einem Absturz der Abschluss auf dem Datenträger
+     * stehen, die Buchungen aber fehlen, und die Überweisung würde beim Start nicht repariert.
+     *
+     * @param id   Kennung der Überweisung
+     * @param from Sender
+     * @param to   Empfänger
+     * @throws IOException wenn beim Sichern oder Schreiben ein Fehler auftritt
+     */
+    private void completeTransfer(String id, String from, String to) throws IOException {
+        files.forceAccounts(List.of(from, to));
+        transferLog.complete(id);
+    }
 
-        boolean removed = accountTransactions.remove(transaction);
-        if (!removed) {
-            throw new TransactionDoesNotExistException("Transaction does not exist for this account: " + transaction);
+    /**
+     * Verbucht eine Seite einer Überweisung (ohne Prüfung) und hängt sie an das Journal des Kontos an.
+     * <p>
+     * Liste und Index werden erst hier geholt, weil beim verzögerten Laden das Nachladen des
+     * anderen Kontos dieses Konto verdrängt haben kann.
+     * </p>
+     *
+     * @param account     Name des Kontos
+     * @param transaction Buchung für dieses Konto
+     * @throws IOException wenn beim Persistieren ein Fehler auftritt
+     */
+    private void bookTransferLeg(String account, Transaction transaction) throws IOException {
+        List<Transaction> accountTransactions = transactionsOf(account);
+        AccountIndex index = indexOf(account);
+        if (index.contains(transaction)) {
+            return;
         }
+
+        accountTransactions.add(transaction);
+        index.add(transaction, balanceContribution(account, transaction));
+        persistChange(account, TransactionJournal.OP_ADD, transaction);
     }
 
     /**
@@ -303,34 +657,196 @@ public class PrivateBank implements Bank {
      */
     @Override
     public boolean containsTransaction(String account, Transaction transaction) {
-        if (!accountsToTransactions.containsKey(account)) {
+        AccountIndex index = readIndex(account);
+        if (index == null) {
             return false;
         }
-        List<Transaction> accountTransactions = accountsToTransactions.get(account);
-        return accountTransactions.contains(transaction);
+        return index.contains(transaction);
     }
 
     /**
-     * Berechnet den aktuellen Kontostand eines Kontos.
+     * Liefert den aktuellen Kontostand eines Kontos.
+     * <p>
+     * Der Kontostand wird bei jeder Änderung des Kontos inkrementell nachgeführt,
+     * das Lesen kostet daher unabhängig von der Anzahl der Transaktionen O(1).
+     * </p>
      *
      * @param account Name des Kontos
      * @return aktueller Kontostand
      */
     @Override
     public double getAccountBalance(String account) {
-        List<Transaction> accountTransactions = accountsToTransactions.get(account);
-        if (accountTransactions == null) {
-            return 0.0;
+        return Money.toDouble(getAccountBalanceCents(account));
+    }
+
+    /**
+     * Liefert den aktuellen Kontostand eines Kontos exakt in Cent.
+     *
+     * @param account Name des Kontos
+     * @return aktueller Kontostand in Cent
+     */
+    @Override
+    public long getAccountBalanceCents(String account) {
+        long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+        BalanceEvent event = new BalanceEvent();
+        event.begin();
+        AccountIndex index = null;
+        try {
+            index = readIndex(account);
+            if (index == null) {
+                return 0L;
+            }
+            return index.getBalance();
+        } finally {
+            if (start != 0L) {
+                metrics.recordLatency(BankMetrics.Operation.GET_BALANCE, System.nanoTime() - start);
+            }
+            event.finish(account, index == null ? 0 : index.size());
         }
+    }
+
+    /**
+     * Anzahl der Transaktionen eines geladenen Kontos (für Diagnose-Ereignisse).
+     *
+     * @param account Name des Kontos
+     * @return Anzahl der Transaktionen, {@code 0} für unbekannte oder nicht geladene Konten
+     */
+    private int transactionCount(String account) {
+        List<Transaction> transactions = accountsToTransactions.get(account);
+        return transactions == null ? 0 : transactions.size();
+    }
 
-        double balance = 0.0;
+    private static String typeName(Transaction transaction) {
+        return transaction == null ? null : transaction.getClass().getSimpleName();
+    }
 
-        for (Transaction transaction : accountTransactions) {
-            // Dank IncomingTransfer / OutgoingTransfer reicht calculate()
-            balance += transaction.calculate();
+    /**
+     * Liefert den Beitrag einer Transaktion zum Kontostand des angegebenen Kontos.
+     * <p>
+     * Unterklassen können hier eine andere Verbuchungslogik hinterlegen; der
+     * zwischengespeicherte Kontostand wird immer über diese Methode gepflegt.
+     * </p>
+     *
+     * @param account     Name des Kontos
+     * @param transaction betroffene Transaktion
+     * @return Beitrag zum Kontostand in Cent
+     */
+    protected long balanceContribution(String account, Transaction transaction) {
+        // Dank IncomingTransfer / OutgoingTransfer reicht calculateCents()
+        return transaction.calculateCents();
+    }
+
+    /**
+     * Baut den Index eines Kontos vollständig aus seiner Transaktionsliste auf.
+     *
+     * @param account      Name des Kontos
+     * @param transactions Transaktionen des Kontos
+     * @return neu aufgebauter Index
+     */
+    private AccountIndex buildIndex(String account, List<Transaction> transactions) {
+        // Version vorher lesen: eine gleichzeitige Änderung führt dann bei der nächsten Änderung des Kontos zum Neuaufbau
+        long rateVersion = rateTable.getVersion();
+        AccountIndex index = new AccountIndex();
+        for (Transaction transaction : transactions) {
+            index.add(transaction, balanceContribution(account, transaction));
+        }
+        index.setRateVersion(rateVersion);
+        return index;
+    }
+
+    /**
+     * Lässt eine neue {@link Payment} ihre Zinsen aus der Zinstabelle der Bank ermitteln.
+     *
+     * @param transaction neue Transaktion
+     */
+    private void adopt(Transaction transaction) {
+        if (transaction instanceof Payment payment) {
+            payment.attach(rateTable);
+        }
+    }
+
+    /**
+     * Verbindet eine geladene {@link Payment} wieder mit der Zinstabelle, wenn ihre Zinsen beim Speichern
+     * aus der Tabelle stammten. Gespeicherte eigene Zinsen (auch aus älteren Dateien) bleiben erhalten.
+     *
+     * @param transaction geladene Transaktion
+     */
+    private void adoptLoaded(Transaction transaction) {
+        if (transaction instanceof Payment payment && payment.followsBankRates()) {
+            payment.attach(rateTable);
+        }
+    }
+
+    /**
+     * Prüft, ob Zinsänderungen seit dem Aufbau des Index Zahlungen des Kontos betreffen, und baut den
+     * Index in diesem Fall neu auf. Nicht betroffene Indizes übernehmen nur die neue Version.
+     * Der neue Index wird in die Kontotabelle übernommen (in {@link ConcurrentPrivateBank} nur unter der
+     * Schreibsperre des Kontos).
+     *
+     * @param account Name des Kontos
+     * @param index   aktueller Index (oder {@code null})
+     * @return gültiger Index (oder {@code null})
+     */
+    private AccountIndex revalue(String account, AccountIndex index) {
+        if (index == null || index.getRateVersion() == rateTable.getVersion()) {
+            return index;
+        }
+        long rateVersion = rateTable.getVersion();
+        if (isAffectedSince(index)) {
+            index = buildIndex(account, accountsToTransactions.get(account));
+            accountIndexes.put(account, index);
+        } else {
+            index.setRateVersion(rateVersion);
         }
+        return index;
+    }
 
-        return balance;
+    /**
+     * @param index Index eines Kontos
+     * @return {@code true}, wenn eine Zinsänderung seit dem Aufbau des Index eine Zahlung des Kontos betrifft
+     */
+    private boolean isAffectedSince(AccountIndex index) {
+        LocalDate effectiveFrom = rateTable.earliestChangeSince(index.getRateVersion());
+        return effectiveFrom != null && index.hasPaymentsFrom(effectiveFrom);
+    }
+
+    /**
+     * @param index Index eines Kontos (oder {@code null})
+     * @return {@code true}, wenn der Index zur aktuellen Zinstabelle passt oder keine seiner Zahlungen
+     * von einer späteren Änderung betroffen ist
+     */
+    private boolean isCurrent(AccountIndex index) {
+        return index == null || index.getRateVersion() == rateTable.getVersion() || !isAffectedSince(index);
+    }
+
+    /**
+     * Prüft ohne Änderung, ob der Index eines geladenen Kontos nach einer Zinsänderung neu aufgebaut
+     * werden muss. {@link ConcurrentPrivateBank} wechselt in diesem Fall auf die Schreibsperre.
+     *
+     * @param account Name des Kontos
+     * @return {@code true}, wenn der Index gültig ist (oder das Konto nicht geladen ist)
+     */
+    boolean isIndexCurrent(String account) {
+        return isCurrent(accountIndexes.get(account));
+    }
+
+    /**
+     * Bringt den Index eines Kontos auf den Stand der Zinstabelle und übernimmt ihn in die Kontotabelle.
+     *
+     * @param account Name des Kontos
+     */
+    void refreshIndex(String account) {
+        revalue(account, accountIndexes.get(account));
+    }
+
+    /**
+     * Legt fest, ob eine Abfrage einen veralteten Index selbst neu aufbauen und übernehmen darf.
+     * {@link ConcurrentPrivateBank} verneint das, da Abfragen dort nur eine Lesesperre (oder keine) halten.
+     *
+     * @return {@code true}, wenn Abfragen die Kontotabelle verändern dürfen
+     */
+    boolean revaluesOnRead() {
+        return true;
     }
 
     /**
@@ -345,7 +861,7 @@ public class PrivateBank implements Bank {
      */
     @Override
     public List<Transaction> getTransactions(String account) {
-        List<Transaction> accountTransactions = accountsToTransactions.get(account);
+        List<Transaction> accountTransactions = transactionsOf(account);
 
         // Wenn Konto nicht existiert oder leer ist: leere Liste zurückgeben
         if (accountTransactions == null) {
@@ -359,7 +875,10 @@ public class PrivateBank implements Bank {
     /**
      * Liefert alle Transaktionen eines Kontos sortiert nach ihrem berechneten Wert.
      * <p>
-     * Die Sortierung erfolgt auf Basis von {@link Transaction#calculate()}.
+     * Die Sortierung erfolgt auf Basis von {@link Transaction#calculateCents()} (ganzzahlig, ohne Rundungsfehler).
+     * Die Reihenfolge wird beim Hinzufügen und Entfernen im Index des Kontos gepflegt; eine Abfrage
+     * durchläuft ihn nur noch in O(n), ohne zu kopieren und zu sortieren. Gleiche Werte bleiben in
+     * Einfügereihenfolge.
      * </p>
      *
      * @param account Name des Kontos
@@ -368,58 +887,155 @@ public class PrivateBank implements Bank {
      */
     @Override
     public List<Transaction> getTransactionsSorted(String account, boolean asc) {
-        List<Transaction> list = getTransactions(account);
-
-        if (list == null) return new ArrayList<>();
-
-        // Mache eine Kopie der Liste, um die Originaldaten nicht zu verändern
-        List<Transaction> sortedList = new ArrayList<>(list);
-
-        if (asc) {
-
-            sortedList.sort(Comparator.comparingDouble(Transaction::calculate));  //kleine -> große
-
-        } else {
-
-            sortedList.sort(Comparator.comparingDouble(Transaction::calculate).reversed()); // große -> kleine
+        AccountIndex index = readIndex(account);
+        if (index == null) {
+            return new ArrayList<>();
         }
-
-
-        return sortedList;
-
+        return index.sorted(asc);
     }
 
     /**
      * Filtert die Transaktionen eines Kontos nach ihrem Vorzeichen.
+     * <p>
+     * Die beiden Teilmengen werden beim Hinzufügen und Entfernen im Index des Kontos gepflegt;
+     * eine Abfrage kopiert nur noch die gewünschte Teilmenge (O(k) statt O(n)).
+     * </p>
      *
      * @param account  Name des Kontos
      * @param positive {@code true}, um nur Transaktionen mit {@code calculate() >= 0}
      *                 zu erhalten, {@code false} für Transaktionen mit {@code calculate() < 0}
-     * @return Liste der gefilterten Transaktionen (nie {@code null})
+     * @return Liste der gefilterten Transaktionen in Einfügereihenfolge (nie {@code null})
      */
     @Override
     public List<Transaction> getTransactionsByType(String account, boolean positive) {
-        List<Transaction> result = new ArrayList<Transaction>();
-        List<Transaction> accountTransactions = accountsToTransactions.get(account);
+        AccountIndex index = readIndex(account);
+        if (index == null) {
+            return new ArrayList<>();
+        }
+        return index.byType(positive);
+    }
 
+    /**
+     * Liefert die Summe aller Gutschriften bzw. Belastungen eines Kontos in O(1) aus dem Index.
+     *
+     * @param account  Name des Kontos
+     * @param positive {@code true} für {@code calculate() >= 0}, {@code false} für {@code calculate() < 0}
+     * @return Summe in Cent ({@code 0}, wenn das Konto nicht existiert)
+     */
+    @Override
+    public long getTransactionSumCents(String account, boolean positive) {
+        AccountIndex index = readIndex(account);
+        return index == null ? 0L : index.sum(positive);
+    }
+
+    /**
+     * Liefert einen Ausschnitt der Transaktionen eines Kontos; kopiert werden nur die Einträge der Seite.
+     *
+     * @param account Name des Kontos
+     * @param offset  Position des ersten Eintrags
+     * @param limit   maximale Anzahl Einträge
+     * @return Seite samt Gesamtzahl (leer, wenn das Konto nicht existiert)
+     * @throws IllegalArgumentException wenn {@code offset} oder {@code limit} negativ ist
+     */
+    @Override
+    public TransactionPage getTransactionsPage(String account, int offset, int limit) {
+        TransactionPage.checkRange(offset, limit);
+        List<Transaction> accountTransactions = transactionsOf(account);
         if (accountTransactions == null) {
-            return result;
+            return new TransactionPage(new ArrayList<>(), offset, 0);
         }
+        return TransactionPage.of(accountTransactions, offset, limit);
+    }
 
-        for (Transaction transaction : accountTransactions) {
-            double value = transaction.calculate();
-            if (positive) {
-                if (value >= 0) {
-                    result.add(transaction);
-                }
-            } else {
-                if (value < 0) {
-                    result.add(transaction);
-                }
-            }
+    /**
+     * Liefert einen Ausschnitt der sortierten Transaktionen direkt aus dem Wert-Index des Kontos.
+     *
+     * @param account Name des Kontos
+     * @param asc     {@code true} für aufsteigende, {@code false} für absteigende Sortierung
+     * @param offset  Position des ersten Eintrags
+     * @param limit   maximale Anzahl Einträge
+     * @return Seite samt Gesamtzahl (leer, wenn das Konto nicht existiert)
+     * @throws IllegalArgumentException wenn {@code offset} oder {@code limit} negativ ist
+     */
+    @Override
+    public TransactionPage getTransactionsSortedPage(String account, boolean asc, int offset, int limit) {
+        TransactionPage.checkRange(offset, limit);
+        AccountIndex index = readIndex(account);
+        if (index == null) {
+            return new TransactionPage(new ArrayList<>(), offset, 0);
+        }
+        return new TransactionPage(index.sorted(asc, offset, limit), offset, index.size());
+    }
+
+    /**
+     * Liefert einen Ausschnitt der nach Vorzeichen gefilterten Transaktionen direkt aus dem Index des Kontos.
+     *
+     * @param account  Name des Kontos
+     * @param positive {@code true} für {@code calculate() >= 0}, {@code false} für {@code calculate() < 0}
+     * @param offset   Position des ersten Eintrags
+     * @param limit    maximale Anzahl Einträge
+     * @return Seite samt Anzahl aller Treffer (leer, wenn das Konto nicht existiert)
+     * @throws IllegalArgumentException wenn {@code offset} oder {@code limit} negativ ist
+     */
+    @Override
+    public TransactionPage getTransactionsByTypePage(String account, boolean positive, int offset, int limit) {
+        TransactionPage.checkRange(offset, limit);
+        AccountIndex index = readIndex(account);
+        if (index == null) {
+            return new TransactionPage(new ArrayList<>(), offset, 0);
         }
+        return new TransactionPage(index.byType(positive, offset, limit), offset, index.count(positive));
+    }
+
+    /**
+     * Streamt die Transaktionen direkt aus der internen Liste (ohne Kopie). Das Konto darf währenddessen
+     * nicht verändert werden.
+     */
+    @Override
+    public Stream<Transaction> streamTransactions(String account) {
+        List<Transaction> accountTransactions = transactionsOf(account);
+        return accountTransactions == null ? Stream.empty() : accountTransactions.stream();
+    }
+
+    /**
+     * Streamt die Transaktionen direkt aus dem Wert-Index (ohne Kopie und ohne Sortieren). Das Konto darf
+     * währenddessen nicht verändert werden.
+     */
+    @Override
+    public Stream<Transaction> streamTransactionsSorted(String account, boolean asc) {
+        AccountIndex index = readIndex(account);
+        return index == null ? Stream.empty() : index.streamSorted(asc);
+    }
 
-        return result;
+    /**
+     * Streamt die Transaktionen eines Vorzeichens direkt aus dem Index (ohne Kopie). Das Konto darf
+     * währenddessen nicht verändert werden.
+     */
+    @Override
+    public Stream<Transaction> streamTransactionsByType(String account, boolean positive) {
+        AccountIndex index = readIndex(account);
+        return index == null ? Stream.empty() : index.streamByType(positive);
+    }
+
+    /**
+     * Liefert alle Transaktionen eines Kontos im Zeitraum {@code [from, to]}.
+     * <p>
+     * Beantwortet über den nach Datum sortierten Index des Kontos in O(log n + k),
+     * ohne alle Transaktionen zu durchlaufen.
+     * </p>
+     *
+     * @param account Name des Kontos
+     * @param from    erster Tag (inklusive)
+     * @param to      letzter Tag (inklusive)
+     * @return neue Liste, sortiert nach Datum (nie {@code null})
+     */
+    @Override
+    public List<Transaction> getTransactionsBetween(String account, LocalDate from, LocalDate to) {
+        AccountIndex index = readIndex(account);
+        if (index == null) {
+            return new ArrayList<>();
+        }
+        return index.between(from, to);
     }
 
     /**
@@ -431,122 +1047,547 @@ public class PrivateBank implements Bank {
      */
     @Override
     public void deleteAccount(String account) throws AccountDoesNotExistException, IOException {
-        if (!accountsToTransactions.containsKey(account)) {
+        if (!accountNames.contains(account)) {
             throw new AccountDoesNotExistException("Account does not exist: " + account);
         }
 
         // Erst aus der In-Memory-Struktur entfernen
+        accountNames.remove(account);
         accountsToTransactions.remove(account);
+        accountIndexes.remove(account);
 
-        // Dann die Datei löschen (falls vorhanden)
-        Path filePath = Path.of(directoryName, account + ".json");
-        Files.deleteIfExists(filePath);
+        // Dann die Dateien löschen (falls vorhanden), nachdem ausstehende Schreibvorgänge geschrieben sind
+        files.delete(account);
     }
 
     /**
      * Gibt alle aktuell bekannten Kontonamen zurück.
+     * <p>
+     * Die Namen werden sortiert vorgehalten; es wird dabei kein Konto geladen.
+     * </p>
      *
      * @return Liste der Kontonamen (Kopie), sortiert nach Name
      */
     @Override
     public List<String> getAllAccounts() {
-        List<String> accounts = new ArrayList<>(accountsToTransactions.keySet());
-        Collections.sort(accounts);
-        return accounts;
+        return new ArrayList<>(accountNames);
+    }
+
+    /**
+     * Erstellt bankweite Kennzahlen über alle Konten (Gutschriften, Belastungen, Zinsen, Umsätze je Tag).
+     * <p>
+     * Die Transaktionslisten werden nicht kopiert, sondern in Abschnitte zu {@value #REPORT_CHUNK_SIZE}
+     * Einträgen zerlegt und im gemeinsamen Fork-Join-Pool parallel ausgewertet; so verteilen sich auch
+     * wenige sehr große Konten auf alle Kerne. Beim verzögerten Laden werden nicht geladene Konten
+     * parallel von der Festplatte gelesen, nur ausgewertet und nicht in den Speicher übernommen.
+     * Wie alle lesenden Methoden darf der Bericht nicht gleichzeitig mit Änderungen erstellt werden
+     * ({@link ConcurrentPrivateBank} sperrt dafür alle Konten).
+     * </p>
+     *
+     * @return Bericht über alle Konten
+     */
+    public BankReport createReport() {
+        // Nur Einträge durchlaufen (kein get()), damit sich die LRU-Reihenfolge nicht ändert
+        List<ReportChunk> chunks = new ArrayList<>();
+        for (Map.Entry<String, List<Transaction>> entry : accountsToTransactions.entrySet()) {
+            List<Transaction> transactions = entry.getValue();
+            for (int from = 0; from < transactions.size(); from += REPORT_CHUNK_SIZE) {
+                chunks.add(new ReportChunk(entry.getKey(), transactions, from,
+                        Math.min(transactions.size(), from + REPORT_CHUNK_SIZE)));
+            }
+        }
+        BankReport.Accumulator result = chunks.parallelStream()
+                .collect(BankReport.Accumulator::new, this::accumulate, BankReport.Accumulator::merge);
+
+        List<String> unloaded = new ArrayList<>();
+        for (String account : accountNames) {
+            if (!accountsToTransactions.containsKey(account)) {
+                unloaded.add(account);
+            }
+        }
+        if (!unloaded.isEmpty()) {
+            try {
+                files.flush();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            result.merge(unloaded.parallelStream()
+                    .collect(BankReport.Accumulator::new, (accumulator, account) -> {
+                        List<Transaction> transactions;
+                        try {
+                            transactions = loadAccount(account).contents().transactions();
+                        } catch (IOException ex) {
+                            throw new UncheckedIOException(ex);
+                        }
+                        accumulate(accumulator, new ReportChunk(account, transactions, 0, transactions.size()));
+                    }, BankReport.Accumulator::merge));
+        }
+        return result.toReport(accountNames.size());
+    }
+
+    /**
+     * Abschnitt {@code [from, to)} der Transaktionsliste eines Kontos für {@link #createReport()}.
+     */
+    private record ReportChunk(String account, List<Transaction> transactions, int from, int to) {
+    }
+
+    private void accumulate(BankReport.Accumulator accumulator, ReportChunk chunk) {
+        for (int i = chunk.from(); i < chunk.to(); i++) {
+            Transaction transaction = chunk.transactions().get(i);
+            accumulator.add(transaction, balanceContribution(chunk.account(), transaction));
+        }
+    }
+
+    /**
+     * Liefert die Transaktionsliste eines Kontos und lädt das Konto bei Bedarf nach.
+     *
+     * @param account Name des Kontos
+     * @return interne Transaktionsliste oder {@code null}, wenn das Konto nicht existiert
+     */
+    private List<Transaction> transactionsOf(String account) {
+        ensureLoaded(account);
+        return accountsToTransactions.get(account);
+    }
+
+    /**
+     * Liefert den Index eines Kontos für eine Änderung und lädt das Konto bei Bedarf nach.
+     *
+     * @param account Name des Kontos
+     * @return Index oder {@code null}, wenn das Konto nicht existiert
+     */
+    private AccountIndex indexOf(String account) {
+        ensureLoaded(account);
+        return revalue(account, accountIndexes.get(account));
+    }
+
+    /**
+     * Liefert den Index eines Kontos für eine Abfrage und lädt das Konto bei Bedarf nach.
+     * <p>
+     * Ist der Index nach einer Zinsänderung veraltet, wird er hier einmal neu aufgebaut und übernommen.
+     * Darf die Abfrage die Kontotabelle nicht verändern ({@link #revaluesOnRead()}), entsteht ein neuer
+     * Index nur für diese Abfrage; {@link ConcurrentPrivateBank} baut ihn vorher unter der Schreibsperre
+     * auf, sodass das nur bei einer gleichzeitigen Zinsänderung vorkommt.
+     * </p>
+     *
+     * @param account Name des Kontos
+     * @return Index oder {@code null}, wenn das Konto nicht existiert
+     */
+    private AccountIndex readIndex(String account) {
+        ensureLoaded(account);
+        AccountIndex index = accountIndexes.get(account);
+        if (isCurrent(index)) {
+            return index;
+        }
+        if (revaluesOnRead()) {
+            return revalue(account, index);
+        }
+        return buildIndex(account, accountsToTransactions.get(account));
+    }
+
+    /**
+     * Stellt sicher, dass ein bekanntes Konto im Speicher liegt.
+     * <p>
+     * Beim verzögerten Laden wird das Konto beim ersten Zugriff aus Snapshot und Journal gelesen;
+     * anschließend werden ggf. selten benutzte Konten verdrängt. Das ist gefahrlos möglich, weil
+     * jede Änderung sofort ins Journal geschrieben wird bzw. beim Schreiben im Hintergrund vor dem
+     * erneuten Laden geschrieben wird.
+     * </p>
+     *
+     * @param account Name des Kontos
+     */
+    private void ensureLoaded(String account) {
+        if (!accountNames.contains(account)) {
+            return;
+        }
+        // get() statt containsKey(), damit die Zugriffsreihenfolge aktualisiert wird
+        if (accountsToTransactions.get(account) != null) {
+            return;
+        }
+
+        // Ein verdrängtes Konto kann noch ungeschriebene Änderungen haben -> nur diese vor dem Lesen schreiben
+        AccountFiles.Loaded<LoadedAccount> loaded;
+        try {
+            files.flush(account);
+            loaded = loadAccount(account);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        putAccount(account, loaded.contents().transactions(), loaded.contents().index());
+        if (loaded.rejectedRecords() > 0 || !loaded.problems().isEmpty()) {
+            reportLazyLoaded(loaded);
+        }
+    }
+
+    /**
+     * Ergänzt den Ladebericht um die Meldungen eines verzögert geladenen Kontos. Synchronisiert, da
+     * {@link ConcurrentPrivateBank} Konten verschiedener Sperren gleichzeitig nachlädt.
+     *
+     * @param loaded verzögert geladenes Konto
+     */
+    private synchronized void reportLazyLoaded(AccountFiles.Loaded<?> loaded) {
+        lastLoadReport = lastLoadReport.withLazyLoaded(loaded.rejectedRecords(), loaded.problems());
+    }
+
+    /**
+     * Nimmt ein Konto in die Kontotabelle auf und verdrängt beim verzögerten Laden
+     * ggf. andere, selten benutzte Konten.
+     *
+     * @param account      Name des Kontos
+     * @param transactions Transaktionsliste
+     * @param index        zugehöriger Index
+     */
+    private void putAccount(String account, List<Transaction> transactions, AccountIndex index) {
+        accountNames.add(account);
+        accountsToTransactions.put(account, transactions);
+        accountIndexes.put(account, index);
+        evictColdAccounts(account);
+    }
+
+    /**
+     * Verdrängt beim verzögerten Laden die am längsten nicht benutzten Konten, bis die in den
+     * {@link BankOptions} festgelegten Grenzen (Anzahl Konten bzw. Transaktionen) eingehalten werden.
+     *
+     * @param keep Konto, das gerade benutzt wird und nicht verdrängt werden darf
+     */
+    private void evictColdAccounts(String keep) {
+        if (!options.isLazyLoading()) {
+            return;
+        }
+
+        long residentTransactions = 0;
+        for (List<Transaction> transactions : accountsToTransactions.values()) {
+            residentTransactions += transactions.size();
+        }
+
+        Iterator<Map.Entry<String, List<Transaction>>> eldest = accountsToTransactions.entrySet().iterator();
+        while (eldest.hasNext()
+                && (accountsToTransactions.size() > options.getMaxResidentAccounts()
+                || residentTransactions > options.getMaxResidentTransactions())) {
+            Map.Entry<String, List<Transaction>> entry = eldest.next();
+            if (entry.getKey().equals(keep)) {
+                continue;
+            }
+            residentTransactions -= entry.getValue().size();
+            eldest.remove();
+            if (metrics.isEnabled()) {
+                metrics.increment(BankMetrics.Counter.EVICTIONS);
+            }
+            accountIndexes.remove(entry.getKey());
+        }
     }
 
 
     /**
      * Liest alle vorhandenen Konten vom Dateisystem und lädt sie in accountsToTransactions.
+     * <p>
+     * Je Konto wird zuerst der Snapshot ({@code <konto>.json} bzw. {@code <konto>.bank}, siehe
+     * {@link BankOptions#getStorageFormat()}) gelesen und anschließend
+     * das Journal {@code <konto>.journal} nachgespielt. Ist in den {@link BankOptions} mehr als
+     * ein Lade-Thread eingestellt, werden die Dateien parallel gelesen. Ungültige Datensätze werden
+     * übersprungen (siehe {@link AccountFiles#load}). Eine unlesbare Datei wird samt Journal beiseitegelegt
+     * ({@link AccountFiles#quarantine}) und als fehlgeschlagen gezählt; die übrigen Konten werden trotzdem geladen.
+     * Beim verzögerten Laden werden nur die
+     * Kontonamen aus den Dateinamen übernommen. Die Dauer der einzelnen Phasen wird
+     * samt den Meldungen zu übersprungenen Datensätzen als {@link LoadReport} abgelegt und nicht ausgegeben
+     * (siehe {@link #getLastLoadReport()}).
+     * </p>
      *
-     * @throws IOException wenn ein Fehler beim Lesen auftritt
+     * @throws IOException wenn das Verzeichnis nicht gelesen oder eine unlesbare Datei nicht beiseitegelegt werden kann
      */
     private void readAccounts() throws IOException {
+        // Phase 1: Dateien auflisten
+        long startTime = System.nanoTime();
+
         // Verzeichnis erstellen, falls es nicht existiert
         Path dirPath = Path.of(directoryName);
         if (!Files.exists(dirPath)) {
             Files.createDirectories(dirPath);
+            lastLoadReport = new LoadReport(0, 0, 0, List.of(), 1, 0, 0, 0);
             return; // Keine Konten zum Lesen
         }
 
-        // Gson mit Custom Serializer/Deserializer konfigurieren
-        Gson gson = new GsonBuilder()
-                .registerTypeAdapter(Transaction.class, new De_Serialisieren())
-                .setPrettyPrinting()
-                .create();
-
-        // Alle JSON-Dateien im Verzeichnis durchgehen
-        File dir = new File(directoryName);
-        File[] files = dir.listFiles((d, name) -> name.endsWith(".json"));
-
-        if (files != null) {
-            for (File file : files) {
-                // Kontoname ist der Dateiname ohne .json
-                String accountName = file.getName().replace(".json", "");
-
-                // JSON-Datei lesen
-                try (Reader reader = Files.newBufferedReader(file.toPath())) {
-                    // Liste von Transaktionen deserialisieren
-                    Type transactionListType = new TypeToken<List<Transaction>>() {
-                    }.getType();
-                    List<Transaction> transactions = gson.fromJson(reader, transactionListType);
-
-                    // In die Map eintragen
-                    if (transactions == null) {
-                        transactions = new ArrayList<>();
-                    } else {
-                        // null-Werte herausfiltern (falls vorhanden)
-                        transactions = transactions.stream()
-                                .filter(Objects::nonNull)
-                                .collect(java.util.stream.Collectors.toList());
-                    }
-
-                    accountsToTransactions.put(accountName, transactions);
+        // Alle Snapshot-Dateien des eingestellten Formats im Verzeichnis durchgehen
+        List<String> accounts = files.listAccounts();
+        List<String> problems = new ArrayList<>();
+        long listedTime = System.nanoTime();
+
+        // Verzögertes Laden: nur die Kontonamen merken, Transaktionen erst beim ersten Zugriff lesen
+        if (options.isLazyLoading()) {
+            accountNames.addAll(accounts);
+            long indexedTime = System.nanoTime();
+            if (metrics.isEnabled()) {
+                metrics.recordLatency(BankMetrics.Operation.READ_ACCOUNTS, indexedTime - startTime);
+            }
+            recoverTransfers(problems);
+            lastLoadReport = new LoadReport(accounts.size(), 0, 0, problems, 0,
+                    toMillis(listedTime - startTime), 0, toMillis(indexedTime - listedTime));
+            return;
+        }
 
-                } catch (Exception ex) {
-                    // Fehlerhafte Dateien abfangen
-                    System.err.println("FEHLER beim Laden von " + file.getName() + ": " + ex.getMessage());
-                    // Leere Liste für fehlerhafte Dateien
-                    accountsToTransactions.put(accountName, new ArrayList<>());
+        // Phase 2: Dateien lesen und Indizes aufbauen (sequentiell oder parallel)
+        int threads = Math.max(1, Math.min(options.getLoaderThreads(), accounts.size()));
+        List<AccountFiles.Loaded<LoadedAccount>> loadedAccounts = new ArrayList<>(accounts.size());
+        List<String> failedAccounts = new ArrayList<>();
+
+        if (threads == 1) {
+            for (String account : accounts) {
+                try {
+                    loadedAccounts.add(loadAccount(account));
+                } catch (IOException ex) {
+                    failedAccounts.add(account);
+                    problems.add(ex.getMessage() + " (beiseitegelegt)");
+                }
+            }
+        } else {
+            ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "bank-loader");
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                List<Future<AccountFiles.Loaded<LoadedAccount>>> futures = new ArrayList<>(accounts.size());
+                for (String account : accounts) {
+                    futures.add(pool.submit(() -> loadAccount(account)));
                 }
+                for (int i = 0; i < futures.size(); i++) {
+                    try {
+                        loadedAccounts.add(futures.get(i).get());
+                    } catch (ExecutionException ex) {
+                        if (!(ex.getCause() instanceof IOException)) {
+                            throw new IOException("Laden der Konten fehlgeschlagen", ex.getCause());
+                        }
+                        failedAccounts.add(accounts.get(i));
+                        problems.add(ex.getCause().getMessage() + " (beiseitegelegt)");
+                    }
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Laden der Konten wurde unterbrochen", ex);
+            } finally {
+                pool.shutdownNow();
             }
         }
+        // Unlesbare Dateien beiseitelegen (nicht als leeres Konto übernehmen, das sie später überschreiben würde)
+        for (String account : failedAccounts) {
+            files.quarantine(account);
+        }
+        long parsedTime = System.nanoTime();
+
+        // Phase 3: Ergebnisse in die Kontotabelle übernehmen
+        int rejectedRecords = 0;
+        for (AccountFiles.Loaded<LoadedAccount> loaded : loadedAccounts) {
+            putAccount(loaded.account(), loaded.contents().transactions(), loaded.contents().index());
+            rejectedRecords += loaded.rejectedRecords();
+            problems.addAll(loaded.problems());
+        }
+        long mergedTime = System.nanoTime();
+        if (metrics.isEnabled()) {
+            metrics.recordLatency(BankMetrics.Operation.READ_ACCOUNTS, mergedTime - startTime);
+        }
+
+        // Phase 4: unterbrochene Überweisungen vervollständigen
+        recoverTransfers(problems);
+        lastLoadReport = new LoadReport(loadedAccounts.size(), failedAccounts.size(), rejectedRecords, problems,
+                threads, toMillis(listedTime - startTime), toMillis(parsedTime - listedTime),
+                toMillis(mergedTime - parsedTime));
     }
 
     /**
-     * Schreibt das angegebene Konto ins Dateisystem (persistiert es als JSON).
+     * Verbucht alle Überweisungen aus dem {@link TransferLog}, die vor einem Absturz nicht mehr
+     * abgeschlossen wurden, und leert anschließend das Protokoll.
+     * <p>
+     * Bereits vorhandene Buchungen bleiben unverändert, fehlende werden ergänzt. Ist eines der
+     * Konten inzwischen gelöscht, wird nur die andere Seite verbucht.
+     * </p>
      *
-     * @param account Name des zu speichernden Kontos
-     * @throws IOException wenn ein Fehler beim Schreiben auftritt
+     * @param problems nimmt je unlesbarer Zeile des Protokolls eine Beschreibung auf
+     * @throws IOException wenn beim Lesen oder Persistieren ein Fehler auftritt
      */
+    private void recoverTransfers(List<String> problems) throws IOException {
+        recoveredTransfers = files.recoverTransfers(transferLog, accountNames::contains, this::bookTransferLeg,
+                problems);
+    }
 
-    private void writeAccount(String account) throws IOException {
-        // Gson mit Custom Serializer/Deserializer konfigurieren
-        Gson gson = new GsonBuilder()
-                .registerTypeAdapter(Transaction.class, new De_Serialisieren())
-                .setPrettyPrinting()
-                .create();
+    /**
+     * Transaktionsliste und Index eines geladenen Kontos.
+     *
+     * @param transactions geladene Transaktionen
+     * @param index        aufgebauter Index
+     */
+    private record LoadedAccount(List<Transaction> transactions, AccountIndex index) {
+    }
 
-        // Transaktionen des Kontos holen
-        List<Transaction> transactions = accountsToTransactions.get(account);
-        if (transactions == null) {
-            transactions = new ArrayList<>();
+    /**
+     * Liest Snapshot und Journal eines Kontos (siehe {@link AccountFiles#load}) und baut seinen Index auf.
+     * <p>
+     * Verändert keine gemeinsamen Datenstrukturen der Bank und kann daher parallel aufgerufen werden.
+     * </p>
+     *
+     * @param account Name des Kontos
+     * @return geladenes Konto
+     * @throws IOException wenn die Datei oder ihr Journal nicht lesbar ist
+     */
+    private AccountFiles.Loaded<LoadedAccount> loadAccount(String account) throws IOException {
+        return files.load(account, (transactions, journal) -> {
+            for (Transaction transaction : transactions) {
+                adoptLoaded(transaction);
+            }
+            AccountIndex index = buildIndex(account, transactions);
+            for (TransactionJournal.Entry entry : journal) {
+                applyJournalEntry(account, transactions, index, entry);
+            }
+            return new LoadedAccount(transactions, index);
+        }, loaded -> loaded.transactions().size());
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * Prüft eine neue Transaktion gegen den Index des Zielkontos und bereitet sie zum Verbuchen vor.
+     * <p>
+     * Ungültige Attribute und Duplikate werden abgelehnt; {@link Payment}s werden vor der
+     * Duplikatprüfung an die Zinstabelle der Bank gebunden.
+     * </p>
+     *
+     * @param index       Index des Zielkontos
+     * @param transaction neue Transaktion
+     * @throws TransactionAlreadyExistsException falls die Transaktion bereits für das Konto existiert
+     * @throws TransactionAttributeException     falls ungültige Attributwerte erkannt werden
+     */
+    private void prepare(AccountIndex index, Transaction transaction)
+            throws TransactionAlreadyExistsException, TransactionAttributeException {
+
+        // Attribut-Prüfung: Transfer amount >= 0
+        if (transaction instanceof Transfer) {
+            Transfer transfer = (Transfer) transaction;
+            if (transfer.getAmount() < 0) {
+                countRejection();
+                throw new TransactionAttributeException("Transfer amount must be >= 0");
+            }
         }
 
-        // Pfad zur JSON-Datei
-        Path filePath = Path.of(directoryName, account + ".json");
+        // Bank-Zinsen überschreiben Payment-Zinsen: die Zahlung verweist ab jetzt auf die Zinstabelle
+        adopt(transaction);
+
+        // doppelte Transaktion verhindern (Hash-Index statt linearer Suche); erst nach der Zinsübernahme,
+        // da die Zinssätze zur Gleichheit einer Payment gehören
+        if (index.contains(transaction)) {
+            countRejection();
+            throw new TransactionAlreadyExistsException("Transaction already exists for this account: " + transaction);
+        }
+    }
+
+    private void countRejection() {
+        if (metrics.isEnabled()) {
+            metrics.increment(BankMetrics.Counter.REJECTED_TRANSACTIONS);
+        }
+    }
 
-        // In JSON-Datei schreiben
-        try (Writer writer = Files.newBufferedWriter(filePath)) {
-            Type transactionListType = new TypeToken<List<Transaction>>() {}.getType();
-            gson.toJson(transactions, transactionListType, writer);
+    /**
+     * Spielt einen Journal-Datensatz idempotent auf ein geladenes Konto ein.
+     *
+     * @param account      Name des Kontos
+     * @param transactions Transaktionsliste des Kontos
+     * @param index        Index des Kontos
+     * @param entry        nachzuspielender Datensatz
+     */
+    private void applyJournalEntry(String account, List<Transaction> transactions,
+                                   AccountIndex index, TransactionJournal.Entry entry) {
+        Transaction transaction = entry.transaction();
+        adoptLoaded(transaction);
+        if (TransactionJournal.OP_ADD.equals(entry.op())) {
+            if (!index.contains(transaction)) {
+                transactions.add(transaction);
+                index.add(transaction, balanceContribution(account, transaction));
+            }
+        } else if (index.contains(transaction)) {
+            transactions.remove(transaction);
+            index.remove(transaction, balanceContribution(account, transaction));
         }
     }
+
+    /**
+     * Schreibt bei {@link Durability#WRITE_BEHIND} bzw. {@link Durability#GROUP_COMMIT} alle noch
+     * ausstehenden Änderungen und wartet darauf; bei {@link Durability#SYNC} ohne Wirkung.
+     *
+     * @throws IOException wenn die Änderungen nicht geschrieben werden konnten
+     */
+    @Override
+    public void flush() throws IOException {
+        files.flush();
+    }
+
+    /**
+     * Schreibt alle ausstehenden Änderungen und beendet ggf. den Schreiber-Thread.
+     *
+     * @throws IOException wenn die Änderungen nicht geschrieben werden konnten
+     */
+    @Override
+    public void close() throws IOException {
+        files.close();
+    }
+
+    /**
+     * Persistiert eine einzelne Änderung als Journal-Datensatz und kompaktiert das Konto
+     * zu einem neuen Snapshot, sobald das Journal groß genug geworden ist.
+     *
+     * @param account     Name des Kontos
+     * @param op          {@link TransactionJournal#OP_ADD} oder {@link TransactionJournal#OP_REMOVE}
+     * @param transaction betroffene Transaktion
+     * @throws IOException wenn ein Fehler beim Schreiben auftritt
+     */
+    private void persistChange(String account, String op, Transaction transaction) throws IOException {
+        files.persist(account, List.of(new TransactionJournal.Entry(op, transaction)),
+                accountsToTransactions.get(account).size(), snapshotOf(account));
+    }
+
+    /**
+     * Persistiert einen Stapel neu hinzugefügter Transaktionen mit einem einzigen Schreibvorgang:
+     * als ein Block im Journal oder, wenn das Journal damit die Kompaktierungsgrenze erreicht,
+     * direkt als neuer Snapshot.
+     *
+     * @param account Name des Kontos
+     * @param added   hinzugefügte Transaktionen in Buchungsreihenfolge
+     * @throws IOException wenn ein Fehler beim Schreiben auftritt
+     */
+    private void persistBatch(String account, List<Transaction> added) throws IOException {
+        List<TransactionJournal.Entry> entries = new ArrayList<>(added.size());
+        for (Transaction transaction : added) {
+            entries.add(new TransactionJournal.Entry(TransactionJournal.OP_ADD, transaction));
+        }
+        files.persist(account, entries, accountsToTransactions.get(account).size(), snapshotOf(account));
+    }
+
+    /**
+     * Persistiert ein Konto als vollständigen Snapshot: sofort oder über den Hintergrund-Schreiber.
+     *
+     * @param account Name des Kontos
+     * @throws IOException wenn ein Fehler beim Schreiben auftritt
+     */
+    private void persistSnapshot(String account) throws IOException {
+        files.persistSnapshot(account, snapshotOf(account).get());
+    }
+
+    /**
+     * Liefert die Transaktionen eines Kontos für einen Snapshot. Die Kopie entsteht im ändernden Thread,
+     * damit der Schreiber-Thread nie auf die veränderliche Liste zugreift.
+     *
+     * @param account Name des Kontos
+     * @return Kopie der Transaktionsliste (bei Aufruf)
+     */
+    private Supplier<List<Transaction>> snapshotOf(String account) {
+        return () -> new ArrayList<>(accountsToTransactions.get(account));
+    }
 }
 /*
 -   readAccounts() sollte im Konstruktor aufgerufen werden, um bestehende Konten zu laden
--   writeAccount() sollte immer dann aufgerufen werden, wenn sich ein Konto ändert:
+-   writeAccount() schreibt einen vollständigen Snapshot:
 -       -Nach createAccount()
--       -Nach addTransaction()
--       -Nach removeTransaction()
+-       -Bei der Kompaktierung des Journals
+-   addTransaction() / removeTransaction() hängen nur einen Datensatz an <konto>.journal an
+-   Snapshot, Journal und Kompaktierung liegen in AccountFiles (gemeinsam mit ColumnarPrivateBank)
+-   Bei Durability.WRITE_BEHIND / GROUP_COMMIT übernimmt WriteBehindWriter das Schreiben gebündelt im Hintergrund
+-   transfer() schreibt zuerst einen gemeinsamen Datensatz nach _transfers.log, dann beide Journale
 */
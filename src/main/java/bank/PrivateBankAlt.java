@@ -4,6 +4,10 @@ import java.io.IOException;
 
 /**
  * Alternative PrivateBank-Implementierung (Variante 2 mit instanceof).
+ * <p>
+ * Der Kontostand wird wie in {@link PrivateBank} zwischengespeichert; nur die
+ * Verbuchung einzelner Transaktionen unterscheidet sich.
+ * </p>
  */
 public class PrivateBankAlt extends PrivateBank {
 
@@ -11,29 +15,29 @@ public class PrivateBankAlt extends PrivateBank {
         super(name, incomingInterest, outgoingInterest, directoryName);
     }
 
-    @Override
-    public double getAccountBalance(String account) {
-
-        double balance = 0.0;
-
-        for (Transaction transaction : getTransactions(account)) {
-            if (transaction instanceof Payment) {
-                // Payment: direkt calculate() benutzen
-                balance += transaction.calculate();
-            } else if (transaction instanceof Transfer) {
-                Transfer transfer = (Transfer) transaction;
+    public PrivateBankAlt(String name, double incomingInterest, double outgoingInterest, String directoryName,
+                          BankOptions options) throws IOException {
+        super(name, incomingInterest, outgoingInterest, directoryName, options);
+    }
 
-                // Variante 2: Unterscheidung über sender/recipient
-                if (account.equals(transfer.getSender())) {
-                    // "Sendung" -> Betrag abziehen
-                    balance -= transfer.calculate();
-                } else if (account.equals(transfer.getRecipient())) {
-                    // "Empfang" -> Betrag hinzufügen
-                    balance += transfer.calculate();
-                }
+    @Override
+    protected long balanceContribution(String account, Transaction transaction) {
+        if (transaction instanceof Payment) {
+            // Payment: direkt calculateCents() benutzen
+            return transaction.calculateCents();
+        } else if (transaction instanceof Transfer) {
+            Transfer transfer = (Transfer) transaction;
+
+            // Variante 2: Unterscheidung über sender/recipient
+            if (account.equals(transfer.getSender())) {
+                // "Sendung" -> Betrag abziehen
+                return -transfer.calculateCents();
+            } else if (account.equals(transfer.getRecipient())) {
+                // "Empfang" -> Betrag hinzufügen
+                return transfer.calculateCents();
             }
         }
 
-        return balance;
+        return 0L;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,67 @@
+package bank;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Wandelt alle Konto-Snapshots eines Verzeichnisses von einem {@link StorageFormat} in ein anderes um.
+ * <p>
+ * Journale bleiben unverändert, da sie für beide Formate gleich sind. Nach dem erfolgreichen
+ * Schreiben einer Zieldatei wird die Quelldatei gelöscht.
+ * </p>
+ * <p>
+ * Aufruf: {@code java bank.StorageConverter <verzeichnis> <JSON|BINARY>}
+ * </p>
+ */
+public final class StorageConverter {
+
+    private StorageConverter() {
+    }
+
+    /**
+     * Wandelt alle Snapshots im Verzeichnis um.
+     *
+     * @param directory Verzeichnis der Konten
+     * @param from      bisheriges Format
+     * @param to        neues Format
+     * @return Anzahl der umgewandelten Konten
+     * @throws IOException wenn eine Datei nicht gelesen oder geschrieben werden kann
+     */
+    public static int convert(Path directory, StorageFormat from, StorageFormat to) throws IOException {
+        if (from == to) {
+            return 0;
+        }
+
+        BankOptions options = new BankOptions();
+        int converted = 0;
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + from.getExtension())) {
+            for (Path source : files) {
+                String fileName = source.getFileName().toString();
+                String account = fileName.substring(0, fileName.length() - from.getExtension().length());
+
+                List<Transaction> transactions = from.read(source);
+                to.write(directory.resolve(account + to.getExtension()), transactions, options);
+                Files.delete(source);
+                converted++;
+            }
+        }
+        return converted;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Aufruf: java bank.StorageConverter <verzeichnis> <JSON|BINARY>");
+            System.exit(1);
+        }
+
+        StorageFormat to = StorageFormat.valueOf(args[1].toUpperCase());
+        StorageFormat from = to == StorageFormat.JSON ? StorageFormat.BINARY : StorageFormat.JSON;
+
+        int converted = convert(Path.of(args[0]), from, to);
+        System.out.println(converted + " Konten von " + from + " nach " + to + " umgewandelt");
+    }
+}
@@ -0,0 +1,43 @@
+package bank;
+
+/**
+ * Geschätzter Speicherbedarf aller Transaktionen einer Bank im spaltenorientierten Layout von
+ * {@link ColumnarPrivateBank} im Vergleich zum objektorientierten Layout von {@link PrivateBank}.
+ * <p>
+ * Beide Werte werden für dieselben Daten abgeschätzt (64-Bit-JVM, komprimierte Referenzen).
+ * </p>
+ *
+ * @param transactions  Anzahl der Transaktionen
+ * @param columnarBytes Speicherbedarf der Spalten, Hash-Indizes und des Zeichenketten-Pools in Byte
+ * @param objectBytes   Speicherbedarf als {@link Transaction}-Objekte in {@code ArrayList} samt {@link AccountIndex} in Byte
+ */
+public record StorageFootprint(long transactions, long columnarBytes, long objectBytes) {
+
+    /**
+     * @return Byte je Transaktion im spaltenorientierten Layout
+     */
+    public double columnarBytesPerTransaction() {
+        return transactions == 0 ? 0 : (double) columnarBytes / transactions;
+    }
+
+    /**
+     * @return Byte je Transaktion im objektorientierten Layout
+     */
+    public double objectBytesPerTransaction() {
+        return transactions == 0 ? 0 : (double) objectBytes / transactions;
+    }
+
+    /**
+     * @return Einsparung als Faktor (objektorientiert / spaltenorientiert)
+     */
+    public double ratio() {
+        return columnarBytes == 0 ? 0 : (double) objectBytes / columnarBytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Transaktionen: %d | spaltenorientiert %.1f Byte/Transaktion, "
+                        + "objektorientiert %.1f Byte/Transaktion (Faktor %.1f)",
+                transactions, columnarBytesPerTransaction(), objectBytesPerTransaction(), ratio());
+    }
+}
@@ -0,0 +1,153 @@
+package bank;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dateiformat, in dem die Snapshots der Konten gespeichert werden.
+ * <p>
+ * Das Journal ({@code <konto>.journal}) ist unabhängig vom gewählten Format immer zeilenweises JSON.
+ * </p>
+ * <p>
+ * Beim Lesen wird zwischen einzelnen ungültigen Datensätzen (z.B. unlesbares Datum) und einer
+ * unlesbaren Datei unterschieden: {@link #read(Path, List)} überspringt ungültige Datensätze und
+ * meldet sie, eine unlesbare Datei führt immer zu einer {@link IOException}.
+ * </p>
+ */
+public enum StorageFormat {
+
+    /**
+     * Lesbares JSON ({@code <konto>.json}) im Format von {@link De_Serialisieren}.
+     */
+    JSON(".json") {
+        @Override
+        List<Transaction> read(Path path, List<String> rejected) throws IOException {
+            List<Transaction> transactions = new ArrayList<>();
+            try (Reader reader = Files.newBufferedReader(path);
+                 JsonReader json = new JsonReader(reader)) {
+                try {
+                    if (json.peek() == JsonToken.NULL) {
+                        return transactions;
+                    }
+                } catch (EOFException ex) {
+                    // leere Datei
+                    return transactions;
+                }
+                json.beginArray();
+                int position = 0;
+                while (json.hasNext()) {
+                    try {
+                        Transaction transaction = CODEC.read(json);
+                        // null-Werte herausfiltern (falls vorhanden)
+                        if (transaction != null) {
+                            transactions.add(transaction);
+                        }
+                    } catch (De_Serialisieren.InvalidRecordException ex) {
+                        rejected.add("Datensatz " + position + ": " + ex.getMessage());
+                    }
+                    position++;
+                }
+                json.endArray();
+            } catch (IllegalStateException | IllegalArgumentException | JsonParseException ex) {
+                // Struktur der Datei selbst ist ungültig
+                throw new IOException("Ungültige Kontodatei " + path.getFileName() + ": " + ex.getMessage(), ex);
+            }
+            return transactions;
+        }
+
+        @Override
+        void write(Path path, List<Transaction> transactions, BankOptions options) throws IOException {
+            Gson gson = De_Serialisieren.getGson(!options.isCompactJson());
+            try (Writer writer = Files.newBufferedWriter(path)) {
+                gson.toJson(transactions, TRANSACTION_LIST_TYPE, writer);
+            }
+        }
+    },
+
+    /**
+     * Binärformat mit Datensätzen fester Breite ({@code <konto>.bank}), siehe {@link BinaryAccountFile}.
+     */
+    BINARY(".bank") {
+        @Override
+        List<Transaction> read(Path path, List<String> rejected) throws IOException {
+            return BinaryAccountFile.open(path).toList(rejected);
+        }
+
+        @Override
+        void write(Path path, List<Transaction> transactions, BankOptions options) throws IOException {
+            BinaryAccountFile.write(path, transactions);
+        }
+    };
+
+    /**
+     * Typ einer Transaktionsliste für Gson (einmalig ermittelt).
+     */
+    private static final Type TRANSACTION_LIST_TYPE = new TypeToken<List<Transaction>>() {}.getType();
+
+    /** Codec für das zeilenweise Lesen einzelner Datensätze (zustandslos). */
+    private static final De_Serialisieren CODEC = new De_Serialisieren();
+
+    private final String extension;
+
+    StorageFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * @return Dateiendung der Snapshots (inkl. Punkt)
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Liest einen Snapshot vollständig; schon ein ungültiger Datensatz führt zu einer {@link IOException}
+     * (z.B. beim Umwandeln, das die Quelldatei anschließend löscht).
+     *
+     * @param path Pfad zur Snapshot-Datei
+     * @return gelesene Transaktionen (veränderbare Liste, nie {@code null})
+     * @throws IOException wenn beim Lesen ein Fehler auftritt oder ein Datensatz ungültig ist
+     */
+    List<Transaction> read(Path path) throws IOException {
+        List<String> rejected = new ArrayList<>();
+        List<Transaction> transactions = read(path, rejected);
+        if (!rejected.isEmpty()) {
+            throw new IOException("Ungültiger Datensatz in " + path.getFileName() + ": " + rejected.get(0)
+                    + (rejected.size() > 1 ? " (und " + (rejected.size() - 1) + " weitere)" : ""));
+        }
+        return transactions;
+    }
+
+    /**
+     * Liest einen Snapshot und überspringt dabei ungültige Datensätze.
+     *
+     * @param path     Pfad zur Snapshot-Datei
+     * @param rejected nimmt je übersprungenem Datensatz eine Beschreibung auf
+     * @return gelesene gültige Transaktionen (veränderbare Liste, nie {@code null})
+     * @throws IOException wenn die Datei selbst nicht lesbar ist
+     */
+    abstract List<Transaction> read(Path path, List<String> rejected) throws IOException;
+
+    /**
+     * Schreibt einen Snapshot.
+     *
+     * @param path         Zieldatei (wird überschrieben)
+     * @param transactions zu schreibende Transaktionen
+     * @param options      Einstellungen der Bank (z.B. kompaktes JSON)
+     * @throws IOException wenn beim Schreiben ein Fehler auftritt
+     */
+    abstract void write(Path path, List<Transaction> transactions, BankOptions options) throws IOException;
+}
@@ -0,0 +1,79 @@
+package bank;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bankweiter Pool für Zeichenketten (Beschreibungen, Sender, Empfänger).
+ * <p>
+ * Jede Zeichenkette wird genau einmal gespeichert und über eine fortlaufende {@code int}-Id
+ * referenziert. {@code null} hat die Id {@value #NULL_ID}.
+ * </p>
+ */
+class StringPool {
+
+    /** Id für {@code null}. */
+    static final int NULL_ID = -1;
+    /** Ergebnis von {@link #find(String)}, wenn die Zeichenkette nicht im Pool ist. */
+    static final int MISSING = -2;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    /**
+     * Liefert die Id einer Zeichenkette und nimmt sie bei Bedarf in den Pool auf.
+     *
+     * @param value Zeichenkette (darf {@code null} sein)
+     * @return Id der Zeichenkette
+     */
+    int intern(String value) {
+        if (value == null) {
+            return NULL_ID;
+        }
+        Integer id = ids.get(value);
+        if (id == null) {
+            id = values.size();
+            ids.put(value, id);
+            values.add(value);
+        }
+        return id;
+    }
+
+    /**
+     * Sucht die Id einer Zeichenkette, ohne sie aufzunehmen.
+     *
+     * @param value Zeichenkette (darf {@code null} sein)
+     * @return Id oder {@link #MISSING}
+     */
+    int find(String value) {
+        if (value == null) {
+            return NULL_ID;
+        }
+        Integer id = ids.get(value);
+        return id == null ? MISSING : id;
+    }
+
+    /**
+     * @param id Id aus {@link #intern(String)}
+     * @return zugehörige Zeichenkette
+     */
+    String get(int id) {
+        return id == NULL_ID ? null : values.get(id);
+    }
+
+    /**
+     * Geschätzter Speicherbedarf des Pools in Byte (Zeichenketten + Verwaltungsstrukturen).
+     *
+     * @return Speicherbedarf in Byte
+     */
+    long estimateBytes() {
+        long bytes = 0;
+        for (String value : values) {
+            // String-Objekt + byte[] + HashMap-Eintrag + Integer + Listen-Eintrag
+            bytes += MemoryLayout.stringBytes(value) + MemoryLayout.HASH_ENTRY_BYTES + 16 + MemoryLayout.REFERENCE_BYTES;
+        }
+        return bytes;
+    }
+}
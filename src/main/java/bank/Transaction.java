@@ -1,28 +1,32 @@
 //Transaction
 package bank;
 
+import java.time.LocalDate;
+import java.util.Objects;
+
 /**
  * Abstrakte Oberklasse für gemeinsame Eigenschaften von Payment und Transfer.
  */
 public abstract class Transaction implements CalculateBill {
 
-    /** Datum im Format "DD.MM.YYYY". */
-    protected  String date;
+    /** Datum (beim Anlegen aus "DD.MM.YYYY" oder "YYYY-MM-DD" gelesen, siehe {@link DateFormats}). */
+    protected  LocalDate date;
 
-    /** Ursprünglicher Betrag der Transaktion. */
-    protected  double amount;
+    /** Ursprünglicher Betrag der Transaktion in Cent (Festkomma, siehe {@link Money}). */
+    protected  long amountCents;
 
     /** Beschreibungstext. */
     protected  String description;
 
     /**
      * Basis-Konstruktor.
-     * @param date Datum (Format "DD.MM.YYYY")
-     * @param amount Betrag der Transaktion
+     * @param date Datum (Format "DD.MM.YYYY" oder "YYYY-MM-DD")
+     * @param amount Betrag der Transaktion (wird auf ganze Cent gerundet)
      * @param description Beschreibung
+     * @throws IllegalArgumentException wenn das Datum nicht gelesen werden kann
      */
     public Transaction(String date, double amount, String description) {
-        this.date = date;
+        setDate(date);
         setAmount(amount);
         this.description = description;
     }
@@ -33,17 +37,23 @@ public abstract class Transaction implements CalculateBill {
      * @param other Das zu kopierende Payment-Objekt
      * */
     public Transaction(Transaction other) {
-        this(other.date, other.amount, other.description);
+        this.date = other.date;
+        this.amountCents = other.amountCents;
+        this.description = other.description;
     }
 
     // Getter
-    public String getDate() { return date; }
-    public double getAmount() { return amount; }
+    public String getDate() { return DateFormats.format(date); }
+    public LocalDate getLocalDate() { return date; }
+    public double getAmount() { return Money.toDouble(amountCents); }
+    public long getAmountCents() { return amountCents; }
     public String getDescription() { return description; }
 
     // Setter
-    public void setDate(String date) { this.date = date; }
-    public void setAmount(double amount) { this.amount = amount; }
+    public void setDate(String date) { this.date = DateFormats.parse(date); }
+    public void setDate(LocalDate date) { this.date = date; }
+    public void setAmount(double amount) { setAmountCents(Money.toCents(amount)); }
+    public void setAmountCents(long amountCents) { this.amountCents = amountCents; }
     public void setDescription(String description) { this.description = description; }
 
     /**
@@ -51,7 +61,7 @@ public abstract class Transaction implements CalculateBill {
      */
     @Override
     public String toString(){
-        return "\ndate: " + date + "\namount: "+ amount + "\ndescription: " + description;
+        return "\ndate: " + getDate() + "\namount: "+ Money.format(amountCents) + "\ndescription: " + description;
     }
 
     /**
@@ -66,9 +76,22 @@ public abstract class Transaction implements CalculateBill {
         if (obj == null || getClass() != obj.getClass()) return false;
         
         Transaction temp = (Transaction) obj;
-        return date.equals(temp.date) 
-            && description.equals(temp.description) 
-            && Double.compare(amount, temp.amount) == 0;
+        return Objects.equals(date, temp.date)
+            && Objects.equals(description, temp.description)
+            && amountCents == temp.amountCents;
+    }
+
+    /**
+     * Hashwert passend zu {@link #equals(Object)} über alle gemeinsamen Attribute.
+     * <p>
+     * Ermöglicht die Ablage in Hash-Strukturen (z.B. Duplikatprüfung je Konto).
+     * Eine Transaktion darf daher nicht mehr verändert werden, solange sie einem Konto zugeordnet ist.
+     * </p>
+     * @return Hashwert
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(getClass(), date, amountCents, description);
     }
 }
 
@@ -0,0 +1,252 @@
+package bank;
+
+import bank.metrics.BankMetrics;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only Journal der Änderungen je Konto.
+ * <p>
+ * Für jedes Konto wird neben dem Snapshot {@code <konto>.json} eine Datei {@code <konto>.journal}
+ * geführt. Jede Zeile enthält genau einen Datensatz, z.B.
+ * {@code {"OP":"ADD","TRANSACTION":{"CLASSNAME":"Payment","INSTANCE":{...}}}}.
+ * Entfernte Transaktionen werden als Tombstone ({@code "OP":"REMOVE"}) angehängt.
+ * Snapshot + Journal ergeben zusammen den aktuellen Stand des Kontos; nach einer
+ * Kompaktierung (neuer Snapshot) wird das Journal gelöscht.
+ * </p>
+ * <p>
+ * Das Nachspielen ist idempotent: ein {@code ADD} für eine bereits vorhandene Transaktion
+ * und ein {@code REMOVE} für eine fehlende Transaktion werden ignoriert. Ein Absturz zwischen
+ * Schreiben des Snapshots und Löschen des Journals ist daher unkritisch.
+ * </p>
+ */
+class TransactionJournal {
+
+    /** Dateiendung der Journal-Dateien. */
+    static final String EXTENSION = ".journal";
+
+    /** Datensatz: Transaktion wurde hinzugefügt. */
+    static final String OP_ADD = "ADD";
+    /** Datensatz: Transaktion wurde entfernt (Tombstone). */
+    static final String OP_REMOVE = "REMOVE";
+
+    private final String directoryName;
+    private final De_Serialisieren codec = new De_Serialisieren();
+    private final BankMetrics metrics;
+
+    /**
+     * Anzahl der Datensätze je Konto seit der letzten Kompaktierung
+     * (nebenläufig, da Konten beim Start parallel geladen werden können).
+     */
+    private final Map<String, Integer> sizes = new ConcurrentHashMap<>();
+
+    /**
+     * Ein einzelner Journal-Datensatz.
+     *
+     * @param op          {@link #OP_ADD} oder {@link #OP_REMOVE}
+     * @param transaction betroffene Transaktion
+     */
+    record Entry(String op, Transaction transaction) {
+    }
+
+    /**
+     * @param directoryName Verzeichnis, in dem die Journal-Dateien liegen
+     */
+    TransactionJournal(String directoryName) {
+        this(directoryName, BankMetrics.NOOP);
+    }
+
+    /**
+     * @param directoryName Verzeichnis, in dem die Journal-Dateien liegen
+     * @param metrics       Empfänger für geschriebene und gelesene Byte
+     */
+    TransactionJournal(String directoryName, BankMetrics metrics) {
+        this.directoryName = directoryName;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Liefert den Pfad der Journal-Datei eines Kontos.
+     *
+     * @param account Name des Kontos
+     * @return Pfad zu {@code <konto>.journal}
+     */
+    Path path(String account) {
+        return Path.of(directoryName, account + EXTENSION);
+    }
+
+    /**
+     * Liefert die Anzahl der Datensätze seit der letzten Kompaktierung.
+     *
+     * @param account Name des Kontos
+     * @return Anzahl der Journal-Datensätze
+     */
+    int size(String account) {
+        return sizes.getOrDefault(account, 0);
+    }
+
+    /**
+     * Hängt einen Datensatz an das Journal des Kontos an.
+     *
+     * @param account     Name des Kontos
+     * @param op          {@link #OP_ADD} oder {@link #OP_REMOVE}
+     * @param transaction betroffene Transaktion
+     * @throws IOException wenn beim Schreiben ein Fehler auftritt
+     */
+    void append(String account, String op, Transaction transaction) throws IOException {
+        appendAll(account, op, List.of(transaction));
+    }
+
+    /**
+     * Hängt mehrere Datensätze mit einem einzigen Öffnen und Schreiben der Datei an das Journal an.
+     *
+     * @param account      Name des Kontos
+     * @param op           {@link #OP_ADD} oder {@link #OP_REMOVE}
+     * @param transactions betroffene Transaktionen in Buchungsreihenfolge
+     * @throws IOException wenn beim Schreiben ein Fehler auftritt
+     */
+    void appendAll(String account, String op, List<Transaction> transactions) throws IOException {
+        List<Entry> entries = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            entries.add(new Entry(op, transaction));
+        }
+        appendEntries(account, entries, false);
+    }
+
+    /**
+     * Hängt beliebige Datensätze mit einem einzigen Öffnen und Schreiben der Datei an das Journal an.
+     *
+     * @param account Name des Kontos
+     * @param entries Datensätze in Schreibreihenfolge
+     * @param force   {@code true}, um die Datei anschließend per {@code fsync} zu sichern
+     * @throws IOException wenn beim Schreiben ein Fehler auftritt
+     */
+    void appendEntries(String account, List<Entry> entries, boolean force) throws IOException {
+        if (entries.isEmpty()) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path(account), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+             Writer writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8))) {
+            long startPosition = channel.size();
+            for (Entry entry : entries) {
+                JsonWriter json = new JsonWriter(writer);
+                json.beginObject();
+                json.name("OP").value(entry.op());
+                json.name("TRANSACTION");
+                codec.write(json, entry.transaction());
+                json.endObject();
+                // JsonWriter puffert nicht selbst -> kein flush() je Zeile, nur am Ende
+                writer.write('\n');
+            }
+            writer.flush();
+            if (metrics.isEnabled()) {
+                // APPEND: die Position steht danach am Dateiende, vorher stand sie beim alten Ende
+                metrics.bytesWritten(channel.position() - startPosition);
+            }
+            if (force) {
+                channel.force(false);
+            }
+        }
+        sizes.merge(account, entries.size(), Integer::sum);
+    }
+
+    /**
+     * Liest alle Datensätze des Kontos in Schreibreihenfolge.
+     * <p>
+     * Unlesbare Zeilen (z.B. eine abgeschnittene letzte Zeile nach einem Absturz) werden
+     * übersprungen und in {@code problems} beschrieben.
+     * </p>
+     *
+     * @param account  Name des Kontos
+     * @param problems nimmt je übersprungener Zeile eine Beschreibung auf
+     * @return Datensätze (leer, wenn kein Journal existiert)
+     * @throws IOException wenn beim Lesen ein Fehler auftritt
+     */
+    List<Entry> read(String account, List<String> problems) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        Path path = path(account);
+        if (!Files.exists(path)) {
+            sizes.remove(account);
+            return entries;
+        }
+
+        if (metrics.isEnabled()) {
+            metrics.bytesRead(Files.size(path));
+        }
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    Entry entry = readEntry(line);
+                    if (entry.transaction() != null && (OP_ADD.equals(entry.op()) || OP_REMOVE.equals(entry.op()))) {
+                        entries.add(entry);
+                    }
+                } catch (IOException | RuntimeException ex) {
+                    problems.add("Journal " + path.getFileName() + " Zeile " + lineNumber + ": " + ex.getMessage()
+                            + " (übersprungen)");
+                }
+            }
+        }
+
+        sizes.put(account, entries.size());
+        return entries;
+    }
+
+    /**
+     * Liest einen einzelnen Datensatz (eine Zeile) im Streaming-Verfahren.
+     *
+     * @param line Zeile aus der Journal-Datei
+     * @return gelesener Datensatz
+     * @throws IOException wenn die Zeile kein gültiger Datensatz ist
+     */
+    private Entry readEntry(String line) throws IOException {
+        String op = null;
+        Transaction transaction = null;
+
+        JsonReader json = new JsonReader(new StringReader(line));
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "OP" -> op = json.nextString();
+                case "TRANSACTION" -> transaction = codec.read(json);
+                default -> json.skipValue();
+            }
+        }
+        json.endObject();
+
+        return new Entry(op, transaction);
+    }
+
+    /**
+     * Löscht das Journal eines Kontos (nach Kompaktierung oder beim Löschen des Kontos).
+     *
+     * @param account Name des Kontos
+     * @throws IOException wenn beim Löschen ein Fehler auftritt
+     */
+    void clear(String account) throws IOException {
+        Files.deleteIfExists(path(account));
+        sizes.remove(account);
+    }
+}
@@ -0,0 +1,64 @@
+package bank;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ein Ausschnitt ("Seite") einer Transaktionsabfrage.
+ * <p>
+ * Enthält nur die Transaktionen der Seite sowie die Gesamtzahl der Treffer, damit z.B. die
+ * Oberfläche durch große Konten blättern kann, ohne die vollständige Liste zu kopieren.
+ * </p>
+ *
+ * @param transactions Transaktionen der Seite (höchstens {@code limit} Einträge)
+ * @param offset       Position des ersten Eintrags innerhalb aller Treffer
+ * @param total        Gesamtzahl der Treffer der Abfrage
+ */
+public record TransactionPage(List<Transaction> transactions, int offset, int total) {
+
+    /**
+     * @return {@code true}, wenn nach dieser Seite weitere Treffer folgen
+     */
+    public boolean hasNext() {
+        return offset + transactions.size() < total;
+    }
+
+    /**
+     * @return {@code true}, wenn vor dieser Seite Treffer liegen
+     */
+    public boolean hasPrevious() {
+        return offset > 0;
+    }
+
+    /**
+     * Schneidet eine Seite aus einer bereits vollständig vorliegenden Liste aus.
+     *
+     * @param all    alle Treffer in Abfragereihenfolge
+     * @param offset Position des ersten Eintrags
+     * @param limit  maximale Anzahl Einträge
+     * @return neue Seite
+     * @throws IllegalArgumentException wenn {@code offset} oder {@code limit} negativ ist
+     */
+    public static TransactionPage of(List<Transaction> all, int offset, int limit) {
+        checkRange(offset, limit);
+        int from = Math.min(offset, all.size());
+        int to = (int) Math.min((long) from + limit, all.size());
+        return new TransactionPage(new ArrayList<>(all.subList(from, to)), offset, all.size());
+    }
+
+    /**
+     * Prüft die Parameter einer Seitenabfrage.
+     *
+     * @param offset Position des ersten Eintrags
+     * @param limit  maximale Anzahl Einträge
+     * @throws IllegalArgumentException wenn {@code offset} oder {@code limit} negativ ist
+     */
+    static void checkRange(int offset, int limit) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset darf nicht negativ sein: " + offset);
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit darf nicht negativ sein: " + limit);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 //Transfer
 package bank;
 
+import java.util.Objects;
+
 /**
  * Überweisung von Sender an Empfänger (Betrag muss >= 0 sein).
  */
@@ -39,8 +41,9 @@ public class Transfer extends Transaction {
      * @param other anderes {@code Transfer}-Objekt
      */
     public Transfer(Transfer other) {
-        this(other.getDate(), other.getAmount(), other.getDescription(),
-                other.sender, other.recipient);
+        super(other);
+        this.sender = other.sender;
+        this.recipient = other.recipient;
     }
 
     // Getter/Setter der eigenen Attribute
@@ -50,14 +53,14 @@ public class Transfer extends Transaction {
     public void setRecipient(String recipient) { this.recipient = recipient; }
 
     /**
-     * Setzt den Betrag nur, wenn er {@code >= 0} ist.
+     * Setzt den Betrag (in Cent) nur, wenn er {@code >= 0} ist.
      *
-     * @param amount neuer Betrag
+     * @param amountCents neuer Betrag in Cent
      */
     @Override
-    public void setAmount(double amount) {
-        if (amount >= 0) {
-            super.setAmount(amount);
+    public void setAmountCents(long amountCents) {
+        if (amountCents >= 0) {
+            super.setAmountCents(amountCents);
         } else {
             throw new IllegalArgumentException("Die Überweisung muss positiv sein");
         }
@@ -65,8 +68,8 @@ public class Transfer extends Transaction {
 
     // CalculateBill
     @Override
-    public double calculate() {
-        return getAmount(); // keine Zinsen/Gebühren
+    public long calculateCents() {
+        return amountCents; // keine Zinsen/Gebühren
     }
 
     /**
@@ -90,8 +93,18 @@ public class Transfer extends Transaction {
     public boolean equals(Object obj) {
         if (!super.equals(obj)) return false; // vergleicht date, amount, description
         Transfer other = (Transfer) obj;
-        boolean SenderEquals = sender.equals(other.sender);
-        boolean RecipientEquals = recipient.equals(other.recipient);
+        boolean SenderEquals = Objects.equals(sender, other.sender);
+        boolean RecipientEquals = Objects.equals(recipient, other.recipient);
         return SenderEquals && RecipientEquals;
     }
+
+    /**
+     * Hashwert inkl. eigener Attribute, passend zu {@link #equals(Object)}.
+     *
+     * @return Hashwert
+     */
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + Objects.hash(sender, recipient);
+    }
 }
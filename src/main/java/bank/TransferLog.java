@@ -0,0 +1,219 @@
+package bank;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bankweites Protokoll für Überweisungen zwischen zwei Konten ({@value #FILE_NAME}).
+ * <p>
+ * Vor dem Verbuchen einer Überweisung wird ein Datensatz mit <b>beiden</b> Buchungen
+ * ({@link OutgoingTransfer} beim Sender, {@link IncomingTransfer} beim Empfänger) angehängt und
+ * per {@code fsync} auf den Datenträger geschrieben. Dieser Datensatz ist der Zeitpunkt, ab dem die
+ * Überweisung als gebucht gilt. Danach werden die beiden Buchungen in die Journale der Konten
+ * geschrieben, <b>beide Journale per {@code fsync} gesichert</b> und erst dann die Überweisung mit
+ * einem {@code DONE}-Datensatz abgeschlossen. Ein {@code DONE} auf dem Datenträger bedeutet daher
+ * immer, dass beide Buchungen dauerhaft gespeichert sind.
+ * </p>
+ * <p>
+ * Der {@code DONE}-Datensatz selbst wird nicht per {@code fsync} gesichert; geht er bei einem Absturz
+ * verloren, wird die Überweisung beim nächsten Start lediglich erneut geprüft. Sobald alle
+ * protokollierten Überweisungen abgeschlossen sind, wird die Datei gelöscht statt weiter anzuwachsen.
+ * </p>
+ * <p>
+ * Beim Start werden alle Überweisungen ohne {@code DONE} erneut verbucht (fehlende Buchungen werden
+ * ergänzt, vorhandene bleiben unverändert), per {@code fsync} gesichert und das Protokoll anschließend
+ * geleert.
+ * </p>
+ */
+class TransferLog {
+
+    /** Dateiname des Protokolls im Verzeichnis der Bank. */
+    static final String FILE_NAME = "_transfers.log";
+
+    private final Path path;
+    private final De_Serialisieren codec = new De_Serialisieren();
+
+    /** Kennungen der in dieser Sitzung protokollierten, noch nicht abgeschlossenen Überweisungen. */
+    private final Set<String> open = new HashSet<>();
+
+    /**
+     * Eine protokollierte Überweisung.
+     *
+     * @param id       eindeutige Kennung der Überweisung
+     * @param from     Sender (Konto der ausgehenden Buchung)
+     * @param to       Empfänger (Konto der eingehenden Buchung)
+     * @param outgoing Buchung beim Sender
+     * @param incoming Buchung beim Empfänger
+     */
+    record Entry(String id, String from, String to, Transaction outgoing, Transaction incoming) {
+    }
+
+    /**
+     * @param directoryName Verzeichnis der Bank
+     */
+    TransferLog(String directoryName) {
+        this.path = Path.of(directoryName, FILE_NAME);
+    }
+
+    /**
+     * Schreibt den Datensatz einer Überweisung dauerhaft (inkl. {@code fsync}).
+     *
+     * @param from     Sender
+     * @param to       Empfänger
+     * @param outgoing Buchung beim Sender
+     * @param incoming Buchung beim Empfänger
+     * @return Kennung der Überweisung (für {@link #complete(String)})
+     * @throws IOException wenn der Datensatz nicht geschrieben werden kann
+     */
+    synchronized String commit(String from, String to, Transaction outgoing, Transaction incoming) throws IOException {
+        String id = UUID.randomUUID().toString();
+
+        StringWriter line = new StringWriter();
+        JsonWriter json = new JsonWriter(line);
+        json.beginObject();
+        json.name("ID").value(id);
+        json.name("FROM").value(from);
+        json.name("TO").value(to);
+        json.name("OUTGOING");
+        codec.write(json, outgoing);
+        json.name("INCOMING");
+        codec.write(json, incoming);
+        json.endObject();
+        line.write('\n');
+
+        append(line.toString(), true);
+        open.add(id);
+        return id;
+    }
+
+    /**
+     * Markiert eine Überweisung als vollständig in beiden Kontojournalen verbucht. Beide Buchungen
+     * müssen zu diesem Zeitpunkt bereits per {@code fsync} gesichert sein.
+     * <p>
+     * Ist danach keine Überweisung mehr offen, wird die Datei gelöscht, statt den {@code DONE}-Datensatz
+     * anzuhängen.
+     * </p>
+     *
+     * @param id Kennung der Überweisung
+     * @throws IOException wenn der Datensatz nicht geschrieben werden kann
+     */
+    synchronized void complete(String id) throws IOException {
+        open.remove(id);
+        if (open.isEmpty()) {
+            Files.deleteIfExists(path);
+            return;
+        }
+
+        StringWriter line = new StringWriter();
+        JsonWriter json = new JsonWriter(line);
+        json.beginObject();
+        json.name("DONE").value(id);
+        json.endObject();
+        line.write('\n');
+
+        append(line.toString(), false);
+    }
+
+    /**
+     * Liest alle Überweisungen, die noch nicht als abgeschlossen markiert sind.
+     * Unlesbare Zeilen (z.B. ein abgeschnittener letzter Datensatz) werden übersprungen und in
+     * {@code problems} beschrieben.
+     *
+     * @param problems nimmt je übersprungener Zeile eine Beschreibung auf
+     * @return offene Überweisungen in Schreibreihenfolge
+     * @throws IOException wenn das Protokoll nicht gelesen werden kann
+     */
+    synchronized List<Entry> readPending(List<String> problems) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        if (!Files.exists(path)) {
+            return entries;
+        }
+
+        Set<String> done = new HashSet<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    readLine(line, entries, done);
+                } catch (IOException | RuntimeException ex) {
+                    problems.add("Überweisungsprotokoll " + path.getFileName() + " Zeile " + lineNumber + ": "
+                            + ex.getMessage() + " (übersprungen)");
+                }
+            }
+        }
+
+        entries.removeIf(entry -> done.contains(entry.id()));
+        return entries;
+    }
+
+    /**
+     * Leert das Protokoll (nachdem alle offenen Überweisungen verbucht wurden).
+     *
+     * @throws IOException wenn die Datei nicht gelöscht werden kann
+     */
+    synchronized void clear() throws IOException {
+        open.clear();
+        Files.deleteIfExists(path);
+    }
+
+    private void readLine(String line, List<Entry> entries, Set<String> done) throws IOException {
+        String id = null;
+        String from = null;
+        String to = null;
+        Transaction outgoing = null;
+        Transaction incoming = null;
+
+        JsonReader json = new JsonReader(new StringReader(line));
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "ID" -> id = json.nextString();
+                case "DONE" -> done.add(json.nextString());
+                case "FROM" -> from = json.nextString();
+                case "TO" -> to = json.nextString();
+                case "OUTGOING" -> outgoing = codec.read(json);
+                case "INCOMING" -> incoming = codec.read(json);
+                default -> json.skipValue();
+            }
+        }
+        json.endObject();
+
+        if (id != null && from != null && to != null && outgoing != null && incoming != null) {
+            entries.add(new Entry(id, from, to, outgoing, incoming));
+        }
+    }
+
+    private void append(String line, boolean force) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (force) {
+                channel.force(false);
+            }
+        }
+    }
+}
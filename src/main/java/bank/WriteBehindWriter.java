@@ -0,0 +1,519 @@
+package bank;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hintergrund-Schreiber für {@link Durability#WRITE_BEHIND} und {@link Durability#GROUP_COMMIT}.
+ * <p>
+ * Ändernde Aufrufe hinterlegen ihre Journal-Datensätze (bzw. eine Kopie des ganzen Kontos für einen
+ * Snapshot) hier nur im Speicher. Ein eigener Thread schreibt sie gesammelt: je Konto und Durchgang
+ * genau ein Schreibvorgang, bei {@link Durability#GROUP_COMMIT} gefolgt von einem {@code fsync} je
+ * geschriebener Datei (nicht einem einzigen für den ganzen Durchgang).
+ * Jede Änderung erhält eine fortlaufende Nummer; {@link #await(long)} wartet, bis alle Änderungen bis
+ * zu dieser Nummer geschrieben sind. {@link #flush(String)} schreibt dagegen nur die Änderungen eines
+ * Kontos vorzeitig (z.B. bevor es neu geladen wird) und lässt die übrigen weiter sammeln.
+ * </p>
+ * <p>
+ * Die Warteschlange ist auf {@link BankOptions#getMaxPendingChanges()} Datensätze begrenzt; ist sie voll,
+ * wartet der ändernde Aufruf (Gegendruck). Schlägt ein Schreibvorgang fehl, bleiben die Datensätze in der
+ * Warteschlange und werden erneut versucht; der Fehler wird bei {@link #flush()}, {@link #await(long)}
+ * und {@link #close()} gemeldet. {@link #flush()} und {@link #await(long)} lösen dabei selbst einen neuen
+ * Versuch aus und melden nur Fehler, die danach auftreten; nach einem behobenen Fehler gelingen sie also
+ * wieder, ohne auf das nächste Intervall zu warten.
+ * </p>
+ */
+class WriteBehindWriter implements Closeable {
+
+    /** Wartezeit vor einem erneuten Versuch nach einem Schreibfehler. */
+    private static final long RETRY_DELAY_MILLIS = 500;
+
+    /**
+     * Ziel der Schreibvorgänge (von {@link AccountFiles} bereitgestellt).
+     */
+    interface Store {
+
+        /**
+         * Schreibt einen vollständigen Snapshot und leert danach das Journal des Kontos.
+         *
+         * @param account      Name des Kontos
+         * @param transactions alle Transaktionen des Kontos
+         * @param force        {@code true}, um per {@code fsync} zu sichern
+         * @throws IOException wenn ein Fehler beim Schreiben auftritt
+         */
+        void writeSnapshot(String account, List<Transaction> transactions, boolean force) throws IOException;
+
+        /**
+         * Hängt Datensätze an das Journal des Kontos an.
+         *
+         * @param account Name des Kontos
+         * @param entries Datensätze in Buchungsreihenfolge
+         * @param force   {@code true}, um per {@code fsync} zu sichern
+         * @throws IOException wenn ein Fehler beim Schreiben auftritt
+         */
+        void appendJournal(String account, List<TransactionJournal.Entry> entries, boolean force) throws IOException;
+    }
+
+    /**
+     * Aktion, die nach dem Schreiben aller vorher hinterlegten Änderungen ausgeführt wird.
+     */
+    interface Action {
+        void run() throws IOException;
+    }
+
+    /**
+     * Noch nicht geschriebene Änderungen eines Kontos.
+     */
+    private static final class Pending {
+        /** Kopie des ganzen Kontos, die vor {@link #entries} als Snapshot geschrieben wird (oder {@code null}). */
+        private List<Transaction> snapshot;
+        /** Journal-Datensätze nach dem Snapshot. */
+        private final List<TransactionJournal.Entry> entries = new ArrayList<>();
+    }
+
+    private final Store store;
+    private final boolean force;
+    private final boolean groupCommit;
+    private final long intervalNanos;
+    private final int capacity;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition written = lock.newCondition();
+
+    private Map<String, Pending> pending = new LinkedHashMap<>();
+    private List<Action> actions = new ArrayList<>();
+    /** Anzahl Datensätze in {@link #pending} (Snapshots zählen als ein Datensatz). */
+    private int pendingCount;
+    /** Nummer der zuletzt hinterlegten Änderung. */
+    private long enqueued;
+    /** Alle Änderungen bis zu dieser Nummer sind geschrieben. */
+    private long durable;
+    /** Anzahl abgeschlossener Durchgänge (erfolgreich oder nicht). */
+    private long passes;
+    /** Konten, deren Änderungen der laufende Durchgang gerade schreibt. */
+    private Set<String> inFlight = Set.of();
+    /** Konten, deren Änderungen {@link #flush(String)} vorzeitig schreiben lässt. */
+    private final Set<String> urgent = new LinkedHashSet<>();
+    private boolean flushRequested;
+    private boolean closed;
+    private IOException failure;
+
+    private final Thread thread;
+
+    /**
+     * Startet den Schreiber-Thread.
+     *
+     * @param store      Ziel der Schreibvorgänge
+     * @param durability {@link Durability#WRITE_BEHIND} oder {@link Durability#GROUP_COMMIT}
+     * @param options    Intervall und Größe der Warteschlange
+     * @param name       Name der Bank (für den Thread-Namen)
+     */
+    WriteBehindWriter(Store store, Durability durability, BankOptions options, String name) {
+        this.store = store;
+        this.groupCommit = durability == Durability.GROUP_COMMIT;
+        this.force = groupCommit;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(options.getFlushIntervalMillis());
+        this.capacity = options.getMaxPendingChanges();
+        this.thread = new Thread(this::run, "bank-writer-" + name);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Hinterlegt einen Journal-Datensatz.
+     *
+     * @param account Name des Kontos
+     * @param entry   Datensatz
+     * @return Nummer der Änderung (für {@link #await(long)})
+     * @throws IOException wenn das Schreiben im Hintergrund fehlschlägt oder das Warten unterbrochen wurde
+     */
+    long append(String account, TransactionJournal.Entry entry) throws IOException {
+        return appendAll(account, List.of(entry));
+    }
+
+    /**
+     * Hinterlegt mehrere Journal-Datensätze eines Kontos.
+     *
+     * @param account Name des Kontos
+     * @param entries Datensätze in Buchungsreihenfolge
+     * @return Nummer der Änderung (für {@link #await(long)})
+     * @throws IOException wenn das Schreiben im Hintergrund fehlschlägt oder das Warten unterbrochen wurde
+     */
+    long appendAll(String account, List<TransactionJournal.Entry> entries) throws IOException {
+        lock.lock();
+        try {
+            awaitCapacity();
+            pending.computeIfAbsent(account, name -> new Pending()).entries.addAll(entries);
+            pendingCount += entries.size();
+            return signalEnqueued();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hinterlegt einen Snapshot; bisher hinterlegte Datensätze des Kontos sind darin enthalten und entfallen.
+     *
+     * @param account      Name des Kontos
+     * @param transactions Kopie aller Transaktionen des Kontos (wird nicht mehr verändert)
+     * @return Nummer der Änderung (für {@link #await(long)})
+     * @throws IOException wenn das Schreiben im Hintergrund fehlschlägt oder das Warten unterbrochen wurde
+     */
+    long snapshot(String account, List<Transaction> transactions) throws IOException {
+        lock.lock();
+        try {
+            awaitCapacity();
+            Pending state = pending.computeIfAbsent(account, name -> new Pending());
+            pendingCount -= state.entries.size() + (state.snapshot == null ? 0 : 1);
+            state.entries.clear();
+            state.snapshot = transactions;
+            pendingCount++;
+            return signalEnqueued();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hinterlegt eine Aktion, die ausgeführt wird, sobald alle bisher hinterlegten Änderungen geschrieben sind.
+     *
+     * @param action auszuführende Aktion
+     */
+    void afterWrite(Action action) {
+        lock.lock();
+        try {
+            checkOpen();
+            actions.add(action);
+            signalEnqueued();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Liefert die Größe, die das Journal eines Kontos nach dem Schreiben aller hinterlegten Änderungen hat.
+     *
+     * @param account     Name des Kontos
+     * @param journalSize aktuelle Anzahl Datensätze in der Journal-Datei
+     * @return erwartete Anzahl Journal-Datensätze
+     */
+    int journalSizeAfterWrite(String account, int journalSize) {
+        lock.lock();
+        try {
+            Pending state = pending.get(account);
+            if (state == null) {
+                return journalSize;
+            }
+            // ein hinterlegter Snapshot leert das Journal
+            return (state.snapshot == null ? journalSize : 0) + state.entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wartet, bis alle Änderungen bis einschließlich {@code sequence} geschrieben sind.
+     *
+     * @param sequence Nummer einer Änderung
+     * @throws IOException wenn das Schreiben fehlgeschlagen ist oder das Warten unterbrochen wurde
+     */
+    void await(long sequence) throws IOException {
+        lock.lock();
+        try {
+            // Fehler früherer Durchgänge nicht melden, sondern einen neuen Versuch abwarten
+            long startPass = passes;
+            while (durable < sequence) {
+                if (failure != null && passes > startPass) {
+                    throw new IOException("Schreiben im Hintergrund fehlgeschlagen: " + failure.getMessage(), failure);
+                }
+                if (!thread.isAlive()) {
+                    throw new IOException("Der Schreiber-Thread läuft nicht mehr");
+                }
+                flushRequested = true;
+                workAvailable.signal();
+                written.await();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Warten auf das Schreiben unterbrochen");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wartet bei {@link Durability#GROUP_COMMIT}, bis die Änderung gesichert ist; sonst ohne Wirkung.
+     *
+     * @param sequence Nummer einer Änderung
+     * @throws IOException wenn das Schreiben fehlgeschlagen ist oder das Warten unterbrochen wurde
+     */
+    void commit(long sequence) throws IOException {
+        if (groupCommit) {
+            await(sequence);
+        }
+    }
+
+    /**
+     * Schreibt sofort alle bisher hinterlegten Änderungen und wartet darauf.
+     *
+     * @throws IOException wenn das Schreiben fehlgeschlagen ist oder das Warten unterbrochen wurde
+     */
+    void flush() throws IOException {
+        long sequence;
+        lock.lock();
+        try {
+            sequence = enqueued;
+        } finally {
+            lock.unlock();
+        }
+        await(sequence);
+    }
+
+    /**
+     * Schreibt sofort die hinterlegten Änderungen eines Kontos und wartet darauf. Die Änderungen anderer
+     * Konten bleiben in der Warteschlange und werden wie gewohnt gesammelt geschrieben; Aktionen aus
+     * {@link #afterWrite} laufen erst im nächsten vollständigen Durchgang.
+     *
+     * @param account Name des Kontos
+     * @throws IOException wenn das Schreiben fehlgeschlagen ist oder das Warten unterbrochen wurde
+     */
+    void flush(String account) throws IOException {
+        lock.lock();
+        try {
+            long startPass = passes;
+            while (pending.containsKey(account) || inFlight.contains(account)) {
+                if (failure != null && passes > startPass) {
+                    throw new IOException("Schreiben im Hintergrund fehlgeschlagen: " + failure.getMessage(), failure);
+                }
+                if (!thread.isAlive()) {
+                    throw new IOException("Der Schreiber-Thread läuft nicht mehr");
+                }
+                if (pending.containsKey(account)) {
+                    urgent.add(account);
+                    workAvailable.signal();
+                }
+                written.await();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Warten auf das Schreiben unterbrochen");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Schreibt alle hinterlegten Änderungen und beendet den Schreiber-Thread. Weitere Änderungen werden abgelehnt.
+     *
+     * @throws IOException wenn das Schreiben fehlgeschlagen ist oder das Warten unterbrochen wurde
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            workAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Warten auf das Schreiben unterbrochen");
+        }
+        lock.lock();
+        try {
+            if (failure != null) {
+                throw new IOException("Nicht alle Änderungen konnten geschrieben werden: " + failure.getMessage(), failure);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // --- Schreiber-Thread ----------------------------------------------------------------------
+
+    private void run() {
+        while (true) {
+            Map<String, Pending> batch;
+            List<Action> batchActions;
+            long target;
+
+            lock.lock();
+            try {
+                // auf Arbeit warten
+                while (isEmpty() && !closed) {
+                    workAvailable.awaitUninterruptibly();
+                }
+                if (isEmpty()) {
+                    return;
+                }
+                // WRITE_BEHIND: Änderungen ein Intervall lang sammeln (außer bei flush/close/voller Warteschlange)
+                if (!groupCommit) {
+                    long remaining = intervalNanos;
+                    while (remaining > 0 && !flushRequested && urgent.isEmpty() && !closed && pendingCount < capacity) {
+                        remaining = awaitNanos(workAvailable, remaining);
+                    }
+                }
+                if (!flushRequested && !closed && !urgent.isEmpty() && pendingCount < capacity) {
+                    // flush(account): nur die angeforderten Konten schreiben, der Rest sammelt weiter
+                    batch = new LinkedHashMap<>();
+                    for (String account : urgent) {
+                        Pending state = pending.remove(account);
+                        if (state != null) {
+                            batch.put(account, state);
+                            pendingCount -= state.entries.size() + (state.snapshot == null ? 0 : 1);
+                        }
+                    }
+                    batchActions = new ArrayList<>();
+                    target = durable;
+                } else {
+                    batch = pending;
+                    batchActions = actions;
+                    target = enqueued;
+                    pending = new LinkedHashMap<>();
+                    actions = new ArrayList<>();
+                    pendingCount = 0;
+                    flushRequested = false;
+                }
+                urgent.clear();
+                inFlight = batch.keySet();
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            IOException error = write(batch, batchActions);
+
+            lock.lock();
+            try {
+                passes++;
+                inFlight = Set.of();
+                if (error == null) {
+                    durable = target;
+                    failure = null;
+                } else {
+                    requeue(batch, batchActions);
+                    failure = error;
+                }
+                written.signalAll();
+                if (error != null) {
+                    if (closed) {
+                        return;
+                    }
+                    awaitNanos(workAvailable, TimeUnit.MILLISECONDS.toNanos(RETRY_DELAY_MILLIS));
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Schreibt einen Durchgang: je Konto ggf. den Snapshot und dann alle Datensätze in einem Vorgang.
+     *
+     * @return aufgetretener Fehler oder {@code null}
+     */
+    private IOException write(Map<String, Pending> batch, List<Action> batchActions) {
+        try {
+            for (Map.Entry<String, Pending> entry : batch.entrySet()) {
+                Pending account = entry.getValue();
+                if (account.snapshot != null) {
+                    store.writeSnapshot(entry.getKey(), account.snapshot, force);
+                }
+                store.appendJournal(entry.getKey(), account.entries, force);
+            }
+            for (Action action : batchActions) {
+                action.run();
+            }
+            return null;
+        } catch (IOException ex) {
+            return ex;
+        } catch (RuntimeException ex) {
+            return new IOException(ex);
+        }
+    }
+
+    /**
+     * Stellt einen fehlgeschlagenen Durchgang vor die inzwischen hinterlegten Änderungen zurück.
+     * Bereits geschriebene Datensätze werden dabei erneut geschrieben; das ist unkritisch, weil das
+     * Nachspielen des Journals idempotent ist.
+     */
+    private void requeue(Map<String, Pending> batch, List<Action> batchActions) {
+        Map<String, Pending> merged = new LinkedHashMap<>(batch);
+        for (Map.Entry<String, Pending> entry : pending.entrySet()) {
+            Pending newer = entry.getValue();
+            Pending older = merged.get(entry.getKey());
+            if (older == null || newer.snapshot != null) {
+                merged.put(entry.getKey(), newer);
+            } else {
+                older.entries.addAll(newer.entries);
+            }
+        }
+        pending = merged;
+        pendingCount = 0;
+        for (Pending account : merged.values()) {
+            pendingCount += account.entries.size() + (account.snapshot == null ? 0 : 1);
+        }
+        batchActions.addAll(actions);
+        actions = batchActions;
+    }
+
+    // --- Hilfsmethoden (nur mit gehaltener Sperre) ---------------------------------------------
+
+    private boolean isEmpty() {
+        return pending.isEmpty() && actions.isEmpty();
+    }
+
+    private long signalEnqueued() {
+        enqueued++;
+        workAvailable.signal();
+        return enqueued;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Die Bank wurde bereits geschlossen");
+        }
+    }
+
+    private void awaitCapacity() throws IOException {
+        checkOpen();
+        try {
+            while (pendingCount >= capacity) {
+                if (failure != null) {
+                    throw new IOException("Schreiben im Hintergrund fehlgeschlagen: " + failure.getMessage(), failure);
+                }
+                flushRequested = true;
+                workAvailable.signal();
+                notFull.await();
+                checkOpen();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Warten auf Platz in der Warteschlange unterbrochen");
+        }
+    }
+
+    private static long awaitNanos(Condition condition, long nanos) {
+        try {
+            return condition.awaitNanos(nanos);
+        } catch (InterruptedException ex) {
+            // der Schreiber-Thread wird nur über close() beendet
+            return 0;
+        }
+    }
+}
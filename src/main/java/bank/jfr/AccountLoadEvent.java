@@ -0,0 +1,62 @@
+package bank.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.function.LongSupplier;
+
+/**
+ * JFR-Ereignis: ein Konto wurde aus Snapshot und Journal gelesen (beim Start oder beim verzögerten Laden).
+ * <p>
+ * Verwendung: {@code begin()} vor dem Lesen, {@link #finish} danach. Die Felder werden nur gesetzt,
+ * wenn das Ereignis aufgezeichnet wird.
+ * </p>
+ */
+@Name("bank.AccountLoad")
+@Label("Konto geladen")
+@Category({"Bank", "Persistenz"})
+@Description("Lesen eines Kontos aus Snapshot und Journal")
+public final class AccountLoadEvent extends Event {
+
+    @Label("Konto")
+    String account;
+
+    @Label("Transaktionen")
+    int transactions;
+
+    @Label("Gelesen")
+    @DataAmount
+    long bytes;
+
+    @Label("Verworfen")
+    @Description("Anzahl ungültiger Datensätze, die beim Lesen übersprungen wurden")
+    int rejected;
+
+    @Label("Fehlerhaft")
+    @Description("Die Datei war nicht lesbar; das Konto wurde nicht geladen")
+    boolean failed;
+
+    /**
+     * Beendet das Ereignis und zeichnet es ggf. auf.
+     *
+     * @param account      Name des Kontos
+     * @param transactions Anzahl der geladenen Transaktionen
+     * @param bytes        gelesene Byte (Snapshot und Journal); wird nur bei Aufzeichnung ermittelt
+     * @param rejected     Anzahl übersprungener, ungültiger Datensätze
+     * @param failed       {@code true}, wenn die Datei nicht lesbar war
+     */
+    public void finish(String account, int transactions, LongSupplier bytes, int rejected, boolean failed) {
+        if (shouldCommit()) {
+            this.account = account;
+            this.transactions = transactions;
+            this.bytes = bytes.getAsLong();
+            this.rejected = rejected;
+            this.failed = failed;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package bank.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.function.LongSupplier;
+
+/**
+ * JFR-Ereignis: ein Konto wurde als vollständiger Snapshot geschrieben (Anlegen oder Kompaktierung).
+ * <p>
+ * Verwendung: {@code begin()} vor dem Schreiben, {@link #finish} danach. Die Felder werden nur gesetzt,
+ * wenn das Ereignis aufgezeichnet wird.
+ * </p>
+ */
+@Name("bank.AccountWrite")
+@Label("Konto geschrieben")
+@Category({"Bank", "Persistenz"})
+@Description("Schreiben eines Konto-Snapshots")
+public final class AccountWriteEvent extends Event {
+
+    @Label("Konto")
+    String account;
+
+    @Label("Transaktionen")
+    int transactions;
+
+    @Label("Geschrieben")
+    @DataAmount
+    long bytes;
+
+    @Label("Gesichert")
+    @Description("Die Datei wurde vor dem Umbenennen per fsync gesichert")
+    boolean synced;
+
+    /**
+     * Beendet das Ereignis und zeichnet es ggf. auf.
+     *
+     * @param account      Name des Kontos
+     * @param transactions Anzahl der geschriebenen Transaktionen
+     * @param bytes        Größe des Snapshots in Byte; wird nur bei Aufzeichnung ermittelt
+     * @param synced       {@code true}, wenn per {@code fsync} gesichert wurde
+     */
+    public void finish(String account, int transactions, LongSupplier bytes, boolean synced) {
+        if (shouldCommit()) {
+            this.account = account;
+            this.transactions = transactions;
+            this.bytes = bytes.getAsLong();
+            this.synced = synced;
+            commit();
+        }
+    }
+}
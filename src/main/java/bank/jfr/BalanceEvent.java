@@ -0,0 +1,46 @@
+package bank.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR-Ereignis: der Kontostand eines Kontos wurde abgefragt.
+ * <p>
+ * Der Kontostand ist im Normalfall ein gespeicherter Wert; aufgezeichnet werden daher nur Abfragen über
+ * der Schwelle, also solche, die ein Konto nachladen oder nach einer Zinsänderung neu berechnen mussten.
+ * Die Schwelle lässt sich in den Einstellungen der Aufzeichnung ändern.
+ * </p>
+ */
+@Name("bank.Balance")
+@Label("Kontostand berechnet")
+@Category({"Bank", "Transaktionen"})
+@Description("Abfrage des Kontostands (nur langsame Abfragen)")
+@Threshold("20 us")
+@StackTrace(false)
+public final class BalanceEvent extends Event {
+
+    @Label("Konto")
+    String account;
+
+    @Label("Transaktionen")
+    int transactions;
+
+    /**
+     * Beendet das Ereignis und zeichnet es ggf. auf.
+     *
+     * @param account      Name des Kontos
+     * @param transactions Anzahl der Transaktionen des Kontos
+     */
+    public void finish(String account, int transactions) {
+        if (shouldCommit()) {
+            this.account = account;
+            this.transactions = transactions;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package bank.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR-Ereignis: eine Transaktion wurde einem Konto hinzugefügt (einschließlich Prüfung und Persistieren).
+ * <p>
+ * Verwendung: {@code begin()} vor dem Hinzufügen, {@link #finish} danach. Die Felder werden nur gesetzt,
+ * wenn das Ereignis aufgezeichnet wird.
+ * </p>
+ */
+@Name("bank.TransactionAdd")
+@Label("Transaktion hinzugefügt")
+@Category({"Bank", "Transaktionen"})
+@Description("Hinzufügen einer Transaktion zu einem Konto")
+public final class TransactionAddEvent extends Event {
+
+    @Label("Konto")
+    String account;
+
+    @Label("Transaktionen")
+    @Description("Anzahl der Transaktionen des Kontos danach")
+    int transactions;
+
+    @Label("Typ")
+    String transactionType;
+
+    @Label("Erfolgreich")
+    boolean succeeded;
+
+    /**
+     * Beendet das Ereignis und zeichnet es ggf. auf.
+     *
+     * @param account         Name des Kontos
+     * @param transactions    Anzahl der Transaktionen des Kontos danach
+     * @param transactionType Klasse der Transaktion (z.B. {@code Payment})
+     * @param succeeded       {@code false}, wenn die Transaktion abgelehnt wurde oder ein Fehler auftrat
+     */
+    public void finish(String account, int transactions, String transactionType, boolean succeeded) {
+        if (shouldCommit()) {
+            this.account = account;
+            this.transactions = transactions;
+            this.transactionType = transactionType;
+            this.succeeded = succeeded;
+            commit();
+        }
+    }
+}
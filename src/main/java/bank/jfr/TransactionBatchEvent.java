@@ -0,0 +1,65 @@
+package bank.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR-Ereignis: ein Stapel Transaktionen wurde einem Konto hinzugefügt ({@code addTransactions},
+ * einschließlich Prüfung und des gemeinsamen Persistierens).
+ * <p>
+ * Verwendung: {@code begin()} vor dem Hinzufügen, {@link #finish} danach. Die Felder werden nur gesetzt,
+ * wenn das Ereignis aufgezeichnet wird.
+ * </p>
+ */
+@Name("bank.TransactionBatch")
+@Label("Transaktionen gesammelt hinzugefügt")
+@Category({"Bank", "Transaktionen"})
+@Description("Hinzufügen eines Stapels von Transaktionen zu einem Konto mit einem Schreibvorgang")
+public final class TransactionBatchEvent extends Event {
+
+    @Label("Konto")
+    String account;
+
+    @Label("Stapelgröße")
+    @Description("Anzahl der übergebenen Transaktionen")
+    int batchSize;
+
+    @Label("Übernommen")
+    int accepted;
+
+    @Label("Abgelehnt")
+    @Description("Duplikate und ungültige Transaktionen")
+    int rejected;
+
+    @Label("Transaktionen")
+    @Description("Anzahl der Transaktionen des Kontos danach")
+    int transactions;
+
+    @Label("Erfolgreich")
+    boolean succeeded;
+
+    /**
+     * Beendet das Ereignis und zeichnet es ggf. auf.
+     *
+     * @param account      Name des Kontos
+     * @param batchSize    Anzahl der übergebenen Transaktionen
+     * @param accepted     Anzahl der übernommenen Transaktionen
+     * @param rejected     Anzahl der abgelehnten Transaktionen
+     * @param transactions Anzahl der Transaktionen des Kontos danach
+     * @param succeeded    {@code false}, wenn das Konto fehlte oder das Persistieren fehlschlug
+     */
+    public void finish(String account, int batchSize, int accepted, int rejected, int transactions, boolean succeeded) {
+        if (shouldCommit()) {
+            this.account = account;
+            this.batchSize = batchSize;
+            this.accepted = accepted;
+            this.rejected = rejected;
+            this.transactions = transactions;
+            this.succeeded = succeeded;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package bank.metrics;
+
+/**
+ * Schnittstelle, über die eine Bank Laufzeiten, Zähler und Datenmengen meldet.
+ * <p>
+ * Die Bank fragt vor jeder Messung {@link #isEnabled()} ab und liest nur dann die Uhr. Mit
+ * {@link #NOOP} (Voreinstellung) kostet die Instrumentierung daher nur einen Methodenaufruf, den die
+ * JVM bei einer einzigen Implementierung inline auflöst. Eine eigene Implementierung kann die Werte an
+ * ein beliebiges Monitoring-System weitergeben; {@link MetricsRegistry} sammelt sie im Prozess und
+ * stellt sie per JMX bereit.
+ * </p>
+ * <p>
+ * Implementierungen müssen thread-sicher sein: gemeldet wird aus allen Threads, die die Bank benutzen,
+ * sowie aus Lade- und Schreiber-Threads.
+ * </p>
+ */
+public interface BankMetrics {
+
+    /**
+     * Gemessene Vorgänge.
+     */
+    enum Operation {
+        /** {@code addTransaction} (einschließlich Persistieren). */
+        ADD_TRANSACTION,
+        /** {@code addTransactions}: ein ganzer Stapel (einschließlich des gemeinsamen Persistierens). */
+        ADD_TRANSACTIONS,
+        /** {@code removeTransaction} (einschließlich Persistieren). */
+        REMOVE_TRANSACTION,
+        /** {@code getAccountBalance} bzw. {@code getAccountBalanceCents}. */
+        GET_BALANCE,
+        /** Laden aller Konten beim Start. */
+        READ_ACCOUNTS,
+        /** Lesen eines einzelnen Kontos (Snapshot + Journal). */
+        LOAD_ACCOUNT,
+        /** Schreiben eines Snapshots. */
+        WRITE_ACCOUNT,
+        /** Serialisieren einer Transaktion als JSON. */
+        SERIALIZE,
+        /** Deserialisieren einer Transaktion aus JSON. */
+        DESERIALIZE
+    }
+
+    /**
+     * Gezählte Ereignisse.
+     */
+    enum Counter {
+        /** Abgelehnte Transaktionen (Duplikat oder ungültige Attribute). */
+        REJECTED_TRANSACTIONS,
+        /** Kompaktierungen eines Journals zu einem neuen Snapshot. */
+        COMPACTIONS,
+        /** Beim verzögerten Laden verdrängte Konten. */
+        EVICTIONS,
+        /** Per {@code addTransactions} übernommene Transaktionen (über alle Stapel). */
+        BATCHED_TRANSACTIONS
+    }
+
+    /**
+     * Implementierung ohne Wirkung (Voreinstellung).
+     */
+    BankMetrics NOOP = new BankMetrics() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void recordLatency(Operation operation, long nanos) {
+        }
+
+        @Override
+        public void increment(Counter counter) {
+        }
+
+        @Override
+        public void bytesWritten(long bytes) {
+        }
+
+        @Override
+        public void bytesRead(long bytes) {
+        }
+    };
+
+    /**
+     * @return {@code false}, wenn nichts gemessen werden soll (dann werden die übrigen Methoden nicht aufgerufen)
+     */
+    boolean isEnabled();
+
+    /**
+     * Meldet die Dauer eines Vorgangs.
+     *
+     * @param operation Vorgang
+     * @param nanos     Dauer in Nanosekunden
+     */
+    void recordLatency(Operation operation, long nanos);
+
+    /**
+     * Zählt ein Ereignis.
+     *
+     * @param counter Ereignis
+     */
+    void increment(Counter counter);
+
+    /**
+     * Erhöht einen Zähler um mehrere Ereignisse auf einmal. Die Voreinstellung ruft
+     * {@link #increment(Counter)} entsprechend oft auf, damit bestehende Implementierungen weiter passen.
+     *
+     * @param counter Ereignis
+     * @param amount  Anzahl der Ereignisse
+     */
+    default void add(Counter counter, long amount) {
+        for (long i = 0; i < amount; i++) {
+            increment(counter);
+        }
+    }
+
+    /**
+     * Meldet geschriebene Daten (Snapshots und Journale).
+     *
+     * @param bytes Anzahl Byte
+     */
+    void bytesWritten(long bytes);
+
+    /**
+     * Meldet gelesene Daten (Snapshots und Journale).
+     *
+     * @param bytes Anzahl Byte
+     */
+    void bytesRead(long bytes);
+}
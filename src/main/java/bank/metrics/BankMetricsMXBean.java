@@ -0,0 +1,37 @@
+package bank.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX-Sicht auf eine {@link MetricsRegistry} (z.B. in JConsole unter {@code bank:type=BankMetrics}).
+ * Schlüssel der Tabellen sind die Namen von {@link BankMetrics.Operation} bzw. {@link BankMetrics.Counter}.
+ */
+public interface BankMetricsMXBean {
+
+    /** @return Anzahl Messungen je Vorgang */
+    Map<String, Long> getOperationCounts();
+
+    /** @return mittlere Dauer je Vorgang in Mikrosekunden */
+    Map<String, Double> getMeanMicros();
+
+    /** @return Median der Dauer je Vorgang in Mikrosekunden (auf den Faktor 2 genau) */
+    Map<String, Double> getP50Micros();
+
+    /** @return 99. Perzentil der Dauer je Vorgang in Mikrosekunden (auf den Faktor 2 genau) */
+    Map<String, Double> getP99Micros();
+
+    /** @return größte Dauer je Vorgang in Mikrosekunden */
+    Map<String, Double> getMaxMicros();
+
+    /** @return Stand der Zähler */
+    Map<String, Long> getCounters();
+
+    /** @return insgesamt geschriebene Byte */
+    long getBytesWritten();
+
+    /** @return insgesamt gelesene Byte */
+    long getBytesRead();
+
+    /** Setzt alle Werte zurück. */
+    void reset();
+}
@@ -0,0 +1,97 @@
+package bank.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramm für Laufzeiten mit Zweierpotenzen als Klassengrenzen.
+ * <p>
+ * Ein Wert landet in der Klasse {@code floor(log2(nanos))}; aufgezeichnet wird ohne Sperre über
+ * {@link LongAdder}, sodass auch viele Threads gleichzeitig messen können. Perzentile sind dadurch auf
+ * den Faktor 2 genau (es wird die Obergrenze der Klasse geliefert), was zum Auffinden von Ausreißern genügt.
+ * </p>
+ */
+public final class LatencyHistogram {
+
+    private static final int BUCKETS = 64;
+
+    /**
+     * Momentaufnahme eines Histogramms.
+     *
+     * @param count      Anzahl der Messungen
+     * @param totalNanos Summe aller Messungen in Nanosekunden
+     * @param maxNanos   größte Messung in Nanosekunden
+     * @param p50Nanos   Median (Obergrenze der Klasse) in Nanosekunden
+     * @param p99Nanos   99. Perzentil (Obergrenze der Klasse) in Nanosekunden
+     */
+    public record Snapshot(long count, long totalNanos, long maxNanos, long p50Nanos, long p99Nanos) {
+
+        /**
+         * @return Mittelwert in Nanosekunden (0 ohne Messungen)
+         */
+        public double meanNanos() {
+            return count == 0 ? 0 : (double) totalNanos / count;
+        }
+    }
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Zeichnet eine Messung auf.
+     *
+     * @param nanos Dauer in Nanosekunden (negative Werte zählen als 0)
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets[63 - Long.numberOfLeadingZeros(value | 1)].increment();
+        total.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * @return Momentaufnahme (bei gleichzeitigen Messungen nicht exakt konsistent)
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            count += counts[i];
+        }
+        return new Snapshot(count, total.sum(), max.get(), percentile(counts, count, 0.50), percentile(counts, count, 0.99));
+    }
+
+    /**
+     * Setzt alle Werte zurück.
+     */
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        total.reset();
+        max.reset();
+    }
+
+    private static long percentile(long[] counts, long count, double quantile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i == BUCKETS - 1 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+}
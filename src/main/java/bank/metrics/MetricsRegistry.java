@@ -0,0 +1,210 @@
+package bank.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Sammelt die Metriken einer Bank im Prozess: ein {@link LatencyHistogram} je Vorgang, Zähler und
+ * geschriebene/gelesene Byte.
+ * <p>
+ * Verwendung:
+ * </p>
+ * <pre>{@code
+ * MetricsRegistry metrics = new MetricsRegistry();
+ * options.setMetrics(metrics);
+ * metrics.registerMBean("MeineBank");   // optional: per JMX sichtbar machen
+ * }</pre>
+ */
+public class MetricsRegistry implements BankMetrics, BankMetricsMXBean {
+
+    private final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Counter, LongAdder> counters = new EnumMap<>(Counter.class);
+    private final LongAdder written = new LongAdder();
+    private final LongAdder read = new LongAdder();
+
+    public MetricsRegistry() {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencyHistogram());
+        }
+        for (Counter counter : Counter.values()) {
+            counters.put(counter, new LongAdder());
+        }
+    }
+
+    // --- BankMetrics ---------------------------------------------------------------------------
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void recordLatency(Operation operation, long nanos) {
+        latencies.get(operation).record(nanos);
+    }
+
+    @Override
+    public void increment(Counter counter) {
+        counters.get(counter).increment();
+    }
+
+    @Override
+    public void add(Counter counter, long amount) {
+        counters.get(counter).add(amount);
+    }
+
+    @Override
+    public void bytesWritten(long bytes) {
+        written.add(bytes);
+    }
+
+    @Override
+    public void bytesRead(long bytes) {
+        read.add(bytes);
+    }
+
+    // --- Abfrage -------------------------------------------------------------------------------
+
+    /**
+     * @param operation Vorgang
+     * @return Momentaufnahme des Histogramms
+     */
+    public LatencyHistogram.Snapshot snapshot(Operation operation) {
+        return latencies.get(operation).snapshot();
+    }
+
+    /**
+     * @param counter Ereignis
+     * @return Stand des Zählers
+     */
+    public long count(Counter counter) {
+        return counters.get(counter).sum();
+    }
+
+    // --- JMX -----------------------------------------------------------------------------------
+
+    /**
+     * Meldet die Registry beim Plattform-MBean-Server an.
+     *
+     * @param name Name der Bank (Teil des {@link ObjectName})
+     * @return Name, unter dem die MBean registriert wurde
+     * @throws JMException wenn der Name ungültig oder bereits vergeben ist
+     */
+    public ObjectName registerMBean(String name) throws JMException {
+        ObjectName objectName = objectName(name);
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    /**
+     * Meldet die Registry wieder ab (ohne Wirkung, wenn sie nicht angemeldet ist).
+     *
+     * @param name Name der Bank
+     * @throws JMException wenn der Name ungültig ist
+     */
+    public void unregisterMBean(String name) throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = objectName(name);
+        if (server.isRegistered(objectName)) {
+            server.unregisterMBean(objectName);
+        }
+    }
+
+    private static ObjectName objectName(String name) throws JMException {
+        return new ObjectName("bank:type=BankMetrics,name=" + ObjectName.quote(name));
+    }
+
+    @Override
+    public Map<String, Long> getOperationCounts() {
+        return perOperation(LatencyHistogram.Snapshot::count);
+    }
+
+    @Override
+    public Map<String, Double> getMeanMicros() {
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (Map.Entry<Operation, LatencyHistogram> entry : latencies.entrySet()) {
+            result.put(entry.getKey().name(), entry.getValue().snapshot().meanNanos() / 1_000);
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Double> getP50Micros() {
+        return toMicros(perOperation(LatencyHistogram.Snapshot::p50Nanos));
+    }
+
+    @Override
+    public Map<String, Double> getP99Micros() {
+        return toMicros(perOperation(LatencyHistogram.Snapshot::p99Nanos));
+    }
+
+    @Override
+    public Map<String, Double> getMaxMicros() {
+        return toMicros(perOperation(LatencyHistogram.Snapshot::maxNanos));
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Map.Entry<Counter, LongAdder> entry : counters.entrySet()) {
+            result.put(entry.getKey().name(), entry.getValue().sum());
+        }
+        return result;
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return written.sum();
+    }
+
+    @Override
+    public long getBytesRead() {
+        return read.sum();
+    }
+
+    @Override
+    public void reset() {
+        latencies.values().forEach(LatencyHistogram::reset);
+        counters.values().forEach(LongAdder::reset);
+        written.reset();
+        read.reset();
+    }
+
+    private Map<String, Long> perOperation(ToLongFunction<LatencyHistogram.Snapshot> value) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Map.Entry<Operation, LatencyHistogram> entry : latencies.entrySet()) {
+            result.put(entry.getKey().name(), value.applyAsLong(entry.getValue().snapshot()));
+        }
+        return result;
+    }
+
+    private static Map<String, Double> toMicros(Map<String, Long> nanos) {
+        Map<String, Double> result = new LinkedHashMap<>();
+        nanos.forEach((key, value) -> result.put(key, value / 1_000.0));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<Operation, LatencyHistogram> entry : latencies.entrySet()) {
+            LatencyHistogram.Snapshot snapshot = entry.getValue().snapshot();
+            if (snapshot.count() > 0) {
+                text.append(String.format("%-18s n=%d mittel=%.1fµs p50<=%.1fµs p99<=%.1fµs max=%.1fµs%n",
+                        entry.getKey(), snapshot.count(), snapshot.meanNanos() / 1_000, snapshot.p50Nanos() / 1_000.0,
+                        snapshot.p99Nanos() / 1_000.0, snapshot.maxNanos() / 1_000.0));
+            }
+        }
+        text.append("Zähler ").append(getCounters())
+                .append(", geschrieben ").append(getBytesWritten()).append(" Byte")
+                .append(", gelesen ").append(getBytesRead()).append(" Byte");
+        return text.toString();
+    }
+}
@@ -0,0 +1,42 @@
+package bank;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Seitenweise Abfragen nach Vorzeichen direkt aus dem {@link AccountIndex}.
+ */
+class AccountIndexTest {
+
+    @Test
+    void pagesByTypeFollowInsertionOrderAfterRemovals() {
+        AccountIndex index = new AccountIndex();
+        List<Transaction> incoming = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Transaction credit = new IncomingTransfer("01.01.2024", i + 1, "ein" + i, "x", "a");
+            Transaction debit = new OutgoingTransfer("01.01.2024", i + 1, "aus" + i, "a", "x");
+            index.add(credit, credit.calculateCents());
+            index.add(debit, debit.calculateCents());
+            incoming.add(credit);
+        }
+
+        Transaction removed = incoming.remove(4);
+        index.remove(removed, removed.calculateCents());
+        assertFalse(index.contains(removed));
+        assertTrue(index.contains(incoming.get(4)));
+
+        assertEquals(incoming, index.byType(true));
+        assertEquals(incoming.subList(3, 7), index.byType(true, 3, 4));
+        assertEquals(incoming.subList(7, 9), index.byType(true, 7, 10));
+        assertEquals(List.of(), index.byType(true, 9, 5));
+        assertEquals(List.of(), index.byType(true, 0, 0));
+        assertEquals(10, index.byType(false, 0, Integer.MAX_VALUE).size());
+        assertEquals(9, index.count(true));
+    }
+}
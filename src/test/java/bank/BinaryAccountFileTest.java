@@ -0,0 +1,54 @@
+package bank;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Prüft, dass {@link BinaryAccountFile} die Datei nach dem Lesen freigibt.
+ */
+class BinaryAccountFileTest {
+
+    @TempDir
+    Path dir;
+
+    private static final List<Transaction> TRANSACTIONS = List.of(
+            new Payment("01.01.2024", 100, "Einzahlung", 0.05, 0.1),
+            new IncomingTransfer("02.01.2024", 20, "Gehalt", "firma", "anna"),
+            new OutgoingTransfer("03.01.2024", 5.5, "Miete", "anna", "vermieter"));
+
+    @Test
+    void fileCanBeReplacedAndDeletedAfterReading() throws Exception {
+        Path file = dir.resolve("anna.bank");
+        BinaryAccountFile.write(file, TRANSACTIONS);
+
+        BinaryAccountFile read = BinaryAccountFile.open(file);
+        assertEquals(TRANSACTIONS, read.toList());
+
+        // Ersetzen wie in writeSnapshot: die gelesenen Datensätze bleiben gültig
+        Path temp = dir.resolve("anna.bank.tmp");
+        BinaryAccountFile.write(temp, TRANSACTIONS.subList(0, 1));
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        assertEquals(TRANSACTIONS, read.toList());
+        assertEquals(TRANSACTIONS.subList(0, 1), BinaryAccountFile.open(file).toList());
+
+        Files.delete(file);
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void converterDeletesSourceAfterReading() throws Exception {
+        BinaryAccountFile.write(dir.resolve("anna.bank"), TRANSACTIONS);
+
+        assertEquals(1, StorageConverter.convert(dir, StorageFormat.BINARY, StorageFormat.JSON));
+        assertFalse(Files.exists(dir.resolve("anna.bank")));
+        assertEquals(TRANSACTIONS, StorageFormat.JSON.read(dir.resolve("anna.json")));
+    }
+}
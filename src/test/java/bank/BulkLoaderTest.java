@@ -0,0 +1,129 @@
+package bank;
+
+import bank.metrics.BankMetrics;
+import bank.metrics.MetricsRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.StringReader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Import über den {@link BulkLoader}: Zeilennummern der Ablehnungen, CSV-Besonderheiten und ein
+ * {@code addTransactions} (also ein Schreibvorgang) je Konto und Stapel.
+ */
+class BulkLoaderTest {
+
+    @TempDir
+    Path dir;
+
+    /** Konten der {@code addTransactions}-Aufrufe in Aufrufreihenfolge. */
+    private final List<String> batchCalls = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * Reicht alle Aufrufe an die Bank weiter und merkt sich das Konto jedes {@code addTransactions}.
+     */
+    private Bank recording(Bank bank) {
+        return (Bank) Proxy.newProxyInstance(Bank.class.getClassLoader(), new Class<?>[]{Bank.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("addTransactions")) {
+                        batchCalls.add((String) args[0]);
+                    }
+                    try {
+                        return method.invoke(bank, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getCause();
+                    }
+                });
+    }
+
+    private static List<Long> lineNumbers(ImportResult result) {
+        List<Long> lines = new ArrayList<>();
+        for (ImportResult.Rejection rejection : result.rejections()) {
+            lines.add(rejection.position());
+        }
+        Collections.sort(lines);
+        return lines;
+    }
+
+    @Test
+    void csvImportReportsRejectedLinesAndWritesEachAccountOncePerBatch() throws Exception {
+        MetricsRegistry metrics = new MetricsRegistry();
+        BankOptions options = new BankOptions();
+        options.setMetrics(metrics);
+        PrivateBank bank = new PrivateBank("Bank", 0, 0, dir.toString(), options);
+
+        String csv = """
+                konto;typ;datum;betrag;beschreibung;sender;empfaenger
+                a;Payment;01.01.2024;"1.234,56";"Miete ""Mai\""";;
+                b;IncomingTransfer;02.01.2024;10,5;"Lohn; Januar";Firma;b
+                a;Payment;01.01.2024;"1.234,56";"Miete ""Mai\""";;
+                a;Gutschrift;03.01.2024;5;unbekannt;;
+                b;Transfer;03.01.2024
+                b;OutgoingTransfer;04.01.2024;-3;negativ;b;x
+                a;Payment;05.01.2024;2.5;Zins;;
+                b;IncomingTransfer;02.01.2024;10,5;"Lohn; Januar";Firma;b
+                """;
+        // Stapel 1 endet mit Zeile 8 (vier gepufferte Transaktionen), Stapel 2 mit dem Ende der Eingabe
+        ImportResult result = new BulkLoader(recording(bank), 4).loadCsv(new StringReader(csv));
+
+        assertEquals(3, result.accepted());
+        // Kopfzeile erkannt; Duplikat im selben (4) bzw. im nächsten Stapel (9), unbekannter Typ (5),
+        // zu kurz (6), negativer Transfer (7)
+        assertEquals(List.of(4L, 5L, 6L, 7L, 9L), lineNumbers(result));
+        // Stapel 1: a (Zeilen 2, 4, 8) und b (Zeile 3); Stapel 2: b (Zeile 9)
+        assertEquals(List.of("a", "b", "b"), batchCalls);
+
+        Transaction rent = bank.getTransactions("a").get(0);
+        assertEquals("Miete \"Mai\"", rent.getDescription());
+        assertEquals(123456, rent.getAmountCents());
+        assertEquals(250, bank.getTransactions("a").get(1).getAmountCents());
+        assertEquals("Lohn; Januar", bank.getTransactions("b").get(0).getDescription());
+        assertEquals(1050, bank.getAccountBalanceCents("b"));
+
+        // Ein gemessener Stapel je Konto und Aufruf, keine Einzelbuchungen
+        assertEquals(3, metrics.snapshot(BankMetrics.Operation.ADD_TRANSACTIONS).count());
+        assertEquals(0, metrics.snapshot(BankMetrics.Operation.ADD_TRANSACTION).count());
+        assertEquals(3, metrics.count(BankMetrics.Counter.BATCHED_TRANSACTIONS));
+        bank.close();
+
+        PrivateBank reopened = new PrivateBank("Bank", 0, 0, dir.toString());
+        assertEquals(123456 + 250, reopened.getAccountBalanceCents("a"));
+        assertEquals(1050, reopened.getAccountBalanceCents("b"));
+        reopened.close();
+    }
+
+    @Test
+    void ndjsonImportReportsRejectedLines() throws Exception {
+        PrivateBank bank = new PrivateBank("Bank", 0, 0, dir.toString());
+        bank.createAccount("a");
+
+        String ndjson = """
+                {"ACCOUNT":"a","TRANSACTION":{"CLASSNAME":"Payment","INSTANCE":{"date":"2024-01-01","amountCents":100,"description":"eins"}}}
+                {"ACCOUNT":"a","TRANSACTION":{"CLASSNAME":"Payment","INSTANCE":{"date":"2024-01-01","amountCents":100,"description":"eins"}}}
+                {kaputt
+
+                {"ACCOUNT":"b","TRANSACTION":{"CLASSNAME":"IncomingTransfer","INSTANCE":{"date":"2024-01-02","amountCents":200,"description":"zwei","sender":"x","recipient":"b"}}}
+                {"TRANSACTION":{"CLASSNAME":"Payment","INSTANCE":{"date":"2024-01-03","amountCents":300,"description":"ohne Konto"}}}
+                {"ACCOUNT":"a","TRANSACTION":{"CLASSNAME":"Unbekannt","INSTANCE":{"date":"2024-01-04","amountCents":400}}}
+                {"ACCOUNT":"b","TRANSACTION":{"CLASSNAME":"IncomingTransfer","INSTANCE":{"date":"2024-01-02","amountCents":200,"description":"zwei","sender":"x","recipient":"b"}}}
+                """;
+        ImportResult result = new BulkLoader(recording(bank), 2).loadNdjson(new StringReader(ndjson));
+
+        assertEquals(2, result.accepted());
+        // Duplikate innerhalb eines Stapels (2, 8), unlesbar bzw. unbekannter Typ (3, 7), Konto fehlt (6)
+        assertEquals(List.of(2L, 3L, 6L, 7L, 8L), lineNumbers(result));
+        // Stapel 1: a (Zeilen 1, 2); Stapel 2: b (Zeilen 5, 8, b wird angelegt); leere Zeile übersprungen
+        assertEquals(List.of("a", "b"), batchCalls);
+        assertEquals(100, bank.getAccountBalanceCents("a"));
+        assertEquals(200, bank.getAccountBalanceCents("b"));
+        bank.close();
+    }
+}
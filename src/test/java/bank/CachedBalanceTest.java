@@ -0,0 +1,121 @@
+package bank;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Prüft den zwischengespeicherten Kontostand von {@link PrivateBank} und {@link PrivateBankAlt}
+ * gegen eine vollständige Neuberechnung über {@code calculate()}.
+ */
+class CachedBalanceTest {
+
+    private static final String ACCOUNT = "anna";
+
+    @TempDir
+    Path dir;
+
+    /** Neuberechnung wie in der ursprünglichen {@code PrivateBank#getAccountBalance}. */
+    private static long recompute(Bank bank, String account) {
+        long cents = 0;
+        for (Transaction transaction : bank.getTransactions(account)) {
+            cents += Money.toCents(transaction.calculate());
+        }
+        return cents;
+    }
+
+    /** Neuberechnung wie in der ursprünglichen {@code PrivateBankAlt#getAccountBalance} (Sender/Empfänger). */
+    private static long recomputeAlt(Bank bank, String account) {
+        long cents = 0;
+        for (Transaction transaction : bank.getTransactions(account)) {
+            if (transaction instanceof Payment) {
+                cents += Money.toCents(transaction.calculate());
+            } else if (transaction instanceof Transfer transfer) {
+                if (account.equals(transfer.getSender())) {
+                    cents -= Money.toCents(transfer.calculate());
+                } else if (account.equals(transfer.getRecipient())) {
+                    cents += Money.toCents(transfer.calculate());
+                }
+            }
+        }
+        return cents;
+    }
+
+    private static List<Transaction> sampleTransactions() {
+        return List.of(
+                new Payment("01.01.2024", 1000, "Einzahlung", 0, 0),
+                new Payment("02.01.2024", -250.5, "Auszahlung", 0, 0),
+                // Sender ist das Konto selbst
+                new OutgoingTransfer("03.01.2024", 99.99, "Miete", ACCOUNT, "vermieter"),
+                new IncomingTransfer("04.01.2024", 12.34, "Rückgabe", ACCOUNT, "kasse"),
+                // Empfänger ist das Konto
+                new IncomingTransfer("05.01.2024", 500, "Gehalt", "firma", ACCOUNT),
+                new OutgoingTransfer("06.01.2024", 7.5, "Gebühr", "bank", ACCOUNT),
+                // Weder Sender noch Empfänger
+                new IncomingTransfer("07.01.2024", 3, "Fremd", "x", "y"));
+    }
+
+    @Test
+    void privateBankBalanceMatchesRecomputeAfterAddRemoveAndReload() throws Exception {
+        PrivateBank bank = new PrivateBank("Bank", 0.05, 0.1, dir.toString());
+        bank.createAccount(ACCOUNT);
+        for (Transaction transaction : sampleTransactions()) {
+            bank.addTransaction(ACCOUNT, transaction);
+            assertEquals(recompute(bank, ACCOUNT), bank.getAccountBalanceCents(ACCOUNT));
+        }
+
+        bank.removeTransaction(ACCOUNT, bank.getTransactions(ACCOUNT).get(2));
+        bank.removeTransaction(ACCOUNT, bank.getTransactions(ACCOUNT).get(0));
+        assertEquals(recompute(bank, ACCOUNT), bank.getAccountBalanceCents(ACCOUNT));
+        long before = bank.getAccountBalanceCents(ACCOUNT);
+        bank.close();
+
+        PrivateBank reloaded = new PrivateBank("Bank", 0.05, 0.1, dir.toString());
+        assertEquals(before, reloaded.getAccountBalanceCents(ACCOUNT));
+        assertEquals(recompute(reloaded, ACCOUNT), reloaded.getAccountBalanceCents(ACCOUNT));
+        reloaded.close();
+    }
+
+    @Test
+    void privateBankAltBalanceMatchesRecomputeAfterAddRemoveAndReload() throws Exception {
+        PrivateBankAlt bank = new PrivateBankAlt("Bank", 0.05, 0.1, dir.toString());
+        bank.createAccount(ACCOUNT);
+        for (Transaction transaction : sampleTransactions()) {
+            bank.addTransaction(ACCOUNT, transaction);
+            assertEquals(recomputeAlt(bank, ACCOUNT), bank.getAccountBalanceCents(ACCOUNT));
+        }
+
+        bank.removeTransaction(ACCOUNT, bank.getTransactions(ACCOUNT).get(2));
+        bank.removeTransaction(ACCOUNT, bank.getTransactions(ACCOUNT).get(4));
+        assertEquals(recomputeAlt(bank, ACCOUNT), bank.getAccountBalanceCents(ACCOUNT));
+        long before = bank.getAccountBalanceCents(ACCOUNT);
+        bank.close();
+
+        PrivateBankAlt reloaded = new PrivateBankAlt("Bank", 0.05, 0.1, dir.toString());
+        assertEquals(before, reloaded.getAccountBalanceCents(ACCOUNT));
+        assertEquals(recomputeAlt(reloaded, ACCOUNT), reloaded.getAccountBalanceCents(ACCOUNT));
+        reloaded.close();
+    }
+
+    @Test
+    void lazyReloadKeepsBalance() throws Exception {
+        PrivateBank bank = new PrivateBank("Bank", 0.05, 0.1, dir.toString());
+        bank.createAccount(ACCOUNT);
+        for (Transaction transaction : sampleTransactions()) {
+            bank.addTransaction(ACCOUNT, transaction);
+        }
+        long before = bank.getAccountBalanceCents(ACCOUNT);
+        bank.close();
+
+        BankOptions options = new BankOptions();
+        options.setLazyLoading(true);
+        PrivateBank lazy = new PrivateBank("Bank", 0.05, 0.1, dir.toString(), options);
+        assertEquals(before, lazy.getAccountBalanceCents(ACCOUNT));
+        assertEquals(recompute(lazy, ACCOUNT), lazy.getAccountBalanceCents(ACCOUNT));
+        lazy.close();
+    }
+}
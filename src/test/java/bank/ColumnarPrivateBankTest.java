@@ -0,0 +1,80 @@
+package bank;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * {@link ColumnarPrivateBank} auf demselben Verzeichnis wie {@link PrivateBank}.
+ */
+class ColumnarPrivateBankTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void opensPrivateBankDirectoryWithRatesAndPendingTransfer() throws Exception {
+        PrivateBank bank = new PrivateBank("Bank", 0.05, 0.1, dir.toString());
+        bank.createAccount("a", List.of(new Payment("01.03.2024", 100, "Einzahlung")));
+        bank.createAccount("b");
+        bank.setInterestRates(LocalDate.of(2024, 1, 1), 0.2, 0.1);
+        bank.close();
+
+        // Nur der Commit-Datensatz einer Überweisung steht auf dem Datenträger
+        Transaction outgoing = new OutgoingTransfer("01.04.2024", 40, "Miete", "a", "b");
+        Transaction incoming = new IncomingTransfer("01.04.2024", 40, "Miete", "a", "b");
+        new TransferLog(dir.toString()).commit("a", "b", outgoing, incoming);
+
+        // Andere Zinsen im Konstruktor ändern nichts an der bestehenden Bank
+        ColumnarPrivateBank columnar = new ColumnarPrivateBank("Bank", 0.5, 0.5, dir.toString());
+        assertEquals(8000 - 4000, columnar.getAccountBalanceCents("a"));
+        assertEquals(4000, columnar.getAccountBalanceCents("b"));
+        assertFalse(Files.exists(dir.resolve(TransferLog.FILE_NAME)));
+
+        // Neue Zahlungen erhalten die Zinsen der gespeicherten Tabelle an ihrem Datum
+        columnar.addTransaction("b", new Payment("01.05.2024", 100, "Einzahlung"));
+        assertEquals(4000 + 8000, columnar.getAccountBalanceCents("b"));
+
+        // Kompaktierung im Spaltenformat behält den Bezug zur Zinstabelle
+        columnar.setJournalCompactionThreshold(1);
+        columnar.addTransaction("a", new Payment("02.03.2024", 100, "Einzahlung"));
+        columnar.close();
+
+        PrivateBank reopened = new PrivateBank("Bank", 0.05, 0.1, dir.toString());
+        reopened.setInterestRates(LocalDate.of(2024, 1, 1), 0.1, 0.1);
+        assertEquals(9000 + 9000 - 4000, reopened.getAccountBalanceCents("a"));
+        assertEquals(4000 + 9000, reopened.getAccountBalanceCents("b"));
+        reopened.close();
+    }
+
+    @Test
+    void everyModeKeepsAllChangesAcrossReopen() throws Exception {
+        for (Durability durability : Durability.values()) {
+            String directory = dir.resolve(durability.name()).toString();
+            BankOptions options = new BankOptions();
+            options.setDurability(durability);
+            options.setFlushIntervalMillis(60_000);
+
+            ColumnarPrivateBank bank = new ColumnarPrivateBank("Bank", 0, 0, directory, options);
+            bank.createAccount("a");
+            bank.setJournalCompactionThreshold(4);
+            for (int i = 0; i < 20; i++) {
+                bank.addTransaction("a", new IncomingTransfer("01.01.2024", 1, "t" + i, "x", "a"));
+            }
+            bank.removeTransaction("a", bank.getTransactions("a").get(0));
+            bank.close();
+
+            ColumnarPrivateBank reopened = new ColumnarPrivateBank("Bank", 0, 0, directory, options);
+            assertEquals(19, reopened.getTransactions("a").size(), durability.name());
+            assertEquals(1900, reopened.getAccountBalanceCents("a"), durability.name());
+            reopened.close();
+        }
+    }
+}
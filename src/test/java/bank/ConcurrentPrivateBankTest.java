@@ -0,0 +1,73 @@
+package bank;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Lesende und schreibende Zugriffe auf dasselbe Konto gleichzeitig.
+ */
+class ConcurrentPrivateBankTest {
+
+    private static final String ACCOUNT = "anna";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readersSeeConsistentStateWhileWriting() throws Exception {
+        ConcurrentPrivateBank bank = new ConcurrentPrivateBank("Bank", 0.05, 0.1, dir.toString());
+        bank.createAccount(ACCOUNT);
+
+        int writes = 2000;
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try {
+            Future<?> writer = pool.submit(() -> {
+                for (int i = 0; i < writes; i++) {
+                    bank.addTransaction(ACCOUNT, new IncomingTransfer("01.01.2024", 1, "t" + i, "x", ACCOUNT));
+                }
+                done.set(true);
+                return null;
+            });
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 2; r++) {
+                readers.add(pool.submit(() -> {
+                    while (!done.get()) {
+                        // Liste und Kontostand stammen aus getrennten Abfragen; beide müssen für sich stimmig sein
+                        List<Transaction> transactions = bank.getTransactions(ACCOUNT);
+                        assertTrue(transactions.size() <= writes);
+                        TransactionPage page = bank.getTransactionsSortedPage(ACCOUNT, false, 0, 10);
+                        assertTrue(page.transactions().size() <= 10);
+                        long balance = bank.getAccountBalanceCents(ACCOUNT);
+                        assertEquals(0, balance % 100);
+                        assertTrue(balance >= transactions.size() * 100L);
+                    }
+                    return null;
+                }));
+            }
+            writer.get(60, TimeUnit.SECONDS);
+            for (Future<?> reader : readers) {
+                reader.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(writes, bank.getTransactions(ACCOUNT).size());
+        assertEquals(writes * 100L, bank.getAccountBalanceCents(ACCOUNT));
+        assertEquals(writes * 100L, bank.getTransactionSumCents(ACCOUNT, true));
+        bank.close();
+    }
+}
@@ -0,0 +1,115 @@
+package bank;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Kontostände nach Zinsänderungen und nach dem erneuten Öffnen einer Bank.
+ */
+class InterestRateChangeTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void accountsCreatedAfterRateChangeFollowLaterChanges() throws Exception {
+        ConcurrentPrivateBank bank = new ConcurrentPrivateBank("Bank", 0.05, 0.1, dir.toString());
+        bank.setInterestRates(LocalDate.of(2024, 1, 1), 0.1, 0.1);
+
+        bank.createAccount("a");
+        bank.addTransaction("a", new Payment("01.03.2024", 100, "Einzahlung"));
+        bank.createAccount("b", List.of(new Payment("01.03.2024", 100, "Einzahlung")));
+        assertEquals(9000, bank.getAccountBalanceCents("a"));
+        assertEquals(9000, bank.getAccountBalanceCents("b"));
+
+        bank.setInterestRates(LocalDate.of(2024, 2, 1), 0.2, 0.1);
+        assertEquals(8000, bank.getAccountBalanceCents("a"));
+        assertEquals(8000, bank.getAccountBalanceCents("b"));
+        assertEquals(8000, bank.getTransactionSumCents("b", true));
+        bank.close();
+    }
+
+    @Test
+    void rateChangeRevaluesOnlyAccessedAccounts() throws Exception {
+        ConcurrentPrivateBank bank = new ConcurrentPrivateBank("Bank", 0.05, 0.1, dir.toString());
+        bank.createAccount("a", List.of(new Payment("01.03.2024", 100, "Einzahlung")));
+        bank.createAccount("b", List.of(new Payment("01.03.2024", 100, "Einzahlung")));
+        bank.createAccount("c", List.of(new Payment("01.01.2023", 100, "Einzahlung")));
+
+        bank.setInterestRates(LocalDate.of(2024, 1, 1), 0.2, 0.1);
+        // Kein Index wird sofort neu aufgebaut; nicht betroffene Konten bleiben gültig
+        assertFalse(bank.isIndexCurrent("a"));
+        assertFalse(bank.isIndexCurrent("b"));
+        assertTrue(bank.isIndexCurrent("c"));
+
+        assertEquals(8000, bank.getAccountBalanceCents("a"));
+        assertTrue(bank.isIndexCurrent("a"));
+        assertFalse(bank.isIndexCurrent("b"));
+
+        assertEquals(8000, bank.getTransactionSumCents("b", true));
+        assertTrue(bank.isIndexCurrent("b"));
+        assertEquals(9500, bank.getAccountBalanceCents("c"));
+        bank.close();
+    }
+
+    @Test
+    void copySeesRateChangesOfTheOriginal() throws Exception {
+        PrivateBank bank = new PrivateBank("Bank", 0.05, 0.1, dir.toString());
+        bank.createAccount("a", List.of(new Payment("01.03.2024", 100, "Einzahlung")));
+        PrivateBank copy = new PrivateBank(bank);
+
+        bank.setInterestRates(LocalDate.of(2024, 1, 1), 0.2, 0.1);
+        assertEquals(8000, bank.getAccountBalanceCents("a"));
+        assertEquals(8000, copy.getAccountBalanceCents("a"));
+        bank.close();
+    }
+
+    @Test
+    void reopeningWithOtherRatesKeepsBalances() throws Exception {
+        for (StorageFormat format : StorageFormat.values()) {
+            Path bankDir = dir.resolve(format.name());
+            BankOptions options = new BankOptions();
+            options.setStorageFormat(format);
+
+            PrivateBank bank = new PrivateBank("Bank", 0.05, 0.1, bankDir.toString(), options);
+            bank.createAccount("a", List.of(new Payment("01.03.2024", 100, "Einzahlung")));
+            bank.setInterestRates(LocalDate.of(2024, 6, 1), 0.2, 0.1);
+            bank.addTransaction("a", new Payment("01.07.2024", 100, "Einzahlung"));
+            assertEquals(9500 + 8000, bank.getAccountBalanceCents("a"));
+            bank.close();
+
+            PrivateBank reopened = new PrivateBank("Bank", 0.3, 0.3, bankDir.toString(), options);
+            assertEquals(9500 + 8000, reopened.getAccountBalanceCents("a"), format.name());
+            // Die Zahlungen folgen weiterhin der Zinstabelle
+            reopened.setInterestRates(LocalDate.of(2024, 1, 1), 0.1, 0.1);
+            assertEquals(9000 + 8000, reopened.getAccountBalanceCents("a"), format.name());
+            reopened.close();
+        }
+    }
+
+    @Test
+    void storedPaymentRatesWithoutMarkerStayDetached() throws Exception {
+        // Kontodatei eines älteren Stands: Zinsen je Zahlung, ohne "bankRates"
+        Files.writeString(dir.resolve("a.json"), """
+                [{"CLASSNAME": "Payment", "INSTANCE": {"incomingInterest": 0.5, "outgoingInterest": 0.5,
+                  "date": "2024-03-01", "amountCents": 10000, "description": "Einzahlung"}}]
+                """, StandardCharsets.UTF_8);
+
+        PrivateBank bank = new PrivateBank("Bank", 0.05, 0.1, dir.toString());
+        assertEquals(5000, bank.getAccountBalanceCents("a"));
+        assertFalse(((Payment) bank.getTransactions("a").get(0)).usesRateTable());
+        bank.setInterestRates(LocalDate.of(2024, 1, 1), 0.2, 0.1);
+        assertEquals(5000, bank.getAccountBalanceCents("a"));
+        bank.close();
+    }
+}
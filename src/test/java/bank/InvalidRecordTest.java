@@ -0,0 +1,160 @@
+package bank;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Kontodateien mit einzelnen ungültigen Datensätzen bzw. unlesbare Kontodateien.
+ */
+class InvalidRecordTest {
+
+    @TempDir
+    Path dir;
+
+    private static String payment(String date, long cents, String description) {
+        return "{\"CLASSNAME\": \"Payment\", \"INSTANCE\": {\"incomingInterest\": 0, \"outgoingInterest\": 0,"
+                + " \"date\": \"" + date + "\", \"amountCents\": " + cents + ", \"description\": \"" + description + "\"}}";
+    }
+
+    @Test
+    void invalidDateRejectsOnlyThatRecord() throws Exception {
+        Path file = dir.resolve("a.json");
+        Files.writeString(file, "[" + payment("2024-01-01", 100, "eins") + ","
+                + payment("31.02.2024", 200, "kaputt") + ","
+                + payment("2024-01-03", 300, "drei") + "]", StandardCharsets.UTF_8);
+        byte[] original = Files.readAllBytes(file);
+
+        PrivateBank bank = new PrivateBank("Bank", 0, 0, dir.toString());
+        assertEquals(2, bank.getTransactions("a").size());
+        assertEquals(400, bank.getAccountBalanceCents("a"));
+        assertEquals(1, bank.getLastLoadReport().rejectedRecords());
+        assertEquals(1, bank.getLastLoadReport().problems().size());
+        assertTrue(bank.getLastLoadReport().problems().get(0).startsWith("a.json: "));
+        // Original bleibt gesichert, bevor die Datei ohne den Datensatz neu geschrieben wird
+        assertArrayEquals(original, Files.readAllBytes(dir.resolve("a.json" + AccountFiles.REJECTED_SUFFIX)));
+
+        bank.addTransaction("a", new Payment("04.01.2024", 4, "vier"));
+        bank.close();
+        PrivateBank reopened = new PrivateBank("Bank", 0, 0, dir.toString());
+        assertEquals(800, reopened.getAccountBalanceCents("a"));
+        reopened.close();
+    }
+
+    @Test
+    void unknownBinaryRecordTypeRejectsOnlyThatRecord() throws Exception {
+        Path file = dir.resolve("a.bank");
+        BinaryAccountFile.write(file, List.of(
+                new Payment("01.01.2024", 1, "eins"),
+                new Payment("02.01.2024", 2, "zwei")));
+        // Typkennung des ersten Datensatzes (direkt hinter dem 32-Byte-Kopf) zerstören
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{99}), 32);
+        }
+
+        BankOptions options = new BankOptions();
+        options.setStorageFormat(StorageFormat.BINARY);
+        PrivateBank bank = new PrivateBank("Bank", 0, 0, dir.toString(), options);
+        assertEquals(200, bank.getAccountBalanceCents("a"));
+        assertEquals(1, bank.getLastLoadReport().rejectedRecords());
+        bank.close();
+    }
+
+    @Test
+    void unreadableFileIsSetAsideAndOtherAccountsLoad() throws Exception {
+        for (boolean parallel : new boolean[]{false, true}) {
+            Path bankDir = dir.resolve(parallel ? "parallel" : "sequential");
+            Files.createDirectories(bankDir);
+            Path broken = bankDir.resolve("a.json");
+            Files.writeString(broken, "[" + payment("2024-01-01", 100, "eins") + ", {", StandardCharsets.UTF_8);
+            Files.writeString(bankDir.resolve("a.journal"), "", StandardCharsets.UTF_8);
+            Files.writeString(bankDir.resolve("b.json"), "[" + payment("2024-01-02", 200, "zwei") + "]", StandardCharsets.UTF_8);
+            byte[] original = Files.readAllBytes(broken);
+
+            BankOptions options = new BankOptions();
+            if (parallel) {
+                options.useParallelLoading();
+            }
+            PrivateBank bank = new PrivateBank("Bank", 0, 0, bankDir.toString(), options);
+            assertEquals(List.of("b"), bank.getAllAccounts());
+            assertEquals(200, bank.getAccountBalanceCents("b"));
+            assertEquals(1, bank.getLastLoadReport().accounts());
+            assertEquals(1, bank.getLastLoadReport().failedFiles());
+            assertTrue(bank.getLastLoadReport().problems().get(0).contains("a.json"));
+
+            // Unverändert beiseitegelegt, damit sie weder leer überschrieben noch erneut gelesen wird
+            assertFalse(Files.exists(broken));
+            assertFalse(Files.exists(bankDir.resolve("a.journal")));
+            assertTrue(Files.exists(bankDir.resolve("a.journal" + AccountFiles.REJECTED_SUFFIX)));
+            assertArrayEquals(original, Files.readAllBytes(bankDir.resolve("a.json" + AccountFiles.REJECTED_SUFFIX)));
+
+            // Das Konto kann neu angelegt werden
+            bank.createAccount("a");
+            bank.close();
+            assertEquals(0, new PrivateBank("Bank", 0, 0, bankDir.toString()).getLastLoadReport().failedFiles());
+        }
+    }
+
+    @Test
+    void skippedJournalAndTransferLogLinesAreReported() throws Exception {
+        for (boolean lazy : new boolean[]{false, true}) {
+            Path bankDir = dir.resolve(lazy ? "lazy" : "eager");
+            Files.createDirectories(bankDir);
+            Files.writeString(bankDir.resolve("a.json"), "[" + payment("2024-01-01", 100, "eins") + "]", StandardCharsets.UTF_8);
+            Files.writeString(bankDir.resolve("a.journal"), "{\"OP\": \"ADD\", \"TRANS", StandardCharsets.UTF_8);
+            Files.writeString(bankDir.resolve(TransferLog.FILE_NAME), "\n{kaputt\n", StandardCharsets.UTF_8);
+
+            BankOptions options = new BankOptions();
+            options.setLazyLoading(lazy);
+            PrivateBank bank = new PrivateBank("Bank", 0, 0, bankDir.toString(), options);
+            List<String> problems = bank.getLastLoadReport().problems();
+            assertEquals(lazy ? 1 : 2, problems.size());
+            assertTrue(problems.get(problems.size() - 1)
+                    .startsWith("Überweisungsprotokoll " + TransferLog.FILE_NAME + " Zeile 2: "));
+
+            // Beim verzögerten Laden kommen die Meldungen des Kontos beim ersten Zugriff hinzu
+            assertEquals(100, bank.getAccountBalanceCents("a"));
+            problems = bank.getLastLoadReport().problems();
+            assertEquals(2, problems.size());
+            assertTrue(problems.stream().anyMatch(problem -> problem.startsWith("Journal a.journal Zeile 1: ")));
+            bank.close();
+        }
+    }
+
+    @Test
+    void lazyLoadingKeepsUnreadableAccountUntouched() throws Exception {
+        Path file = dir.resolve("a.json");
+        Files.writeString(file, "[" + payment("2024-01-01", 100, "eins") + ", {", StandardCharsets.UTF_8);
+        byte[] original = Files.readAllBytes(file);
+
+        // Beim verzögerten Laden bleibt das Konto ein nicht ladbarer Eintrag und wird nicht leer übernommen
+        BankOptions options = new BankOptions();
+        options.setLazyLoading(true);
+        PrivateBank lazy = new PrivateBank("Bank", 0, 0, dir.toString(), options);
+        assertThrows(RuntimeException.class, () -> lazy.addTransaction("a", new Payment("02.01.2024", 1, "neu")));
+        assertArrayEquals(original, Files.readAllBytes(file));
+        lazy.close();
+    }
+
+    @Test
+    void strictReadRejectsInvalidRecords() throws Exception {
+        Path file = dir.resolve("a.json");
+        Files.writeString(file, "[" + payment("31.02.2024", 200, "kaputt") + "]", StandardCharsets.UTF_8);
+        // Umwandeln löscht die Quelle und muss deshalb jeden Datensatz lesen können
+        assertThrows(IOException.class, () -> StorageFormat.JSON.read(file));
+    }
+}
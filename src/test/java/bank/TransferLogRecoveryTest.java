@@ -0,0 +1,66 @@
+package bank;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Absturz zwischen dem Protokollieren einer Überweisung und dem Schreiben ihrer Buchungen.
+ */
+class TransferLogRecoveryTest {
+
+    @TempDir
+    Path dir;
+
+    private static long count(Bank bank, String account, Transaction transaction) {
+        return bank.getTransactions(account).stream().filter(transaction::equals).count();
+    }
+
+    @Test
+    void reopeningBooksBothLegsExactlyOnce() throws Exception {
+        PrivateBank bank = new PrivateBank("Bank", 0.05, 0.1, dir.toString());
+        bank.createAccount("a");
+        bank.createAccount("b");
+        bank.close();
+
+        // Nur der Commit-Datensatz steht auf dem Datenträger, keine der beiden Buchungen
+        Transaction outgoing = new OutgoingTransfer("01.02.2024", 40, "Miete", "a", "b");
+        Transaction incoming = new IncomingTransfer("01.02.2024", 40, "Miete", "a", "b");
+        new TransferLog(dir.toString()).commit("a", "b", outgoing, incoming);
+
+        PrivateBank reopened = new PrivateBank("Bank", 0.05, 0.1, dir.toString());
+        assertEquals(1, reopened.getRecoveredTransfers());
+        assertEquals(1, count(reopened, "a", outgoing));
+        assertEquals(1, count(reopened, "b", incoming));
+        assertEquals(-4000, reopened.getAccountBalanceCents("a"));
+        assertEquals(4000, reopened.getAccountBalanceCents("b"));
+        assertFalse(Files.exists(dir.resolve(TransferLog.FILE_NAME)));
+        reopened.close();
+
+        // Erneutes Öffnen bucht nichts doppelt
+        PrivateBank again = new PrivateBank("Bank", 0.05, 0.1, dir.toString());
+        assertEquals(0, again.getRecoveredTransfers());
+        assertEquals(1, count(again, "a", outgoing));
+        assertEquals(1, count(again, "b", incoming));
+        again.close();
+    }
+
+    @Test
+    void completedTransfersDoNotGrowTheLog() throws Exception {
+        PrivateBank bank = new PrivateBank("Bank", 0.05, 0.1, dir.toString());
+        bank.createAccount("a");
+        bank.createAccount("b");
+        for (int i = 0; i < 5; i++) {
+            bank.transfer("a", "b", 10, "01.03.2024", "t" + i);
+            assertFalse(Files.exists(dir.resolve(TransferLog.FILE_NAME)));
+        }
+        assertEquals(-5000, bank.getAccountBalanceCents("a"));
+        assertEquals(5000, bank.getAccountBalanceCents("b"));
+        bank.close();
+    }
+}
@@ -0,0 +1,212 @@
+package bank;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Schreibmodi der {@link PrivateBank} und der {@link WriteBehindWriter} mit einem Ziel im Speicher.
+ */
+class WriteBehindWriterTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Merkt sich alle erfolgreich geschriebenen Datensätze; optional blockierend oder fehlschlagend.
+     */
+    private static class RecordingStore implements WriteBehindWriter.Store {
+        final List<String> written = Collections.synchronizedList(new ArrayList<>());
+        final List<Boolean> forced = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger failuresLeft = new AtomicInteger();
+        volatile CountDownLatch entered;
+        volatile CountDownLatch release;
+
+        @Override
+        public void writeSnapshot(String account, List<Transaction> transactions, boolean force) {
+            written.add(account + ":snapshot");
+            forced.add(force);
+        }
+
+        @Override
+        public void appendJournal(String account, List<TransactionJournal.Entry> entries, boolean force)
+                throws IOException {
+            if (entered != null) {
+                entered.countDown();
+            }
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    throw new IOException(ex);
+                }
+            }
+            if (failuresLeft.getAndDecrement() > 0) {
+                throw new IOException("Datenträger voll");
+            }
+            for (TransactionJournal.Entry entry : entries) {
+                written.add(account + ":" + entry.transaction().getDescription());
+            }
+            forced.add(force);
+        }
+    }
+
+    private static TransactionJournal.Entry entry(String description) {
+        return new TransactionJournal.Entry(TransactionJournal.OP_ADD, new Payment("01.01.2024", 1, description));
+    }
+
+    private static BankOptions options(long intervalMillis, int capacity) {
+        BankOptions options = new BankOptions();
+        options.setFlushIntervalMillis(intervalMillis);
+        options.setMaxPendingChanges(capacity);
+        return options;
+    }
+
+    @Test
+    void flushAndCloseWriteEverythingQueued() throws Exception {
+        RecordingStore store = new RecordingStore();
+        // Langes Intervall: ohne flush/close würde nichts geschrieben
+        WriteBehindWriter writer = new WriteBehindWriter(store, Durability.WRITE_BEHIND, options(60_000, 100), "test");
+
+        writer.append("a", entry("1"));
+        writer.append("b", entry("2"));
+        assertTrue(store.written.isEmpty());
+        writer.flush();
+        assertEquals(List.of("a:1", "b:2"), store.written);
+
+        writer.append("a", entry("3"));
+        writer.snapshot("c", List.of());
+        writer.close();
+        assertEquals(List.of("a:1", "b:2", "a:3", "c:snapshot"), store.written);
+        assertFalse(store.forced.contains(true));
+        assertThrows(IllegalStateException.class, () -> writer.append("a", entry("4")));
+    }
+
+    @Test
+    void flushOfOneAccountLeavesOthersQueued() throws Exception {
+        RecordingStore store = new RecordingStore();
+        WriteBehindWriter writer = new WriteBehindWriter(store, Durability.WRITE_BEHIND, options(60_000, 100), "test");
+        AtomicInteger actions = new AtomicInteger();
+
+        writer.append("a", entry("1"));
+        writer.append("b", entry("2"));
+        writer.afterWrite(actions::incrementAndGet);
+        writer.append("a", entry("3"));
+        writer.flush("a");
+        assertEquals(List.of("a:1", "a:3"), store.written);
+        assertEquals(0, actions.get());
+        assertEquals(1, writer.journalSizeAfterWrite("b", 0));
+
+        // Konto ohne ausstehende Änderungen: kehrt sofort zurück
+        writer.flush("c");
+        writer.close();
+        assertEquals(List.of("a:1", "a:3", "b:2"), store.written);
+        assertEquals(1, actions.get());
+    }
+
+    @Test
+    void groupCommitForcesEveryTouchedFileBeforeReturning() throws Exception {
+        RecordingStore store = new RecordingStore();
+        WriteBehindWriter writer = new WriteBehindWriter(store, Durability.GROUP_COMMIT, options(60_000, 100), "test");
+
+        writer.append("a", entry("1"));
+        long sequence = writer.append("b", entry("2"));
+        writer.commit(sequence);
+        assertTrue(store.written.containsAll(List.of("a:1", "b:2")));
+        // je berührter Datei ein fsync
+        assertFalse(store.forced.isEmpty());
+        assertFalse(store.forced.contains(false));
+        writer.close();
+    }
+
+    @Test
+    void fullQueueBlocksUntilWriterCatchesUp() throws Exception {
+        RecordingStore store = new RecordingStore();
+        store.entered = new CountDownLatch(1);
+        store.release = new CountDownLatch(1);
+        WriteBehindWriter writer = new WriteBehindWriter(store, Durability.GROUP_COMMIT, options(1, 2), "test");
+
+        // Erster Durchgang hängt im Schreiber
+        writer.append("a", entry("1"));
+        assertTrue(store.entered.await(10, TimeUnit.SECONDS));
+
+        // Warteschlange füllen, der nächste Aufruf muss warten
+        writer.append("a", entry("2"));
+        writer.append("a", entry("3"));
+        CompletableFuture<Long> blocked = CompletableFuture.supplyAsync(() -> {
+            try {
+                return writer.append("a", entry("4"));
+            } catch (IOException ex) {
+                throw new RuntimeException(ex);
+            }
+        });
+        Thread.sleep(200);
+        assertFalse(blocked.isDone());
+
+        store.release.countDown();
+        writer.commit(blocked.get(10, TimeUnit.SECONDS));
+        assertEquals(List.of("a:1", "a:2", "a:3", "a:4"), store.written);
+        writer.close();
+    }
+
+    @Test
+    void failedWriteIsRequeuedAndNotLost() throws Exception {
+        RecordingStore store = new RecordingStore();
+        store.failuresLeft.set(1);
+        WriteBehindWriter writer = new WriteBehindWriter(store, Durability.WRITE_BEHIND, options(60_000, 100), "test");
+
+        writer.append("a", entry("1"));
+        assertThrows(IOException.class, writer::flush);
+        // Während des Fehlers hinterlegte Änderungen folgen den zurückgestellten
+        writer.append("a", entry("2"));
+
+        // flush() löst einen neuen Versuch aus, statt auf das Intervall zu warten
+        writer.flush();
+        assertEquals(List.of("a:1", "a:2"), store.written);
+        writer.close();
+    }
+
+    @Test
+    void everyModeKeepsAllChangesAcrossReopen() throws Exception {
+        for (Durability durability : Durability.values()) {
+            String directory = dir.resolve(durability.name()).toString();
+            BankOptions options = options(60_000, 3);
+            options.setDurability(durability);
+
+            PrivateBank bank = new PrivateBank("Bank", 0, 0, directory, options);
+            bank.createAccount("a");
+            for (int i = 0; i < 20; i++) {
+                bank.addTransaction("a", new Payment("01.01.2024", 1, "t" + i));
+            }
+            bank.removeTransaction("a", bank.getTransactions("a").get(0));
+            bank.flush();
+
+            // Nach flush() sieht eine zweite Bank auf demselben Verzeichnis alle Änderungen
+            PrivateBank reader = new PrivateBank("Bank", 0, 0, directory);
+            assertEquals(19, reader.getTransactions("a").size(), durability.name());
+            reader.close();
+
+            bank.addTransaction("a", new Payment("02.01.2024", 1, "nach flush"));
+            bank.close();
+
+            PrivateBank reopened = new PrivateBank("Bank", 0, 0, directory);
+            assertEquals(20, reopened.getTransactions("a").size(), durability.name());
+            assertEquals(2000, reopened.getAccountBalanceCents("a"), durability.name());
+            reopened.close();
+        }
+    }
+}